@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.benchmarks;
+
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.games.ClockEvaluator;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.rng.DealNumbers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of whole Clock deals. Clock has no decisions, so playing a deal
+ * out costs next to nothing and {@code shuffleAndPlay} mostly measures the
+ * numbered-deal shuffle; {@code play} is the evaluator on its own.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClockBenchmark {
+	private static final int DEALS = 1024;
+
+	final byte[][] decks = new byte[DEALS][Card.DECK_SIZE];
+	final byte[] cards = new byte[Card.DECK_SIZE];
+	long dealNumber;
+	int next;
+
+	@Setup
+	public void setUp() {
+		for (int i = 0; i < DEALS; i++)
+			DealNumbers.shuffle(GameVariant.CLOCK, i, decks[i]);
+	}
+
+	@Benchmark
+	public int play() {
+		return ClockEvaluator.cardsTurned(decks[next++ & (DEALS - 1)]);
+	}
+
+	@Benchmark
+	public int shuffleAndPlay() {
+		DealNumbers.shuffle(GameVariant.CLOCK, dealNumber++, cards);
+		return ClockEvaluator.cardsTurned(cards);
+	}
+}
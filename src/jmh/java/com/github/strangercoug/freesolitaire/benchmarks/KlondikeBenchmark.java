@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.benchmarks;
+
+import com.github.strangercoug.freesolitaire.enums.CardSuit;
+import com.github.strangercoug.freesolitaire.games.Klondike;
+import com.github.strangercoug.freesolitaire.games.KlondikeMoveGenerator;
+import com.github.strangercoug.freesolitaire.games.KlondikeState;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for Klondike legality checks on the list-based model and on
+ * {@link KlondikeState}. Each legality benchmark checks every column against
+ * every foundation, or every pair of columns; the move generation benchmarks
+ * list every legal move from the deal.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KlondikeBenchmark {
+	Klondike game;
+	KlondikeState state;
+	List<List<Card>> columns;
+	List<List<Card>> foundations;
+	KlondikeMoveGenerator generator = new KlondikeMoveGenerator(1);
+	int[] moves = new int[KlondikeMoveGenerator.MAX_MOVES];
+
+	@Setup
+	public void setUp() {
+		state = KlondikeState.deal(Deals.fixed(1, 42));
+		game = new Klondike();
+		state.applyTo(game);
+
+		// The game's piles are package-private, so rebuild the columns from the
+		// state. canPlayToFoundation works the same on any lists, but
+		// canMoveCards only checks face-down cards on the game's own columns,
+		// so it is measured through generateMovesLists instead.
+		columns = new ArrayList<>();
+		for (int col = 0; col < KlondikeState.COLUMNS; col++) {
+			List<Card> column = new ArrayList<>();
+			for (int pos = 0; pos < state.columnSize(col); pos++)
+				column.add(Card.fromIndex(state.cardAt(col, pos)));
+			columns.add(column);
+		}
+		foundations = new ArrayList<>();
+		for (int i = 0; i < CardSuit.values().length; i++)
+			foundations.add(new ArrayList<>());
+	}
+
+	@Benchmark
+	public int canPlayToFoundationLists() {
+		int legal = 0;
+		for (List<Card> column : columns) {
+			for (List<Card> foundation : foundations) {
+				if (game.canPlayToFoundation(column, foundation))
+					legal++;
+			}
+		}
+		return legal;
+	}
+
+	@Benchmark
+	public int canPlayToFoundationPacked() {
+		int legal = 0;
+		for (int col = 0; col < KlondikeState.COLUMNS; col++) {
+			if (state.canPlayToFoundation(col))
+				legal++;
+		}
+		return legal;
+	}
+
+	@Benchmark
+	public int canMoveCardsPacked() {
+		int legal = 0;
+		for (int src = 0; src < KlondikeState.COLUMNS; src++) {
+			for (int dest = 0; dest < KlondikeState.COLUMNS; dest++) {
+				if (state.canMoveCards(src, dest, 1))
+					legal++;
+			}
+		}
+		return legal;
+	}
+
+	@Benchmark
+	public KlondikeState copyState() {
+		return state.copy();
+	}
+
+	@Benchmark
+	public int generateMovesLists() {
+		return game.generateMoves(moves);
+	}
+
+	@Benchmark
+	public int generateMovesPacked() {
+		return generator.generateMoves(state, moves);
+	}
+}
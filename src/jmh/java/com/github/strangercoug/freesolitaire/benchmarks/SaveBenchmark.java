@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.benchmarks;
+
+import com.github.strangercoug.freesolitaire.Game;
+import com.github.strangercoug.freesolitaire.games.Klondike;
+import com.github.strangercoug.freesolitaire.games.KlondikeMoveGenerator;
+import com.github.strangercoug.freesolitaire.games.KlondikeState;
+import com.github.strangercoug.freesolitaire.games.SavedGames;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for saving and loading a Klondike game with {@code moves} moves
+ * in its journal, in the binary format and as JSON.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveBenchmark {
+	@Param({"100", "1000"})
+	int moves;
+
+	Klondike game;
+	byte[] binary;
+	String json;
+	ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+
+	@Setup
+	public void setUp() throws IOException {
+		game = new Klondike(3);
+		KlondikeState.deal(Deals.fixed(1, 42)).applyTo(game);
+		int[] buffer = new int[KlondikeMoveGenerator.MAX_MOVES];
+		SplittableRandom random = new SplittableRandom(42);
+		for (int i = 0; i < moves; i++)
+			game.makeMove(buffer[random.nextInt(game.generateMoves(buffer))]);
+
+		SavedGames.save(game, out);
+		binary = out.toByteArray();
+		StringWriter writer = new StringWriter();
+		SavedGames.exportJson(game, writer);
+		json = writer.toString();
+	}
+
+	@Benchmark
+	public int saveBinary() throws IOException {
+		out.reset();
+		SavedGames.save(game, out);
+		return out.size();
+	}
+
+	@Benchmark
+	public Game loadBinary() throws IOException {
+		return SavedGames.load(new ByteArrayInputStream(binary));
+	}
+
+	@Benchmark
+	public int exportJson() throws IOException {
+		StringWriter writer = new StringWriter(json.length());
+		SavedGames.exportJson(game, writer);
+		return writer.getBuffer().length();
+	}
+
+	@Benchmark
+	public Game importJson() throws IOException {
+		return SavedGames.importJson(new StringReader(json));
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.benchmarks;
+
+import com.github.strangercoug.freesolitaire.games.FreeCellState;
+import com.github.strangercoug.freesolitaire.games.KlondikeState;
+import com.github.strangercoug.freesolitaire.games.PyramidState;
+import com.github.strangercoug.freesolitaire.games.SpiderState;
+import com.github.strangercoug.freesolitaire.games.WasteLayoutState;
+import com.github.strangercoug.freesolitaire.games.WasteLayoutState.Layout;
+import com.github.strangercoug.freesolitaire.games.YukonState;
+import com.github.strangercoug.freesolitaire.solvers.BestFirstSearch;
+import com.github.strangercoug.freesolitaire.solvers.FreeCellSolver;
+import com.github.strangercoug.freesolitaire.solvers.KlondikeSolver;
+import com.github.strangercoug.freesolitaire.solvers.PyramidSolver;
+import com.github.strangercoug.freesolitaire.solvers.SearchBudget;
+import com.github.strangercoug.freesolitaire.solvers.SolverResult;
+import com.github.strangercoug.freesolitaire.solvers.SpiderSolver;
+import com.github.strangercoug.freesolitaire.solvers.StateSolver;
+import com.github.strangercoug.freesolitaire.solvers.WasteLayoutSolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for solving fixed deals. The node budget keeps a hard deal from
+ * dominating a run; the number of nodes searched is part of what is measured,
+ * so a change in the score can come from pruning as well as from speed.
+ * Yukon stands in for the variants solved by a {@link StateSolver}; since
+ * that solver deals from the deck it is given, each of its invocations also
+ * shuffles a fresh deck, which takes a tiny fraction of the search.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+	private static final SearchBudget budget = new SearchBudget(50_000, Long.MAX_VALUE);
+
+	@Param({"1", "2", "3"})
+	long seed;
+
+	KlondikeState klondike;
+	FreeCellState freeCell;
+	SpiderState spiderOneSuit;
+	SpiderState spiderFourSuits;
+	PyramidState pyramid;
+	WasteLayoutState golf;
+	WasteLayoutState triPeaks;
+	KlondikeSolver klondikeDrawOne;
+	KlondikeSolver klondikeDrawThree;
+	FreeCellSolver freeCellSolver;
+	SpiderSolver spiderOneSuitSolver;
+	SpiderSolver spiderFourSuitSolver;
+	PyramidSolver pyramidSolver;
+	WasteLayoutSolver golfSolver;
+	WasteLayoutSolver triPeaksSolver;
+	StateSolver yukonSolver;
+
+	@Setup
+	public void setUp() {
+		klondike = KlondikeState.deal(Deals.fixed(1, seed));
+		freeCell = FreeCellState.deal(Deals.fixed(1, seed));
+		spiderOneSuit = SpiderState.deal(Deals.fixed(2, seed), 1);
+		spiderFourSuits = SpiderState.deal(Deals.fixed(2, seed), 4);
+		pyramid = PyramidState.deal(Deals.fixed(1, seed), 3);
+		golf = WasteLayoutState.deal(Deals.fixed(1, seed), Layout.GOLF);
+		triPeaks = WasteLayoutState.deal(Deals.fixed(1, seed), Layout.TRI_PEAKS);
+		klondikeDrawOne = new KlondikeSolver(1, budget);
+		klondikeDrawThree = new KlondikeSolver(3, budget);
+		freeCellSolver = new FreeCellSolver(budget);
+		spiderOneSuitSolver = new SpiderSolver(1, budget);
+		spiderFourSuitSolver = new SpiderSolver(4, budget);
+		pyramidSolver = new PyramidSolver(3, budget);
+		golfSolver = new WasteLayoutSolver(Layout.GOLF, budget);
+		triPeaksSolver = new WasteLayoutSolver(Layout.TRI_PEAKS, budget);
+		yukonSolver = new StateSolver(YukonState::deal, new BestFirstSearch(), budget);
+	}
+
+	@Benchmark
+	public SolverResult klondikeDrawOne() {
+		return klondikeDrawOne.solve(klondike);
+	}
+
+	@Benchmark
+	public SolverResult klondikeDrawThree() {
+		return klondikeDrawThree.solve(klondike);
+	}
+
+	@Benchmark
+	public SolverResult freeCell() {
+		return freeCellSolver.solve(freeCell);
+	}
+
+	@Benchmark
+	public SolverResult spiderOneSuit() {
+		return spiderOneSuitSolver.solve(spiderOneSuit);
+	}
+
+	@Benchmark
+	public SolverResult spiderFourSuits() {
+		return spiderFourSuitSolver.solve(spiderFourSuits);
+	}
+
+	@Benchmark
+	public SolverResult pyramid() {
+		return pyramidSolver.solve(pyramid);
+	}
+
+	@Benchmark
+	public SolverResult golf() {
+		return golfSolver.solve(golf);
+	}
+
+	@Benchmark
+	public SolverResult triPeaks() {
+		return triPeaksSolver.solve(triPeaks);
+	}
+
+	@Benchmark
+	public SolverResult yukon() {
+		return yukonSolver.solve(Deals.fixed(1, seed));
+	}
+}
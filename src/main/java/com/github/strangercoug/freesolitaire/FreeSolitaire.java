@@ -30,18 +30,7 @@
  */
 package com.github.strangercoug.freesolitaire;
 
-import com.github.strangercoug.freesolitaire.games.Canfield;
-import com.github.strangercoug.freesolitaire.games.Clock;
-import com.github.strangercoug.freesolitaire.games.FortyThieves;
-import com.github.strangercoug.freesolitaire.games.FreeCell;
-import com.github.strangercoug.freesolitaire.games.Golf;
-import com.github.strangercoug.freesolitaire.games.Klondike;
-import com.github.strangercoug.freesolitaire.games.LaBelleLucie;
-import com.github.strangercoug.freesolitaire.games.Pyramid;
-import com.github.strangercoug.freesolitaire.games.Scorpion;
-import com.github.strangercoug.freesolitaire.games.Spider;
-import com.github.strangercoug.freesolitaire.games.TriPeaks;
-import com.github.strangercoug.freesolitaire.games.Yukon;
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
 import lombok.extern.java.Log;
 
 import java.nio.ByteBuffer;
@@ -63,25 +52,56 @@ public class FreeSolitaire {
 	 * Backup RNG for offline use. Using the random.org API should be preferred
 	 * to calling this RNG, especially if it is necessary to shuffle a large
 	 * number of cards.
+	 * <p>
+	 * Instantiating the DRBG can block while the OS gathers entropy, so it is
+	 * deferred until the first call. {@link #warmUpRng()} can start it early
+	 * on a background thread.
+	 *
+	 * @return the shared secure generator
 	 */
-	public static final RandomGenerator rng;
-
-	static {
-		RandomGenerator rng1;
-		byte[] personalizationString = ByteBuffer.allocate(Long.BYTES).putLong(System.currentTimeMillis()).array();
-
-		log.info("Getting SecureRandom instance for the backup RNG...");
-		try {
-			rng1 = SecureRandom.getInstance("DRBG",
-					DrbgParameters.instantiation(256, PR_AND_RESEED, personalizationString));
-			log.info("Successfully got defined SecureRandom instance for the backup RNG.");
-		} catch (NoSuchAlgorithmException e) {
-			log.warning("Unable to get the defined SecureRandom instance for the backup RNG; using the default " +
-					"SecureRandom instance. This instance may have less than the desired bit security strength and may " +
-					"not support prediction resistance or reseeding.");
-			rng1 = new SecureRandom();
+	public static RandomGenerator rng() {
+		return RngHolder.rng;
+	}
+
+	/**
+	 * Instantiates the backup RNG on a background daemon thread, if it has not
+	 * been instantiated already, so that it is likely to be ready by the time
+	 * the first deck is shuffled.
+	 */
+	public static void warmUpRng() {
+		Thread.ofPlatform().daemon().name("rng-warm-up").start(FreeSolitaire::rng);
+	}
+
+	/**
+	 * Holds the backup RNG, so that the JVM initializes it the first time it
+	 * is used instead of when this class is loaded.
+	 */
+	private static final class RngHolder {
+		private static final RandomGenerator rng;
+
+		static {
+			RandomGenerator rng1;
+			byte[] personalizationString = ByteBuffer.allocate(Long.BYTES).putLong(System.currentTimeMillis()).array();
+			long start = System.nanoTime();
+
+			log.info("Getting SecureRandom instance for the backup RNG...");
+			try {
+				rng1 = SecureRandom.getInstance("DRBG",
+						DrbgParameters.instantiation(256, PR_AND_RESEED, personalizationString));
+				rng1.nextInt(); // instantiation is lazy until the first request
+				log.info("Successfully got defined SecureRandom instance for the backup RNG in "
+						+ (System.nanoTime() - start) / 1_000_000 + " ms.");
+			} catch (NoSuchAlgorithmException e) {
+				log.warning("Unable to get the defined SecureRandom instance for the backup RNG; using the default " +
+						"SecureRandom instance. This instance may have less than the desired bit security strength and may " +
+						"not support prediction resistance or reseeding.");
+				rng1 = new SecureRandom();
+			}
+			rng = rng1;
+		}
+
+		private RngHolder() {
 		}
-		rng = rng1;
 	}
 
 	public static void main(String[] args) {
@@ -92,6 +112,8 @@ public class FreeSolitaire {
 		Game game = null;
 		Player player;
 
+		warmUpRng();
+
 		while (true) {
 			do {
 				System.out.println("""
@@ -157,20 +179,9 @@ public class FreeSolitaire {
 	}
 	
 	private static Game returnGame(int i) {
-		return switch (i) {
-			case 1 -> new Canfield();
-			case 2 -> new Clock();
-			case 3 -> new FortyThieves();
-			case 4 -> new FreeCell();
-			case 5 -> new Golf();
-			case 6 -> new Klondike();
-			case 7 -> new LaBelleLucie();
-			case 8 -> new Pyramid();
-			case 9 -> new Scorpion();
-			case 10 -> new Spider();
-			case 11 -> new TriPeaks();
-			case 12 -> new Yukon();
-			default -> throw new IllegalArgumentException();
-		};
+		if (i < 1 || i > GameVariant.values().length)
+			throw new IllegalArgumentException();
+
+		return GameVariant.values()[i - 1].newGame();
 	}
 }
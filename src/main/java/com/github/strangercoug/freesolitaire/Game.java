@@ -30,6 +30,9 @@
  */
 package com.github.strangercoug.freesolitaire;
 
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+
 /**
  *
  * @author Jeffrey Hope <strangercoug@hotmail.com>
@@ -38,4 +41,87 @@ public abstract class Game {
 	Player player;
 	
 	public abstract void play(Player player);
-}
\ No newline at end of file
+
+	/**
+	 * Sets up a new game dealt from the top of {@code deck}, without asking a
+	 * player for anything, so that games can be played by a program.
+	 *
+	 * @param deck  the deck to deal from
+	 * @throws UnsupportedOperationException if the game cannot be dealt this
+	 * way yet
+	 */
+	public void deal(Deck deck) {
+		throw new UnsupportedOperationException("Not supported yet.");
+	}
+
+	/**
+	 * Checks whether the game has been won.
+	 *
+	 * @return true if the game has been won; false otherwise
+	 * @throws UnsupportedOperationException if the game cannot tell yet
+	 */
+	public boolean isWon() {
+		throw new UnsupportedOperationException("Not supported yet.");
+	}
+
+	/**
+	 * Fills the front of {@code moves} with the legal moves from the current
+	 * position, packed by {@link Move#of(int, int, int, int)}. Games that
+	 * support this never allocate while doing it, so hint engines and
+	 * simulations can call it as often as they like with one buffer.
+	 *
+	 * @param moves  the buffer to write packed moves to, at least
+	 * {@link #maxMoves()} long
+	 * @return the number of moves written
+	 * @throws UnsupportedOperationException if the game cannot list its moves
+	 * yet
+	 */
+	public int generateMoves(int[] moves) {
+		throw new UnsupportedOperationException("Not supported yet.");
+	}
+
+	/**
+	 * Returns the most moves {@link #generateMoves} can write for the game
+	 * being played, so that callers can size their buffer for any variant.
+	 *
+	 * @return the bound on the number of moves
+	 * @throws UnsupportedOperationException if the game cannot list its moves
+	 * yet
+	 */
+	public int maxMoves() {
+		throw new UnsupportedOperationException("Not supported yet.");
+	}
+
+	/**
+	 * Plays a packed move, which should be one that {@link #generateMoves}
+	 * listed, and records it so that it can be undone. Any moves that had been
+	 * undone can no longer be redone.
+	 *
+	 * @param move  the packed move to play
+	 * @throws UnsupportedOperationException if the game cannot play packed
+	 * moves yet
+	 */
+	public void makeMove(int move) {
+		throw new UnsupportedOperationException("Not supported yet.");
+	}
+
+	/**
+	 * Takes back the last move played.
+	 *
+	 * @return true if a move was taken back; false if there was none
+	 * @throws UnsupportedOperationException if the game cannot undo moves yet
+	 */
+	public boolean undo() {
+		throw new UnsupportedOperationException("Not supported yet.");
+	}
+
+	/**
+	 * Plays again the last move taken back.
+	 *
+	 * @return true if a move was played again; false if there was none
+	 * @throws UnsupportedOperationException if the game cannot redo moves yet
+	 */
+	public boolean redo() {
+		throw new UnsupportedOperationException("Not supported yet.");
+	}
+}
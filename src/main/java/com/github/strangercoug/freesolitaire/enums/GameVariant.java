@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.enums;
+
+import com.github.strangercoug.freesolitaire.Game;
+import com.github.strangercoug.freesolitaire.games.Canfield;
+import com.github.strangercoug.freesolitaire.games.CanfieldState;
+import com.github.strangercoug.freesolitaire.games.Clock;
+import com.github.strangercoug.freesolitaire.games.ClockEvaluator;
+import com.github.strangercoug.freesolitaire.games.FortyThieves;
+import com.github.strangercoug.freesolitaire.games.FortyThievesState;
+import com.github.strangercoug.freesolitaire.games.FreeCell;
+import com.github.strangercoug.freesolitaire.games.Golf;
+import com.github.strangercoug.freesolitaire.games.Klondike;
+import com.github.strangercoug.freesolitaire.games.LaBelleLucie;
+import com.github.strangercoug.freesolitaire.games.Pyramid;
+import com.github.strangercoug.freesolitaire.games.Scorpion;
+import com.github.strangercoug.freesolitaire.games.ScorpionState;
+import com.github.strangercoug.freesolitaire.games.Spider;
+import com.github.strangercoug.freesolitaire.games.TriPeaks;
+import com.github.strangercoug.freesolitaire.games.WasteLayoutState.Layout;
+import com.github.strangercoug.freesolitaire.games.Yukon;
+import com.github.strangercoug.freesolitaire.games.YukonState;
+import com.github.strangercoug.freesolitaire.solvers.BestFirstSearch;
+import com.github.strangercoug.freesolitaire.solvers.DealSolver;
+import com.github.strangercoug.freesolitaire.solvers.FreeCellSolver;
+import com.github.strangercoug.freesolitaire.solvers.KlondikeSolver;
+import com.github.strangercoug.freesolitaire.solvers.PyramidSolver;
+import com.github.strangercoug.freesolitaire.solvers.SearchBudget;
+import com.github.strangercoug.freesolitaire.solvers.SpiderSolver;
+import com.github.strangercoug.freesolitaire.solvers.StateSolver;
+import com.github.strangercoug.freesolitaire.solvers.WasteLayoutSolver;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The games that can be played, in the order they are listed in the menu.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public enum GameVariant {
+	CANFIELD ("Canfield", Canfield::new, 1,
+			budget -> new StateSolver(CanfieldState::deal, new BestFirstSearch(), budget)),
+	CLOCK ("Clock", Clock::new, 1, budget -> ClockEvaluator::solve),
+	FORTY_THIEVES ("Forty Thieves", FortyThieves::new, 2,
+			budget -> new StateSolver(FortyThievesState::deal, new BestFirstSearch(), budget)),
+	FREECELL ("FreeCell", FreeCell::new, 1, FreeCellSolver::new),
+	GOLF ("Golf", Golf::new, 1,
+			budget -> new WasteLayoutSolver(Layout.GOLF, budget)),
+	KLONDIKE ("Klondike", Klondike::new, 1,
+			budget -> new KlondikeSolver(1, budget)),
+	LA_BELLE_LUCIE ("La Belle Lucie", LaBelleLucie::new, 1, null),
+	PYRAMID ("Pyramid", Pyramid::new, 1, budget -> new PyramidSolver(3, budget)),
+	SCORPION ("Scorpion", Scorpion::new, 1,
+			budget -> new StateSolver(ScorpionState::deal, new BestFirstSearch(), budget)),
+	SPIDER ("Spider", Spider::new, 2, budget -> new SpiderSolver(4, budget)),
+	TRIPEAKS ("TriPeaks", TriPeaks::new, 1,
+			budget -> new WasteLayoutSolver(Layout.TRI_PEAKS, budget)),
+	YUKON ("Yukon", Yukon::new, 1,
+			budget -> new StateSolver(YukonState::deal, new BestFirstSearch(), budget));
+
+	private final String displayName;
+	private final Supplier<Game> gameFactory;
+	private final int numDecks;
+	private final Function<SearchBudget, DealSolver> solverFactory;
+
+	GameVariant(String displayName, Supplier<Game> gameFactory, int numDecks,
+			Function<SearchBudget, DealSolver> solverFactory) {
+		this.displayName = displayName;
+		this.gameFactory = gameFactory;
+		this.numDecks = numDecks;
+		this.solverFactory = solverFactory;
+	}
+
+	public Game newGame() {
+		return gameFactory.get();
+	}
+
+	/**
+	 * Returns the number of 52-card packs the variant is dealt from.
+	 *
+	 * @return the number of packs
+	 */
+	public int getNumDecks() {
+		return numDecks;
+	}
+
+	/**
+	 * Checks whether deals of this variant can be solved automatically.
+	 *
+	 * @return true if {@code newSolver} is supported
+	 */
+	public boolean hasSolver() {
+		return solverFactory != null;
+	}
+
+	/**
+	 * Creates a solver for deals of this variant.
+	 *
+	 * @param budget  the limits on each deal the solver is given
+	 * @return a new solver, which is not shared with any other caller
+	 * @throws UnsupportedOperationException if the variant has no solver yet
+	 */
+	public DealSolver newSolver(SearchBudget budget) {
+		if (solverFactory == null)
+			throw new UnsupportedOperationException("No solver for " + displayName + " yet.");
+
+		return solverFactory.apply(budget);
+	}
+
+	@Override
+	public String toString() {
+		return displayName;
+	}
+}
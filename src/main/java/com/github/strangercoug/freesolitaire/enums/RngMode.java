@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.enums;
+
+import com.github.strangercoug.freesolitaire.FreeSolitaire;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Where a deck gets its randomness from.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public enum RngMode {
+	/**
+	 * The shared prediction-resistant DRBG in {@link FreeSolitaire#rng()}. Deals
+	 * that players see should use this mode.
+	 */
+	SECURE,
+	/**
+	 * A fast LXM generator that produces the same sequence for the same seed.
+	 * Simulations and benchmarks should use this mode.
+	 */
+	SEEDED;
+
+	private static final RandomGeneratorFactory<RandomGenerator> seededFactory =
+			RandomGeneratorFactory.of("L64X128MixRandom");
+
+	/**
+	 * Returns a generator for this mode.
+	 *
+	 * @param seed  the seed for a {@code SEEDED} generator; ignored by
+	 * {@code SECURE}, which always returns the shared generator
+	 * @return the generator
+	 */
+	public RandomGenerator newGenerator(long seed) {
+		return switch (this) {
+			case SECURE -> FreeSolitaire.rng();
+			case SEEDED -> seededFactory.create(seed);
+		};
+	}
+}
@@ -30,18 +30,20 @@
  */
 package com.github.strangercoug.freesolitaire.games;
 
-import com.github.strangercoug.freesolitaire.Game;
-import com.github.strangercoug.freesolitaire.Player;
+import com.github.strangercoug.freesolitaire.objs.Deck;
 
 /**
+ * Canfield, played on a {@link CanfieldState}.
  *
  * @author Jeffrey Hope <strangercoug@hotmail.com>
  */
-public class Canfield extends Game {
+public class Canfield extends SearchStateGame<CanfieldState> {
+	public Canfield() {
+		super(1);
+	}
 
 	@Override
-	public void play(Player player) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+	protected CanfieldState newState(Deck deck) {
+		return CanfieldState.deal(deck);
 	}
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.CardRank;
+import com.github.strangercoug.freesolitaire.enums.CardSuit;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+import com.github.strangercoug.freesolitaire.solvers.SearchState;
+
+/**
+ * A Canfield table for search and play.
+ * <p>
+ * Canfield deals a reserve of thirteen cards, of which only the top one is
+ * in play, one card to start the foundations, and one card to each of four
+ * columns; the other 34 cards form the stock. The card dealt to the
+ * foundations sets the base rank: every foundation is built up by suit from
+ * that rank, going round from king to ace. Columns are built down in
+ * alternating colours, also going round from ace to king, and a column can
+ * only be moved as a whole. A column left empty is filled from the reserve
+ * at once, or once the reserve is used up, with any card from the waste.
+ * The stock is turned over onto the waste three cards at a time, and the
+ * waste can be turned back over to make a new stock as often as wanted.
+ * <p>
+ * Moves are packed by {@link Move#of(int, int, int, int)} with one of the move
+ * type constants in this class as the type and columns as the source and
+ * destination. The undo token that {@link #make(int)} returns is the move
+ * with {@link #FILLED} set if the move emptied a column that was then filled
+ * from the reserve, and for a draw or redeal, the number of cards turned
+ * over as the count.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class CanfieldState implements SearchState {
+	public static final int COLUMNS = 4;
+	public static final int RESERVE_SIZE = 13;
+	public static final int STOCK_SIZE = 34;
+	public static final int DRAW_COUNT = 3;
+	public static final int NO_CARD = Columns.NO_CARD;
+
+	/** Moves column {@code src} as a whole onto column {@code dest}. */
+	public static final int TABLEAU_TO_TABLEAU = 0;
+	/** Moves the top card of column {@code src} to its foundation. */
+	public static final int TABLEAU_TO_FOUNDATION = 1;
+	/** Moves the top card of the reserve onto column {@code dest}. */
+	public static final int RESERVE_TO_TABLEAU = 2;
+	/** Moves the top card of the reserve to its foundation. */
+	public static final int RESERVE_TO_FOUNDATION = 3;
+	/** Moves the top card of the waste onto column {@code dest}. */
+	public static final int WASTE_TO_TABLEAU = 4;
+	/** Moves the top card of the waste to its foundation. */
+	public static final int WASTE_TO_FOUNDATION = 5;
+	/** Turns up to three cards of the stock over onto the waste. */
+	public static final int DRAW = 6;
+	/** Turns the waste back over to make a new stock. */
+	public static final int REDEAL = 7;
+
+	/** Set in an undo token if the move emptied a column that the reserve then filled. */
+	public static final int FILLED = 1 << 31;
+
+	static final int MAX_MOVES = 3 * COLUMNS + COLUMNS * (COLUMNS - 1) + 3;
+	private static final int RANKS = CardRank.values().length;
+	private static final int SUITS = CardSuit.values().length;
+
+	private final Columns columns;
+	private final byte[] reserve;
+	private final byte[] stock;
+	private final byte[] waste;
+	private final int[] foundations;
+	private final int baseRank;
+	private int reserveSize;
+	private int stockSize;
+	private int wasteSize;
+
+	private CanfieldState(Columns columns, byte[] reserve, byte[] stock, byte[] waste,
+			int[] foundations, int baseRank, int reserveSize, int stockSize, int wasteSize) {
+		this.columns = columns;
+		this.reserve = reserve;
+		this.stock = stock;
+		this.waste = waste;
+		this.foundations = foundations;
+		this.baseRank = baseRank;
+		this.reserveSize = reserveSize;
+		this.stockSize = stockSize;
+		this.wasteSize = wasteSize;
+	}
+
+	/**
+	 * Deals a new game from the top of {@code deck}: the reserve, with its
+	 * top card dealt last, then the foundation card, then the columns. The
+	 * remaining cards become the stock, the first of them on top.
+	 *
+	 * @param deck  the deck to deal from
+	 * @return the dealt state
+	 */
+	public static CanfieldState deal(Deck deck) {
+		// The reserve only ever loses its top card, so it is shared between
+		// copies and only its size is kept per state.
+		byte[] reserve = new byte[RESERVE_SIZE];
+		for (int i = 0; i < RESERVE_SIZE; i++)
+			reserve[i] = (byte) deck.dealCard().index();
+
+		int base = deck.dealCard().index();
+		int[] foundations = new int[SUITS];
+		foundations[Card.suitOf(base)] = 1;
+
+		// Building down goes round from ace to king, so a column has no shorter
+		// limit than the pack
+		Columns columns = new Columns(COLUMNS, Card.DECK_SIZE);
+		for (int col = 0; col < COLUMNS; col++)
+			columns.push(col, deck.dealCard().index());
+
+		byte[] stock = new byte[STOCK_SIZE];
+		for (int i = STOCK_SIZE - 1; i >= 0; i--)
+			stock[i] = (byte) deck.dealCard().index();
+		return new CanfieldState(columns, reserve, stock, new byte[STOCK_SIZE], foundations,
+				Card.rankOf(base), RESERVE_SIZE, STOCK_SIZE, 0);
+	}
+
+	@Override
+	public CanfieldState copy() {
+		return new CanfieldState(new Columns(columns), reserve, stock.clone(), waste.clone(),
+				foundations.clone(), baseRank, reserveSize, stockSize, wasteSize);
+	}
+
+	public int columnSize(int col) {
+		return columns.size(col);
+	}
+
+	public int cardAt(int col, int pos) {
+		return columns.cardAt(col, pos);
+	}
+
+	public int getBaseRank() {
+		return baseRank;
+	}
+
+	public int getReserveSize() {
+		return reserveSize;
+	}
+
+	public int getStockSize() {
+		return stockSize;
+	}
+
+	/**
+	 * Returns the top card of the reserve.
+	 *
+	 * @return the card, or {@link #NO_CARD} if the reserve is empty
+	 */
+	public int reserveTop() {
+		return reserveSize == 0 ? NO_CARD : reserve[reserveSize - 1];
+	}
+
+	/**
+	 * Returns the top card of the waste.
+	 *
+	 * @return the card, or {@link #NO_CARD} if the waste is empty
+	 */
+	public int wasteTop() {
+		return wasteSize == 0 ? NO_CARD : waste[wasteSize - 1];
+	}
+
+	public int foundationSize(int suit) {
+		return foundations[suit];
+	}
+
+	@Override
+	public boolean isWon() {
+		for (int suit = 0; suit < SUITS; suit++) {
+			if (foundations[suit] < RANKS)
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int maxMoves() {
+		return MAX_MOVES;
+	}
+
+	/**
+	 * Lists foundation moves first, then moves onto columns, then the draw or
+	 * the redeal. Waste cards only go into an empty column once the reserve
+	 * is used up, and then only into the leftmost one.
+	 */
+	@Override
+	public int generateMoves(int[] moves) {
+		return generate(moves, true);
+	}
+
+	@Override
+	public int generateLegalMoves(int[] moves) {
+		return generate(moves, false);
+	}
+
+	private int generate(int[] moves, boolean prune) {
+		int count = 0;
+		int reserveCard = reserveTop();
+		int wasteCard = wasteTop();
+		if (reserveCard != NO_CARD && fitsFoundation(reserveCard))
+			moves[count++] = Move.of(RESERVE_TO_FOUNDATION, 0, 0, 1);
+		for (int col = 0; col < COLUMNS; col++) {
+			int card = columns.top(col);
+			if (card != NO_CARD && fitsFoundation(card))
+				moves[count++] = Move.of(TABLEAU_TO_FOUNDATION, col, 0, 1);
+		}
+		if (wasteCard != NO_CARD && fitsFoundation(wasteCard))
+			moves[count++] = Move.of(WASTE_TO_FOUNDATION, 0, 0, 1);
+
+		int firstEmpty = columns.firstEmpty();
+		for (int dest = 0; dest < COLUMNS; dest++) {
+			int destCard = columns.top(dest);
+			if (destCard == NO_CARD) {
+				if ((dest == firstEmpty || !prune) && wasteCard != NO_CARD)
+					moves[count++] = Move.of(WASTE_TO_TABLEAU, 0, dest, 1);
+				continue;
+			}
+			for (int src = 0; src < COLUMNS; src++) {
+				if (src != dest && columns.size(src) > 0 && fits(columns.cardAt(src, 0), destCard))
+					moves[count++] = Move.of(TABLEAU_TO_TABLEAU, src, dest, columns.size(src));
+			}
+			if (reserveCard != NO_CARD && fits(reserveCard, destCard))
+				moves[count++] = Move.of(RESERVE_TO_TABLEAU, 0, dest, 1);
+			if (wasteCard != NO_CARD && fits(wasteCard, destCard))
+				moves[count++] = Move.of(WASTE_TO_TABLEAU, 0, dest, 1);
+		}
+
+		if (stockSize > 0)
+			moves[count++] = Move.of(DRAW, 0, 0, 0);
+		else if (wasteSize > 0)
+			moves[count++] = Move.of(REDEAL, 0, 0, 0);
+		return count;
+	}
+
+	private static boolean fits(int card, int under) {
+		return Card.isRed(card) != Card.isRed(under)
+				&& Card.rankOf(under) == (Card.rankOf(card) + 1) % RANKS;
+	}
+
+	private boolean fitsFoundation(int card) {
+		return foundations[Card.suitOf(card)] == (Card.rankOf(card) - baseRank + RANKS) % RANKS;
+	}
+
+	@Override
+	public int make(int move) {
+		int src = Move.source(move);
+		int dest = Move.dest(move);
+		switch (Move.type(move)) {
+			case TABLEAU_TO_TABLEAU -> columns.moveCards(src, dest, Move.count(move));
+			case TABLEAU_TO_FOUNDATION -> {
+				int suit = Card.suitOf(columns.pop(src));
+				foundations[suit]++;
+				move = Move.of(TABLEAU_TO_FOUNDATION, src, suit, 1);
+			}
+			case RESERVE_TO_TABLEAU -> columns.push(dest, reserve[--reserveSize]);
+			case RESERVE_TO_FOUNDATION -> foundations[Card.suitOf(reserve[--reserveSize])]++;
+			case WASTE_TO_TABLEAU -> columns.push(dest, waste[--wasteSize]);
+			case WASTE_TO_FOUNDATION -> {
+				int suit = Card.suitOf(waste[--wasteSize]);
+				foundations[suit]++;
+				return Move.of(WASTE_TO_FOUNDATION, 0, suit, 1);
+			}
+			case DRAW -> {
+				int count = Math.min(DRAW_COUNT, stockSize);
+				for (int i = 0; i < count; i++)
+					waste[wasteSize++] = stock[--stockSize];
+				return Move.of(DRAW, 0, 0, count);
+			}
+			case REDEAL -> {
+				int count = wasteSize;
+				while (wasteSize > 0)
+					stock[stockSize++] = waste[--wasteSize];
+				return Move.of(REDEAL, 0, 0, count);
+			}
+			default -> throw new IllegalArgumentException("Unknown move type: " + Move.type(move));
+		}
+
+		int type = Move.type(move);
+		if ((type == TABLEAU_TO_TABLEAU || type == TABLEAU_TO_FOUNDATION)
+				&& columns.size(src) == 0 && reserveSize > 0) {
+			columns.push(src, reserve[--reserveSize]);
+			return move | FILLED;
+		}
+		return move;
+	}
+
+	@Override
+	public void unmake(int token) {
+		int src = Move.source(token);
+		int dest = Move.dest(token);
+		if ((token & FILLED) != 0) {
+			columns.pop(src);
+			reserveSize++;
+		}
+		switch (Move.type(token & ~FILLED)) {
+			case TABLEAU_TO_TABLEAU -> columns.moveCards(dest, src, Move.count(token));
+			case TABLEAU_TO_FOUNDATION -> columns.push(src, takeBack(dest));
+			case RESERVE_TO_TABLEAU -> {
+				columns.pop(dest);
+				reserveSize++;
+			}
+			case RESERVE_TO_FOUNDATION -> foundations[Card.suitOf(reserve[reserveSize++])]--;
+			case WASTE_TO_TABLEAU -> waste[wasteSize++] = (byte) columns.pop(dest);
+			case WASTE_TO_FOUNDATION -> waste[wasteSize++] = (byte) takeBack(dest);
+			case DRAW -> {
+				for (int i = 0; i < Move.count(token); i++)
+					stock[stockSize++] = waste[--wasteSize];
+			}
+			case REDEAL -> {
+				for (int i = 0; i < Move.count(token); i++)
+					waste[wasteSize++] = stock[--stockSize];
+			}
+			default -> throw new IllegalArgumentException("Unknown move type: " + Move.type(token));
+		}
+	}
+
+	private int takeBack(int suit) {
+		return suit * RANKS + (baseRank + --foundations[suit]) % RANKS;
+	}
+
+	/**
+	 * Returns a hash that is the same however the columns are ordered.
+	 */
+	@Override
+	public long hash() {
+		long hash = columns.hash() * 31 + reserveSize;
+		for (int suit = 0; suit < SUITS; suit++)
+			hash = hash * 31 + foundations[suit];
+		for (int i = 0; i < stockSize; i++)
+			hash = hash * 0x100000001B3L + stock[i] + 1;
+		hash = hash * 0x100000001B3L;
+		for (int i = 0; i < wasteSize; i++)
+			hash = hash * 0x100000001B3L + waste[i] + 1;
+		return hash;
+	}
+
+	/**
+	 * Estimates the moves left as the cards not yet on the foundations.
+	 */
+	@Override
+	public int estimate() {
+		int estimate = Card.DECK_SIZE;
+		for (int suit = 0; suit < SUITS; suit++)
+			estimate -= foundations[suit];
+		return estimate;
+	}
+}
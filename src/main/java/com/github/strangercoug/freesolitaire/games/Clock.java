@@ -32,16 +32,54 @@ package com.github.strangercoug.freesolitaire.games;
 
 import com.github.strangercoug.freesolitaire.Game;
 import com.github.strangercoug.freesolitaire.Player;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
 
 /**
+ * Clock, which plays itself out; see {@link ClockEvaluator}.
  *
  * @author Jeffrey Hope <strangercoug@hotmail.com>
  */
 public class Clock extends Game {
+	final byte[] cards = new byte[Card.DECK_SIZE];
+	int cardsTurned;
 
 	@Override
 	public void play(Player player) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		Deck newDeck = new Deck();
+		newDeck.populateDeck();
+		newDeck.shuffleDeck();
+		deal(newDeck);
 	}
 
-}
\ No newline at end of file
+	@Override
+	public void deal(Deck deck) {
+		for (int i = 0; i < cards.length; i++)
+			cards[i] = (byte) deck.dealCard().index();
+		cardsTurned = ClockEvaluator.cardsTurned(cards);
+	}
+
+	@Override
+	public boolean isWon() {
+		return cardsTurned == Card.DECK_SIZE;
+	}
+
+	/**
+	 * Returns the number of cards turned over before the game ended.
+	 *
+	 * @return the number of cards turned over, or 0 if nothing has been dealt
+	 */
+	public int getCardsTurned() {
+		return cardsTurned;
+	}
+
+	@Override
+	public int generateMoves(int[] moves) {
+		return 0;
+	}
+
+	@Override
+	public int maxMoves() {
+		return 0;
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.CardRank;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.solvers.SolverResult;
+
+/**
+ * Plays out Clock deals straight from an array of card indices.
+ * <p>
+ * Clock deals the pack one card at a time round thirteen piles of four, one
+ * for each rank, with the kings' pile in the middle. Play starts by turning
+ * over the top card of the kings' pile; each card turned over goes to the
+ * pile of its own rank, and the next card turned over is the top card of
+ * that pile. The game ends when a card is wanted from a pile that has none
+ * left, which can only be the kings' pile once the fourth king is out, and
+ * it is won if every card has been turned over by then.
+ * <p>
+ * There are no choices to make, so the outcome is a function of the deck.
+ * Because the piles are dealt round in turn, the {@code k}th card from the
+ * top of pile {@code p} is at index {@code p + 13 * (3 - k)} of the deck;
+ * the evaluator keeps just a count of the cards left in each pile and reads
+ * the deck in place, so it allocates nothing and takes at most one step per
+ * card.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class ClockEvaluator {
+	private static final int PILES = CardRank.values().length;
+	private static final int KINGS = CardRank.KING.ordinal();
+	/** 4 cards left in each of the 13 piles, 3 bits a pile. */
+	private static final long FULL_PILES = 0x4924924924L;
+
+	private ClockEvaluator() {
+	}
+
+	/**
+	 * Plays out the deal from the first 52 cards of {@code cards}, the first
+	 * to be dealt first.
+	 *
+	 * @param cards  the {@link Card#index()} of each card
+	 * @return the number of cards turned over, which is 52 if and only if the
+	 * game is won
+	 */
+	public static int cardsTurned(byte[] cards) {
+		long left = FULL_PILES;
+		int pile = KINGS;
+		int turned = 0;
+		int count;
+		while ((count = (int) (left >>> (3 * pile)) & 7) != 0) {
+			left -= 1L << (3 * pile);
+			pile = Card.rankOf(cards[pile + PILES * (count - 1)]);
+			turned++;
+		}
+		return turned;
+	}
+
+	/**
+	 * Checks whether the deal from {@code cards} is won.
+	 *
+	 * @param cards  the {@link Card#index()} of each card
+	 * @return true if every card is turned over; false otherwise
+	 */
+	public static boolean isWon(byte[] cards) {
+		return cardsTurned(cards) == Card.DECK_SIZE;
+	}
+
+	/**
+	 * Plays out the deal from the top of {@code deck}, as a solver would. A
+	 * won deal is solved by no moves, since there are none to make, and the
+	 * number of nodes is the number of cards turned over.
+	 *
+	 * @param deck  the deck to deal from
+	 * @return the outcome of the deal
+	 */
+	public static SolverResult solve(Deck deck) {
+		byte[] cards = new byte[Card.DECK_SIZE];
+		for (int i = 0; i < cards.length; i++)
+			cards[i] = (byte) deck.dealCard().index();
+
+		int turned = cardsTurned(cards);
+		return turned == Card.DECK_SIZE ? SolverResult.solved(new int[0], turned)
+				: SolverResult.unwinnable(turned);
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.games;
+
+/**
+ * Tableau columns for the states that the generic solvers search, kept in a
+ * single {@code byte} array with a fixed stride per column.
+ * <p>
+ * Each column holds {@link com.github.strangercoug.freesolitaire.objs.Card#index()}
+ * values from the bottom up, and the first {@code faceDown(col)} of them are
+ * face down.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+final class Columns {
+	static final int NO_CARD = -1;
+
+	private final byte[] cards;
+	private final int[] sizes;
+	private final int[] faceDown;
+	private final int stride;
+
+	Columns(int count, int stride) {
+		cards = new byte[count * stride];
+		sizes = new int[count];
+		faceDown = new int[count];
+		this.stride = stride;
+	}
+
+	Columns(Columns other) {
+		cards = other.cards.clone();
+		sizes = other.sizes.clone();
+		faceDown = other.faceDown.clone();
+		stride = other.stride;
+	}
+
+	int count() {
+		return sizes.length;
+	}
+
+	int size(int col) {
+		return sizes[col];
+	}
+
+	int faceDown(int col) {
+		return faceDown[col];
+	}
+
+	int cardAt(int col, int pos) {
+		return cards[col * stride + pos];
+	}
+
+	int top(int col) {
+		return sizes[col] == 0 ? NO_CARD : cards[col * stride + sizes[col] - 1];
+	}
+
+	/**
+	 * Returns the leftmost empty column, or -1 if none is empty.
+	 */
+	int firstEmpty() {
+		for (int col = 0; col < sizes.length; col++) {
+			if (sizes[col] == 0)
+				return col;
+		}
+		return -1;
+	}
+
+	void push(int col, int card) {
+		cards[col * stride + sizes[col]++] = (byte) card;
+	}
+
+	int pop(int col) {
+		return cards[col * stride + --sizes[col]];
+	}
+
+	/**
+	 * Deals a card face down onto a column.
+	 */
+	void pushFaceDown(int col, int card) {
+		push(col, card);
+		faceDown[col]++;
+	}
+
+	/**
+	 * Moves the top {@code count} cards of one column onto another, keeping
+	 * their order.
+	 */
+	void moveCards(int src, int dest, int count) {
+		sizes[src] -= count;
+		System.arraycopy(cards, src * stride + sizes[src], cards, dest * stride + sizes[dest], count);
+		sizes[dest] += count;
+	}
+
+	/**
+	 * Turns over the top card of a column if it is face down.
+	 *
+	 * @return true if a card was turned over
+	 */
+	boolean flipTop(int col) {
+		if (sizes[col] == 0 || faceDown[col] < sizes[col])
+			return false;
+
+		faceDown[col]--;
+		return true;
+	}
+
+	/**
+	 * Turns the top card of a column back face down, to undo
+	 * {@link #flipTop(int)}.
+	 */
+	void unflipTop(int col) {
+		faceDown[col]++;
+	}
+
+	/**
+	 * Returns a hash of the columns that does not depend on their order.
+	 */
+	long hash() {
+		return hash(0);
+	}
+
+	/**
+	 * Returns a hash of the columns in which the first {@code fixed} columns
+	 * count by where they are and the rest do not depend on their order, for
+	 * games in which some columns are not interchangeable.
+	 */
+	long hash(int fixed) {
+		long hash = 0;
+		for (int col = 0; col < sizes.length; col++) {
+			long column = col < fixed ? (col + 1L) << 56 | faceDown[col] : faceDown[col];
+			for (int pos = 0, base = col * stride; pos < sizes[col]; pos++)
+				column = column * 0x100000001B3L + cards[base + pos] + 1;
+			hash += mix(column);
+		}
+		return hash;
+	}
+
+	static long mix(long z) {
+		z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+		z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return z ^ (z >>> 33);
+	}
+}
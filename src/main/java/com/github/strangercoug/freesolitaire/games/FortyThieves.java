@@ -30,18 +30,20 @@
  */
 package com.github.strangercoug.freesolitaire.games;
 
-import com.github.strangercoug.freesolitaire.Game;
-import com.github.strangercoug.freesolitaire.Player;
+import com.github.strangercoug.freesolitaire.objs.Deck;
 
 /**
+ * Forty Thieves, played on a {@link FortyThievesState}.
  *
  * @author Jeffrey Hope <strangercoug@hotmail.com>
  */
-public class FortyThieves extends Game {
+public class FortyThieves extends SearchStateGame<FortyThievesState> {
+	public FortyThieves() {
+		super(2);
+	}
 
 	@Override
-	public void play(Player player) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+	protected FortyThievesState newState(Deck deck) {
+		return FortyThievesState.deal(deck);
 	}
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.CardRank;
+import com.github.strangercoug.freesolitaire.enums.CardSuit;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+import com.github.strangercoug.freesolitaire.solvers.SearchState;
+
+/**
+ * A Forty Thieves table for search and play.
+ * <p>
+ * Forty Thieves is played with two packs. Ten columns of four face-up cards
+ * are dealt, and the other 64 cards form the stock, which is turned over onto
+ * the waste one card at a time and only once. Only the top card of a column
+ * or of the waste can be moved: onto the card of its own suit one rank
+ * higher, into an empty column, or to one of the eight foundations, two for
+ * each suit, which are built up by suit from the ace.
+ * <p>
+ * Moves are packed by {@link Move#of(int, int, int, int)} with one of the move
+ * type constants in this class as the type and columns as the source and
+ * destination. A card going to a foundation goes to the first one of its
+ * suit that it fits on. The undo token that {@link #make(int)} returns for a
+ * foundation move has that foundation as the destination.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class FortyThievesState implements SearchState {
+	public static final int COLUMNS = 10;
+	public static final int FOUNDATIONS = 8;
+	public static final int STOCK_SIZE = 64;
+	public static final int NO_CARD = Columns.NO_CARD;
+
+	/** Moves the top card of column {@code src} onto column {@code dest}. */
+	public static final int TABLEAU_TO_TABLEAU = 0;
+	/** Moves the top card of column {@code src} to a foundation. */
+	public static final int TABLEAU_TO_FOUNDATION = 1;
+	/** Moves the top card of the waste onto column {@code dest}. */
+	public static final int WASTE_TO_TABLEAU = 2;
+	/** Moves the top card of the waste to a foundation. */
+	public static final int WASTE_TO_FOUNDATION = 3;
+	/** Turns the top card of the stock over onto the waste. */
+	public static final int DRAW = 4;
+
+	static final int MAX_MOVES = COLUMNS * COLUMNS + 2 * COLUMNS + 2;
+	private static final int RANKS = CardRank.values().length;
+	private static final int SUITS = CardSuit.values().length;
+	private static final int PACKS = FOUNDATIONS / SUITS;
+	// The four cards dealt and a run from king to ace
+	private static final int COLUMN_STRIDE = 4 + RANKS;
+
+	private final Columns columns;
+	private final byte[] stock;
+	private final byte[] waste;
+	private final int[] foundations;
+	private int stockSize;
+	private int wasteSize;
+
+	private FortyThievesState(Columns columns, byte[] stock, byte[] waste, int[] foundations,
+			int stockSize, int wasteSize) {
+		this.columns = columns;
+		this.stock = stock;
+		this.waste = waste;
+		this.foundations = foundations;
+		this.stockSize = stockSize;
+		this.wasteSize = wasteSize;
+	}
+
+	/**
+	 * Deals a new game from the top of {@code deck}, one row at a time from
+	 * left to right. The remaining cards become the stock, the first of them
+	 * on top.
+	 *
+	 * @param deck  the two-pack deck to deal from
+	 * @return the dealt state
+	 */
+	public static FortyThievesState deal(Deck deck) {
+		Columns columns = new Columns(COLUMNS, COLUMN_STRIDE);
+		for (int row = 0; row < 4; row++) {
+			for (int col = 0; col < COLUMNS; col++)
+				columns.push(col, deck.dealCard().index());
+		}
+		// Drawing never changes the order of the stock, so it is shared
+		// between copies and only its size is kept per state.
+		byte[] stock = new byte[STOCK_SIZE];
+		for (int i = STOCK_SIZE - 1; i >= 0; i--)
+			stock[i] = (byte) deck.dealCard().index();
+		return new FortyThievesState(columns, stock, new byte[STOCK_SIZE], new int[FOUNDATIONS],
+				STOCK_SIZE, 0);
+	}
+
+	@Override
+	public FortyThievesState copy() {
+		return new FortyThievesState(new Columns(columns), stock, waste.clone(),
+				foundations.clone(), stockSize, wasteSize);
+	}
+
+	public int columnSize(int col) {
+		return columns.size(col);
+	}
+
+	public int cardAt(int col, int pos) {
+		return columns.cardAt(col, pos);
+	}
+
+	public int getStockSize() {
+		return stockSize;
+	}
+
+	/**
+	 * Returns the top card of the waste.
+	 *
+	 * @return the card, or {@link #NO_CARD} if the waste is empty
+	 */
+	public int wasteTop() {
+		return wasteSize == 0 ? NO_CARD : waste[wasteSize - 1];
+	}
+
+	public int foundationSize(int foundation) {
+		return foundations[foundation];
+	}
+
+	@Override
+	public boolean isWon() {
+		for (int foundation = 0; foundation < FOUNDATIONS; foundation++) {
+			if (foundations[foundation] < RANKS)
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int maxMoves() {
+		return MAX_MOVES;
+	}
+
+	/**
+	 * Lists foundation moves first, then moves onto columns and the draw. A
+	 * card that nothing left could be built on is played to its foundation as
+	 * the only move. A card is only moved into the leftmost empty column, and
+	 * not from a column it is alone in.
+	 */
+	@Override
+	public int generateMoves(int[] moves) {
+		return generate(moves, true);
+	}
+
+	@Override
+	public int generateLegalMoves(int[] moves) {
+		return generate(moves, false);
+	}
+
+	private int generate(int[] moves, boolean prune) {
+		int count = 0;
+		int waste = wasteTop();
+		for (int col = 0; col < COLUMNS; col++) {
+			int card = columns.top(col);
+			if (card != NO_CARD && foundationFor(card) >= 0) {
+				if (prune && isSafe(card)) {
+					moves[0] = Move.of(TABLEAU_TO_FOUNDATION, col, 0, 1);
+					return 1;
+				}
+				moves[count++] = Move.of(TABLEAU_TO_FOUNDATION, col, 0, 1);
+			}
+		}
+		if (waste != NO_CARD && foundationFor(waste) >= 0) {
+			if (prune && isSafe(waste)) {
+				moves[0] = Move.of(WASTE_TO_FOUNDATION, 0, 0, 1);
+				return 1;
+			}
+			moves[count++] = Move.of(WASTE_TO_FOUNDATION, 0, 0, 1);
+		}
+
+		int firstEmpty = columns.firstEmpty();
+		for (int dest = 0; dest < COLUMNS; dest++) {
+			int destCard = columns.top(dest);
+			if (prune && destCard == NO_CARD && dest != firstEmpty)
+				continue;
+			for (int src = 0; src < COLUMNS; src++) {
+				int card = columns.top(src);
+				if (src != dest && card != NO_CARD && (destCard == NO_CARD
+						? columns.size(src) > 1 || !prune : isNextInRun(card, destCard)))
+					moves[count++] = Move.of(TABLEAU_TO_TABLEAU, src, dest, 1);
+			}
+			if (waste != NO_CARD && (destCard == NO_CARD || isNextInRun(waste, destCard)))
+				moves[count++] = Move.of(WASTE_TO_TABLEAU, 0, dest, 1);
+		}
+		if (stockSize > 0)
+			moves[count++] = Move.of(DRAW, 0, 0, 0);
+		return count;
+	}
+
+	private static boolean isNextInRun(int card, int under) {
+		return Card.suitOf(card) == Card.suitOf(under)
+				&& Card.rankOf(under) - Card.rankOf(card) == 1;
+	}
+
+	/**
+	 * A card is safe to play to its foundation once both cards of its suit
+	 * one rank lower are already on theirs, which is when the other
+	 * foundation of its suit has got at least as far as the one it goes on.
+	 */
+	private boolean isSafe(int card) {
+		int first = Card.suitOf(card) * PACKS;
+		return Math.min(foundations[first], foundations[first + 1]) >= Card.rankOf(card);
+	}
+
+	/**
+	 * Returns the first foundation a card can go on, or -1 if none.
+	 */
+	private int foundationFor(int card) {
+		int first = Card.suitOf(card) * PACKS;
+		for (int foundation = first; foundation < first + PACKS; foundation++) {
+			if (foundations[foundation] == Card.rankOf(card))
+				return foundation;
+		}
+		return -1;
+	}
+
+	@Override
+	public int make(int move) {
+		switch (Move.type(move)) {
+			case TABLEAU_TO_TABLEAU -> columns.moveCards(Move.source(move), Move.dest(move), 1);
+			case TABLEAU_TO_FOUNDATION -> {
+				int foundation = foundationFor(columns.pop(Move.source(move)));
+				foundations[foundation]++;
+				return Move.of(TABLEAU_TO_FOUNDATION, Move.source(move), foundation, 1);
+			}
+			case WASTE_TO_TABLEAU -> columns.push(Move.dest(move), waste[--wasteSize]);
+			case WASTE_TO_FOUNDATION -> {
+				int foundation = foundationFor(waste[--wasteSize]);
+				foundations[foundation]++;
+				return Move.of(WASTE_TO_FOUNDATION, 0, foundation, 1);
+			}
+			case DRAW -> waste[wasteSize++] = stock[--stockSize];
+			default -> throw new IllegalArgumentException("Unknown move type: " + Move.type(move));
+		}
+		return move;
+	}
+
+	@Override
+	public void unmake(int token) {
+		switch (Move.type(token)) {
+			case TABLEAU_TO_TABLEAU -> columns.moveCards(Move.dest(token), Move.source(token), 1);
+			case TABLEAU_TO_FOUNDATION -> columns.push(Move.source(token), takeBack(Move.dest(token)));
+			case WASTE_TO_TABLEAU -> waste[wasteSize++] = (byte) columns.pop(Move.dest(token));
+			case WASTE_TO_FOUNDATION -> waste[wasteSize++] = (byte) takeBack(Move.dest(token));
+			case DRAW -> {
+				wasteSize--;
+				stockSize++;
+			}
+			default -> throw new IllegalArgumentException("Unknown move type: " + Move.type(token));
+		}
+	}
+
+	private int takeBack(int foundation) {
+		return (foundation / PACKS) * RANKS + --foundations[foundation];
+	}
+
+	/**
+	 * Returns a hash that is the same however the columns are ordered.
+	 */
+	@Override
+	public long hash() {
+		long hash = columns.hash();
+		for (int i = 0; i < wasteSize; i++)
+			hash = hash * 0x100000001B3L + waste[i] + 1;
+		hash = hash * 31 + stockSize;
+		for (int suit = 0; suit < SUITS; suit++) {
+			int low = Math.min(foundations[suit * PACKS], foundations[suit * PACKS + 1]);
+			int high = Math.max(foundations[suit * PACKS], foundations[suit * PACKS + 1]);
+			hash = hash * 31 + low * RANKS + high;
+		}
+		return hash;
+	}
+
+	/**
+	 * Estimates the moves left as the cards not yet on the foundations, plus
+	 * one for each card in a column that does not sit on the next card of
+	 * its run, which usually has to be moved out of the way of the card
+	 * below it. That move can be its own move to a foundation, though, so
+	 * the estimate can be too high, and
+	 * {@link com.github.strangercoug.freesolitaire.solvers.IdaStarSearch}
+	 * need not find a shortest win with it.
+	 */
+	@Override
+	public int estimate() {
+		int estimate = PACKS * Card.DECK_SIZE;
+		for (int foundation = 0; foundation < FOUNDATIONS; foundation++)
+			estimate -= foundations[foundation];
+		for (int col = 0; col < COLUMNS; col++) {
+			for (int pos = 1; pos < columns.size(col); pos++) {
+				if (!isNextInRun(columns.cardAt(col, pos), columns.cardAt(col, pos - 1)))
+					estimate++;
+			}
+		}
+		return estimate;
+	}
+}
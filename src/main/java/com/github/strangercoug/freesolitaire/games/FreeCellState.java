@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+
+import java.util.SplittableRandom;
+
+/**
+ * A compact representation of a FreeCell table for search.
+ * <p>
+ * Like {@link KlondikeState}, the columns and free cells are
+ * {@link Card#index()} values in a single {@code byte} array and the
+ * foundations are four nibbles. The free cells are kept sorted, so the order
+ * in which cards were put into them never distinguishes two states, and
+ * {@link #canonicalHash()} ignores the order of the columns as well.
+ * <p>
+ * Moves are packed into an {@code int} by {@link Move#of(int, int, int, int)},
+ * with one of the move type constants in this class as the type. A move of
+ * several cards between columns is a single "supermove" that is legal as long
+ * as the free cells and empty columns could carry it one card at a time.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class FreeCellState {
+	public static final int COLUMNS = 8;
+	public static final int CELLS = 4;
+	public static final int NO_CARD = -1;
+
+	/** Plays the top card of column {@code src} to its foundation. */
+	public static final int TABLEAU_TO_FOUNDATION = 0;
+	/** Plays the card in free cell {@code src} to its foundation. */
+	public static final int CELL_TO_FOUNDATION = 1;
+	/** Moves the top card of column {@code src} to a free cell. */
+	public static final int TABLEAU_TO_CELL = 2;
+	/** Moves the card in free cell {@code src} onto column {@code dest}. */
+	public static final int CELL_TO_TABLEAU = 3;
+	/** Moves the top {@code count} cards of column {@code src} onto column {@code dest}. */
+	public static final int TABLEAU_TO_TABLEAU = 4;
+
+	private static final int COLUMN_STRIDE = 20;
+	private static final int SIZES = COLUMNS * COLUMN_STRIDE;
+	private static final int CELL = SIZES + COLUMNS;
+	private static final int LENGTH = CELL + CELLS;
+	private static final int DECK_SIZE = Card.DECK_SIZE;
+
+	private static final long[] tableauKeys = new long[COLUMN_STRIDE * DECK_SIZE];
+	private static final long[] cellKeys = new long[DECK_SIZE];
+
+	static {
+		SplittableRandom random = new SplittableRandom(0x46524545434C4CL);
+		for (int i = 0; i < tableauKeys.length; i++)
+			tableauKeys[i] = random.nextLong();
+		for (int i = 0; i < cellKeys.length; i++)
+			cellKeys[i] = random.nextLong();
+	}
+
+	private final byte[] data;
+	private short foundations;
+
+	private FreeCellState() {
+		data = new byte[LENGTH];
+		for (int i = 0; i < CELLS; i++)
+			data[CELL + i] = NO_CARD;
+	}
+
+	private FreeCellState(FreeCellState other) {
+		data = other.data.clone();
+		foundations = other.foundations;
+	}
+
+	/**
+	 * Deals a new game from the top of {@code deck}, one row at a time from
+	 * left to right, until the deck is empty.
+	 *
+	 * @param deck the deck to deal from
+	 * @return the dealt state
+	 */
+	public static FreeCellState deal(Deck deck) {
+		FreeCellState state = new FreeCellState();
+
+		for (int i = 0; !deck.isEmpty(); i++)
+			state.push(i % COLUMNS, deck.dealCard().index());
+
+		return state;
+	}
+
+	/**
+	 * Returns an independent copy of this state.
+	 *
+	 * @return the copy
+	 */
+	public FreeCellState copy() {
+		return new FreeCellState(this);
+	}
+
+	public int foundationSize(int suit) {
+		return (foundations >>> (suit * 4)) & 0xF;
+	}
+
+	public int columnSize(int col) {
+		return data[SIZES + col];
+	}
+
+	public int cardAt(int col, int pos) {
+		return data[col * COLUMN_STRIDE + pos];
+	}
+
+	public int topCard(int col) {
+		int size = columnSize(col);
+		return size == 0 ? NO_CARD : cardAt(col, size - 1);
+	}
+
+	/**
+	 * Returns the card in a free cell. Occupied cells are sorted in ascending
+	 * order after the empty ones.
+	 *
+	 * @param cell the free cell
+	 * @return the card's index, or {@code NO_CARD} if the cell is empty
+	 */
+	public int cellCard(int cell) {
+		return data[CELL + cell];
+	}
+
+	public int freeCellCount() {
+		int count = 0;
+		while (count < CELLS && data[CELL + count] == NO_CARD)
+			count++;
+		return count;
+	}
+
+	public int emptyColumnCount() {
+		int count = 0;
+		for (int col = 0; col < COLUMNS; col++) {
+			if (data[SIZES + col] == 0)
+				count++;
+		}
+		return count;
+	}
+
+	public boolean isWon() {
+		return foundations == (short) 0xDDDD;
+	}
+
+	/**
+	 * Returns the number of cards at the top of a column that form a sequence
+	 * of alternating colors, each one rank below the card beneath it.
+	 *
+	 * @param col the column
+	 * @return the length of the sequence, which is 0 only for an empty column
+	 */
+	public int sequenceLength(int col) {
+		int size = columnSize(col);
+		int length = size == 0 ? 0 : 1;
+
+		while (length < size && canStack(cardAt(col, size - length),
+				cardAt(col, size - length - 1)))
+			length++;
+
+		return length;
+	}
+
+	/**
+	 * Returns how many cards can be moved between columns at once, given the
+	 * free cells and empty columns available to carry them.
+	 *
+	 * @param toEmptyColumn whether the destination is itself an empty column,
+	 * which then cannot be used to carry cards
+	 * @return the largest supermove allowed
+	 */
+	public int supermoveCapacity(boolean toEmptyColumn) {
+		int emptyColumns = emptyColumnCount() - (toEmptyColumn ? 1 : 0);
+		return (freeCellCount() + 1) << emptyColumns;
+	}
+
+	/**
+	 * Finds whether the top {@code count} cards of {@code srcCol} can be moved
+	 * onto {@code destCol} as one supermove.
+	 *
+	 * @param srcCol the column to move cards from
+	 * @param destCol the column to move cards to
+	 * @param count the number of cards to move
+	 * @return true if the move is legal; false otherwise
+	 */
+	public boolean canMoveCards(int srcCol, int destCol, int count) {
+		if (srcCol == destCol || count < 1 || count > sequenceLength(srcCol))
+			return false;
+
+		int destCard = topCard(destCol);
+		if (count > supermoveCapacity(destCard == NO_CARD))
+			return false;
+
+		return destCard == NO_CARD || canStack(cardAt(srcCol,
+				columnSize(srcCol) - count), destCard);
+	}
+
+	/**
+	 * Finds whether a card can be put on a column.
+	 *
+	 * @param card the card's index
+	 * @param destCol the column
+	 * @return true if the column is empty or its top card is one rank higher
+	 * than and the opposite color of {@code card}
+	 */
+	public boolean canPlace(int card, int destCol) {
+		int destCard = topCard(destCol);
+		return destCard == NO_CARD || canStack(card, destCard);
+	}
+
+	/**
+	 * Finds whether a card can be played to its foundation.
+	 *
+	 * @param card the card's index, or {@code NO_CARD}
+	 * @return true if the card is the next one its foundation needs
+	 */
+	public boolean canPlayToFoundation(int card) {
+		return card != NO_CARD
+				&& foundationSize(Card.suitOf(card)) == Card.rankOf(card);
+	}
+
+	/**
+	 * Applies a move. The move is assumed to be legal.
+	 *
+	 * @param move the packed move to apply
+	 */
+	public void apply(int move) {
+		int src = Move.source(move);
+		int dest = Move.dest(move);
+
+		switch (Move.type(move)) {
+			case TABLEAU_TO_FOUNDATION -> addToFoundation(pop(src));
+			case CELL_TO_FOUNDATION -> addToFoundation(takeFromCell(src));
+			case TABLEAU_TO_CELL -> putInCell(pop(src));
+			case CELL_TO_TABLEAU -> push(dest, takeFromCell(src));
+			case TABLEAU_TO_TABLEAU -> {
+				int count = Move.count(move);
+				int srcSize = columnSize(src);
+				for (int i = srcSize - count; i < srcSize; i++)
+					push(dest, cardAt(src, i));
+				data[SIZES + src] = (byte) (srcSize - count);
+			}
+			default -> throw new IllegalArgumentException("Unknown move type: " + Move.type(move));
+		}
+	}
+
+	/**
+	 * Returns a hash of this table that is the same for every arrangement of
+	 * the same columns in a different order. Because the free cells are
+	 * sorted, it is also independent of which cells the cards went into. The
+	 * foundations need not be hashed, since they hold exactly the cards that
+	 * are missing from the rest of the table.
+	 *
+	 * @return the hash
+	 */
+	public long canonicalHash() {
+		long hash = 0;
+
+		for (int col = 0; col < COLUMNS; col++) {
+			long columnHash = 0;
+			for (int pos = 0; pos < columnSize(col); pos++)
+				columnHash ^= tableauKeys[pos * DECK_SIZE + cardAt(col, pos)];
+			hash += mix(columnHash);
+		}
+		for (int i = freeCellCount(); i < CELLS; i++)
+			hash ^= cellKeys[data[CELL + i]];
+
+		return hash;
+	}
+
+	private static long mix(long z) {
+		z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+		z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return z ^ (z >>> 33);
+	}
+
+	private static boolean canStack(int card, int onto) {
+		return Card.rankOf(onto) - Card.rankOf(card) == 1
+				&& Card.isRed(onto) != Card.isRed(card);
+	}
+
+	private void push(int col, int card) {
+		data[col * COLUMN_STRIDE + data[SIZES + col]++] = (byte) card;
+	}
+
+	private int pop(int col) {
+		return data[col * COLUMN_STRIDE + --data[SIZES + col]];
+	}
+
+	private void putInCell(int card) {
+		// The empty cells come first, so shift smaller cards down into the
+		// last empty cell and insert the new card behind them.
+		int i = freeCellCount() - 1;
+		while (i + 1 < CELLS && data[CELL + i + 1] < card) {
+			data[CELL + i] = data[CELL + i + 1];
+			i++;
+		}
+		data[CELL + i] = (byte) card;
+	}
+
+	private int takeFromCell(int cell) {
+		int card = data[CELL + cell];
+		for (int i = cell; i > 0; i--)
+			data[CELL + i] = data[CELL + i - 1];
+		data[CELL] = NO_CARD;
+		return card;
+	}
+
+	private void addToFoundation(int card) {
+		int suit = Card.suitOf(card);
+		foundations = (short) ((foundations & ~(0xF << (suit * 4)))
+				| ((Card.rankOf(card) + 1) << (suit * 4)));
+	}
+}
@@ -32,16 +32,81 @@ package com.github.strangercoug.freesolitaire.games;
 
 import com.github.strangercoug.freesolitaire.Game;
 import com.github.strangercoug.freesolitaire.Player;
+import com.github.strangercoug.freesolitaire.games.WasteLayoutState.Layout;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.MoveJournal;
 
 /**
+ * Golf, played on a {@link WasteLayoutState} with the
+ * {@link Layout#GOLF} layout.
  *
  * @author Jeffrey Hope <strangercoug@hotmail.com>
  */
 public class Golf extends Game {
+	Deck deck;
+	WasteLayoutState state;
+	final MoveJournal journal = new MoveJournal();
+	private final WasteLayoutMoveGenerator generator = new WasteLayoutMoveGenerator();
 
 	@Override
 	public void play(Player player) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		Deck newDeck = new Deck();
+		newDeck.populateDeck();
+		newDeck.shuffleDeck();
+		deal(newDeck);
 	}
 
-}
\ No newline at end of file
+	@Override
+	public void deal(Deck deck) {
+		this.deck = deck;
+		state = WasteLayoutState.deal(deck, Layout.GOLF);
+		journal.clear();
+	}
+
+	@Override
+	public boolean isWon() {
+		return state != null && state.isWon();
+	}
+
+	/**
+	 * Returns a copy of the current table.
+	 *
+	 * @return the table
+	 */
+	public WasteLayoutState getState() {
+		return state.copy();
+	}
+
+	@Override
+	public int generateMoves(int[] moves) {
+		return generator.generateMoves(state, moves);
+	}
+
+	@Override
+	public int maxMoves() {
+		return generator.maxMoves();
+	}
+
+	@Override
+	public void makeMove(int move) {
+		journal.record(move, state.make(move));
+	}
+
+	@Override
+	public boolean undo() {
+		if (!journal.canUndo())
+			return false;
+
+		state.unmake(journal.undo());
+		return true;
+	}
+
+	@Override
+	public boolean redo() {
+		if (!journal.canRedo())
+			return false;
+
+		state.make(journal.redo());
+		return true;
+	}
+}
@@ -36,6 +36,8 @@ import com.github.strangercoug.freesolitaire.enums.CardRank;
 import com.github.strangercoug.freesolitaire.enums.CardSuit;
 import com.github.strangercoug.freesolitaire.objs.Card;
 import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+import com.github.strangercoug.freesolitaire.objs.MoveJournal;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -50,6 +52,27 @@ public class Klondike extends Game {
 	ArrayList<ArrayList<Card>> foundations; // cards are built up here
 	ArrayList<ArrayList<Card>> tableau; // cards are initially dealt here
 	byte[] firstFaceUpCard;
+	final int drawCount;
+	final MoveJournal journal = new MoveJournal();
+
+	/**
+	 * @param drawCount  the number of cards drawn from the stock at a time,
+	 * usually 1 or 3
+	 */
+	public Klondike(int drawCount) {
+		if (drawCount < 1)
+			throw new IllegalArgumentException("At least one card must be drawn at a time.");
+
+		this.drawCount = drawCount;
+	}
+
+	public Klondike() {
+		this(1);
+	}
+
+	public int getDrawCount() {
+		return drawCount;
+	}
 
 	@Override
 	public void play(Player player) {
@@ -66,17 +89,37 @@ public class Klondike extends Game {
 			firstFaceUpCard[i] = (byte) i;
 			tableau.add(new ArrayList<>(CardRank.values().length + i));
 		}
+		journal.clear();
+	}
+
+	@Override
+	public void deal(Deck deck) {
+		this.deck = deck;
+		KlondikeState.deal(deck).applyTo(this);
+	}
+
+	@Override
+	public boolean isWon() {
+		for (int i = 0; i < foundations.size(); i++) {
+			if (foundations.get(i).size() != CardRank.values().length)
+				return false;
+		}
+		return true;
 	}
 
 	/**
 	 * If the topmost card of a tableau pile is face down, flip it face up.
 	 * 
 	 * @param column the column with the card to flip 
+	 * @return true if a card was flipped; false otherwise
 	 */
-	public void flipCard(byte column) {
+	public boolean flipCard(byte column) {
 		if (firstFaceUpCard[column] > 0 &&
-				foundations.get(column).size() == firstFaceUpCard[column] + 1)
+				tableau.get(column).size() == firstFaceUpCard[column]) {
 			firstFaceUpCard[column]--;
+			return true;
+		}
+		return false;
 	}
 
 	public void drawFromTalon() {
@@ -100,7 +143,22 @@ public class Klondike extends Game {
 	 */
 	public boolean canMoveCards (List<Card> srcCol, List<Card> destCol,
 	                             byte cardsToMove) {
-		return false;
+		int firstMoved = srcCol.size() - cardsToMove;
+		if (cardsToMove < 1 || firstMoved < 0 || srcCol == destCol)
+			return false;
+
+		for (int i = 0; tableau != null && i < tableau.size(); i++) {
+			if (tableau.get(i) == srcCol && firstMoved < firstFaceUpCard[i])
+				return false;
+		}
+
+		Card movedCard = srcCol.get(firstMoved);
+		if (destCol.isEmpty())
+			return movedCard.rank() == CardRank.KING;
+
+		Card destCard = destCol.get(destCol.size()-1);
+		return destCard.rank().ordinal() - movedCard.rank().ordinal() == 1
+				&& destCard.suit().isRed() != movedCard.suit().isRed();
 	}
 
 	/**
@@ -124,4 +182,223 @@ public class Klondike extends Game {
 				&& tableauCard.rank().ordinal()
 				- foundationCard.rank().ordinal() == 1;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Fills {@code moves} with the legal moves from the current table, in the
+	 * order and encoding used by {@link KlondikeMoveGenerator}, so that the
+	 * moves mean the same thing here as they do on a {@link KlondikeState}.
+	 * Foundations are identified by the suit of their cards.
+	 *
+	 * @param moves  the buffer to write packed moves to, at least
+	 * {@link KlondikeMoveGenerator#MAX_MOVES} long
+	 * @return the number of moves written
+	 */
+	@Override
+	public int generateMoves(int[] moves) {
+		int count = 0;
+
+		for (int col = 0; col < tableau.size(); col++) {
+			if (canPlayToAnyFoundation(tableau.get(col)))
+				moves[count++] = Move.of(KlondikeState.TABLEAU_TO_FOUNDATION, col, 0, 1);
+		}
+		if (canPlayToAnyFoundation(talon))
+			moves[count++] = Move.of(KlondikeState.TALON_TO_FOUNDATION, 0, 0, 1);
+
+		for (int src = 0; src < tableau.size(); src++) {
+			int faceUp = tableau.get(src).size() - firstFaceUpCard[src];
+			for (int dest = 0; faceUp > 0 && dest < tableau.size(); dest++) {
+				if (canMoveCards(tableau.get(src), tableau.get(dest), (byte) faceUp))
+					moves[count++] = Move.of(KlondikeState.TABLEAU_TO_TABLEAU, src, dest, faceUp);
+			}
+		}
+
+		for (int dest = 0; dest < tableau.size(); dest++) {
+			if (!talon.isEmpty() && canMoveCards(talon, tableau.get(dest), (byte) 1))
+				moves[count++] = Move.of(KlondikeState.TALON_TO_TABLEAU, 0, dest, 1);
+		}
+
+		if (!stock.isEmpty())
+			moves[count++] = Move.of(KlondikeState.DRAW, 0, 0, Math.min(drawCount, stock.size()));
+		else if (!talon.isEmpty())
+			moves[count++] = Move.of(KlondikeState.DRAW, 0, 0, 0);
+
+		for (int src = 0; src < tableau.size(); src++) {
+			int faceUp = tableau.get(src).size() - firstFaceUpCard[src];
+			for (int dest = 0; dest < tableau.size(); dest++) {
+				for (int cards = 1; cards < faceUp; cards++) {
+					if (canMoveCards(tableau.get(src), tableau.get(dest), (byte) cards))
+						moves[count++] = Move.of(KlondikeState.TABLEAU_TO_TABLEAU, src, dest, cards);
+				}
+			}
+		}
+
+		for (CardSuit suit : CardSuit.values()) {
+			ArrayList<Card> foundation = foundationFor(suit);
+			if (foundation.isEmpty() || foundation.get(0).suit() != suit)
+				continue;
+			for (int dest = 0; dest < tableau.size(); dest++) {
+				if (canMoveCards(foundation, tableau.get(dest), (byte) 1))
+					moves[count++] = Move.of(KlondikeState.FOUNDATION_TO_TABLEAU,
+							suit.ordinal(), dest, 1);
+			}
+		}
+
+		return count;
+	}
+
+	@Override
+	public int maxMoves() {
+		return KlondikeMoveGenerator.MAX_MOVES;
+	}
+
+	/**
+	 * Plays a move, encoded as for {@link KlondikeState}, and records it in the
+	 * journal along with the same undo token {@link KlondikeState#make(int)}
+	 * would return for it.
+	 *
+	 * @param move  the packed move to play
+	 */
+	@Override
+	public void makeMove(int move) {
+		journal.record(move, apply(move));
+	}
+
+	@Override
+	public boolean undo() {
+		if (!journal.canUndo())
+			return false;
+
+		unapply(journal.undo());
+		return true;
+	}
+
+	@Override
+	public boolean redo() {
+		if (!journal.canRedo())
+			return false;
+
+		apply(journal.redo());
+		return true;
+	}
+
+	private int apply(int move) {
+		int type = Move.type(move);
+		int src = Move.source(move);
+		int dest = Move.dest(move);
+		int count = Move.count(move);
+
+		switch (type) {
+			case KlondikeState.TABLEAU_TO_FOUNDATION -> {
+				Card card = removeTop(tableau.get(src));
+				foundationFor(card.suit()).add(card);
+				return flipToken(Move.of(type, src, card.suit().ordinal(), 1), src);
+			}
+			case KlondikeState.TALON_TO_FOUNDATION -> {
+				Card card = removeTop(talon);
+				foundationFor(card.suit()).add(card);
+				return Move.of(type, 0, card.suit().ordinal(), 1);
+			}
+			case KlondikeState.TALON_TO_TABLEAU -> tableau.get(dest).add(removeTop(talon));
+			case KlondikeState.TABLEAU_TO_TABLEAU -> {
+				movePile(tableau.get(src), tableau.get(dest), count);
+				return flipToken(move, src);
+			}
+			case KlondikeState.FOUNDATION_TO_TABLEAU ->
+				tableau.get(dest).add(removeTop(foundationFor(CardSuit.values()[src])));
+			case KlondikeState.DRAW -> {
+				int talonSize = talon.size();
+				if (count == 0)
+					dealCards(talon, stock, talonSize);
+				else
+					dealCards(stock, talon, count);
+				return Move.of(type, 0, talonSize, count);
+			}
+			default -> throw new IllegalArgumentException("Unknown move type: " + type);
+		}
+		return move;
+	}
+
+	private void unapply(int token) {
+		int src = Move.source(token);
+		int dest = Move.dest(token);
+		int count = Move.count(token);
+
+		if ((token & KlondikeState.FLIPPED) != 0)
+			firstFaceUpCard[src]++;
+		switch (Move.type(token & ~KlondikeState.FLIPPED)) {
+			case KlondikeState.TABLEAU_TO_FOUNDATION ->
+				tableau.get(src).add(removeTop(foundationFor(CardSuit.values()[dest])));
+			case KlondikeState.TALON_TO_FOUNDATION ->
+				talon.add(removeTop(foundationFor(CardSuit.values()[dest])));
+			case KlondikeState.TALON_TO_TABLEAU -> talon.add(removeTop(tableau.get(dest)));
+			case KlondikeState.TABLEAU_TO_TABLEAU ->
+				movePile(tableau.get(dest), tableau.get(src), count);
+			case KlondikeState.FOUNDATION_TO_TABLEAU ->
+				foundationFor(CardSuit.values()[src]).add(removeTop(tableau.get(dest)));
+			case KlondikeState.DRAW -> {
+				if (count == 0)
+					dealCards(stock, talon, dest);
+				else
+					dealCards(talon, stock, count);
+			}
+			default -> throw new IllegalArgumentException(
+					"Unknown move type: " + Move.type(token & ~KlondikeState.FLIPPED));
+		}
+	}
+
+	private int flipToken(int token, int column) {
+		return flipCard((byte) column) ? token | KlondikeState.FLIPPED : token;
+	}
+
+	/**
+	 * Returns the foundation being built in {@code suit}, or the first empty
+	 * one if that suit has not been started.
+	 */
+	private ArrayList<Card> foundationFor(CardSuit suit) {
+		ArrayList<Card> empty = null;
+		for (int i = 0; i < foundations.size(); i++) {
+			ArrayList<Card> foundation = foundations.get(i);
+			if (foundation.isEmpty()) {
+				if (empty == null)
+					empty = foundation;
+			} else if (foundation.get(0).suit() == suit) {
+				return foundation;
+			}
+		}
+		return empty;
+	}
+
+	private static Card removeTop(ArrayList<Card> pile) {
+		return pile.remove(pile.size() - 1);
+	}
+
+	/**
+	 * Moves the top {@code count} cards of one tableau column onto another,
+	 * keeping their order.
+	 */
+	private static void movePile(ArrayList<Card> from, ArrayList<Card> to, int count) {
+		int first = from.size() - count;
+		for (int i = first; i < from.size(); i++)
+			to.add(from.get(i));
+		while (from.size() > first)
+			removeTop(from);
+	}
+
+	/**
+	 * Moves {@code count} cards one at a time from the top of {@code from} to
+	 * the top of {@code to}, which reverses their order, as when drawing from
+	 * the stock or turning the talon over.
+	 */
+	private static void dealCards(ArrayList<Card> from, ArrayList<Card> to, int count) {
+		for (int i = 0; i < count; i++)
+			to.add(removeTop(from));
+	}
+
+	private boolean canPlayToAnyFoundation(List<Card> pile) {
+		for (int i = 0; i < foundations.size(); i++) {
+			if (canPlayToFoundation(pile, foundations.get(i)))
+				return true;
+		}
+		return false;
+	}
+}
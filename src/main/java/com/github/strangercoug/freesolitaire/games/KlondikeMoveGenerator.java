@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.CardRank;
+import com.github.strangercoug.freesolitaire.enums.CardSuit;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Move;
+import com.github.strangercoug.freesolitaire.objs.MoveGenerator;
+
+import static com.github.strangercoug.freesolitaire.games.KlondikeState.COLUMNS;
+import static com.github.strangercoug.freesolitaire.games.KlondikeState.DRAW;
+import static com.github.strangercoug.freesolitaire.games.KlondikeState.FOUNDATION_TO_TABLEAU;
+import static com.github.strangercoug.freesolitaire.games.KlondikeState.NO_CARD;
+import static com.github.strangercoug.freesolitaire.games.KlondikeState.TABLEAU_TO_FOUNDATION;
+import static com.github.strangercoug.freesolitaire.games.KlondikeState.TABLEAU_TO_TABLEAU;
+import static com.github.strangercoug.freesolitaire.games.KlondikeState.TALON_TO_FOUNDATION;
+import static com.github.strangercoug.freesolitaire.games.KlondikeState.TALON_TO_TABLEAU;
+
+/**
+ * Generates the legal moves from a {@link KlondikeState}.
+ * <p>
+ * Moves come out in a fixed order: plays to the foundations, moves of whole
+ * face-up piles, moves from the talon to the tableau, the draw or redeal,
+ * moves of part of a pile, and finally moves back from the foundations.
+ * Between two columns at most one number of cards can be moved, so there are
+ * never more than {@link #MAX_MOVES} moves.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class KlondikeMoveGenerator implements MoveGenerator<KlondikeState> {
+	public static final int MAX_MOVES = 96;
+	private static final int RANKS = CardRank.values().length;
+	private static final int SUITS = CardSuit.values().length;
+
+	private final int drawCount;
+
+	/**
+	 * @param drawCount  the number of cards drawn from the stock at a time,
+	 * usually 1 or 3
+	 */
+	public KlondikeMoveGenerator(int drawCount) {
+		if (drawCount < 1)
+			throw new IllegalArgumentException("At least one card must be drawn at a time.");
+
+		this.drawCount = drawCount;
+	}
+
+	public int getDrawCount() {
+		return drawCount;
+	}
+
+	@Override
+	public int maxMoves() {
+		return MAX_MOVES;
+	}
+
+	@Override
+	public int generateMoves(KlondikeState state, int[] moves) {
+		int count = 0;
+
+		for (int col = 0; col < COLUMNS; col++) {
+			if (state.canPlayToFoundation(col))
+				moves[count++] = Move.of(TABLEAU_TO_FOUNDATION, col, 0, 1);
+		}
+		if (state.canPlayTalonToFoundation())
+			moves[count++] = Move.of(TALON_TO_FOUNDATION, 0, 0, 1);
+
+		count = generateTableauMoves(state, moves, count, true);
+
+		for (int dest = 0; dest < COLUMNS; dest++) {
+			if (state.canMoveTalonCard(dest))
+				moves[count++] = Move.of(TALON_TO_TABLEAU, 0, dest, 1);
+		}
+
+		if (state.stockCount() > 0)
+			moves[count++] = Move.of(DRAW, 0, 0, Math.min(drawCount, state.stockCount()));
+		else if (state.talonSize() > 0)
+			moves[count++] = Move.of(DRAW, 0, 0, 0);
+
+		count = generateTableauMoves(state, moves, count, false);
+
+		for (int suit = 0; suit < SUITS; suit++) {
+			int size = state.foundationSize(suit);
+			if (size == 0)
+				continue;
+			int card = suit * RANKS + size - 1;
+			for (int dest = 0; dest < COLUMNS; dest++) {
+				int destCard = state.topCard(dest);
+				if (destCard == NO_CARD ? size == RANKS
+						: Card.rankOf(destCard) == size
+						&& Card.isRed(destCard) != Card.isRed(card))
+					moves[count++] = Move.of(FOUNDATION_TO_TABLEAU, suit, dest, 1);
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Adds the moves of whole face-up piles, or of only part of a pile. The
+	 * face-up cards of a column always form a sequence, so the number of cards
+	 * that could go on a column follows from its top card's rank.
+	 */
+	private static int generateTableauMoves(KlondikeState state, int[] moves, int count,
+			boolean wholePiles) {
+		for (int src = 0; src < COLUMNS; src++) {
+			int faceUp = state.columnSize(src) - state.faceDownCount(src);
+			if (faceUp == 0)
+				continue;
+			int topRank = Card.rankOf(state.topCard(src));
+			for (int dest = 0; dest < COLUMNS; dest++) {
+				int destCard = state.topCard(dest);
+				int cards = (destCard == NO_CARD ? RANKS : Card.rankOf(destCard)) - topRank;
+				if ((wholePiles ? cards == faceUp : cards > 0 && cards < faceUp)
+						&& state.canMoveCards(src, dest, cards))
+					moves[count++] = Move.of(TABLEAU_TO_TABLEAU, src, dest, cards);
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,522 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.CardRank;
+import com.github.strangercoug.freesolitaire.enums.CardSuit;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A compact representation of a Klondike table for search and simulation.
+ * <p>
+ * Every pile is stored as {@link Card#index()} values in a single
+ * {@code byte} array, so a state fits in three cache lines and can be copied
+ * with one {@code System.arraycopy}. The foundations are four nibbles, one
+ * per suit in the order listed in {@code CardSuit}, each holding the number of
+ * cards of that suit played so far. The stock and talon share one ring: the
+ * cards before the cursor are the talon with its top card just before the
+ * cursor, and the cards from the cursor onwards are the stock in the order
+ * they will be drawn.
+ * <p>
+ * States can be converted to and from the list-based model in
+ * {@link Klondike}, where the last card of each list is the top of its pile.
+ * <p>
+ * Each state also carries a Zobrist hash of the table that is updated
+ * incrementally as moves are applied, so searches can look positions up in a
+ * transposition table without rehashing the whole state at every node.
+ * Moves are packed into an {@code int} by {@link Move#of(int, int, int, int)},
+ * with one of the move type constants in this class as the type.
+ * <p>
+ * Searches can walk the game tree in place with {@link #make(int)} and
+ * {@link #unmake(int)} instead of copying the state at every node. The undo
+ * token that {@code make} returns is the move itself, with whatever the
+ * move destroyed packed into it: the sign bit ({@link #FLIPPED}) is set if a
+ * face-down card was turned over, a play to the foundations keeps the card's
+ * suit in its destination byte, and a draw keeps the previous talon size in
+ * its destination byte.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class KlondikeState {
+	public static final int COLUMNS = 7;
+	public static final int STOCK_SIZE = 24;
+	public static final int NO_CARD = -1;
+
+	/** Plays the top card of column {@code src} to its foundation. */
+	public static final int TABLEAU_TO_FOUNDATION = 0;
+	/** Plays the top card of the talon to its foundation. */
+	public static final int TALON_TO_FOUNDATION = 1;
+	/** Moves the top card of the talon onto column {@code dest}. */
+	public static final int TALON_TO_TABLEAU = 2;
+	/** Moves the top {@code count} cards of column {@code src} onto column {@code dest}. */
+	public static final int TABLEAU_TO_TABLEAU = 3;
+	/** Moves the top card of the foundation for suit {@code src} onto column {@code dest}. */
+	public static final int FOUNDATION_TO_TABLEAU = 4;
+	/** Draws {@code count} cards from the stock, or turns the talon over if {@code count} is 0. */
+	public static final int DRAW = 5;
+
+	/** Set in an undo token if the move turned a face-down card over. */
+	public static final int FLIPPED = 1 << 31;
+
+	private static final int RANKS = CardRank.values().length;
+	private static final int SUITS = CardSuit.values().length;
+	private static final int COLUMN_STRIDE = 20;
+	private static final int SIZES = COLUMNS * COLUMN_STRIDE;
+	private static final int FACE_DOWN = SIZES + COLUMNS;
+	private static final int STOCK = FACE_DOWN + COLUMNS;
+	private static final int LENGTH = STOCK + STOCK_SIZE;
+	private static final int DECK_SIZE = Card.DECK_SIZE;
+
+	private static final long[] tableauKeys = new long[SIZES * DECK_SIZE];
+	private static final long[] faceDownKeys = new long[SIZES];
+	private static final long[] foundationKeys = new long[SUITS * (RANKS + 1)];
+	private static final long[] stockKeys = new long[STOCK_SIZE * DECK_SIZE];
+	private static final long[] cursorKeys = new long[STOCK_SIZE + 1];
+
+	static {
+		SplittableRandom random = new SplittableRandom(0x4B4C4F4E44494B45L);
+		for (long[] keys : new long[][] {tableauKeys, faceDownKeys,
+				foundationKeys, stockKeys, cursorKeys}) {
+			for (int i = 0; i < keys.length; i++)
+				keys[i] = random.nextLong();
+		}
+	}
+
+	private final byte[] data;
+	private short foundations;
+	private int stockSize;
+	private int cursor;
+	private long hash;
+
+	private KlondikeState() {
+		data = new byte[LENGTH];
+	}
+
+	private KlondikeState(KlondikeState other) {
+		data = other.data.clone();
+		foundations = other.foundations;
+		stockSize = other.stockSize;
+		cursor = other.cursor;
+		hash = other.hash;
+	}
+
+	/**
+	 * Deals a new game from the top of {@code deck}, one row at a time from
+	 * left to right, with the last card of each column face up. The remaining
+	 * cards become the stock, in the order they were dealt.
+	 *
+	 * @param deck the deck to deal from
+	 * @return the dealt state
+	 */
+	public static KlondikeState deal(Deck deck) {
+		KlondikeState state = new KlondikeState();
+
+		for (int row = 0; row < COLUMNS; row++) {
+			for (int col = row; col < COLUMNS; col++)
+				state.push(col, deck.dealCard().index());
+		}
+		for (int col = 0; col < COLUMNS; col++)
+			state.data[FACE_DOWN + col] = (byte) col;
+
+		while (!deck.isEmpty() && state.stockSize < STOCK_SIZE)
+			state.data[STOCK + state.stockSize++] = (byte) deck.dealCard().index();
+
+		state.rehash();
+		return state;
+	}
+
+	/**
+	 * Packs the current table of {@code game}.
+	 *
+	 * @param game the game to read from
+	 * @return the packed state
+	 */
+	public static KlondikeState of(Klondike game) {
+		KlondikeState state = new KlondikeState();
+
+		for (List<Card> foundation : game.foundations) {
+			if (!foundation.isEmpty())
+				state.setFoundationSize(foundation.get(0).suit().ordinal(),
+						foundation.size());
+		}
+		for (int col = 0; col < COLUMNS; col++) {
+			for (Card card : game.tableau.get(col))
+				state.push(col, card.index());
+			state.data[FACE_DOWN + col] = game.firstFaceUpCard[col];
+		}
+		for (Card card : game.talon)
+			state.data[STOCK + state.stockSize++] = (byte) card.index();
+		state.cursor = state.stockSize;
+		for (int i = game.stock.size() - 1; i >= 0; i--)
+			state.data[STOCK + state.stockSize++] = (byte) game.stock.get(i).index();
+
+		state.rehash();
+		return state;
+	}
+
+	/**
+	 * Replaces the table of {@code game} with this state and clears its move
+	 * journal. Foundations are laid out in suit order.
+	 *
+	 * @param game the game to write to
+	 */
+	public void applyTo(Klondike game) {
+		game.foundations = new ArrayList<>(SUITS);
+		for (int suit = 0; suit < SUITS; suit++) {
+			ArrayList<Card> foundation = new ArrayList<>(RANKS);
+			for (int rank = 0; rank < foundationSize(suit); rank++)
+				foundation.add(Card.fromIndex(suit * RANKS + rank));
+			game.foundations.add(foundation);
+		}
+
+		game.tableau = new ArrayList<>(COLUMNS);
+		game.firstFaceUpCard = new byte[COLUMNS];
+		for (int col = 0; col < COLUMNS; col++) {
+			ArrayList<Card> column = new ArrayList<>(RANKS + col);
+			for (int pos = 0; pos < columnSize(col); pos++)
+				column.add(Card.fromIndex(cardAt(col, pos)));
+			game.tableau.add(column);
+			game.firstFaceUpCard[col] = data[FACE_DOWN + col];
+		}
+
+		game.talon = new ArrayList<>(STOCK_SIZE);
+		for (int i = 0; i < cursor; i++)
+			game.talon.add(Card.fromIndex(data[STOCK + i]));
+		game.stock = new ArrayList<>(STOCK_SIZE);
+		for (int i = stockSize - 1; i >= cursor; i--)
+			game.stock.add(Card.fromIndex(data[STOCK + i]));
+		game.journal.clear();
+	}
+
+	/**
+	 * Returns an independent copy of this state.
+	 *
+	 * @return the copy
+	 */
+	public KlondikeState copy() {
+		return new KlondikeState(this);
+	}
+
+	/**
+	 * Applies a move, flipping any face-down card it uncovers. The move is
+	 * assumed to be legal.
+	 *
+	 * @param move the packed move to apply
+	 */
+	public void apply(int move) {
+		int src = Move.source(move);
+		int dest = Move.dest(move);
+
+		switch (Move.type(move)) {
+			case TABLEAU_TO_FOUNDATION -> {
+				addToFoundation(pop(src));
+				flipCard(src);
+			}
+			case TALON_TO_FOUNDATION -> addToFoundation(removeTalonTop());
+			case TALON_TO_TABLEAU -> push(dest, removeTalonTop());
+			case TABLEAU_TO_TABLEAU -> {
+				moveCards(src, dest, Move.count(move));
+				flipCard(src);
+			}
+			case FOUNDATION_TO_TABLEAU -> push(dest, removeFromFoundation(src));
+			case DRAW -> setCursor(Move.count(move) == 0 ? 0 : cursor + Move.count(move));
+			default -> throw new IllegalArgumentException("Unknown move type: " + Move.type(move));
+		}
+	}
+
+	/**
+	 * Applies a move like {@link #apply(int)} and returns a token that
+	 * {@link #unmake(int)} can take it back with.
+	 *
+	 * @param move the packed move to apply
+	 * @return the undo token
+	 */
+	public int make(int move) {
+		int type = Move.type(move);
+		int src = Move.source(move);
+		int token = switch (type) {
+			case TABLEAU_TO_FOUNDATION -> Move.of(type, src, Card.suitOf(topCard(src)), 1);
+			case TALON_TO_FOUNDATION -> Move.of(type, 0, Card.suitOf(talonTop()), 1);
+			case DRAW -> Move.of(type, 0, cursor, Move.count(move));
+			default -> move;
+		};
+
+		int faceDown = faceDownCount(src);
+		apply(move);
+		if ((type == TABLEAU_TO_FOUNDATION || type == TABLEAU_TO_TABLEAU)
+				&& faceDownCount(src) != faceDown)
+			token |= FLIPPED;
+		return token;
+	}
+
+	/**
+	 * Takes back the last move made, restoring the table and its hash exactly.
+	 * Moves must be taken back in the reverse of the order they were made.
+	 *
+	 * @param token the token {@link #make(int)} returned for the move
+	 */
+	public void unmake(int token) {
+		int src = Move.source(token);
+		int dest = Move.dest(token);
+
+		if ((token & FLIPPED) != 0)
+			unflipCard(src);
+		switch (Move.type(token & ~FLIPPED)) {
+			case TABLEAU_TO_FOUNDATION -> push(src, removeFromFoundation(dest));
+			case TALON_TO_FOUNDATION -> insertTalonTop(removeFromFoundation(dest));
+			case TALON_TO_TABLEAU -> insertTalonTop(pop(dest));
+			case TABLEAU_TO_TABLEAU -> moveCards(dest, src, Move.count(token));
+			case FOUNDATION_TO_TABLEAU -> addToFoundation(pop(dest));
+			case DRAW -> setCursor(dest);
+			default -> throw new IllegalArgumentException("Unknown move type: " + Move.type(token & ~FLIPPED));
+		}
+	}
+
+	/**
+	 * Returns the Zobrist hash of this table.
+	 *
+	 * @return the hash
+	 */
+	public long hash() {
+		return hash;
+	}
+
+	public int foundationSize(int suit) {
+		return (foundations >>> (suit * 4)) & 0xF;
+	}
+
+	public int columnSize(int col) {
+		return data[SIZES + col];
+	}
+
+	public int faceDownCount(int col) {
+		return data[FACE_DOWN + col];
+	}
+
+	public int cardAt(int col, int pos) {
+		return data[col * COLUMN_STRIDE + pos];
+	}
+
+	public int topCard(int col) {
+		int size = columnSize(col);
+		return size == 0 ? NO_CARD : cardAt(col, size - 1);
+	}
+
+	public int talonSize() {
+		return cursor;
+	}
+
+	public int stockCount() {
+		return stockSize - cursor;
+	}
+
+	public int talonTop() {
+		return cursor == 0 ? NO_CARD : data[STOCK + cursor - 1];
+	}
+
+	public boolean isWon() {
+		return foundations == (short) 0xDDDD;
+	}
+
+	/**
+	 * Finds whether the top card of a tableau column can be played to its
+	 * foundation.
+	 *
+	 * @param col the column to play from
+	 * @return true if the move is legal; false otherwise
+	 */
+	public boolean canPlayToFoundation(int col) {
+		return canPlayCardToFoundation(topCard(col));
+	}
+
+	/**
+	 * Finds whether the top card of the talon can be played to its foundation.
+	 *
+	 * @return true if the move is legal; false otherwise
+	 */
+	public boolean canPlayTalonToFoundation() {
+		return canPlayCardToFoundation(talonTop());
+	}
+
+	/**
+	 * Finds whether the top {@code cardsToMove} cards in {@code srcCol} can be
+	 * legally moved to {@code destCol}, following the same rules as
+	 * {@link Klondike#canMoveCards(List, List, byte)}.
+	 *
+	 * @param srcCol the column to move cards from
+	 * @param destCol the column to move cards to
+	 * @param cardsToMove the number of cards to move
+	 * @return true if move is legal; false otherwise
+	 */
+	public boolean canMoveCards(int srcCol, int destCol, int cardsToMove) {
+		int size = columnSize(srcCol);
+		if (srcCol == destCol || cardsToMove < 1
+				|| cardsToMove > size - faceDownCount(srcCol))
+			return false;
+
+		return canPlace(cardAt(srcCol, size - cardsToMove), destCol);
+	}
+
+	/**
+	 * Finds whether the top card of the talon can be moved to {@code destCol}.
+	 *
+	 * @param destCol the column to move the card to
+	 * @return true if move is legal; false otherwise
+	 */
+	public boolean canMoveTalonCard(int destCol) {
+		int card = talonTop();
+		return card != NO_CARD && canPlace(card, destCol);
+	}
+
+	private boolean canPlayCardToFoundation(int card) {
+		return card != NO_CARD
+				&& foundationSize(Card.suitOf(card)) == Card.rankOf(card);
+	}
+
+	private boolean canPlace(int card, int destCol) {
+		int destCard = topCard(destCol);
+		if (destCard == NO_CARD)
+			return Card.rankOf(card) == RANKS - 1;
+
+		return Card.rankOf(destCard) - Card.rankOf(card) == 1
+				&& Card.isRed(destCard) != Card.isRed(card);
+	}
+
+	private void push(int col, int card) {
+		int slot = col * COLUMN_STRIDE + data[SIZES + col];
+		data[slot] = (byte) card;
+		data[SIZES + col]++;
+		hash ^= tableauKeys[slot * DECK_SIZE + card];
+	}
+
+	private int pop(int col) {
+		int slot = col * COLUMN_STRIDE + --data[SIZES + col];
+		int card = data[slot];
+		hash ^= tableauKeys[slot * DECK_SIZE + card];
+		return card;
+	}
+
+	private void moveCards(int srcCol, int destCol, int count) {
+		int srcSize = columnSize(srcCol);
+		for (int i = srcSize - count; i < srcSize; i++) {
+			int slot = srcCol * COLUMN_STRIDE + i;
+			hash ^= tableauKeys[slot * DECK_SIZE + data[slot]];
+			push(destCol, data[slot]);
+		}
+		data[SIZES + srcCol] = (byte) (srcSize - count);
+	}
+
+	private void flipCard(int col) {
+		int faceDown = data[FACE_DOWN + col];
+		if (faceDown > 0 && faceDown == data[SIZES + col]) {
+			hash ^= faceDownKeys[col * COLUMN_STRIDE + faceDown]
+					^ faceDownKeys[col * COLUMN_STRIDE + faceDown - 1];
+			data[FACE_DOWN + col]--;
+		}
+	}
+
+	private void unflipCard(int col) {
+		int faceDown = data[FACE_DOWN + col];
+		hash ^= faceDownKeys[col * COLUMN_STRIDE + faceDown]
+				^ faceDownKeys[col * COLUMN_STRIDE + faceDown + 1];
+		data[FACE_DOWN + col]++;
+	}
+
+	private int removeTalonTop() {
+		int pos = cursor - 1;
+		int card = data[STOCK + pos];
+		for (int i = pos; i < stockSize; i++)
+			hash ^= stockKeys[i * DECK_SIZE + data[STOCK + i]];
+		System.arraycopy(data, STOCK + pos + 1, data, STOCK + pos,
+				stockSize - pos - 1);
+		stockSize--;
+		for (int i = pos; i < stockSize; i++)
+			hash ^= stockKeys[i * DECK_SIZE + data[STOCK + i]];
+		setCursor(pos);
+		return card;
+	}
+
+	private void insertTalonTop(int card) {
+		int pos = cursor;
+		for (int i = pos; i < stockSize; i++)
+			hash ^= stockKeys[i * DECK_SIZE + data[STOCK + i]];
+		System.arraycopy(data, STOCK + pos, data, STOCK + pos + 1,
+				stockSize - pos);
+		data[STOCK + pos] = (byte) card;
+		stockSize++;
+		for (int i = pos; i < stockSize; i++)
+			hash ^= stockKeys[i * DECK_SIZE + data[STOCK + i]];
+		setCursor(pos + 1);
+	}
+
+	private void setCursor(int cursor) {
+		hash ^= cursorKeys[this.cursor] ^ cursorKeys[cursor];
+		this.cursor = cursor;
+	}
+
+	private void addToFoundation(int card) {
+		setFoundationSize(Card.suitOf(card), Card.rankOf(card) + 1);
+	}
+
+	private int removeFromFoundation(int suit) {
+		int rank = foundationSize(suit) - 1;
+		setFoundationSize(suit, rank);
+		return suit * RANKS + rank;
+	}
+
+	private void setFoundationSize(int suit, int size) {
+		hash ^= foundationKeys[suit * (RANKS + 1) + foundationSize(suit)]
+				^ foundationKeys[suit * (RANKS + 1) + size];
+		foundations = (short) ((foundations & ~(0xF << (suit * 4)))
+				| (size << (suit * 4)));
+	}
+
+	private void rehash() {
+		hash = cursorKeys[cursor];
+		for (int suit = 0; suit < SUITS; suit++)
+			hash ^= foundationKeys[suit * (RANKS + 1) + foundationSize(suit)];
+		for (int col = 0; col < COLUMNS; col++) {
+			for (int pos = 0; pos < columnSize(col); pos++) {
+				int slot = col * COLUMN_STRIDE + pos;
+				hash ^= tableauKeys[slot * DECK_SIZE + data[slot]];
+			}
+			hash ^= faceDownKeys[col * COLUMN_STRIDE + faceDownCount(col)];
+		}
+		for (int i = 0; i < stockSize; i++)
+			hash ^= stockKeys[i * DECK_SIZE + data[STOCK + i]];
+	}
+}
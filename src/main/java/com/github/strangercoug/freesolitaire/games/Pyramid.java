@@ -32,16 +32,99 @@ package com.github.strangercoug.freesolitaire.games;
 
 import com.github.strangercoug.freesolitaire.Game;
 import com.github.strangercoug.freesolitaire.Player;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.MoveJournal;
 
 /**
+ * Pyramid, played on a {@link PyramidState}.
  *
  * @author Jeffrey Hope <strangercoug@hotmail.com>
  */
 public class Pyramid extends Game {
+	Deck deck;
+	PyramidState state;
+	final int passes;
+	final MoveJournal journal = new MoveJournal();
+	private final PyramidMoveGenerator generator = new PyramidMoveGenerator();
+
+	/**
+	 * @param passes  the number of times the stock can be gone through, from
+	 * 1 to 3
+	 */
+	public Pyramid(int passes) {
+		if (passes < 1 || passes > 3)
+			throw new IllegalArgumentException("The stock can be gone through 1 to 3 times.");
+
+		this.passes = passes;
+	}
+
+	public Pyramid() {
+		this(3);
+	}
+
+	public int getPasses() {
+		return passes;
+	}
 
 	@Override
 	public void play(Player player) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		Deck newDeck = new Deck();
+		newDeck.populateDeck();
+		newDeck.shuffleDeck();
+		deal(newDeck);
+	}
+
+	@Override
+	public void deal(Deck deck) {
+		this.deck = deck;
+		state = PyramidState.deal(deck, passes);
+		journal.clear();
+	}
+
+	@Override
+	public boolean isWon() {
+		return state != null && state.isWon();
+	}
+
+	/**
+	 * Returns a copy of the current table.
+	 *
+	 * @return the table
+	 */
+	public PyramidState getState() {
+		return state.copy();
 	}
 
-}
\ No newline at end of file
+	@Override
+	public int generateMoves(int[] moves) {
+		return generator.generateMoves(state, moves);
+	}
+
+	@Override
+	public int maxMoves() {
+		return generator.maxMoves();
+	}
+
+	@Override
+	public void makeMove(int move) {
+		journal.record(move, state.make(move));
+	}
+
+	@Override
+	public boolean undo() {
+		if (!journal.canUndo())
+			return false;
+
+		state.unmake(journal.undo());
+		return true;
+	}
+
+	@Override
+	public boolean redo() {
+		if (!journal.canRedo())
+			return false;
+
+		state.make(journal.redo());
+		return true;
+	}
+}
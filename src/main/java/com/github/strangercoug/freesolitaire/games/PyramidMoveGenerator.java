@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.CardRank;
+import com.github.strangercoug.freesolitaire.objs.Move;
+import com.github.strangercoug.freesolitaire.objs.MoveGenerator;
+
+import static com.github.strangercoug.freesolitaire.games.PyramidState.DRAW;
+import static com.github.strangercoug.freesolitaire.games.PyramidState.NO_POSITION;
+import static com.github.strangercoug.freesolitaire.games.PyramidState.PAIR_SUM;
+import static com.github.strangercoug.freesolitaire.games.PyramidState.REDEAL;
+import static com.github.strangercoug.freesolitaire.games.PyramidState.REMOVE_ONE;
+import static com.github.strangercoug.freesolitaire.games.PyramidState.REMOVE_TWO;
+
+/**
+ * Generates the legal moves from a {@link PyramidState}.
+ * <p>
+ * Moves come out in a fixed order: kings, pairs, and then the draw or the
+ * redeal. No more than seven cards of the pyramid are ever available at
+ * once, so with the tops of the stock and waste there are never more than
+ * {@link #MAX_MOVES} moves.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class PyramidMoveGenerator implements MoveGenerator<PyramidState> {
+	public static final int MAX_MOVES = 40;
+	private static final int KING = CardRank.KING.ordinal() + 1;
+
+	@Override
+	public int maxMoves() {
+		return MAX_MOVES;
+	}
+
+	@Override
+	public int generateMoves(PyramidState state, int[] moves) {
+		int count = 0;
+		long pyramid = state.availablePyramid();
+		int stockTop = state.stockTop();
+		int wasteTop = state.wasteTop();
+
+		for (long left = pyramid; left != 0; left &= left - 1) {
+			int i = Long.numberOfTrailingZeros(left);
+			if (state.valueAt(i) == KING)
+				moves[count++] = Move.of(REMOVE_ONE, i, 0, 0);
+		}
+		if (stockTop != NO_POSITION && state.valueAt(stockTop) == KING)
+			moves[count++] = Move.of(REMOVE_ONE, stockTop, 0, 0);
+		if (wasteTop != NO_POSITION && state.valueAt(wasteTop) == KING)
+			moves[count++] = Move.of(REMOVE_ONE, wasteTop, 0, 0);
+
+		for (long left = pyramid; left != 0; left &= left - 1) {
+			int i = Long.numberOfTrailingZeros(left);
+			int wanted = PAIR_SUM - state.valueAt(i);
+			for (long others = left & (left - 1); others != 0; others &= others - 1) {
+				int j = Long.numberOfTrailingZeros(others);
+				if (state.valueAt(j) == wanted)
+					moves[count++] = Move.of(REMOVE_TWO, i, j, 0);
+			}
+			if (stockTop != NO_POSITION && state.valueAt(stockTop) == wanted)
+				moves[count++] = Move.of(REMOVE_TWO, i, stockTop, 0);
+			if (wasteTop != NO_POSITION && state.valueAt(wasteTop) == wanted)
+				moves[count++] = Move.of(REMOVE_TWO, i, wasteTop, 0);
+		}
+		if (stockTop != NO_POSITION && wasteTop != NO_POSITION
+				&& state.valueAt(stockTop) + state.valueAt(wasteTop) == PAIR_SUM)
+			moves[count++] = Move.of(REMOVE_TWO, stockTop, wasteTop, 0);
+
+		if (stockTop != NO_POSITION)
+			moves[count++] = Move.of(DRAW, 0, 0, 0);
+		else if (state.canRedeal())
+			moves[count++] = Move.of(REDEAL, 0, 0, 0);
+
+		return count;
+	}
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+
+/**
+ * A Pyramid table packed into a single {@code long}.
+ * <p>
+ * Pyramid deals 28 cards face up in seven rows, each row overlapping the one
+ * above, and the other 24 cards form the stock. A card is available once
+ * both cards overlapping it are gone, and so are the top cards of the stock
+ * and of the waste pile beside it. Kings are removed on their own, and any
+ * other two available cards whose ranks add up to 13 are removed together,
+ * counting aces as 1, jacks as 11 and queens as 12. The stock is turned over
+ * onto the waste one card at a time, and when it runs out the waste can be
+ * turned back over to make a new stock until the stock has been gone through
+ * {@code passes} times. The game is won once the pyramid is cleared.
+ * <p>
+ * The cards never move, so a position is just which cards have been removed
+ * and how far through the stock the game has got. Positions 0 to 27 are the
+ * pyramid, row by row from the top, and 28 to 51 are the stock in the order
+ * it is drawn. {@link #key()} packs a position into a {@code long}: a bit per
+ * position that has been removed, then the index of the next stock card to be
+ * drawn, then the pass through the stock. The cards drawn before that index
+ * and not removed are the waste, with its top card last. The stock index
+ * always points at a card that is still there, so no two keys mean the same
+ * position.
+ * <p>
+ * Moves are packed by {@link Move#of(int, int, int, int)} with one of the move
+ * type constants in this class as the type and positions as the source and
+ * destination. The undo token that {@link #make(int)} returns is the move with
+ * the stock index from before the move in its count byte.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class PyramidState {
+	public static final int ROWS = 7;
+	public static final int PYRAMID_SIZE = 28;
+	public static final int STOCK_SIZE = 24;
+	public static final int POSITIONS = PYRAMID_SIZE + STOCK_SIZE;
+	public static final int NO_POSITION = -1;
+	/** The sum of the ranks of two cards that can be removed together. */
+	public static final int PAIR_SUM = 13;
+
+	/** Removes the king at position {@code src}. */
+	public static final int REMOVE_ONE = 0;
+	/** Removes the cards at positions {@code src} and {@code dest}. */
+	public static final int REMOVE_TWO = 1;
+	/** Turns the top card of the stock over onto the waste. */
+	public static final int DRAW = 2;
+	/** Turns the waste back over to make a new stock. */
+	public static final int REDEAL = 3;
+
+	private static final long PYRAMID_MASK = (1L << PYRAMID_SIZE) - 1;
+	private static final int STOCK_SHIFT = POSITIONS;
+	private static final int PASS_SHIFT = STOCK_SHIFT + 5;
+	private static final long[] coverMasks = new long[PYRAMID_SIZE];
+	private static final long[] coneMasks = new long[PYRAMID_SIZE];
+
+	static {
+		for (int row = 0, i = 0; row < ROWS - 1; row++) {
+			for (int pos = 0; pos <= row; pos++, i++)
+				coverMasks[i] = 3L << (i + row + 1);
+		}
+		// A card's cone is every card that covers it, directly or not, and
+		// every card it covers.
+		for (int i = PYRAMID_SIZE - 1; i >= 0; i--) {
+			coneMasks[i] |= 1L << i;
+			for (long covers = coverMasks[i]; covers != 0; covers &= covers - 1)
+				coneMasks[i] |= coneMasks[Long.numberOfTrailingZeros(covers)];
+		}
+		for (int i = 0; i < PYRAMID_SIZE; i++) {
+			for (long below = coneMasks[i] & ~(1L << i); below != 0; below &= below - 1) {
+				int j = Long.numberOfTrailingZeros(below);
+				if (j > i)
+					coneMasks[j] |= 1L << i;
+			}
+		}
+	}
+
+	private final byte[] cards;
+	private final long[] rankMasks;
+	private final int passes;
+	private long removed;
+	private int stockIndex;
+	private int pass;
+
+	private PyramidState(byte[] cards, int passes) {
+		this.cards = cards;
+		this.passes = passes;
+		rankMasks = new long[PAIR_SUM + 1];
+		for (int i = 0; i < POSITIONS; i++)
+			rankMasks[valueAt(i)] |= 1L << i;
+	}
+
+	private PyramidState(PyramidState other) {
+		cards = other.cards;
+		rankMasks = other.rankMasks;
+		passes = other.passes;
+		removed = other.removed;
+		stockIndex = other.stockIndex;
+		pass = other.pass;
+	}
+
+	/**
+	 * Deals a new game from the top of {@code deck}, one row of the pyramid at
+	 * a time from left to right. The remaining 24 cards become the stock, in
+	 * the order they were dealt.
+	 *
+	 * @param deck  the deck to deal from
+	 * @param passes  the number of times the stock can be gone through, from 1
+	 * to 3
+	 * @return the dealt state
+	 */
+	public static PyramidState deal(Deck deck, int passes) {
+		if (passes < 1 || passes > 3)
+			throw new IllegalArgumentException("The stock can be gone through 1 to 3 times.");
+
+		byte[] cards = new byte[POSITIONS];
+		for (int i = 0; i < POSITIONS; i++)
+			cards[i] = (byte) deck.dealCard().index();
+		return new PyramidState(cards, passes);
+	}
+
+	/**
+	 * Returns an independent copy of this state.
+	 *
+	 * @return the copy
+	 */
+	public PyramidState copy() {
+		return new PyramidState(this);
+	}
+
+	/**
+	 * Returns the position packed into a {@code long}, as described above.
+	 *
+	 * @return the key
+	 */
+	public long key() {
+		return removed | (long) stockIndex << STOCK_SHIFT | (long) pass << PASS_SHIFT;
+	}
+
+	/**
+	 * Returns the card dealt to a position, whether or not it has been
+	 * removed.
+	 *
+	 * @param position  the position
+	 * @return the card's index
+	 */
+	public int cardAt(int position) {
+		return cards[position];
+	}
+
+	/**
+	 * Returns the rank of the card at a position, counting aces as 1 and kings
+	 * as 13.
+	 *
+	 * @param position  the position
+	 * @return the rank
+	 */
+	public int valueAt(int position) {
+		return Card.rankOf(cards[position]) + 1;
+	}
+
+	public boolean isRemoved(int position) {
+		return (removed & 1L << position) != 0;
+	}
+
+	public int getPasses() {
+		return passes;
+	}
+
+	public int getPass() {
+		return pass;
+	}
+
+	public boolean isWon() {
+		return (removed & PYRAMID_MASK) == PYRAMID_MASK;
+	}
+
+	/**
+	 * Returns the pyramid cards that are not overlapped by any card, as a
+	 * mask of positions.
+	 *
+	 * @return the available positions in the pyramid
+	 */
+	public long availablePyramid() {
+		long available = 0;
+		for (long left = ~removed & PYRAMID_MASK; left != 0; left &= left - 1) {
+			int i = Long.numberOfTrailingZeros(left);
+			if (i >= PYRAMID_SIZE - ROWS || (removed & coverMasks[i]) == coverMasks[i])
+				available |= 1L << i;
+		}
+		return available;
+	}
+
+	/**
+	 * Finds whether some card left in the pyramid can never be removed: a
+	 * card other than a king with no card left to pair with outside those
+	 * that cover it or that it covers, or a rank with more cards left in the
+	 * pyramid than its complement has left anywhere. This is only a quick
+	 * check, so a position that passes it may still be lost.
+	 *
+	 * @return true if the game is certainly lost; false otherwise
+	 */
+	public boolean isDead() {
+		long left = ~removed & ((1L << POSITIONS) - 1);
+		for (int rank = 1; rank <= PAIR_SUM / 2; rank++) {
+			long mine = left & rankMasks[rank];
+			long theirs = left & rankMasks[PAIR_SUM - rank];
+			int needed = Math.max(Long.bitCount(mine & PYRAMID_MASK),
+					Long.bitCount(theirs & PYRAMID_MASK));
+			if (needed > Math.min(Long.bitCount(mine), Long.bitCount(theirs)))
+				return true;
+		}
+
+		for (long pyramid = left & PYRAMID_MASK & ~rankMasks[PAIR_SUM]; pyramid != 0;
+				pyramid &= pyramid - 1) {
+			if (partners(Long.numberOfTrailingZeros(pyramid)) == 0)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the cards left that the card at a position could ever be
+	 * removed with: those of the complementary rank, other than any in the
+	 * pyramid that cover it or that it covers.
+	 *
+	 * @param position  the position of a card other than a king
+	 * @return the partners' positions, as a mask
+	 */
+	public long partners(int position) {
+		long cone = position < PYRAMID_SIZE ? coneMasks[position] : 1L << position;
+		return ~removed & rankMasks[PAIR_SUM - valueAt(position)] & ~cone;
+	}
+
+	/**
+	 * Returns the position of the top card of the stock.
+	 *
+	 * @return the position, or {@code NO_POSITION} if the stock is empty
+	 */
+	public int stockTop() {
+		return stockIndex == STOCK_SIZE ? NO_POSITION : PYRAMID_SIZE + stockIndex;
+	}
+
+	/**
+	 * Returns the position of the top card of the waste.
+	 *
+	 * @return the position, or {@code NO_POSITION} if the waste is empty
+	 */
+	public int wasteTop() {
+		long waste = ~removed >>> PYRAMID_SIZE & ((1L << stockIndex) - 1);
+		return waste == 0 ? NO_POSITION : PYRAMID_SIZE + 63 - Long.numberOfLeadingZeros(waste);
+	}
+
+	/**
+	 * Finds whether the stock is empty and there is a pass through it left.
+	 *
+	 * @return true if the waste can be turned over; false otherwise
+	 */
+	public boolean canRedeal() {
+		return stockIndex == STOCK_SIZE && pass + 1 < passes && wasteTop() != NO_POSITION;
+	}
+
+	/**
+	 * Applies a move. The move is assumed to be legal.
+	 *
+	 * @param move  the packed move to apply
+	 */
+	public void apply(int move) {
+		make(move);
+	}
+
+	/**
+	 * Applies a move like {@link #apply(int)} and returns a token that
+	 * {@link #unmake(int)} can take it back with.
+	 *
+	 * @param move  the packed move to apply
+	 * @return the undo token
+	 */
+	public int make(int move) {
+		int token = (move & ~0xFF) | stockIndex;
+
+		switch (Move.type(move)) {
+			case REMOVE_ONE -> removed |= 1L << Move.source(move);
+			case REMOVE_TWO -> removed |= 1L << Move.source(move) | 1L << Move.dest(move);
+			case DRAW -> stockIndex++;
+			case REDEAL -> {
+				stockIndex = 0;
+				pass++;
+			}
+			default -> throw new IllegalArgumentException("Unknown move type: " + Move.type(move));
+		}
+		skipRemovedStock();
+		return token;
+	}
+
+	/**
+	 * Takes back the last move made. Moves must be taken back in the reverse
+	 * of the order they were made.
+	 *
+	 * @param token  the token {@link #make(int)} returned for the move
+	 */
+	public void unmake(int token) {
+		switch (Move.type(token)) {
+			case REMOVE_ONE -> removed &= ~(1L << Move.source(token));
+			case REMOVE_TWO -> removed &= ~(1L << Move.source(token) | 1L << Move.dest(token));
+			case DRAW -> { }
+			case REDEAL -> pass--;
+			default -> throw new IllegalArgumentException("Unknown move type: " + Move.type(token));
+		}
+		stockIndex = Move.count(token);
+	}
+
+	private void skipRemovedStock() {
+		while (stockIndex < STOCK_SIZE && isRemoved(PYRAMID_SIZE + stockIndex))
+			stockIndex++;
+	}
+}
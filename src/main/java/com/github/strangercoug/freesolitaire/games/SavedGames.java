@@ -0,0 +1,414 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.Game;
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.MoveJournal;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+
+/**
+ * Saves and loads games in progress.
+ * <p>
+ * The binary format is meant for autosaving after every move, so it is
+ * small and quick to write: a magic number and format version, the variant's
+ * name, the game's options, every pile as a length byte followed by one
+ * {@link Card#index()} byte per card, and the move journal as varints. Each
+ * journal entry is the packed move followed by its undo token XORed with
+ * the move, which is 0, and so a single byte, for most moves. A saved game
+ * can be undone and redone just as it could before it was saved.
+ * <p>
+ * The JSON format holds the same data and is written and read a token at a
+ * time with Gson's streaming API, for other programs to use. Cards are
+ * written as their indices and moves as their packed {@code int}s.
+ * <p>
+ * Only Klondike can be saved so far.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class SavedGames {
+	public static final int VERSION = 1;
+	private static final int MAGIC = 0x46534F4C; // "FSOL"
+
+	private SavedGames() {
+	}
+
+	/**
+	 * Writes {@code game} to {@code out} in the binary format. The stream is
+	 * not closed.
+	 *
+	 * @param game  the game to save
+	 * @param out  the stream to write to
+	 * @throws IOException if writing fails
+	 * @throws UnsupportedOperationException if the game cannot be saved yet
+	 */
+	public static void save(Game game, OutputStream out) throws IOException {
+		Klondike klondike = asKlondike(game);
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 512));
+
+		data.writeInt(MAGIC);
+		data.writeByte(VERSION);
+		data.writeUTF(GameVariant.KLONDIKE.name());
+		data.writeByte(klondike.drawCount);
+		writePile(data, klondike.stock);
+		writePile(data, klondike.talon);
+		data.writeByte(klondike.foundations.size());
+		for (ArrayList<Card> foundation : klondike.foundations)
+			writePile(data, foundation);
+		data.writeByte(klondike.tableau.size());
+		for (int col = 0; col < klondike.tableau.size(); col++) {
+			data.writeByte(klondike.firstFaceUpCard[col]);
+			writePile(data, klondike.tableau.get(col));
+		}
+
+		MoveJournal journal = klondike.journal;
+		writeVarInt(data, journal.size());
+		writeVarInt(data, journal.position());
+		for (int i = 0; i < journal.size(); i++) {
+			writeVarInt(data, journal.moveAt(i));
+			writeVarInt(data, journal.tokenAt(i) ^ journal.moveAt(i));
+		}
+		data.flush();
+	}
+
+	/**
+	 * Reads a game saved by {@link #save(Game, OutputStream)}. The stream is
+	 * not closed.
+	 *
+	 * @param in  the stream to read from
+	 * @return the saved game, ready to continue
+	 * @throws IOException if reading fails or the data is not a saved game
+	 * this version can read
+	 */
+	public static Game load(InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(in);
+
+		if (data.readInt() != MAGIC)
+			throw new IOException("Not a saved game.");
+		int version = data.readUnsignedByte();
+		if (version > VERSION)
+			throw new IOException("Saved game format version " + version + " is newer than this program.");
+		checkVariant(data.readUTF());
+
+		Klondike game = newKlondike(data.readUnsignedByte());
+		game.stock = readPile(data);
+		game.talon = readPile(data);
+		int foundations = data.readUnsignedByte();
+		game.foundations = new ArrayList<>(foundations);
+		for (int i = 0; i < foundations; i++)
+			game.foundations.add(readPile(data));
+		int columns = data.readUnsignedByte();
+		game.tableau = new ArrayList<>(columns);
+		game.firstFaceUpCard = new byte[columns];
+		for (int col = 0; col < columns; col++) {
+			game.firstFaceUpCard[col] = data.readByte();
+			game.tableau.add(readPile(data));
+		}
+
+		int size = readVarInt(data);
+		int position = readVarInt(data);
+		if (position > size)
+			throw new IOException("Corrupt move journal.");
+		for (int i = 0; i < size; i++) {
+			int move = readVarInt(data);
+			game.journal.record(move, readVarInt(data) ^ move);
+		}
+		for (int i = position; i < size; i++)
+			game.journal.undo();
+		return game;
+	}
+
+	/**
+	 * Saves {@code game} to {@code path} without ever leaving a partly written
+	 * file there: the game is written to a temporary file in the same
+	 * directory, which then replaces {@code path}.
+	 *
+	 * @param game  the game to save
+	 * @param path  the file to save to
+	 * @throws IOException if writing fails
+	 */
+	public static void autosave(Game game, Path path) throws IOException {
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		try (OutputStream out = Files.newOutputStream(temp)) {
+			save(game, out);
+		}
+		try {
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Writes {@code game} as a JSON object. The writer is not closed.
+	 *
+	 * @param game  the game to export
+	 * @param writer  the writer to write to
+	 * @throws IOException if writing fails
+	 * @throws UnsupportedOperationException if the game cannot be saved yet
+	 */
+	public static void exportJson(Game game, Writer writer) throws IOException {
+		Klondike klondike = asKlondike(game);
+		JsonWriter json = new JsonWriter(writer);
+
+		json.beginObject();
+		json.name("version").value(VERSION);
+		json.name("variant").value(GameVariant.KLONDIKE.name());
+		json.name("drawCount").value(klondike.drawCount);
+		json.name("stock");
+		writePile(json, klondike.stock);
+		json.name("talon");
+		writePile(json, klondike.talon);
+		json.name("foundations").beginArray();
+		for (ArrayList<Card> foundation : klondike.foundations)
+			writePile(json, foundation);
+		json.endArray();
+		json.name("tableau").beginArray();
+		for (int col = 0; col < klondike.tableau.size(); col++) {
+			json.beginObject();
+			json.name("faceDown").value(klondike.firstFaceUpCard[col]);
+			json.name("cards");
+			writePile(json, klondike.tableau.get(col));
+			json.endObject();
+		}
+		json.endArray();
+
+		MoveJournal journal = klondike.journal;
+		json.name("journal").beginObject();
+		json.name("position").value(journal.position());
+		json.name("moves").beginArray();
+		for (int i = 0; i < journal.size(); i++)
+			json.beginArray().value(journal.moveAt(i)).value(journal.tokenAt(i)).endArray();
+		json.endArray();
+		json.endObject();
+		json.endObject();
+		json.flush();
+	}
+
+	/**
+	 * Reads a game exported by {@link #exportJson(Game, Writer)}. Unknown
+	 * properties are skipped. The reader is not closed.
+	 *
+	 * @param reader  the reader to read from
+	 * @return the saved game, ready to continue
+	 * @throws IOException if reading fails or the JSON is not a saved game
+	 * this version can read
+	 */
+	public static Game importJson(Reader reader) throws IOException {
+		JsonReader json = new JsonReader(reader);
+		int drawCount = 1;
+		ArrayList<Card> stock = new ArrayList<>();
+		ArrayList<Card> talon = new ArrayList<>();
+		ArrayList<ArrayList<Card>> foundations = new ArrayList<>();
+		ArrayList<ArrayList<Card>> tableau = new ArrayList<>();
+		ArrayList<Byte> faceDown = new ArrayList<>();
+		MoveJournal journal = new MoveJournal();
+		int position = 0;
+
+		json.beginObject();
+		while (json.hasNext()) {
+			switch (json.nextName()) {
+				case "version" -> {
+					int version = json.nextInt();
+					if (version > VERSION)
+						throw new IOException("Saved game format version " + version + " is newer than this program.");
+				}
+				case "variant" -> checkVariant(json.nextString());
+				case "drawCount" -> drawCount = json.nextInt();
+				case "stock" -> stock = readPile(json);
+				case "talon" -> talon = readPile(json);
+				case "foundations" -> {
+					json.beginArray();
+					while (json.hasNext())
+						foundations.add(readPile(json));
+					json.endArray();
+				}
+				case "tableau" -> {
+					json.beginArray();
+					while (json.hasNext()) {
+						byte columnFaceDown = 0;
+						ArrayList<Card> column = new ArrayList<>();
+						json.beginObject();
+						while (json.hasNext()) {
+							switch (json.nextName()) {
+								case "faceDown" -> columnFaceDown = (byte) json.nextInt();
+								case "cards" -> column = readPile(json);
+								default -> json.skipValue();
+							}
+						}
+						json.endObject();
+						faceDown.add(columnFaceDown);
+						tableau.add(column);
+					}
+					json.endArray();
+				}
+				case "journal" -> {
+					json.beginObject();
+					while (json.hasNext()) {
+						switch (json.nextName()) {
+							case "position" -> position = json.nextInt();
+							case "moves" -> {
+								json.beginArray();
+								while (json.hasNext()) {
+									json.beginArray();
+									journal.record(json.nextInt(), json.nextInt());
+									json.endArray();
+								}
+								json.endArray();
+							}
+							default -> json.skipValue();
+						}
+					}
+					json.endObject();
+				}
+				default -> json.skipValue();
+			}
+		}
+		json.endObject();
+
+		if (position < 0 || position > journal.size())
+			throw new IOException("Corrupt move journal.");
+
+		Klondike game = newKlondike(drawCount);
+		game.stock = stock;
+		game.talon = talon;
+		game.foundations = foundations;
+		game.tableau = tableau;
+		game.firstFaceUpCard = new byte[faceDown.size()];
+		for (int col = 0; col < faceDown.size(); col++)
+			game.firstFaceUpCard[col] = faceDown.get(col);
+		for (int i = 0; i < journal.size(); i++)
+			game.journal.record(journal.moveAt(i), journal.tokenAt(i));
+		for (int i = position; i < journal.size(); i++)
+			game.journal.undo();
+		return game;
+	}
+
+	private static Klondike asKlondike(Game game) {
+		if (game instanceof Klondike klondike)
+			return klondike;
+
+		throw new UnsupportedOperationException("Saving " + game.getClass().getSimpleName()
+				+ " games is not supported yet.");
+	}
+
+	private static void checkVariant(String variant) throws IOException {
+		if (!GameVariant.KLONDIKE.name().equals(variant))
+			throw new IOException("Loading " + variant + " games is not supported yet.");
+	}
+
+	private static Klondike newKlondike(int drawCount) throws IOException {
+		try {
+			return new Klondike(drawCount);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Invalid draw count: " + drawCount, e);
+		}
+	}
+
+	private static void writePile(DataOutput out, ArrayList<Card> pile) throws IOException {
+		out.writeByte(pile.size());
+		for (int i = 0; i < pile.size(); i++)
+			out.writeByte(pile.get(i).index());
+	}
+
+	private static ArrayList<Card> readPile(DataInput in) throws IOException {
+		int size = in.readUnsignedByte();
+		ArrayList<Card> pile = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			pile.add(card(in.readUnsignedByte()));
+		return pile;
+	}
+
+	private static void writePile(JsonWriter json, ArrayList<Card> pile) throws IOException {
+		json.beginArray();
+		for (int i = 0; i < pile.size(); i++)
+			json.value(pile.get(i).index());
+		json.endArray();
+	}
+
+	private static ArrayList<Card> readPile(JsonReader json) throws IOException {
+		ArrayList<Card> pile = new ArrayList<>();
+		json.beginArray();
+		while (json.peek() != JsonToken.END_ARRAY)
+			pile.add(card(json.nextInt()));
+		json.endArray();
+		return pile;
+	}
+
+	private static Card card(int index) throws IOException {
+		if (index < 0 || index >= Card.DECK_SIZE)
+			throw new IOException("Invalid card index: " + index);
+
+		return Card.fromIndex(index);
+	}
+
+	/**
+	 * Writes an {@code int} as an unsigned LEB128 varint, seven bits to a byte
+	 * with the high bit set on every byte but the last.
+	 */
+	static void writeVarInt(DataOutput out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte(value & 0x7F | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	static int readVarInt(DataInput in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException("Malformed varint.");
+	}
+}
@@ -30,18 +30,20 @@
  */
 package com.github.strangercoug.freesolitaire.games;
 
-import com.github.strangercoug.freesolitaire.Game;
-import com.github.strangercoug.freesolitaire.Player;
+import com.github.strangercoug.freesolitaire.objs.Deck;
 
 /**
+ * Scorpion, played on a {@link ScorpionState}.
  *
  * @author Jeffrey Hope <strangercoug@hotmail.com>
  */
-public class Scorpion extends Game {
+public class Scorpion extends SearchStateGame<ScorpionState> {
+	public Scorpion() {
+		super(1);
+	}
 
 	@Override
-	public void play(Player player) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+	protected ScorpionState newState(Deck deck) {
+		return ScorpionState.deal(deck);
 	}
-
-}
\ No newline at end of file
+}
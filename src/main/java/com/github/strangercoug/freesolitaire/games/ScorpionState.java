@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.CardRank;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+import com.github.strangercoug.freesolitaire.solvers.SearchState;
+
+/**
+ * A Scorpion table for search and play.
+ * <p>
+ * Scorpion deals seven columns of seven cards, the bottom three of each of
+ * the first four columns face down, and keeps the last three cards back as a
+ * stock, which can be dealt once onto the first three columns. As in
+ * {@link YukonState}, any face-up card can be moved with every card on top of
+ * it, but onto the card of its own suit one rank higher, and only a king can
+ * be moved into an empty column. A run from king down to ace of one suit is
+ * removed as soon as it is at the top of a column, and the game is won once
+ * all four have been removed. Face-down cards are turned over as soon as they
+ * are uncovered.
+ * <p>
+ * Moves are packed by {@link Move#of(int, int, int, int)} with one of the move
+ * type constants in this class as the type, columns as the source and
+ * destination and the number of cards moved as the count. The undo token that
+ * {@link #make(int)} returns for a move between columns is the move with
+ * {@link #SRC_COMPLETED}, {@link #SRC_FLIPPED}, {@link #COMPLETED} and
+ * {@link #DEST_FLIPPED} set as needed; for the deal, its low three bits mark
+ * the columns where a run was completed and the next three the columns where
+ * a card was then turned over. The suits of the completed runs are kept in
+ * the order they were removed, so taking a move back puts the right run back.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class ScorpionState implements SearchState {
+	public static final int COLUMNS = 7;
+	public static final int STOCK_SIZE = 3;
+	public static final int RUNS = 4;
+	public static final int NO_CARD = Columns.NO_CARD;
+
+	/** Moves the top {@code count} cards of column {@code src} onto column {@code dest}. */
+	public static final int TABLEAU_TO_TABLEAU = 0;
+	/** Deals the stock onto the first three columns. */
+	public static final int DEAL = 1;
+
+	/** Set in an undo token if the move turned over a card in its source column. */
+	public static final int SRC_FLIPPED = 1 << 31;
+	/** Set in an undo token if the move completed a run in its destination column. */
+	public static final int COMPLETED = 1 << 30;
+	/** Set in an undo token if removing the completed run turned over a card. */
+	public static final int DEST_FLIPPED = 1 << 29;
+	/** Set in an undo token if the move left a completed run in its source column. */
+	public static final int SRC_COMPLETED = 1 << 28;
+
+	private static final int FLAGS = SRC_FLIPPED | COMPLETED | DEST_FLIPPED | SRC_COMPLETED;
+	// One card fits on any card, and four kings into an empty column
+	static final int MAX_MOVES = COLUMNS * (COLUMNS - 1) + COLUMNS * 4 + 1;
+	private static final int RANKS = CardRank.values().length;
+	private static final int KING = RANKS - 1;
+
+	private final Columns columns;
+	private final byte[] stock;
+	private final byte[] runSuits;
+	private int stockSize;
+	private int runs;
+
+	private ScorpionState(Columns columns, byte[] stock, byte[] runSuits, int stockSize,
+			int runs) {
+		this.columns = columns;
+		this.stock = stock;
+		this.runSuits = runSuits;
+		this.stockSize = stockSize;
+		this.runs = runs;
+	}
+
+	/**
+	 * Deals a new game from the top of {@code deck}, one row at a time from
+	 * left to right. The last three cards become the stock.
+	 *
+	 * @param deck  the deck to deal from
+	 * @return the dealt state
+	 */
+	public static ScorpionState deal(Deck deck) {
+		Columns columns = new Columns(COLUMNS, Card.DECK_SIZE);
+		for (int row = 0; row < COLUMNS; row++) {
+			for (int col = 0; col < COLUMNS; col++) {
+				if (row < 3 && col < 4)
+					columns.pushFaceDown(col, deck.dealCard().index());
+				else
+					columns.push(col, deck.dealCard().index());
+			}
+		}
+		byte[] stock = new byte[STOCK_SIZE];
+		for (int i = 0; i < STOCK_SIZE; i++)
+			stock[i] = (byte) deck.dealCard().index();
+		return new ScorpionState(columns, stock, new byte[RUNS], STOCK_SIZE, 0);
+	}
+
+	@Override
+	public ScorpionState copy() {
+		return new ScorpionState(new Columns(columns), stock, runSuits.clone(), stockSize, runs);
+	}
+
+	public int columnSize(int col) {
+		return columns.size(col);
+	}
+
+	public int faceDownCount(int col) {
+		return columns.faceDown(col);
+	}
+
+	public int cardAt(int col, int pos) {
+		return columns.cardAt(col, pos);
+	}
+
+	public int getStockSize() {
+		return stockSize;
+	}
+
+	public int getRuns() {
+		return runs;
+	}
+
+	@Override
+	public boolean isWon() {
+		return runs == RUNS;
+	}
+
+	@Override
+	public int maxMoves() {
+		return MAX_MOVES;
+	}
+
+	/**
+	 * Lists moves between columns, then the deal. Once the stock has been
+	 * dealt the columns are interchangeable, so a king is then only moved into
+	 * the leftmost empty column, and never from the bottom of a column.
+	 */
+	@Override
+	public int generateMoves(int[] moves) {
+		return generate(moves, true);
+	}
+
+	@Override
+	public int generateLegalMoves(int[] moves) {
+		return generate(moves, false);
+	}
+
+	private int generate(int[] moves, boolean prune) {
+		int count = 0;
+		int firstEmpty = columns.firstEmpty();
+		boolean interchangeable = prune && stockSize == 0;
+		for (int dest = 0; dest < COLUMNS; dest++) {
+			int destCard = columns.top(dest);
+			if (interchangeable && destCard == NO_CARD && dest != firstEmpty)
+				continue;
+			for (int src = 0; src < COLUMNS; src++) {
+				if (src == dest)
+					continue;
+				int size = columns.size(src);
+				for (int pos = columns.faceDown(src); pos < size; pos++) {
+					int card = columns.cardAt(src, pos);
+					if (destCard == NO_CARD ? Card.rankOf(card) == KING
+							&& (pos > 0 || !interchangeable)
+							: isNextInRun(card, destCard))
+						moves[count++] = Move.of(TABLEAU_TO_TABLEAU, src, dest, size - pos);
+				}
+			}
+		}
+		if (stockSize > 0)
+			moves[count++] = Move.of(DEAL, 0, 0, 0);
+		return count;
+	}
+
+	private static boolean isNextInRun(int card, int under) {
+		return Card.suitOf(card) == Card.suitOf(under)
+				&& Card.rankOf(under) - Card.rankOf(card) == 1;
+	}
+
+	@Override
+	public int make(int move) {
+		if (Move.type(move) == DEAL) {
+			int token = move;
+			for (int col = 0; col < STOCK_SIZE; col++) {
+				columns.push(col, stock[--stockSize]);
+				if (completeRun(col)) {
+					token |= 1 << col;
+					if (columns.flipTop(col))
+						token |= 1 << (STOCK_SIZE + col);
+				}
+			}
+			return token;
+		}
+
+		int src = Move.source(move);
+		int dest = Move.dest(move);
+		columns.moveCards(src, dest, Move.count(move));
+		int token = move;
+		if (completeRun(src))
+			token |= SRC_COMPLETED;
+		if (columns.flipTop(src))
+			token |= SRC_FLIPPED;
+		if (completeRun(dest)) {
+			token |= COMPLETED;
+			if (columns.flipTop(dest))
+				token |= DEST_FLIPPED;
+		}
+		return token;
+	}
+
+	@Override
+	public void unmake(int token) {
+		if (Move.type(token & ~FLAGS) == DEAL) {
+			for (int col = STOCK_SIZE - 1; col >= 0; col--) {
+				if ((token & 1 << (STOCK_SIZE + col)) != 0)
+					columns.unflipTop(col);
+				if ((token & 1 << col) != 0)
+					restoreRun(col);
+				columns.pop(col);
+				stockSize++;
+			}
+			return;
+		}
+
+		int src = Move.source(token);
+		int dest = Move.dest(token);
+		if ((token & DEST_FLIPPED) != 0)
+			columns.unflipTop(dest);
+		if ((token & COMPLETED) != 0)
+			restoreRun(dest);
+		if ((token & SRC_FLIPPED) != 0)
+			columns.unflipTop(src);
+		if ((token & SRC_COMPLETED) != 0)
+			restoreRun(src);
+		columns.moveCards(dest, src, Move.count(token));
+	}
+
+	/**
+	 * Removes a king-to-ace run of one suit from the top of a column, if
+	 * there is one.
+	 */
+	private boolean completeRun(int col) {
+		int size = columns.size(col);
+		if (size - columns.faceDown(col) < RANKS)
+			return false;
+		int ace = columns.top(col);
+		if (Card.rankOf(ace) != 0)
+			return false;
+		for (int pos = size - 1; pos > size - RANKS; pos--) {
+			if (!isNextInRun(columns.cardAt(col, pos), columns.cardAt(col, pos - 1)))
+				return false;
+		}
+		for (int i = 0; i < RANKS; i++)
+			columns.pop(col);
+		runSuits[runs++] = (byte) Card.suitOf(ace);
+		return true;
+	}
+
+	private void restoreRun(int col) {
+		int suit = runSuits[--runs];
+		for (int rank = KING; rank >= 0; rank--)
+			columns.push(col, suit * RANKS + rank);
+	}
+
+	/**
+	 * Returns a hash that is the same however the columns are ordered, except
+	 * that the first three columns count by where they are until the stock
+	 * has been dealt onto them.
+	 */
+	@Override
+	public long hash() {
+		return columns.hash(stockSize > 0 ? STOCK_SIZE : 0) * 31 + stockSize;
+	}
+
+	/**
+	 * Estimates the moves left as the number of places where a card does not
+	 * sit on the next card of its run, and the face-down cards, with one more
+	 * while the stock is still to be dealt. Face-down cards are turned over
+	 * without a move, and removing a completed run can fix a place below its
+	 * king, so the estimate can be too high, and
+	 * {@link com.github.strangercoug.freesolitaire.solvers.IdaStarSearch}
+	 * need not find a shortest win with it.
+	 */
+	@Override
+	public int estimate() {
+		int estimate = stockSize > 0 ? 1 : 0;
+		for (int col = 0; col < COLUMNS; col++) {
+			int faceDown = columns.faceDown(col);
+			estimate += faceDown;
+			for (int pos = Math.max(faceDown, 1); pos < columns.size(col); pos++) {
+				if (!isNextInRun(columns.cardAt(col, pos), columns.cardAt(col, pos - 1)))
+					estimate++;
+			}
+		}
+		return estimate;
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.Game;
+import com.github.strangercoug.freesolitaire.Player;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.MoveJournal;
+import com.github.strangercoug.freesolitaire.solvers.SearchState;
+
+/**
+ * A game played on a {@link SearchState}, which supplies its moves, so that
+ * a variant needs nothing beyond its state to be played, undone and solved.
+ *
+ * @param <S>  the type of the game's state
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public abstract class SearchStateGame<S extends SearchState> extends Game {
+	Deck deck;
+	S state;
+	final MoveJournal journal = new MoveJournal();
+	private final int numDecks;
+
+	/**
+	 * @param numDecks  the number of packs the game is dealt from
+	 */
+	protected SearchStateGame(int numDecks) {
+		this.numDecks = numDecks;
+	}
+
+	/**
+	 * Deals the starting position from the top of {@code deck}.
+	 *
+	 * @param deck  the deck to deal from
+	 * @return the dealt state
+	 */
+	protected abstract S newState(Deck deck);
+
+	@Override
+	public void play(Player player) {
+		Deck newDeck = new Deck(numDecks);
+		newDeck.populateDeck();
+		newDeck.shuffleDeck();
+		deal(newDeck);
+	}
+
+	@Override
+	public void deal(Deck deck) {
+		this.deck = deck;
+		state = newState(deck);
+		journal.clear();
+	}
+
+	@Override
+	public boolean isWon() {
+		return state != null && state.isWon();
+	}
+
+	/**
+	 * Returns a copy of the current table.
+	 *
+	 * @return the table
+	 */
+	@SuppressWarnings("unchecked")
+	public S getState() {
+		return (S) state.copy();
+	}
+
+	@Override
+	public int generateMoves(int[] moves) {
+		return state.generateLegalMoves(moves);
+	}
+
+	@Override
+	public int maxMoves() {
+		return state.maxMoves();
+	}
+
+	@Override
+	public void makeMove(int move) {
+		journal.record(move, state.make(move));
+	}
+
+	@Override
+	public boolean undo() {
+		if (!journal.canUndo())
+			return false;
+
+		state.unmake(journal.undo());
+		return true;
+	}
+
+	@Override
+	public boolean redo() {
+		if (!journal.canRedo())
+			return false;
+
+		state.make(journal.redo());
+		return true;
+	}
+}
@@ -32,16 +32,98 @@ package com.github.strangercoug.freesolitaire.games;
 
 import com.github.strangercoug.freesolitaire.Game;
 import com.github.strangercoug.freesolitaire.Player;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.MoveJournal;
 
 /**
+ * Spider, played on a {@link SpiderState}.
  *
  * @author Jeffrey Hope <strangercoug@hotmail.com>
  */
 public class Spider extends Game {
+	Deck deck;
+	SpiderState state;
+	final int suits;
+	final MoveJournal journal = new MoveJournal();
+	private final SpiderMoveGenerator generator = new SpiderMoveGenerator();
+
+	/**
+	 * @param suits  the number of suits to play with: 1, 2 or 4
+	 */
+	public Spider(int suits) {
+		if (suits != 1 && suits != 2 && suits != 4)
+			throw new IllegalArgumentException("Spider is played with 1, 2 or 4 suits.");
+
+		this.suits = suits;
+	}
+
+	public Spider() {
+		this(4);
+	}
+
+	public int getSuits() {
+		return suits;
+	}
 
 	@Override
 	public void play(Player player) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+		Deck newDeck = new Deck(2);
+		newDeck.populateDeck();
+		newDeck.shuffleDeck();
+		deal(newDeck);
+	}
+
+	@Override
+	public void deal(Deck deck) {
+		this.deck = deck;
+		state = SpiderState.deal(deck, suits);
+		journal.clear();
+	}
+
+	@Override
+	public boolean isWon() {
+		return state != null && state.isWon();
+	}
+
+	/**
+	 * Returns a copy of the current table.
+	 *
+	 * @return the table
+	 */
+	public SpiderState getState() {
+		return state.copy();
 	}
 
-}
\ No newline at end of file
+	@Override
+	public int generateMoves(int[] moves) {
+		return generator.generateMoves(state, moves);
+	}
+
+	@Override
+	public int maxMoves() {
+		return generator.maxMoves();
+	}
+
+	@Override
+	public void makeMove(int move) {
+		journal.record(move, state.make(move));
+	}
+
+	@Override
+	public boolean undo() {
+		if (!journal.canUndo())
+			return false;
+
+		state.unmake(journal.undo());
+		return true;
+	}
+
+	@Override
+	public boolean redo() {
+		if (!journal.canRedo())
+			return false;
+
+		state.make(journal.redo());
+		return true;
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Move;
+import com.github.strangercoug.freesolitaire.objs.MoveGenerator;
+
+import static com.github.strangercoug.freesolitaire.games.SpiderState.COLUMNS;
+import static com.github.strangercoug.freesolitaire.games.SpiderState.DEAL;
+import static com.github.strangercoug.freesolitaire.games.SpiderState.NO_CARD;
+import static com.github.strangercoug.freesolitaire.games.SpiderState.TABLEAU_TO_TABLEAU;
+
+/**
+ * Generates the legal moves from a {@link SpiderState}.
+ * <p>
+ * Moves come out in a fixed order: moves onto other cards, moves to empty
+ * columns with the longest first, and finally the deal. Onto a card, at most
+ * one number of cards can be moved from each column, but any part of a run
+ * can be moved to an empty column, so there are never more than
+ * {@link #MAX_MOVES} moves, five nonempty columns and five empty ones being
+ * the worst case.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class SpiderMoveGenerator implements MoveGenerator<SpiderState> {
+	public static final int MAX_MOVES = 352;
+
+	@Override
+	public int maxMoves() {
+		return MAX_MOVES;
+	}
+
+	@Override
+	public int generateMoves(SpiderState state, int[] moves) {
+		int count = 0;
+		int emptyColumns = 0;
+
+		for (int src = 0; src < COLUMNS; src++) {
+			int run = state.runLength(src);
+			if (run == 0) {
+				emptyColumns++;
+				continue;
+			}
+			// The run is in sequence, so only one number of cards can go on a card.
+			int topRank = Card.rankOf(state.topCard(src));
+			for (int dest = 0; dest < COLUMNS; dest++) {
+				int destCard = state.topCard(dest);
+				if (destCard == NO_CARD || dest == src)
+					continue;
+				int cards = Card.rankOf(destCard) - topRank;
+				if (cards >= 1 && cards <= run)
+					moves[count++] = Move.of(TABLEAU_TO_TABLEAU, src, dest, cards);
+			}
+		}
+
+		for (int src = 0; emptyColumns > 0 && src < COLUMNS; src++) {
+			int run = state.runLength(src);
+			for (int dest = 0; run > 0 && dest < COLUMNS; dest++) {
+				if (state.columnSize(dest) > 0)
+					continue;
+				for (int cards = run; cards > 0; cards--)
+					moves[count++] = Move.of(TABLEAU_TO_TABLEAU, src, dest, cards);
+			}
+		}
+
+		if (emptyColumns == 0 && state.stockSize() > 0)
+			moves[count++] = Move.of(DEAL, 0, 0, 0);
+
+		return count;
+	}
+}
@@ -0,0 +1,429 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.CardRank;
+import com.github.strangercoug.freesolitaire.enums.CardSuit;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+
+import java.util.SplittableRandom;
+
+/**
+ * A compact representation of a Spider table for search and play.
+ * <p>
+ * Spider is played with two packs. Ten columns are dealt 54 cards, the last
+ * of each face up, and the other 50 cards form the stock, which deals one
+ * more card onto every column at a time, but only while no column is empty.
+ * Any card may be put on a card one rank higher, but only a run of one suit
+ * can be moved as a unit. A run from king down to ace of one suit is removed
+ * from the table as soon as it is formed, and the game is won once all eight
+ * have been removed. Face-down cards are turned over as soon as they are
+ * uncovered.
+ * <p>
+ * The one- and two-suit games are dealt from the same two packs with the
+ * suits replaced: every card becomes a spade in the one-suit game, and every
+ * red card a heart and every black card a spade in the two-suit game.
+ * <p>
+ * As in {@link KlondikeState}, the cards are {@link Card#index()} values in a
+ * single {@code byte} array and moves are packed by
+ * {@link Move#of(int, int, int, int)} with one of the move type constants in
+ * this class as the type. Since the two packs have the same cards, a card's
+ * index only says what it is, not which pack it came from. The hash is the
+ * sum of a mixed Zobrist hash of each column, kept up to date as cards move,
+ * so it does not depend on the order of the columns.
+ * <p>
+ * The undo token that {@link #make(int)} returns for a move between columns
+ * is the move with {@link #SRC_FLIPPED}, {@link #COMPLETED} and
+ * {@link #DEST_FLIPPED} set as needed. For a deal, its low ten bits mark the
+ * columns where a run was completed and the next ten the columns where a card
+ * was then turned over. The suits of the completed runs are kept in the order
+ * they were removed, so taking a move back puts the right run back.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class SpiderState {
+	public static final int COLUMNS = 10;
+	public static final int STOCK_SIZE = 50;
+	public static final int RUNS = 8;
+	public static final int NO_CARD = -1;
+
+	/** Moves the top {@code count} cards of column {@code src} onto column {@code dest}. */
+	public static final int TABLEAU_TO_TABLEAU = 0;
+	/** Deals a card from the stock onto every column. */
+	public static final int DEAL = 1;
+
+	/** Set in an undo token if the move turned over a card in its source column. */
+	public static final int SRC_FLIPPED = 1 << 31;
+	/** Set in an undo token if the move completed a run in its destination column. */
+	public static final int COMPLETED = 1 << 30;
+	/** Set in an undo token if removing the completed run turned over a card. */
+	public static final int DEST_FLIPPED = 1 << 29;
+
+	private static final int FLAGS = SRC_FLIPPED | COMPLETED | DEST_FLIPPED;
+	private static final int RANKS = CardRank.values().length;
+	private static final int TABLEAU_SIZE = 54;
+	// At most 5 face-down cards and 6 runs of up to 13 cards: the first
+	// face-up card and one card from each of the 5 deals can each start one.
+	private static final int COLUMN_STRIDE = 84;
+	private static final int SIZES = COLUMNS * COLUMN_STRIDE;
+	private static final int FACE_DOWN = SIZES + COLUMNS;
+	private static final int STOCK = FACE_DOWN + COLUMNS;
+	private static final int RUN_SUITS = STOCK + STOCK_SIZE;
+	private static final int LENGTH = RUN_SUITS + RUNS;
+	private static final int DECK_SIZE = Card.DECK_SIZE;
+
+	private static final long[] tableauKeys = new long[COLUMN_STRIDE * DECK_SIZE];
+	private static final long[] faceDownKeys = new long[COLUMN_STRIDE];
+	private static final long[] stockKeys = new long[STOCK_SIZE + 1];
+
+	static {
+		SplittableRandom random = new SplittableRandom(0x5350494445524C4CL);
+		for (long[] keys : new long[][] {tableauKeys, faceDownKeys, stockKeys}) {
+			for (int i = 0; i < keys.length; i++)
+				keys[i] = random.nextLong();
+		}
+	}
+
+	private final byte[] data;
+	private final long[] columnHashes;
+	private int stockSize;
+	private int runs;
+
+	private SpiderState() {
+		data = new byte[LENGTH];
+		columnHashes = new long[COLUMNS];
+	}
+
+	private SpiderState(SpiderState other) {
+		data = other.data.clone();
+		columnHashes = other.columnHashes.clone();
+		stockSize = other.stockSize;
+		runs = other.runs;
+	}
+
+	/**
+	 * Deals a new game from the top of {@code deck}, one row at a time from
+	 * left to right, with the last card of each column face up. The remaining
+	 * 50 cards become the stock, in the order they were dealt.
+	 *
+	 * @param deck  a deck of two packs
+	 * @param suits  the number of suits to play with: 1, 2 or 4
+	 * @return the dealt state
+	 */
+	public static SpiderState deal(Deck deck, int suits) {
+		if (suits != 1 && suits != 2 && suits != 4)
+			throw new IllegalArgumentException("Spider is played with 1, 2 or 4 suits.");
+
+		SpiderState state = new SpiderState();
+		for (int i = 0; i < TABLEAU_SIZE; i++)
+			state.push(i % COLUMNS, withSuits(deck.dealCard().index(), suits));
+		for (int col = 0; col < COLUMNS; col++)
+			state.setFaceDownCount(col, state.columnSize(col) - 1);
+		for (int i = STOCK_SIZE - 1; i >= 0; i--)
+			state.data[STOCK + i] = (byte) withSuits(deck.dealCard().index(), suits);
+		state.stockSize = STOCK_SIZE;
+
+		return state;
+	}
+
+	/**
+	 * Returns an independent copy of this state.
+	 *
+	 * @return the copy
+	 */
+	public SpiderState copy() {
+		return new SpiderState(this);
+	}
+
+	/**
+	 * Applies a move, removing any run it completes and turning over any
+	 * face-down card it uncovers. The move is assumed to be legal.
+	 *
+	 * @param move the packed move to apply
+	 */
+	public void apply(int move) {
+		make(move);
+	}
+
+	/**
+	 * Applies a move like {@link #apply(int)} and returns a token that
+	 * {@link #unmake(int)} can take it back with.
+	 *
+	 * @param move the packed move to apply
+	 * @return the undo token
+	 */
+	public int make(int move) {
+		int src = Move.source(move);
+		int dest = Move.dest(move);
+
+		switch (Move.type(move)) {
+			case TABLEAU_TO_TABLEAU -> {
+				int token = move;
+				moveCards(src, dest, Move.count(move));
+				if (flipCard(src))
+					token |= SRC_FLIPPED;
+				if (removeRun(dest)) {
+					token |= COMPLETED;
+					if (flipCard(dest))
+						token |= DEST_FLIPPED;
+				}
+				return token;
+			}
+			case DEAL -> {
+				int token = Move.of(DEAL, 0, 0, 0);
+				for (int col = 0; col < COLUMNS; col++)
+					push(col, data[STOCK + --stockSize]);
+				for (int col = 0; col < COLUMNS; col++) {
+					if (removeRun(col)) {
+						token |= 1 << col;
+						if (flipCard(col))
+							token |= 1 << (COLUMNS + col);
+					}
+				}
+				return token;
+			}
+			default -> throw new IllegalArgumentException("Unknown move type: " + Move.type(move));
+		}
+	}
+
+	/**
+	 * Takes back the last move made, restoring the table and its hash exactly.
+	 * Moves must be taken back in the reverse of the order they were made.
+	 *
+	 * @param token the token {@link #make(int)} returned for the move
+	 */
+	public void unmake(int token) {
+		int src = Move.source(token);
+		int dest = Move.dest(token);
+
+		switch (Move.type(token & ~FLAGS)) {
+			case TABLEAU_TO_TABLEAU -> {
+				if ((token & DEST_FLIPPED) != 0)
+					unflipCard(dest);
+				if ((token & COMPLETED) != 0)
+					restoreRun(dest);
+				if ((token & SRC_FLIPPED) != 0)
+					unflipCard(src);
+				moveCards(dest, src, Move.count(token));
+			}
+			case DEAL -> {
+				for (int col = COLUMNS - 1; col >= 0; col--) {
+					if ((token & 1 << (COLUMNS + col)) != 0)
+						unflipCard(col);
+					if ((token & 1 << col) != 0)
+						restoreRun(col);
+				}
+				for (int col = COLUMNS - 1; col >= 0; col--)
+					data[STOCK + stockSize++] = (byte) pop(col);
+			}
+			default -> throw new IllegalArgumentException("Unknown move type: " + Move.type(token & ~FLAGS));
+		}
+	}
+
+	/**
+	 * Returns a hash of this table that is the same for every arrangement of
+	 * the same columns in a different order. The removed runs need not be
+	 * hashed, since they are exactly the cards missing from the rest of the
+	 * table.
+	 *
+	 * @return the hash
+	 */
+	public long hash() {
+		long hash = stockKeys[stockSize];
+		for (int col = 0; col < COLUMNS; col++)
+			hash += mix(columnHashes[col]);
+		return hash;
+	}
+
+	public int columnSize(int col) {
+		return data[SIZES + col];
+	}
+
+	public int faceDownCount(int col) {
+		return data[FACE_DOWN + col];
+	}
+
+	public int cardAt(int col, int pos) {
+		return data[col * COLUMN_STRIDE + pos];
+	}
+
+	public int topCard(int col) {
+		int size = columnSize(col);
+		return size == 0 ? NO_CARD : cardAt(col, size - 1);
+	}
+
+	public int stockSize() {
+		return stockSize;
+	}
+
+	public int completedRuns() {
+		return runs;
+	}
+
+	public boolean isWon() {
+		return runs == RUNS;
+	}
+
+	/**
+	 * Returns the number of cards at the top of a column that form a run of
+	 * one suit, each one rank below the card beneath it, and so could be
+	 * moved together.
+	 *
+	 * @param col the column
+	 * @return the length of the run, which is 0 only for an empty column
+	 */
+	public int runLength(int col) {
+		int size = columnSize(col);
+		int faceUp = size - faceDownCount(col);
+		int length = size == 0 ? 0 : 1;
+
+		while (length < faceUp && isNextInRun(cardAt(col, size - length),
+				cardAt(col, size - length - 1)))
+			length++;
+
+		return length;
+	}
+
+	/**
+	 * Finds whether the top {@code count} cards of {@code srcCol} can be moved
+	 * onto {@code destCol}.
+	 *
+	 * @param srcCol the column to move cards from
+	 * @param destCol the column to move cards to
+	 * @param count the number of cards to move
+	 * @return true if the move is legal; false otherwise
+	 */
+	public boolean canMoveCards(int srcCol, int destCol, int count) {
+		if (srcCol == destCol || count < 1 || count > runLength(srcCol))
+			return false;
+
+		int destCard = topCard(destCol);
+		return destCard == NO_CARD || Card.rankOf(destCard)
+				== Card.rankOf(cardAt(srcCol, columnSize(srcCol) - count)) + 1;
+	}
+
+	/**
+	 * Finds whether the stock can be dealt, which needs a card in every
+	 * column.
+	 *
+	 * @return true if the move is legal; false otherwise
+	 */
+	public boolean canDeal() {
+		if (stockSize == 0)
+			return false;
+
+		for (int col = 0; col < COLUMNS; col++) {
+			if (columnSize(col) == 0)
+				return false;
+		}
+		return true;
+	}
+
+	private static int withSuits(int card, int suits) {
+		return switch (suits) {
+			case 1 -> CardSuit.SPADES.ordinal() * RANKS + Card.rankOf(card);
+			case 2 -> (Card.isRed(card) ? CardSuit.HEARTS : CardSuit.SPADES).ordinal() * RANKS
+					+ Card.rankOf(card);
+			default -> card;
+		};
+	}
+
+	private static boolean isNextInRun(int card, int under) {
+		return Card.suitOf(card) == Card.suitOf(under)
+				&& Card.rankOf(under) - Card.rankOf(card) == 1;
+	}
+
+	private static long mix(long z) {
+		z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+		z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return z ^ (z >>> 33);
+	}
+
+	private void push(int col, int card) {
+		int pos = data[SIZES + col]++;
+		data[col * COLUMN_STRIDE + pos] = (byte) card;
+		columnHashes[col] ^= tableauKeys[pos * DECK_SIZE + card];
+	}
+
+	private int pop(int col) {
+		int pos = --data[SIZES + col];
+		int card = data[col * COLUMN_STRIDE + pos];
+		columnHashes[col] ^= tableauKeys[pos * DECK_SIZE + card];
+		return card;
+	}
+
+	private void moveCards(int src, int dest, int count) {
+		int start = columnSize(src) - count;
+		for (int i = 0; i < count; i++)
+			push(dest, cardAt(src, start + i));
+		for (int i = 0; i < count; i++)
+			pop(src);
+	}
+
+	private void setFaceDownCount(int col, int count) {
+		columnHashes[col] ^= faceDownKeys[faceDownCount(col)] ^ faceDownKeys[count];
+		data[FACE_DOWN + col] = (byte) count;
+	}
+
+	private boolean flipCard(int col) {
+		int faceDown = faceDownCount(col);
+		if (faceDown == 0 || faceDown < columnSize(col))
+			return false;
+
+		setFaceDownCount(col, faceDown - 1);
+		return true;
+	}
+
+	private void unflipCard(int col) {
+		setFaceDownCount(col, faceDownCount(col) + 1);
+	}
+
+	/**
+	 * Removes the run at the top of {@code col} if it is a whole suit.
+	 */
+	private boolean removeRun(int col) {
+		if (runLength(col) < RANKS)
+			return false;
+
+		data[RUN_SUITS + runs++] = (byte) Card.suitOf(topCard(col));
+		for (int i = 0; i < RANKS; i++)
+			pop(col);
+		return true;
+	}
+
+	private void restoreRun(int col) {
+		int suit = data[RUN_SUITS + --runs];
+		for (int rank = RANKS - 1; rank >= 0; rank--)
+			push(col, suit * RANKS + rank);
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.objs.Move;
+import com.github.strangercoug.freesolitaire.objs.MoveGenerator;
+
+import static com.github.strangercoug.freesolitaire.games.WasteLayoutState.DRAW;
+import static com.github.strangercoug.freesolitaire.games.WasteLayoutState.PLAY;
+
+/**
+ * Generates the legal moves from a {@link WasteLayoutState}.
+ * <p>
+ * Moves come out with the layout cards first, from the front of the layout
+ * back, and the draw last. No more than ten layout cards are ever
+ * uncovered at once, so there are never more than {@link #MAX_MOVES} moves.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class WasteLayoutMoveGenerator implements MoveGenerator<WasteLayoutState> {
+	public static final int MAX_MOVES = 11;
+
+	@Override
+	public int maxMoves() {
+		return MAX_MOVES;
+	}
+
+	@Override
+	public int generateMoves(WasteLayoutState state, int[] moves) {
+		int count = 0;
+		for (long left = state.availableLayout(); left != 0; left &= ~Long.highestOneBit(left)) {
+			int i = 63 - Long.numberOfLeadingZeros(left);
+			if (state.fitsWaste(i))
+				moves[count++] = Move.of(PLAY, i, 0, 0);
+		}
+		if (state.stockLeft() > 0)
+			moves[count++] = Move.of(DRAW, 0, 0, 0);
+
+		return count;
+	}
+}
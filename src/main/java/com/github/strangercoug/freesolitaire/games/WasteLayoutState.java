@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.CardRank;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+
+/**
+ * A table for the games where cards are played from a fixed layout onto a
+ * single waste pile, one rank above or below its top card, packed into a
+ * single {@code long}.
+ * <p>
+ * Golf and TriPeaks both deal a layout of overlapping cards and turn the
+ * first card of the stock over to start the waste. A layout card that no
+ * other card overlaps can be played onto the waste if its rank is next to the
+ * waste card's, and when nothing fits, the next stock card is turned over
+ * onto the waste instead. The stock is gone through only once, and the game
+ * is won once the layout is cleared. The two games differ only in the shape
+ * of the layout and in whether aces and kings are next to each other, as
+ * given by {@link Layout}.
+ * <p>
+ * The cards never move, so a position is just which layout cards have been
+ * played, how far through the stock the game has got and the waste card.
+ * Positions below {@link Layout#size()} are the layout, row by row from the
+ * back, and the rest are the stock in the order it is turned over. Only the
+ * rank of the waste card matters to what can happen next, so {@link #key()}
+ * packs a bit per layout card that has been played, then the index of the
+ * next stock card, then the rank of the waste card; two positions with the
+ * same key are won or lost alike.
+ * <p>
+ * Moves are packed by {@link Move#of(int, int, int, int)} with one of the move
+ * type constants in this class as the type and, for {@link #PLAY}, the layout
+ * position as the source. The undo token that {@link #make(int)} returns is
+ * the move with the position of the waste card from before the move in its
+ * destination byte.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class WasteLayoutState {
+	/** Plays the layout card at position {@code src} onto the waste. */
+	public static final int PLAY = 0;
+	/** Turns the top card of the stock over onto the waste. */
+	public static final int DRAW = 1;
+
+	private static final int KING = CardRank.KING.ordinal();
+	private static final int STOCK_SHIFT = 40;
+	private static final int RANK_SHIFT = STOCK_SHIFT + 6;
+
+	/**
+	 * The shapes of layout that can be dealt.
+	 */
+	public enum Layout {
+		/**
+		 * Seven columns of five cards, each overlapping the one dealt before
+		 * it. Nothing can be played onto a king, and aces and kings are not
+		 * next to each other.
+		 */
+		GOLF (35, false),
+		/**
+		 * Three peaks of three, six, nine and then ten cards in rows, each
+		 * card overlapping the two cards of the row behind it that it sits
+		 * across.
+		 */
+		TRI_PEAKS (28, true);
+
+		private final int size;
+		private final boolean wraps;
+		private final long[] coverMasks;
+		private final long[] behindMasks;
+
+		Layout(int size, boolean wraps) {
+			this.size = size;
+			this.wraps = wraps;
+			coverMasks = new long[size];
+			if (wraps) {
+				// The peaks, behind the row of three, the row of six and
+				// the row of nine; the row of ten is not covered.
+				for (int peak = 0; peak < 3; peak++) {
+					coverMasks[peak] = 3L << (3 + 2 * peak);
+					for (int i = 0; i < 2; i++)
+						coverMasks[3 + 2 * peak + i] = 3L << (9 + 3 * peak + i);
+				}
+				for (int i = 0; i < 9; i++)
+					coverMasks[9 + i] = 3L << (18 + i);
+			} else {
+				for (int i = 0; i < size - 7; i++)
+					coverMasks[i] = 1L << (i + 7);
+			}
+			// The cards a card is behind are dealt before it, so theirs are
+			// known by the time it is reached.
+			behindMasks = new long[size];
+			for (int i = 0; i < size; i++) {
+				for (int j = 0; j < i; j++) {
+					if ((coverMasks[j] & 1L << i) != 0)
+						behindMasks[i] |= 1L << j | behindMasks[j];
+				}
+			}
+		}
+
+		/**
+		 * Returns the number of cards in the layout.
+		 *
+		 * @return the layout's size
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Checks whether a card of rank {@code rank} can be played onto a
+		 * waste card of rank {@code wasteRank}.
+		 *
+		 * @param wasteRank  the rank of the waste card, from 0 for an ace
+		 * @param rank  the rank of the card to play
+		 * @return true if the ranks are next to each other
+		 */
+		public boolean fits(int wasteRank, int rank) {
+			int gap = Math.abs(wasteRank - rank);
+			if (wraps)
+				return gap == 1 || gap == KING;
+			return gap == 1 && wasteRank != KING;
+		}
+	}
+
+	private final byte[] cards;
+	private final Layout layout;
+	private final long layoutMask;
+	private final long[] fitMasks;
+	private long played;
+	private int stockIndex;
+	private int waste;
+
+	private WasteLayoutState(byte[] cards, Layout layout) {
+		this.cards = cards;
+		this.layout = layout;
+		layoutMask = (1L << layout.size) - 1;
+		long[] rankMasks = new long[KING + 1];
+		for (int i = 0; i < Card.DECK_SIZE; i++)
+			rankMasks[Card.rankOf(cards[i])] |= 1L << i;
+		fitMasks = new long[KING + 1];
+		for (int rank = 0; rank <= KING; rank++) {
+			for (int wasteRank = 0; wasteRank <= KING; wasteRank++) {
+				if (layout.fits(wasteRank, rank))
+					fitMasks[rank] |= rankMasks[wasteRank];
+			}
+		}
+		stockIndex = layout.size + 1;
+		waste = layout.size;
+	}
+
+	private WasteLayoutState(WasteLayoutState other) {
+		cards = other.cards;
+		layout = other.layout;
+		layoutMask = other.layoutMask;
+		fitMasks = other.fitMasks;
+		played = other.played;
+		stockIndex = other.stockIndex;
+		waste = other.waste;
+	}
+
+	/**
+	 * Deals a new game from the top of {@code deck}, one row of the layout at
+	 * a time from the back. The remaining cards become the stock, in the
+	 * order they were dealt, and the first of them starts the waste.
+	 *
+	 * @param deck  the deck to deal from
+	 * @param layout  the shape of the layout
+	 * @return the dealt state
+	 */
+	public static WasteLayoutState deal(Deck deck, Layout layout) {
+		byte[] cards = new byte[Card.DECK_SIZE];
+		for (int i = 0; i < Card.DECK_SIZE; i++)
+			cards[i] = (byte) deck.dealCard().index();
+		return new WasteLayoutState(cards, layout);
+	}
+
+	/**
+	 * Returns an independent copy of this state.
+	 *
+	 * @return the copy
+	 */
+	public WasteLayoutState copy() {
+		return new WasteLayoutState(this);
+	}
+
+	/**
+	 * Returns the position packed into a {@code long}, as described above.
+	 *
+	 * @return the key
+	 */
+	public long key() {
+		return played | (long) stockIndex << STOCK_SHIFT
+				| (long) Card.rankOf(cards[waste]) << RANK_SHIFT;
+	}
+
+	/**
+	 * Returns the position packed like {@link #key()} but without the stock
+	 * index. Of two positions with the same layout key, the one with more
+	 * cards left in the stock is at least as good: it can turn the extra
+	 * cards over just before any draw the other makes and then carry on the
+	 * same way.
+	 *
+	 * @return the layout key
+	 */
+	public long layoutKey() {
+		return played | (long) Card.rankOf(cards[waste]) << RANK_SHIFT;
+	}
+
+	public Layout getLayout() {
+		return layout;
+	}
+
+	/**
+	 * Returns the card dealt to a position, whether or not it has been
+	 * played.
+	 *
+	 * @param position  the position
+	 * @return the card's index
+	 */
+	public int cardAt(int position) {
+		return cards[position];
+	}
+
+	public boolean isPlayed(int position) {
+		return (played & 1L << position) != 0;
+	}
+
+	/**
+	 * Returns the position of the card on top of the waste.
+	 *
+	 * @return the waste card's position
+	 */
+	public int wasteTop() {
+		return waste;
+	}
+
+	/**
+	 * Returns the number of cards left in the stock.
+	 *
+	 * @return the stock's size
+	 */
+	public int stockLeft() {
+		return Card.DECK_SIZE - stockIndex;
+	}
+
+	public boolean isWon() {
+		return played == layoutMask;
+	}
+
+	/**
+	 * Returns the layout cards that are not overlapped by any card, as a mask
+	 * of positions.
+	 *
+	 * @return the available positions in the layout
+	 */
+	public long availableLayout() {
+		long available = 0;
+		for (long left = ~played & layoutMask; left != 0; left &= left - 1) {
+			int i = Long.numberOfTrailingZeros(left);
+			long covers = layout.coverMasks[i];
+			if ((played & covers) == covers)
+				available |= 1L << i;
+		}
+		return available;
+	}
+
+	/**
+	 * Finds whether some card left in the layout can never be played: one
+	 * that no card it could be played onto is left, whether as the waste
+	 * card, in the stock or in the layout other than behind it. This is only
+	 * a quick check, so a position that passes it may still be lost.
+	 *
+	 * @return true if the game is certainly lost; false otherwise
+	 */
+	public boolean isDead() {
+		long left = ~played & layoutMask;
+		long live = left | -(1L << stockIndex) & ((1L << Card.DECK_SIZE) - 1) | 1L << waste;
+		for (; left != 0; left &= left - 1) {
+			int i = Long.numberOfTrailingZeros(left);
+			if ((fitMasks[Card.rankOf(cards[i])] & live & ~layout.behindMasks[i]) == 0)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether the card at a layout position can be played onto the
+	 * waste card, ignoring whether it is overlapped.
+	 *
+	 * @param position  the layout position
+	 * @return true if the ranks are next to each other
+	 */
+	public boolean fitsWaste(int position) {
+		return layout.fits(Card.rankOf(cards[waste]), Card.rankOf(cards[position]));
+	}
+
+	/**
+	 * Applies a move. The move is assumed to be legal.
+	 *
+	 * @param move  the packed move to apply
+	 */
+	public void apply(int move) {
+		make(move);
+	}
+
+	/**
+	 * Applies a move like {@link #apply(int)} and returns a token that
+	 * {@link #unmake(int)} can take it back with.
+	 *
+	 * @param move  the packed move to apply
+	 * @return the undo token
+	 */
+	public int make(int move) {
+		int token = (move & 0xFFFF00FF) | waste << 8;
+
+		switch (Move.type(move)) {
+			case PLAY -> {
+				waste = Move.source(move);
+				played |= 1L << waste;
+			}
+			case DRAW -> waste = stockIndex++;
+			default -> throw new IllegalArgumentException("Unknown move type: " + Move.type(move));
+		}
+		return token;
+	}
+
+	/**
+	 * Takes back the last move made. Moves must be taken back in the reverse
+	 * of the order they were made.
+	 *
+	 * @param token  the token {@link #make(int)} returned for the move
+	 */
+	public void unmake(int token) {
+		switch (Move.type(token)) {
+			case PLAY -> played &= ~(1L << Move.source(token));
+			case DRAW -> stockIndex--;
+			default -> throw new IllegalArgumentException("Unknown move type: " + Move.type(token));
+		}
+		waste = Move.dest(token);
+	}
+}
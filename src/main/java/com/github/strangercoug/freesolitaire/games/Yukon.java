@@ -30,18 +30,20 @@
  */
 package com.github.strangercoug.freesolitaire.games;
 
-import com.github.strangercoug.freesolitaire.Game;
-import com.github.strangercoug.freesolitaire.Player;
+import com.github.strangercoug.freesolitaire.objs.Deck;
 
 /**
+ * Yukon, played on a {@link YukonState}.
  *
  * @author Jeffrey Hope <strangercoug@hotmail.com>
  */
-public class Yukon extends Game {
+public class Yukon extends SearchStateGame<YukonState> {
+	public Yukon() {
+		super(1);
+	}
 
 	@Override
-	public void play(Player player) {
-		throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+	protected YukonState newState(Deck deck) {
+		return YukonState.deal(deck);
 	}
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.CardRank;
+import com.github.strangercoug.freesolitaire.enums.CardSuit;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+import com.github.strangercoug.freesolitaire.solvers.SearchState;
+
+/**
+ * A Yukon table for search and play.
+ * <p>
+ * Yukon deals the whole pack into seven columns: one card in the first, and
+ * in each of the others one more face-down card than in the last with five
+ * face-up cards on top. Any face-up card can be moved, together with every
+ * card on top of it, onto a card of the other colour one rank higher, and
+ * only a king can be moved into an empty column. Foundations are built up by
+ * suit from the ace, and face-down cards are turned over as soon as they are
+ * uncovered. There is no stock.
+ * <p>
+ * Moves are packed by {@link Move#of(int, int, int, int)} with one of the move
+ * type constants in this class as the type, columns as the source and
+ * destination and the number of cards moved as the count. The undo token that
+ * {@link #make(int)} returns is the move with {@link #SRC_FLIPPED} set if
+ * the move turned a card over, and for a foundation move, the suit of the
+ * card as the destination.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class YukonState implements SearchState {
+	public static final int COLUMNS = 7;
+	public static final int NO_CARD = Columns.NO_CARD;
+
+	/** Moves the top {@code count} cards of column {@code src} onto column {@code dest}. */
+	public static final int TABLEAU_TO_TABLEAU = 0;
+	/** Moves the top card of column {@code src} to its foundation. */
+	public static final int TABLEAU_TO_FOUNDATION = 1;
+
+	/** Set in an undo token if the move turned over a card in its source column. */
+	public static final int SRC_FLIPPED = 1 << 31;
+
+	// Two cards can go on any card, and four kings into an empty column
+	static final int MAX_MOVES = COLUMNS + COLUMNS * (COLUMNS - 1) * 4;
+	private static final int RANKS = CardRank.values().length;
+	private static final int SUITS = CardSuit.values().length;
+
+	private final Columns columns;
+	private final int[] foundations;
+
+	private YukonState(Columns columns, int[] foundations) {
+		this.columns = columns;
+		this.foundations = foundations;
+	}
+
+	/**
+	 * Deals a new game from the top of {@code deck}, one column at a time from
+	 * left to right, face-down cards first.
+	 *
+	 * @param deck  the deck to deal from
+	 * @return the dealt state
+	 */
+	public static YukonState deal(Deck deck) {
+		Columns columns = new Columns(COLUMNS, Card.DECK_SIZE);
+		columns.push(0, deck.dealCard().index());
+		for (int col = 1; col < COLUMNS; col++) {
+			for (int i = 0; i < col; i++)
+				columns.pushFaceDown(col, deck.dealCard().index());
+			for (int i = 0; i < 5; i++)
+				columns.push(col, deck.dealCard().index());
+		}
+		return new YukonState(columns, new int[SUITS]);
+	}
+
+	@Override
+	public YukonState copy() {
+		return new YukonState(new Columns(columns), foundations.clone());
+	}
+
+	public int columnSize(int col) {
+		return columns.size(col);
+	}
+
+	public int faceDownCount(int col) {
+		return columns.faceDown(col);
+	}
+
+	public int cardAt(int col, int pos) {
+		return columns.cardAt(col, pos);
+	}
+
+	public int foundationSize(int suit) {
+		return foundations[suit];
+	}
+
+	@Override
+	public boolean isWon() {
+		for (int suit = 0; suit < SUITS; suit++) {
+			if (foundations[suit] < RANKS)
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int maxMoves() {
+		return MAX_MOVES;
+	}
+
+	/**
+	 * Lists foundation moves first, then moves between columns. A card that
+	 * nothing left in the tableau could be built on is played to its
+	 * foundation as the only move. A king is only moved into the leftmost
+	 * empty column, and never from the bottom of a column.
+	 */
+	@Override
+	public int generateMoves(int[] moves) {
+		return generate(moves, true);
+	}
+
+	@Override
+	public int generateLegalMoves(int[] moves) {
+		return generate(moves, false);
+	}
+
+	private int generate(int[] moves, boolean prune) {
+		int count = 0;
+		for (int col = 0; col < COLUMNS; col++) {
+			int card = columns.top(col);
+			if (card != NO_CARD && foundations[Card.suitOf(card)] == Card.rankOf(card)) {
+				if (prune && isSafe(card)) {
+					moves[0] = Move.of(TABLEAU_TO_FOUNDATION, col, 0, 1);
+					return 1;
+				}
+				moves[count++] = Move.of(TABLEAU_TO_FOUNDATION, col, 0, 1);
+			}
+		}
+
+		int firstEmpty = columns.firstEmpty();
+		for (int dest = 0; dest < COLUMNS; dest++) {
+			int destCard = columns.top(dest);
+			if (prune && destCard == NO_CARD && dest != firstEmpty)
+				continue;
+			for (int src = 0; src < COLUMNS; src++) {
+				if (src == dest)
+					continue;
+				int size = columns.size(src);
+				for (int pos = columns.faceDown(src); pos < size; pos++) {
+					int card = columns.cardAt(src, pos);
+					if (destCard == NO_CARD ? Card.rankOf(card) == RANKS - 1
+							&& (pos > 0 || !prune) : fits(card, destCard))
+						moves[count++] = Move.of(TABLEAU_TO_TABLEAU, src, dest, size - pos);
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * A card is safe to play to its foundation once both cards of the other
+	 * colour one rank lower are already on theirs.
+	 */
+	private boolean isSafe(int card) {
+		int rank = Card.rankOf(card);
+		boolean red = Card.isRed(card);
+		for (int suit = 0; suit < SUITS; suit++) {
+			if (Card.isRed(suit * RANKS) != red && foundations[suit] < rank)
+				return false;
+		}
+		return true;
+	}
+
+	private static boolean fits(int card, int under) {
+		return Card.isRed(card) != Card.isRed(under) && Card.rankOf(under) - Card.rankOf(card) == 1;
+	}
+
+	@Override
+	public int make(int move) {
+		int src = Move.source(move);
+		switch (Move.type(move)) {
+			case TABLEAU_TO_TABLEAU -> columns.moveCards(src, Move.dest(move), Move.count(move));
+			case TABLEAU_TO_FOUNDATION -> {
+				int suit = Card.suitOf(columns.pop(src));
+				foundations[suit]++;
+				move = Move.of(TABLEAU_TO_FOUNDATION, src, suit, 1);
+			}
+			default -> throw new IllegalArgumentException("Unknown move type: " + Move.type(move));
+		}
+		return columns.flipTop(src) ? move | SRC_FLIPPED : move;
+	}
+
+	@Override
+	public void unmake(int token) {
+		int src = Move.source(token);
+		if ((token & SRC_FLIPPED) != 0)
+			columns.unflipTop(src);
+		switch (Move.type(token & ~SRC_FLIPPED)) {
+			case TABLEAU_TO_TABLEAU -> columns.moveCards(Move.dest(token), src, Move.count(token));
+			case TABLEAU_TO_FOUNDATION -> {
+				int suit = Move.dest(token);
+				columns.push(src, suit * RANKS + --foundations[suit]);
+			}
+			default -> throw new IllegalArgumentException("Unknown move type: " + Move.type(token));
+		}
+	}
+
+	/**
+	 * Returns a hash that is the same however the columns are ordered.
+	 */
+	@Override
+	public long hash() {
+		long hash = columns.hash();
+		for (int suit = 0; suit < SUITS; suit++)
+			hash = hash * 31 + foundations[suit];
+		return hash;
+	}
+
+	/**
+	 * Estimates the moves left as the cards not yet on the foundations, plus
+	 * one for each face-up card in a column that does not sit on a card it
+	 * could have been built on, which usually has to be moved out of the way
+	 * of the card below it. That move can be its own move to a foundation,
+	 * though, so the estimate can be too high, and
+	 * {@link com.github.strangercoug.freesolitaire.solvers.IdaStarSearch}
+	 * need not find a shortest win with it.
+	 */
+	@Override
+	public int estimate() {
+		int estimate = Card.DECK_SIZE;
+		for (int suit = 0; suit < SUITS; suit++)
+			estimate -= foundations[suit];
+		for (int col = 0; col < COLUMNS; col++) {
+			for (int pos = Math.max(columns.faceDown(col), 1); pos < columns.size(col); pos++) {
+				if (!fits(columns.cardAt(col, pos), columns.cardAt(col, pos - 1)))
+					estimate++;
+			}
+		}
+		return estimate;
+	}
+}
@@ -35,6 +35,9 @@ import com.github.strangercoug.freesolitaire.enums.CardSuit;
 import java.util.Objects;
 
 /**
+ * A playing card. The 52 distinct cards are interned in a table, so
+ * {@link #of(CardRank, CardSuit)} and {@link #fromIndex(int)} should be
+ * preferred over the constructor wherever cards are created in bulk.
  *
  * @param rank  the card's rank
  * @param suit  the card's suit
@@ -45,6 +48,88 @@ public record Card(CardRank rank, CardSuit suit) implements Comparable<Card> {
 	private static final String[] rankNames = {"Ace", "Two", "Three", "Four", "Five", "Six",
 		"Seven", "Eight", "Nine", "Ten", "Jack", "Queen", "King"};
 	private static final String[] suitNames = {"Clubs", "Diamonds", "Hearts", "Spades"};
+	private static final CardRank[] ranks = CardRank.values();
+	private static final CardSuit[] suits = CardSuit.values();
+
+	/**
+	 * The number of distinct cards in a standard pack.
+	 */
+	public static final int DECK_SIZE = ranks.length * suits.length;
+
+	private static final Card[] cardTable = new Card[DECK_SIZE];
+
+	static {
+		for (int i = 0; i < DECK_SIZE; i++)
+			cardTable[i] = new Card(ranks[i % ranks.length], suits[i / ranks.length]);
+	}
+
+	/**
+	 * Returns the canonical instance of the card with the given rank and suit.
+	 *
+	 * @param rank  the card's rank
+	 * @param suit  the card's suit
+	 * @return the interned card
+	 */
+	public static Card of(CardRank rank, CardSuit suit) {
+		return cardTable[suit.ordinal() * ranks.length + rank.ordinal()];
+	}
+
+	/**
+	 * Returns the canonical instance of the card with the given index. Cards
+	 * are indexed by suit in the order listed in {@code CardSuit}, then by
+	 * rank, so the Ace of Clubs is 0 and the King of Spades is 51.
+	 *
+	 * @param index  the card's index
+	 * @return the interned card
+	 * @throws IndexOutOfBoundsException if {@code index} is not between 0 and
+	 * {@code DECK_SIZE - 1}
+	 */
+	public static Card fromIndex(int index) {
+		return cardTable[index];
+	}
+
+	/**
+	 * Returns the rank of the card with the given index without looking up
+	 * the card itself.
+	 *
+	 * @param index  the card's index
+	 * @return the rank's ordinal, from 0 for an ace to 12 for a king
+	 */
+	public static int rankOf(int index) {
+		return index % ranks.length;
+	}
+
+	/**
+	 * Returns the suit of the card with the given index without looking up
+	 * the card itself.
+	 *
+	 * @param index  the card's index
+	 * @return the suit's ordinal in {@code CardSuit}
+	 */
+	public static int suitOf(int index) {
+		return index / ranks.length;
+	}
+
+	/**
+	 * Checks the color of the card with the given index without looking up
+	 * the card itself.
+	 *
+	 * @param index  the card's index
+	 * @return true if the card is red; false if the card is black
+	 */
+	public static boolean isRed(int index) {
+		return suits[index / ranks.length].isRed();
+	}
+
+	/**
+	 * Returns this card's position in the canonical card table. The index is
+	 * stable across runs and can be stored in place of the card itself.
+	 *
+	 * @return the card's index, between 0 and {@code DECK_SIZE - 1}
+	 */
+	public int index() {
+		return suit.ordinal() * ranks.length + rank.ordinal();
+	}
 	
 	/**
 	 * Checks whether this card outranks the card in the argument. This method,
@@ -104,9 +189,7 @@ public record Card(CardRank rank, CardSuit suit) implements Comparable<Card> {
 		if (other == null)
 			throw new NullPointerException();
 		
-		return (this.suit.ordinal() * CardRank.values().length +
-				this.rank.ordinal()) - (other.suit().ordinal() *
-				CardRank.values().length + other.rank().ordinal());
+		return this.index() - other.index();
 	}
 	
 	@Override
@@ -30,64 +30,128 @@
  */
 package com.github.strangercoug.freesolitaire.objs;
 
-import com.github.strangercoug.freesolitaire.enums.CardRank;
-import com.github.strangercoug.freesolitaire.enums.CardSuit;
+import com.github.strangercoug.freesolitaire.FreeSolitaire;
 
-import java.util.LinkedList;
-
-import static com.github.strangercoug.freesolitaire.FreeSolitaire.rng;
+import java.util.NoSuchElementException;
+import java.util.random.RandomGenerator;
 
 /**
+ * A deck of one or more standard 52-card packs.
+ * <p>
+ * The cards are stored as their {@link Card#index()}, so the deck itself is a
+ * flat {@code byte} array with a moving top index. Dealing a card only
+ * advances the top index, and shuffling swaps bytes in place, so neither
+ * operation allocates.
+ * <p>
+ * Unless a generator is passed in, decks shuffle with the shared secure
+ * generator from {@link FreeSolitaire#rng()}, which is not looked up until the
+ * first shuffle. Simulations should pass a
+ * {@link com.github.strangercoug.freesolitaire.enums.RngMode#SEEDED}
+ * generator instead, which is much faster and makes deals reproducible.
  *
  * @author Jeffrey Hope <strangercoug@hotmail.com>
  */
 public class Deck {
-	protected final LinkedList<Card> cards;
+	protected final byte[] cards;
 	protected final int numDecks;
+	protected final RandomGenerator rng; // null for FreeSolitaire.rng()
+	protected int top;
+	protected int size;
 	
-	public Deck(int numDecks) {
-		cards = new LinkedList<>();
+	public Deck(int numDecks, RandomGenerator rng) {
+		cards = new byte[numDecks * Card.DECK_SIZE];
 		this.numDecks = numDecks;
+		this.rng = rng;
+	}
+
+	public Deck(int numDecks) {
+		this(numDecks, null);
 	}
 	
 	public Deck() {
 		this(1);
 	}
 	
+	/**
+	 * Creates a deck that deals exactly the given cards in the given order,
+	 * for deals that were generated or recorded elsewhere.
+	 *
+	 * @param indices  the {@link Card#index()} of each card, the first to be
+	 * dealt first
+	 * @return the stacked deck
+	 * @throws IllegalArgumentException if an index is not a card's
+	 */
+	public static Deck stacked(byte[] indices) {
+		Deck deck = new Deck(Math.max(1, (indices.length + Card.DECK_SIZE - 1) / Card.DECK_SIZE));
+		for (byte index : indices) {
+			if (index < 0 || index >= Card.DECK_SIZE)
+				throw new IllegalArgumentException("Not a card index: " + index);
+		}
+		System.arraycopy(indices, 0, deck.cards, 0, indices.length);
+		deck.size = indices.length;
+		return deck;
+	}
+
+	/**
+	 * Creates a deck holding the same undealt cards in the same order, which
+	 * can be dealt from independently of this one.
+	 *
+	 * @return the copy
+	 */
+	public Deck copy() {
+		Deck copy = new Deck(numDecks, rng);
+		System.arraycopy(cards, 0, copy.cards, 0, cards.length);
+		copy.top = top;
+		copy.size = size;
+		return copy;
+	}
+
+	/**
+	 * Fills the deck with {@code numDecks} packs in sorted order, discarding
+	 * any cards that were still in it.
+	 */
 	public void populateDeck() {
-		CardRank[] ranks = {CardRank.ACE, CardRank.TWO, CardRank.THREE,
-				CardRank.FOUR, CardRank.FIVE, CardRank.SIX, CardRank.SEVEN,
-				CardRank.EIGHT, CardRank.NINE, CardRank.TEN, CardRank.JACK,
-				CardRank.QUEEN, CardRank.KING};
-		CardSuit[] suits = {CardSuit.CLUBS, CardSuit.DIAMONDS, CardSuit.HEARTS,
-			CardSuit.SPADES};
+		for (int i = 0; i < cards.length; i++)
+			cards[i] = (byte) (i % Card.DECK_SIZE);
 
-		for (int i = 0; i < numDecks; i++) {
-			for (int j = 0; j < ranks.length * suits.length; j++)
-				cards.add(new Card(ranks[j%ranks.length], suits[j/ranks.length]));
-		}
+		top = 0;
+		size = cards.length;
 	}
 
 	public void shuffleDeck() {
-		/* TODO: This is fine for alpha and beta testing, but at a later point I would
-		 * like to be able to detect whether there is an Internet connection and use
-		 * the random.org API to shuffle if possible. If something goes wrong, we fall
-		 * back to this.
+		/* To shuffle with random.org numbers, pass in an EntropyPool over a
+		 * RandomOrgSource as the generator. The pool prefetches in the background
+		 * and falls back to the local RNG whenever it runs dry, so shuffling never
+		 * waits on the network.
 		 */
-		for (int i = cards.size() - 1; i > 0; i--) {
-			Card temp = cards.get(i);
-			int j = rng.nextInt(i + 1); /* Without the +1 this becomes a Sattolo
-			                             * shuffle, which we don't want */
-			cards.set(i, cards.get(j));
-			cards.set(j, temp);
+		RandomGenerator generator = rng != null ? rng : FreeSolitaire.rng();
+		for (int i = size - 1; i > top; i--) {
+			byte temp = cards[i];
+			int j = top + generator.nextInt(i - top + 1); /* Without the +1 this becomes a
+			                                               * Sattolo shuffle, which we don't
+			                                               * want */
+			cards[i] = cards[j];
+			cards[j] = temp;
 		}
 	}
 	
 	public Card dealCard() {
-		return cards.pop();
+		if (top == size)
+			throw new NoSuchElementException();
+
+		return Card.fromIndex(cards[top++]);
 	}
 
 	public boolean isEmpty() {
-		return cards.isEmpty();
+		return top == size;
+	}
+
+	/**
+	 * Returns the number of cards that have not been dealt yet.
+	 *
+	 * @return the number of cards left in the deck
+	 */
+	public int size() {
+		return size - top;
 	}
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.objs;
+
+/**
+ * Packs moves into {@code int}s so that move lists can be kept in primitive
+ * arrays. A move has a type, a source pile, a destination pile and a card
+ * count, each in its own byte; what the type and pile numbers mean is up to
+ * the game state that generates the move.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class Move {
+	private Move() {
+	}
+
+	/**
+	 * Packs a move into an {@code int}.
+	 *
+	 * @param type  the kind of move, from 0 to 127
+	 * @param src  the source pile, from 0 to 255
+	 * @param dest  the destination pile, from 0 to 255
+	 * @param count  the number of cards moved, from 0 to 255
+	 * @return the packed move
+	 */
+	public static int of(int type, int src, int dest, int count) {
+		return type << 24 | src << 16 | dest << 8 | count;
+	}
+
+	public static int type(int move) {
+		return move >>> 24;
+	}
+
+	public static int source(int move) {
+		return (move >>> 16) & 0xFF;
+	}
+
+	public static int dest(int move) {
+		return (move >>> 8) & 0xFF;
+	}
+
+	public static int count(int move) {
+		return move & 0xFF;
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.objs;
+
+/**
+ * Lists the legal moves from a position of some game.
+ * <p>
+ * Moves are packed with {@link Move#of(int, int, int, int)} into a buffer the
+ * caller owns, so a search can keep one buffer per depth and generate moves
+ * at every node without allocating. Generators hold only the rules of the
+ * game, such as how many cards are drawn at a time, and may be shared
+ * between threads.
+ *
+ * @param <S>  the type of position moves are generated for
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public interface MoveGenerator<S> {
+	/**
+	 * Returns the most moves {@code generateMoves} can write for a single
+	 * position. Buffers at least this long are always big enough.
+	 *
+	 * @return the largest possible number of moves
+	 */
+	int maxMoves();
+
+	/**
+	 * Fills the front of {@code moves} with every legal move from
+	 * {@code state}, most promising first.
+	 *
+	 * @param state  the position to generate moves for; it is not modified
+	 * @param moves  the buffer to write packed moves to, at least
+	 * {@link #maxMoves()} long
+	 * @return the number of moves written
+	 */
+	int generateMoves(S state, int[] moves);
+}
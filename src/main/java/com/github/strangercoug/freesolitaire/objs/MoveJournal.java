@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.objs;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The history of a game, kept for undo and redo.
+ * <p>
+ * Each entry is two {@code int}s: the packed move that was played, and the
+ * undo token the game returned for it, which records whatever the move
+ * changed besides moving cards, such as a face-down card being turned over.
+ * Undoing hands back the token, and redoing hands back the move to play
+ * again. Playing a new move after undoing discards the moves that could
+ * have been redone.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class MoveJournal {
+	private int[] moves;
+	private int[] tokens;
+	private int size;
+	private int position;
+
+	public MoveJournal(int initialCapacity) {
+		moves = new int[Math.max(initialCapacity, 1)];
+		tokens = new int[moves.length];
+	}
+
+	public MoveJournal() {
+		this(64);
+	}
+
+	/**
+	 * Records a move that has just been played.
+	 *
+	 * @param move  the packed move
+	 * @param token  the undo token the game returned for it
+	 */
+	public void record(int move, int token) {
+		if (position == moves.length) {
+			moves = Arrays.copyOf(moves, 2 * moves.length);
+			tokens = Arrays.copyOf(tokens, moves.length);
+		}
+		moves[position] = move;
+		tokens[position] = token;
+		size = ++position;
+	}
+
+	public boolean canUndo() {
+		return position > 0;
+	}
+
+	public boolean canRedo() {
+		return position < size;
+	}
+
+	/**
+	 * Steps back over the last move played.
+	 *
+	 * @return the undo token for the move to take back
+	 * @throws IllegalStateException if there is nothing to undo
+	 */
+	public int undo() {
+		if (!canUndo())
+			throw new IllegalStateException("Nothing to undo.");
+
+		return tokens[--position];
+	}
+
+	/**
+	 * Steps forward over the last move undone. Games produce the same token
+	 * when they replay a move from the same position, so the recorded token
+	 * stays valid.
+	 *
+	 * @return the packed move to play again
+	 * @throws IllegalStateException if there is nothing to redo
+	 */
+	public int redo() {
+		if (!canRedo())
+			throw new IllegalStateException("Nothing to redo.");
+
+		return moves[position++];
+	}
+
+	/**
+	 * Returns the number of moves played and not undone.
+	 *
+	 * @return the number of moves that can be undone
+	 */
+	public int position() {
+		return position;
+	}
+
+	/**
+	 * Returns the number of moves recorded, including any that have been
+	 * undone but could still be redone.
+	 *
+	 * @return the number of moves recorded
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns a recorded move.
+	 *
+	 * @param index  the move's number, counting from 0 for the first move
+	 * @return the packed move
+	 */
+	public int moveAt(int index) {
+		return moves[Objects.checkIndex(index, size)];
+	}
+
+	/**
+	 * Returns the undo token recorded with a move.
+	 *
+	 * @param index  the move's number, counting from 0 for the first move
+	 * @return the undo token
+	 */
+	public int tokenAt(int index) {
+		return tokens[Objects.checkIndex(index, size)];
+	}
+
+	/**
+	 * Forgets every move.
+	 */
+	public void clear() {
+		size = 0;
+		position = 0;
+	}
+}
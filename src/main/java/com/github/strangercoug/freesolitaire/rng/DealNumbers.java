@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.rng;
+
+import com.github.strangercoug.freesolitaire.enums.CardRank;
+import com.github.strangercoug.freesolitaire.enums.CardSuit;
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+
+/**
+ * Numbered deals, so that players and support can refer to "deal #N" and
+ * anyone can regenerate it.
+ * <p>
+ * A deal number picks the deck order directly. It is not a seed for a
+ * generator that has to be stepped through earlier deals. Shuffle step
+ * {@code i} of deal {@code n} uses {@code mix(key(variant, n) + i * γ)},
+ * where {@code mix} is the SplitMix64 finalizer and γ is the golden-ratio
+ * increment. That is a counter-based generator: any deal costs one pass
+ * over its cards, and no generator is shared, including
+ * {@code FreeSolitaire.rng()}. Bounded values are the high 64 bits of a
+ * 64x64-bit product. Nothing here depends on how the JDK implements
+ * {@code nextInt(bound)}, so a number keeps naming the same deal across
+ * Java versions.
+ * <p>
+ * <b>Changing anything in this class renumbers every deal.</b>
+ * <p>
+ * FreeCell deals 1 to 2<sup>31</sup> - 1 are numbered as in Microsoft
+ * FreeCell, which are the numbers FreeCell players already know. Other
+ * FreeCell numbers, and every number in other variants, use the
+ * counter-based shuffle.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class DealNumbers {
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+	private static final int SUITS = CardSuit.values().length;
+	private static final int RANKS = CardRank.values().length;
+
+	private DealNumbers() {
+	}
+
+	/**
+	 * Returns the deck for deal number {@code dealNumber} of {@code variant},
+	 * ready to be dealt from the top.
+	 *
+	 * @param variant  the game being dealt
+	 * @param dealNumber  any 64-bit number
+	 * @return a new deck holding {@code variant.getNumDecks()} packs
+	 */
+	public static Deck deck(GameVariant variant, long dealNumber) {
+		if (variant == GameVariant.FREECELL && dealNumber >= 1 && dealNumber <= Integer.MAX_VALUE)
+			return microsoftFreeCell((int) dealNumber);
+
+		byte[] cards = new byte[variant.getNumDecks() * Card.DECK_SIZE];
+		shuffle(variant, dealNumber, cards);
+		return Deck.stacked(cards);
+	}
+
+	/**
+	 * Fills {@code cards} with the counter-based order of deal number
+	 * {@code dealNumber}, the first card to be dealt first, without making a
+	 * {@link Deck}. This is the order {@link #deck} deals for every deal that
+	 * is not a Microsoft FreeCell one.
+	 *
+	 * @param variant  the game being dealt
+	 * @param dealNumber  any 64-bit number
+	 * @param cards  the array to fill, holding {@code variant.getNumDecks()}
+	 * packs
+	 */
+	public static void shuffle(GameVariant variant, long dealNumber, byte[] cards) {
+		for (int i = 0; i < cards.length; i++)
+			cards[i] = (byte) (i % Card.DECK_SIZE);
+
+		// The name's hash is fixed by the language spec, unlike the ordinal
+		long key = mix(dealNumber + variant.name().hashCode() * GOLDEN_GAMMA);
+		for (int i = cards.length - 1; i > 0; i--) {
+			int j = (int) Math.unsignedMultiplyHigh(mix(key + i * GOLDEN_GAMMA), i + 1);
+			byte temp = cards[i];
+			cards[i] = cards[j];
+			cards[j] = temp;
+		}
+	}
+
+	/**
+	 * Returns the deck for a Microsoft FreeCell deal. Dealing it with
+	 * {@link com.github.strangercoug.freesolitaire.games.FreeCellState#deal}
+	 * gives the same layout as Microsoft FreeCell.
+	 * <p>
+	 * Microsoft's shuffle steps the C runtime's {@code rand()} linear
+	 * congruential generator, seeded with the deal number, over a deck sorted by
+	 * rank and then by suit in the order clubs, diamonds, hearts, spades.
+	 *
+	 * @param dealNumber  the deal number, from 1
+	 * @return a new one-pack deck
+	 */
+	public static Deck microsoftFreeCell(int dealNumber) {
+		if (dealNumber < 1)
+			throw new IllegalArgumentException("Microsoft deal numbers start at 1.");
+
+		byte[] remaining = new byte[Card.DECK_SIZE];
+		for (int i = 0; i < remaining.length; i++)
+			remaining[i] = (byte) ((i % SUITS) * RANKS + i / SUITS);
+
+		byte[] cards = new byte[Card.DECK_SIZE];
+		long seed = dealNumber;
+		for (int i = 0, left = remaining.length; i < cards.length; i++, left--) {
+			seed = (seed * 214013 + 2531011) & 0xFFFFFFFFL;
+			int j = (int) ((seed >>> 16) & 0x7FFF) % left;
+			cards[i] = remaining[j];
+			remaining[j] = remaining[left - 1];
+		}
+		return Deck.stacked(cards);
+	}
+
+	/**
+	 * The SplitMix64 finalizer.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.rng;
+
+import com.github.strangercoug.freesolitaire.FreeSolitaire;
+import lombok.extern.java.Log;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.random.RandomGenerator;
+
+/**
+ * A bounded buffer of random integers that a background thread keeps topped
+ * up from a slow {@link EntropySource}.
+ * <p>
+ * The pool is itself a {@link RandomGenerator}, so it can be passed straight
+ * to a {@link com.github.strangercoug.freesolitaire.objs.Deck}. Reads never
+ * wait for the source: they take the next buffered integer, and if the
+ * buffer has run dry they use the fallback generator instead, which is
+ * {@link FreeSolitaire#rng()} unless another one is given. Whenever the buffer
+ * is at least half empty the prefetcher asks the source for another half
+ * buffer's worth, or for as many as {@link EntropySource#maxFetch()} allows if
+ * that is fewer. If the source fails, the prefetcher logs the failure and
+ * backs off exponentially, up to a minute, before trying again.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+@Log
+public final class EntropyPool implements RandomGenerator, AutoCloseable {
+	public static final int DEFAULT_CAPACITY = 1024;
+	private static final long MIN_BACKOFF_MILLIS = 1_000;
+	private static final long MAX_BACKOFF_MILLIS = 60_000;
+
+	private final EntropySource source;
+	private final RandomGenerator fallback; // null for FreeSolitaire.rng()
+	private final int[] buffer;
+	private final int batchSize;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition needsRefill = lock.newCondition();
+	private final Condition refilled = lock.newCondition();
+	private final Thread prefetcher;
+	private int head;
+	private int count;
+	private long served;
+	private long fallbacks;
+
+	/**
+	 * Creates a pool and starts its prefetcher thread.
+	 *
+	 * @param source  where the numbers come from
+	 * @param capacity  how many integers to buffer, at least 2
+	 * @param fallback  the generator to use when the buffer is empty, or
+	 * {@code null} for {@link FreeSolitaire#rng()}
+	 */
+	public EntropyPool(EntropySource source, int capacity, RandomGenerator fallback) {
+		if (capacity < 2)
+			throw new IllegalArgumentException("capacity must be at least 2");
+		this.source = source;
+		this.fallback = fallback;
+		this.buffer = new int[capacity];
+		this.batchSize = Math.min(capacity / 2, source.maxFetch());
+		this.prefetcher = Thread.ofPlatform().daemon().name("entropy-prefetcher").start(this::prefetch);
+	}
+
+	public EntropyPool(EntropySource source) {
+		this(source, DEFAULT_CAPACITY, null);
+	}
+
+	@Override
+	public int nextInt() {
+		lock.lock();
+		try {
+			if (count > 0) {
+				int value = buffer[head];
+				head = (head + 1) % buffer.length;
+				count--;
+				served++;
+				if (buffer.length - count >= batchSize)
+					needsRefill.signal();
+				return value;
+			}
+			fallbacks++;
+		} finally {
+			lock.unlock();
+		}
+		return (fallback != null ? fallback : FreeSolitaire.rng()).nextInt();
+	}
+
+	@Override
+	public long nextLong() {
+		return (long) nextInt() << 32 | nextInt() & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Returns how many integers are buffered right now.
+	 *
+	 * @return the number of buffered integers
+	 */
+	public int available() {
+		lock.lock();
+		try {
+			return count;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns how many integers have been served from the buffer.
+	 *
+	 * @return the number of integers that came from the source
+	 */
+	public long served() {
+		lock.lock();
+		try {
+			return served;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns how many integers had to come from the fallback generator
+	 * because the buffer was empty.
+	 *
+	 * @return the number of fallback integers
+	 */
+	public long fallbacks() {
+		lock.lock();
+		try {
+			return fallbacks;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Waits until the buffer holds at least {@code minimum} integers.
+	 *
+	 * @param minimum  the number of integers to wait for, at most the capacity
+	 * @param timeout  the longest time to wait
+	 * @param unit  the unit of {@code timeout}
+	 * @return {@code true} if the buffer filled in time
+	 * @throws InterruptedException if the calling thread is interrupted while
+	 * waiting
+	 */
+	public boolean awaitAvailable(int minimum, long timeout, TimeUnit unit) throws InterruptedException {
+		long nanos = unit.toNanos(timeout);
+		lock.lock();
+		try {
+			while (count < minimum) {
+				if (nanos <= 0)
+					return false;
+				nanos = refilled.awaitNanos(nanos);
+			}
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Stops the prefetcher. Integers still in the buffer continue to be served.
+	 */
+	@Override
+	public void close() {
+		prefetcher.interrupt();
+	}
+
+	private void prefetch() {
+		long backoff = MIN_BACKOFF_MILLIS;
+		try {
+			while (true) {
+				lock.lock();
+				try {
+					while (buffer.length - count < batchSize)
+						needsRefill.await();
+				} finally {
+					lock.unlock();
+				}
+
+				int[] batch;
+				try {
+					batch = source.fetch(batchSize);
+					if (batch.length == 0)
+						throw new IOException("The source returned no numbers.");
+					backoff = MIN_BACKOFF_MILLIS;
+				} catch (IOException | RuntimeException e) {
+					log.warning("Unable to fetch random numbers; retrying in " + backoff + " ms: " + e.getMessage());
+					Thread.sleep(backoff);
+					backoff = Math.min(2 * backoff, MAX_BACKOFF_MILLIS);
+					continue;
+				}
+
+				lock.lock();
+				try {
+					for (int i = 0; i < batch.length && count < buffer.length; i++) {
+						buffer[(head + count) % buffer.length] = batch[i];
+						count++;
+					}
+					refilled.signalAll();
+				} finally {
+					lock.unlock();
+				}
+			}
+		} catch (InterruptedException e) {
+			// closed
+		}
+	}
+}
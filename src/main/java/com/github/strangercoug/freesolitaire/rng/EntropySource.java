@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.rng;
+
+import java.io.IOException;
+
+/**
+ * A source of truly random numbers, such as random.org, that is too slow to
+ * query once per shuffle and so is read ahead of time by an
+ * {@link EntropyPool}.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+@FunctionalInterface
+public interface EntropySource {
+	/**
+	 * Fetches uniformly distributed 32-bit integers. This may block for as
+	 * long as a network round trip takes.
+	 *
+	 * @param count  how many integers to fetch
+	 * @return exactly {@code count} integers
+	 * @throws IOException if the source is unreachable or returns a malformed
+	 * or short response
+	 * @throws InterruptedException if the calling thread is interrupted while
+	 * waiting
+	 */
+	int[] fetch(int count) throws IOException, InterruptedException;
+
+	/**
+	 * Returns the largest {@code count} that {@link #fetch(int)} accepts.
+	 *
+	 * @return the most integers one fetch may ask for
+	 */
+	default int maxFetch() {
+		return Integer.MAX_VALUE;
+	}
+}
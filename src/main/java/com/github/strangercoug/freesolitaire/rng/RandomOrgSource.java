@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.rng;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Fetches numbers from the random.org integer generator over HTTP.
+ * <p>
+ * random.org only serves integers in the range [-10^9, 10^9], so each
+ * 32-bit integer is built from two 16-bit numbers. The endpoint can be
+ * replaced, which lets tests point the source at a local stub server.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class RandomOrgSource implements EntropySource {
+	public static final URI DEFAULT_ENDPOINT = URI.create("https://www.random.org/integers/");
+	/**
+	 * The most numbers random.org returns for one request.
+	 */
+	public static final int MAX_NUMBERS = 10_000;
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+	private final HttpClient client;
+	private final URI endpoint;
+
+	public RandomOrgSource(URI endpoint) {
+		this.client = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+		this.endpoint = endpoint;
+	}
+
+	public RandomOrgSource() {
+		this(DEFAULT_ENDPOINT);
+	}
+
+	@Override
+	public int maxFetch() {
+		return MAX_NUMBERS / 2;
+	}
+
+	@Override
+	public int[] fetch(int count) throws IOException, InterruptedException {
+		int numbers = 2 * count;
+		if (count < 1 || numbers > MAX_NUMBERS)
+			throw new IllegalArgumentException("count must be between 1 and " + maxFetch());
+
+		HttpRequest request = HttpRequest.newBuilder(URI.create(endpoint + "?num=" + numbers
+						+ "&min=0&max=65535&col=1&base=10&format=plain&rnd=new"))
+				.timeout(TIMEOUT)
+				.header("User-Agent", "FreeSolitaire (strangercoug@hotmail.com)")
+				.GET()
+				.build();
+		HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() != 200)
+			throw new IOException("random.org returned HTTP " + response.statusCode() + ": "
+					+ response.body().strip());
+
+		String[] lines = response.body().strip().split("\\s+");
+		if (lines.length != numbers)
+			throw new IOException("Expected " + numbers + " numbers from random.org but got " + lines.length);
+		int[] values = new int[count];
+		try {
+			for (int i = 0; i < count; i++)
+				values[i] = parse(lines[2 * i]) << 16 | parse(lines[2 * i + 1]);
+		} catch (NumberFormatException e) {
+			throw new IOException("Malformed response from random.org", e);
+		}
+		return values;
+	}
+
+	private static int parse(String line) {
+		int value = Integer.parseInt(line);
+		if (value < 0 || value > 0xFFFF)
+			throw new NumberFormatException("Out of range: " + line);
+		return value;
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.rng;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Independent random number streams derived from one master seed, so that
+ * threads can shuffle concurrently without sharing a generator.
+ * <p>
+ * Stream {@code n} is an L64X128MixRandom generator whose whole state,
+ * including the additive constant that selects its LXM stream, is expanded
+ * from the master seed and {@code n} with SplitMix64. Different streams are
+ * therefore statistically independent, and the same (seed, stream) pair
+ * always produces the same sequence.
+ * <p>
+ * {@link #current()} hands each thread, platform or virtual, its own stream
+ * the first time it asks. Those streams are numbered in the order threads
+ * first ask for them, so code that must be reproducible regardless of
+ * scheduling should use {@link #stream(long)} with an explicit number, such
+ * as a deal number, instead.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public final class RandomStreams {
+	private static final RandomGeneratorFactory<RandomGenerator> factory =
+			RandomGeneratorFactory.of("L64X128MixRandom");
+	private static final int SEED_BYTES = 4 * Long.BYTES;
+
+	private final long masterSeed;
+	private final AtomicLong nextStream = new AtomicLong();
+	private final ThreadLocal<RandomGenerator> perThread;
+
+	public RandomStreams(long masterSeed) {
+		this.masterSeed = masterSeed;
+		this.perThread = ThreadLocal.withInitial(() -> stream(nextStream.getAndIncrement()));
+	}
+
+	public long getMasterSeed() {
+		return masterSeed;
+	}
+
+	/**
+	 * Returns a new generator for stream number {@code index}.
+	 *
+	 * @param index  the stream's number
+	 * @return a generator that no other thread holds
+	 */
+	public RandomGenerator stream(long index) {
+		ByteBuffer seed = ByteBuffer.allocate(SEED_BYTES);
+		long state = masterSeed ^ mix(index + 0x9E3779B97F4A7C15L);
+		while (seed.hasRemaining()) {
+			state += 0x9E3779B97F4A7C15L;
+			seed.putLong(mix(state));
+		}
+		return factory.create(seed.array());
+	}
+
+	/**
+	 * Returns the calling thread's own stream, creating it on first use.
+	 *
+	 * @return the generator for the calling thread
+	 */
+	public RandomGenerator current() {
+		return perThread.get();
+	}
+
+	/**
+	 * The SplitMix64 finalizer.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
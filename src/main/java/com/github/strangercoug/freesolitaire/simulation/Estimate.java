@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.simulation;
+
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import lombok.Getter;
+
+/**
+ * The outcome of a batch of solved deals, with a Wilson score interval for
+ * the variant's win rate. Deals the solver gave up on are counted as not won,
+ * so the interval is a lower estimate when {@code unknown} is not zero.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+@Getter
+public class Estimate {
+	private static final double Z_95 = 1.959964;
+
+	private final GameVariant variant;
+	private final long deals;
+	private final long won;
+	private final long unwinnable;
+	private final long unknown;
+	private final long nodes;
+	private final long elapsedNanos;
+
+	public Estimate(GameVariant variant, long won, long unwinnable, long unknown,
+			long nodes, long elapsedNanos) {
+		this.variant = variant;
+		this.deals = won + unwinnable + unknown;
+		this.won = won;
+		this.unwinnable = unwinnable;
+		this.unknown = unknown;
+		this.nodes = nodes;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public double winRate() {
+		return deals == 0 ? 0 : (double) won / deals;
+	}
+
+	/**
+	 * Returns the lower end of the 95% confidence interval for the win rate.
+	 *
+	 * @return the lower bound, between 0 and 1
+	 */
+	public double lowerBound() {
+		return wilson(-1);
+	}
+
+	/**
+	 * Returns the upper end of the 95% confidence interval for the win rate.
+	 *
+	 * @return the upper bound, between 0 and 1
+	 */
+	public double upperBound() {
+		return wilson(1);
+	}
+
+	public double dealsPerSecond() {
+		return elapsedNanos == 0 ? 0 : deals * 1e9 / elapsedNanos;
+	}
+
+	private double wilson(int sign) {
+		if (deals == 0)
+			return sign < 0 ? 0 : 1;
+
+		double p = winRate();
+		double z2n = Z_95 * Z_95 / deals;
+		double centre = p + z2n / 2;
+		double margin = Z_95 * Math.sqrt(p * (1 - p) / deals + z2n / (4 * deals));
+		return (centre + sign * margin) / (1 + z2n);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: %d of %d deals won (%.2f%%, 95%% CI %.2f%%-%.2f%%), "
+				+ "%d unwinnable, %d unknown; %.0f deals/s, %d nodes",
+				variant, won, deals, 100 * winRate(), 100 * lowerBound(),
+				100 * upperBound(), unwinnable, unknown, dealsPerSecond(), nodes);
+	}
+}
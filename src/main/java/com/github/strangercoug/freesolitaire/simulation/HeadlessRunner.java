@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.simulation;
+
+import com.github.strangercoug.freesolitaire.Game;
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.enums.SolverStatus;
+import com.github.strangercoug.freesolitaire.rng.DealNumbers;
+import com.github.strangercoug.freesolitaire.solvers.DealSolver;
+import com.github.strangercoug.freesolitaire.solvers.SearchBudget;
+import com.github.strangercoug.freesolitaire.solvers.SolverResult;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Plays a range of numbered deals without a user interface and streams one
+ * result line per game to a file, for scripted experiments.
+ * <p>
+ * Every game runs on its own virtual thread. A semaphore keeps at most
+ * {@code parallelism} games in flight, so a run of millions of deals never
+ * holds more than that many games, or solvers, in memory. Solvers are not
+ * thread-safe, so idle ones wait in a pool for the next game. Results are
+ * written as games finish, so lines are not in deal order, and the writer is
+ * guarded by a {@link ReentrantLock} rather than a monitor so that virtual
+ * threads waiting for it do not pin their carriers.
+ * <p>
+ * Deals come from {@link DealNumbers}, so any game in a run can be replayed
+ * from its deal number.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public class HeadlessRunner {
+	/** The longest game the {@code RANDOM} strategy plays before giving up. */
+	public static final int MAX_RANDOM_MOVES = 1000;
+
+	private final GameVariant variant;
+	private final Strategy strategy;
+	private final SearchBudget budget;
+	private final int parallelism;
+	private final ConcurrentLinkedQueue<DealSolver> solvers = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * @param variant  the variant to play
+	 * @param strategy  how to play each game
+	 * @param budget  the limits on each deal, for strategies that search
+	 * @param parallelism  the most games to play at once
+	 * @throws UnsupportedOperationException if the strategy is {@code SOLVER}
+	 * and the variant has no solver yet
+	 */
+	public HeadlessRunner(GameVariant variant, Strategy strategy, SearchBudget budget, int parallelism) {
+		if (strategy == Strategy.SOLVER && !variant.hasSolver())
+			throw new UnsupportedOperationException("No solver for " + variant + " yet.");
+		if (parallelism < 1)
+			throw new IllegalArgumentException("parallelism must be at least 1");
+
+		this.variant = variant;
+		this.strategy = strategy;
+		this.budget = budget;
+		this.parallelism = parallelism;
+	}
+
+	public HeadlessRunner(GameVariant variant, Strategy strategy, SearchBudget budget) {
+		this(variant, strategy, budget, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Plays deals {@code firstDeal} to {@code firstDeal + deals - 1} and
+	 * writes a line for each to {@code out}. The writer is flushed but not
+	 * closed.
+	 *
+	 * @param firstDeal  the number of the first deal to play
+	 * @param deals  the number of deals to play
+	 * @param out  where to write the results
+	 * @param format  the format to write them in
+	 * @return the totals over every game played
+	 * @throws IOException if writing fails
+	 * @throws InterruptedException if the calling thread is interrupted
+	 * @throws UnsupportedOperationException if the game does not support the
+	 * strategy
+	 */
+	public Estimate run(long firstDeal, long deals, Writer out, ResultFormat format)
+			throws IOException, InterruptedException {
+		Sink sink = new Sink(out, format);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Semaphore inFlight = new Semaphore(parallelism);
+		long start = System.nanoTime();
+
+		if (format.header() != null)
+			out.write(format.header() + '\n');
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (long i = 0; i < deals && failure.get() == null; i++) {
+				long deal = firstDeal + i;
+				inFlight.acquire();
+				executor.execute(() -> {
+					try {
+						sink.accept(play(deal));
+					} catch (Throwable e) {
+						failure.compareAndSet(null, e);
+					} finally {
+						inFlight.release();
+					}
+				});
+			}
+		}
+		out.flush();
+
+		Throwable e = failure.get();
+		if (e instanceof IOException io)
+			throw io;
+		if (e instanceof RuntimeException runtime)
+			throw runtime;
+		if (e instanceof Error error)
+			throw error;
+		return sink.estimate(System.nanoTime() - start);
+	}
+
+	private GameResult play(long deal) {
+		long start = System.nanoTime();
+
+		if (strategy == Strategy.SOLVER) {
+			DealSolver solver = solvers.poll();
+			if (solver == null)
+				solver = variant.newSolver(budget);
+			try {
+				SolverResult result = solver.solve(DealNumbers.deck(variant, deal));
+				return new GameResult(deal, result.getStatus(), result.getMoves().length,
+						result.getNodes(), System.nanoTime() - start);
+			} finally {
+				solvers.add(solver);
+			}
+		}
+
+		Game game = variant.newGame();
+		game.deal(DealNumbers.deck(variant, deal));
+		int[] moves = new int[game.maxMoves()];
+		SplittableRandom random = new SplittableRandom(deal);
+		int played = 0;
+		while (played < MAX_RANDOM_MOVES && !game.isWon()) {
+			int count = game.generateMoves(moves);
+			if (count == 0)
+				break;
+			game.makeMove(moves[random.nextInt(count)]);
+			played++;
+		}
+		return new GameResult(deal, game.isWon() ? SolverStatus.SOLVED : SolverStatus.UNKNOWN,
+				played, played, System.nanoTime() - start);
+	}
+
+	/**
+	 * Writes results and keeps the totals.
+	 */
+	private final class Sink {
+		private final ReentrantLock lock = new ReentrantLock();
+		private final StringBuilder line = new StringBuilder(96);
+		private final Writer out;
+		private final ResultFormat format;
+		private long won;
+		private long unwinnable;
+		private long unknown;
+		private long nodes;
+
+		Sink(Writer out, ResultFormat format) {
+			this.out = out;
+			this.format = format;
+		}
+
+		void accept(GameResult result) throws IOException {
+			lock.lock();
+			try {
+				switch (result.status()) {
+					case SOLVED -> won++;
+					case UNWINNABLE -> unwinnable++;
+					case UNKNOWN -> unknown++;
+				}
+				nodes += result.nodes();
+				line.setLength(0);
+				format.append(line, result);
+				out.append(line);
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		Estimate estimate(long elapsedNanos) {
+			return new Estimate(variant, won, unwinnable, unknown, nodes, elapsedNanos);
+		}
+	}
+
+	/**
+	 * Runs a batch from the command line and prints the totals.
+	 *
+	 * @param args  the variant's name, the number of deals, the strategy, the
+	 * output file, and optionally the first deal number and the node budget
+	 * per deal
+	 * @throws IOException if the output file cannot be written
+	 * @throws InterruptedException if the run is interrupted
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length < 4) {
+			System.err.println("Usage: HeadlessRunner <variant> <deals> <solver|random> <output.csv|output.jsonl>"
+					+ " [first deal] [max nodes per deal]");
+			System.exit(2);
+		}
+
+		GameVariant variant = GameVariant.valueOf(args[0].toUpperCase(Locale.ROOT));
+		long deals = Long.parseLong(args[1]);
+		Strategy strategy = Strategy.valueOf(args[2].toUpperCase(Locale.ROOT));
+		Path output = Path.of(args[3]);
+		long firstDeal = args.length > 4 ? Long.parseLong(args[4]) : 1;
+		long maxNodes = args.length > 5 ? Long.parseLong(args[5]) : 100_000;
+
+		try (Writer out = Files.newBufferedWriter(output)) {
+			System.out.println(new HeadlessRunner(variant, strategy,
+					new SearchBudget(maxNodes, Long.MAX_VALUE))
+					.run(firstDeal, deals, out, ResultFormat.forFile(output)));
+		}
+	}
+}
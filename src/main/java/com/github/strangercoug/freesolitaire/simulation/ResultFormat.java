@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.simulation;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The file formats the {@link HeadlessRunner} can write results in, one
+ * line per game.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public enum ResultFormat {
+	/** Comma-separated values, with a header line. */
+	CSV,
+	/** One JSON object per line, with no header. */
+	JSON_LINES;
+
+	/**
+	 * Picks the format from a file's extension: {@code .jsonl} or
+	 * {@code .ndjson} for JSON lines, and CSV for anything else.
+	 *
+	 * @param path  the file to write to
+	 * @return the format
+	 */
+	public static ResultFormat forFile(Path path) {
+		String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+		return name.endsWith(".jsonl") || name.endsWith(".ndjson") ? JSON_LINES : CSV;
+	}
+
+	/**
+	 * Returns the line to write before any results, if any.
+	 *
+	 * @return the header line without its line break, or {@code null}
+	 */
+	public String header() {
+		return this == CSV ? "deal,won,status,moves,nodes,nanos" : null;
+	}
+
+	/**
+	 * Appends a result as one line, line break included.
+	 *
+	 * @param line  the buffer to append to
+	 * @param result  the result to format
+	 */
+	public void append(StringBuilder line, GameResult result) {
+		switch (this) {
+			case CSV -> line.append(result.deal()).append(',')
+					.append(result.won()).append(',')
+					.append(result.status()).append(',')
+					.append(result.moves()).append(',')
+					.append(result.nodes()).append(',')
+					.append(result.nanos());
+			case JSON_LINES -> line.append("{\"deal\":").append(result.deal())
+					.append(",\"won\":").append(result.won())
+					.append(",\"status\":\"").append(result.status())
+					.append("\",\"moves\":").append(result.moves())
+					.append(",\"nodes\":").append(result.nodes())
+					.append(",\"nanos\":").append(result.nanos()).append('}');
+		}
+		line.append('\n');
+	}
+}
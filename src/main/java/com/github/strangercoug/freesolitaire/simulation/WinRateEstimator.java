@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.simulation;
+
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.rng.RandomStreams;
+import com.github.strangercoug.freesolitaire.solvers.DealSolver;
+import com.github.strangercoug.freesolitaire.solvers.SearchBudget;
+import com.github.strangercoug.freesolitaire.solvers.SolverResult;
+
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Estimates the win rate of a game variant by solving a large number of
+ * random deals on a {@link ForkJoinPool}.
+ * <p>
+ * The range of deals is split in halves until it is small enough to solve
+ * in one task, so idle workers can steal whole subranges from busy ones.
+ * Each task counts its own results and the counts are added together as the
+ * tasks are joined, so the workers never contend for shared counters.
+ * Solvers are not thread-safe, so each task borrows one for itself from a
+ * set kept for the length of the estimate and hands it back when done. The
+ * solvers, and the tables they hold, are dropped when the estimate returns
+ * rather than staying with the pool's threads.
+ * <p>
+ * Each deal is shuffled by its own {@link RandomStreams} stream, numbered by
+ * the deal, so workers never share a generator. A batch can be rerun
+ * exactly, and any single deal in it can be regenerated on its own, however
+ * the work was split.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public class WinRateEstimator {
+	private static final long LEAF_SIZE = 64;
+
+	private final GameVariant variant;
+	private final ForkJoinPool pool;
+	private final SearchBudget budget;
+	private final RandomStreams streams;
+
+	/**
+	 * @param variant  the variant to estimate
+	 * @param budget  the limits on each deal
+	 * @param pool  the pool to solve deals on
+	 * @param seed  the seed the deals are derived from
+	 * @throws UnsupportedOperationException if the variant has no solver yet
+	 */
+	public WinRateEstimator(GameVariant variant, SearchBudget budget,
+			ForkJoinPool pool, long seed) {
+		if (!variant.hasSolver())
+			throw new UnsupportedOperationException("No solver for " + variant + " yet.");
+
+		this.variant = variant;
+		this.pool = pool;
+		this.budget = budget;
+		this.streams = new RandomStreams(seed);
+	}
+
+	public WinRateEstimator(GameVariant variant, SearchBudget budget, ForkJoinPool pool) {
+		this(variant, budget, pool, System.nanoTime());
+	}
+
+	public WinRateEstimator(GameVariant variant, SearchBudget budget) {
+		this(variant, budget, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Returns a shuffled deck for deal number {@code deal} of this estimator.
+	 *
+	 * @param deal  the deal's number, counting from 0
+	 * @return the shuffled deck
+	 */
+	public Deck deck(long deal) {
+		Deck deck = new Deck(variant.getNumDecks(), streams.stream(deal));
+		deck.populateDeck();
+		deck.shuffleDeck();
+		return deck;
+	}
+
+	/**
+	 * Solves {@code deals} random deals and tallies the results.
+	 *
+	 * @param deals  the number of deals to solve
+	 * @return the tally, with the time taken
+	 */
+	public Estimate estimate(long deals) {
+		long start = System.nanoTime();
+		Tally tally = pool.invoke(new DealTask(new ConcurrentLinkedQueue<>(), 0, deals));
+		return new Estimate(variant, tally.won, tally.unwinnable, tally.unknown,
+				tally.nodes, System.nanoTime() - start);
+	}
+
+	/**
+	 * Estimates a variant's win rate from the command line.
+	 *
+	 * @param args  the variant's name, the number of deals, and optionally the
+	 * node budget per deal and the seed
+	 */
+	public static void main(String[] args) {
+		if (args.length < 2) {
+			System.err.println("Usage: WinRateEstimator <variant> <deals> [max nodes per deal] [seed]");
+			System.exit(2);
+		}
+
+		GameVariant variant = GameVariant.valueOf(args[0].toUpperCase(Locale.ROOT));
+		long deals = Long.parseLong(args[1]);
+		long maxNodes = args.length > 2 ? Long.parseLong(args[2]) : 100_000;
+		long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+		System.out.println(new WinRateEstimator(variant,
+				new SearchBudget(maxNodes, Long.MAX_VALUE),
+				ForkJoinPool.commonPool(), seed).estimate(deals) + "; seed " + seed);
+	}
+
+	private static final class Tally {
+		long won;
+		long unwinnable;
+		long unknown;
+		long nodes;
+
+		void record(SolverResult result) {
+			switch (result.getStatus()) {
+				case SOLVED -> won++;
+				case UNWINNABLE -> unwinnable++;
+				case UNKNOWN -> unknown++;
+			}
+			nodes += result.getNodes();
+		}
+
+		Tally merge(Tally other) {
+			won += other.won;
+			unwinnable += other.unwinnable;
+			unknown += other.unknown;
+			nodes += other.nodes;
+			return this;
+		}
+	}
+
+	private final class DealTask extends RecursiveTask<Tally> {
+		private final Queue<DealSolver> idle;
+		private final long first;
+		private final long deals;
+
+		DealTask(Queue<DealSolver> idle, long first, long deals) {
+			this.idle = idle;
+			this.first = first;
+			this.deals = deals;
+		}
+
+		@Override
+		protected Tally compute() {
+			if (deals > LEAF_SIZE) {
+				long half = deals / 2;
+				DealTask left = new DealTask(idle, first, half);
+				left.fork();
+				Tally right = new DealTask(idle, first + half, deals - half).compute();
+				return right.merge(left.join());
+			}
+
+			Tally tally = new Tally();
+			DealSolver solver = idle.poll();
+			if (solver == null)
+				solver = variant.newSolver(budget);
+			try {
+				for (long deal = first; deal < first + deals; deal++)
+					tally.record(solver.solve(deck(deal)));
+			} finally {
+				idle.add(solver);
+			}
+			return tally;
+		}
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.solvers;
+
+import java.util.Arrays;
+
+/**
+ * Beam search: breadth first, one move at a time, keeping only the
+ * {@code width} positions with the best {@link SearchState#estimate()} at
+ * each depth.
+ * <p>
+ * Its memory and time per move are bounded by the width, however large the
+ * deal's tree, which makes it a quick first try on deals that the exact
+ * searches would take too long over. It is not exhaustive: once it has had to
+ * drop a position, running out of positions only means that it gave up, so
+ * it reports a deal unwinnable only if it never dropped one.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public class BeamSearch implements SearchAlgorithm {
+	private static final int CHECK_INTERVAL = 256;
+
+	private final int width;
+	private final PositionTable table;
+	private final boolean shared;
+	private int[] moves = new int[0];
+	private int[] parents = new int[1 << 12];
+	private int[] movesTo = new int[1 << 12];
+	private int nodeCount;
+
+	/**
+	 * @param width  the most positions kept at each depth
+	 * @param tableBits  the base 2 logarithm of the transposition table's
+	 * capacity
+	 */
+	public BeamSearch(int width, int tableBits) {
+		this(width, new TranspositionTable(tableBits), false);
+	}
+
+	/**
+	 * Creates a search recording positions in a table it shares with other
+	 * searches.
+	 *
+	 * @param width  the most positions kept at each depth
+	 * @param table  the shared table
+	 */
+	public BeamSearch(int width, SharedTranspositionTable table) {
+		this(width, table, true);
+	}
+
+	private BeamSearch(int width, PositionTable table, boolean shared) {
+		if (width < 1)
+			throw new IllegalArgumentException("The beam must be at least 1 wide.");
+
+		this.width = width;
+		this.table = table;
+		this.shared = shared;
+	}
+
+	public BeamSearch() {
+		this(1024, 20);
+	}
+
+	@Override
+	public SolverResult search(SearchState start, SearchBudget budget) {
+		if (!shared)
+			table.clear();
+		nodeCount = 0;
+		if (start.isWon())
+			return SolverResult.solved(new int[0], 0);
+		if (moves.length < start.maxMoves())
+			moves = new int[start.maxMoves()];
+
+		long salt = table.newSalt();
+		table.visit(start.hash() ^ salt);
+		SearchState[] beam = {start.copy()};
+		int[] beamNodes = {addNode(-1, 0)};
+		long expanded = 0;
+		long startTime = System.nanoTime();
+		boolean dropped = false;
+		int depth = 0;
+
+		while (beam.length > 0) {
+			depth++;
+			int size = 0;
+			SearchState[] children = new SearchState[Math.min(beam.length * 8, 1 << 16)];
+			int[] childNodes = new int[children.length];
+			long[] scores = new long[children.length];
+			for (int b = 0; b < beam.length; b++) {
+				if (++expanded > budget.maxNodes() || (expanded % CHECK_INTERVAL == 0
+						&& budget.isOverTime(startTime)))
+					return SolverResult.unknown(expanded);
+
+				SearchState state = beam[b];
+				int count = state.generateMoves(moves);
+				for (int i = 0; i < count; i++) {
+					SearchState child = state.copy();
+					child.apply(moves[i]);
+					if (table.visit(child.hash() ^ salt))
+						continue;
+
+					int node = addNode(beamNodes[b], moves[i]);
+					if (child.isWon())
+						return SolverResult.solved(path(node, depth), expanded);
+					if (size == children.length) {
+						children = Arrays.copyOf(children, size * 2);
+						childNodes = Arrays.copyOf(childNodes, size * 2);
+						scores = Arrays.copyOf(scores, size * 2);
+					}
+					children[size] = child;
+					childNodes[size] = node;
+					scores[size] = (long) child.estimate() << 32 | size;
+					size++;
+				}
+			}
+
+			Arrays.sort(scores, 0, size);
+			if (size > width) {
+				dropped = true;
+				size = width;
+			}
+			beam = new SearchState[size];
+			int[] nextNodes = new int[size];
+			for (int i = 0; i < size; i++) {
+				int child = (int) scores[i];
+				beam[i] = children[child];
+				nextNodes[i] = childNodes[child];
+			}
+			beamNodes = nextNodes;
+		}
+		return dropped ? SolverResult.unknown(expanded) : SolverResult.unwinnable(expanded);
+	}
+
+	private int addNode(int parent, int move) {
+		if (nodeCount == parents.length) {
+			parents = Arrays.copyOf(parents, nodeCount * 2);
+			movesTo = Arrays.copyOf(movesTo, nodeCount * 2);
+		}
+		parents[nodeCount] = parent;
+		movesTo[nodeCount] = move;
+		return nodeCount++;
+	}
+
+	private int[] path(int node, int depth) {
+		int[] path = new int[depth];
+		for (int i = node; parents[i] >= 0; i = parents[i])
+			path[--depth] = movesTo[i];
+		return path;
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.solvers;
+
+import java.util.Arrays;
+
+/**
+ * Weighted best-first search, as in {@link FreeCellSolver}.
+ * <p>
+ * Positions are expanded in order of {@code weight} times their
+ * {@link SearchState#estimate()} plus the moves made to reach them; larger
+ * weights dive towards a win sooner. A position is closed the first time it
+ * is reached and a win is taken as soon as it is generated, so the win found
+ * need not be the shortest even with a weight of 1; {@link IdaStarSearch}
+ * finds a shortest one. Every position reached is kept until the search ends,
+ * so the budget should be set with memory in mind.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public class BestFirstSearch implements SearchAlgorithm {
+	private static final int CHECK_INTERVAL = 256;
+
+	private final int weight;
+	private final PositionTable table;
+	private final boolean shared;
+	private final LongPriorityQueue open = new LongPriorityQueue(1 << 16);
+	private int[] moves = new int[0];
+	private SearchState[] states = new SearchState[1 << 12];
+	private int[] parents = new int[1 << 12];
+	private int[] movesTo = new int[1 << 12];
+	private int[] depths = new int[1 << 12];
+	private int nodeCount;
+
+	/**
+	 * @param weight  how much more the estimate counts than the moves made,
+	 * from 1
+	 * @param tableBits  the base 2 logarithm of the transposition table's
+	 * capacity
+	 */
+	public BestFirstSearch(int weight, int tableBits) {
+		this(weight, new TranspositionTable(tableBits), false);
+	}
+
+	/**
+	 * Creates a search recording positions in a table it shares with other
+	 * searches.
+	 *
+	 * @param weight  how much more the estimate counts than the moves made,
+	 * from 1
+	 * @param table  the shared table
+	 */
+	public BestFirstSearch(int weight, SharedTranspositionTable table) {
+		this(weight, table, true);
+	}
+
+	private BestFirstSearch(int weight, PositionTable table, boolean shared) {
+		if (weight < 1)
+			throw new IllegalArgumentException("The weight must be at least 1.");
+
+		this.weight = weight;
+		this.table = table;
+		this.shared = shared;
+	}
+
+	public BestFirstSearch() {
+		this(3, 20);
+	}
+
+	@Override
+	public SolverResult search(SearchState start, SearchBudget budget) {
+		if (!shared)
+			table.clear();
+		open.clear();
+		nodeCount = 0;
+		if (start.isWon())
+			return SolverResult.solved(new int[0], 0);
+		if (moves.length < start.maxMoves())
+			moves = new int[start.maxMoves()];
+
+		long salt = table.newSalt();
+		table.visit(start.hash() ^ salt);
+		open.add((long) weight * start.estimate() << 32 | addNode(start.copy(), -1, 0, 0));
+
+		long expanded = 0;
+		long startTime = System.nanoTime();
+		try {
+			while (!open.isEmpty()) {
+				if (++expanded > budget.maxNodes() || (expanded % CHECK_INTERVAL == 0
+						&& budget.isOverTime(startTime)))
+					return SolverResult.unknown(expanded);
+
+				int node = (int) open.poll();
+				SearchState state = states[node];
+				states[node] = null;
+
+				int count = state.generateMoves(moves);
+				for (int i = 0; i < count; i++) {
+					SearchState child = state.copy();
+					child.apply(moves[i]);
+					if (table.visit(child.hash() ^ salt))
+						continue;
+
+					int depth = depths[node] + 1;
+					int index = addNode(child, node, moves[i], depth);
+					if (child.isWon())
+						return SolverResult.solved(path(index), expanded);
+					open.add((long) (weight * child.estimate() + depth) << 32 | index);
+				}
+			}
+			return SolverResult.unwinnable(expanded);
+		} finally {
+			Arrays.fill(states, 0, nodeCount, null);
+		}
+	}
+
+	private int addNode(SearchState state, int parent, int move, int depth) {
+		if (nodeCount == states.length) {
+			int capacity = nodeCount * 2;
+			states = Arrays.copyOf(states, capacity);
+			parents = Arrays.copyOf(parents, capacity);
+			movesTo = Arrays.copyOf(movesTo, capacity);
+			depths = Arrays.copyOf(depths, capacity);
+		}
+		states[nodeCount] = state;
+		parents[nodeCount] = parent;
+		movesTo[nodeCount] = move;
+		depths[nodeCount] = depth;
+		return nodeCount++;
+	}
+
+	private int[] path(int node) {
+		int[] path = new int[depths[node]];
+		for (int i = node; parents[i] >= 0; i = parents[i])
+			path[depths[i] - 1] = movesTo[i];
+		return path;
+	}
+}
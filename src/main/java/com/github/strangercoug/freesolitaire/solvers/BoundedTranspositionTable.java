@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.solvers;
+
+import java.util.Arrays;
+
+/**
+ * A set of position hashes that never uses more than a fixed amount of
+ * memory, for searches whose state spaces are far too big to remember in
+ * full.
+ * <p>
+ * Each entry is one {@code long}: the top 48 bits of the hash and a 16-bit
+ * value saying how costly the entry would be to lose, such as how much work
+ * it saved. The array is split into buckets of eight entries, one cache line
+ * each, and a hash can only go in its own bucket. When that bucket is full,
+ * the entry with the lowest value is evicted to make room, unless the new one
+ * is worth even less. An entry valued at {@link #MAX_VALUE} is never evicted,
+ * so a search can pin the positions it is still working on. A forgotten
+ * position is merely searched again, which costs time but never changes a
+ * solver's verdict.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public class BoundedTranspositionTable {
+	/** The highest value an entry can have. */
+	public static final int MAX_VALUE = 0xFFFF;
+	private static final int BUCKET_SIZE = 8;
+	private static final long KEY_MASK = ~0xFFFFL;
+	private static final long EMPTY = 0L;
+
+	private final long[] entries;
+	private final int bucketMask;
+	private int size;
+	private long evictions;
+
+	/**
+	 * Creates a table using at most {@code megabytes} of memory. The capacity
+	 * is rounded down to a power of 2.
+	 *
+	 * @param megabytes  the memory to use, from 1 to 8192
+	 */
+	public BoundedTranspositionTable(int megabytes) {
+		if (megabytes < 1 || megabytes > 8192)
+			throw new IllegalArgumentException("Memory must be between 1 MB and 8 GB.");
+
+		int buckets = Integer.highestOneBit((int) Math.min(((long) megabytes << 20)
+				/ (BUCKET_SIZE * Long.BYTES), Integer.MAX_VALUE / BUCKET_SIZE));
+		entries = new long[buckets * BUCKET_SIZE];
+		bucketMask = buckets - 1;
+	}
+
+	/**
+	 * Records a position, reporting whether it had been recorded before. If
+	 * it had, its value is left alone; only {@link #setValue(long, int)}
+	 * changes it, so a search that pins a position and later unpins it does
+	 * not pin it again by reaching it a second time.
+	 *
+	 * @param hash  the position's hash
+	 * @param value  how costly the entry would be to lose, from 0 to
+	 * {@link #MAX_VALUE}
+	 * @return true if the position was already in the table; false if it was
+	 * added by this call or was worth too little to add
+	 */
+	public boolean visit(long hash, int value) {
+		long key = key(hash);
+		int bucket = bucket(key);
+		int lowest = -1;
+		int lowestValue = Integer.MAX_VALUE;
+
+		for (int i = bucket; i < bucket + BUCKET_SIZE; i++) {
+			long entry = entries[i];
+			if (entry == EMPTY) {
+				entries[i] = key | value;
+				size++;
+				return false;
+			}
+			if ((entry & KEY_MASK) == key)
+				return true;
+			if ((int) (entry & MAX_VALUE) < lowestValue) {
+				lowestValue = (int) (entry & MAX_VALUE);
+				lowest = i;
+			}
+		}
+
+		if (lowestValue < MAX_VALUE && lowestValue <= value) {
+			entries[lowest] = key | value;
+			evictions++;
+		}
+		return false;
+	}
+
+	/**
+	 * Changes the value of a recorded position. Nothing happens if the
+	 * position is not in the table.
+	 *
+	 * @param hash  the position's hash
+	 * @param value  the new value, from 0 to {@link #MAX_VALUE}
+	 */
+	public void setValue(long hash, int value) {
+		long key = key(hash);
+		int bucket = bucket(key);
+
+		for (int i = bucket; i < bucket + BUCKET_SIZE; i++) {
+			if ((entries[i] & KEY_MASK) == key) {
+				entries[i] = key | value;
+				return;
+			}
+		}
+	}
+
+	public void clear() {
+		Arrays.fill(entries, EMPTY);
+		size = 0;
+		evictions = 0;
+	}
+
+	public int capacity() {
+		return entries.length;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of entries evicted to make room since the table was
+	 * created or last cleared.
+	 *
+	 * @return the number of evictions
+	 */
+	public long evictions() {
+		return evictions;
+	}
+
+	private static long key(long hash) {
+		long key = hash & KEY_MASK;
+		return key == EMPTY ? 1L << 16 : key;
+	}
+
+	private int bucket(long key) {
+		return ((int) ((key >>> 16) ^ (key >>> 40)) & bucketMask) * BUCKET_SIZE;
+	}
+}
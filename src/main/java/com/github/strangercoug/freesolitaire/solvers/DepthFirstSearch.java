@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.solvers;
+
+import java.util.Arrays;
+
+/**
+ * Depth-first search with a transposition table.
+ * <p>
+ * Every position reached is recorded in a {@link TranspositionTable}, and a
+ * position already in it is not searched again, however it was reached.
+ * Moves are tried in order of the {@link SearchState#estimate()} of the
+ * position they lead to, so the search heads for a win instead of for the
+ * first legal move. The win found need not be the shortest. The search
+ * reports a deal unwinnable only if it ran out of positions without hitting
+ * its depth limit.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public class DepthFirstSearch implements SearchAlgorithm {
+	private static final int CHECK_INTERVAL = 1024;
+
+	private final PositionTable table;
+	private final boolean shared;
+	private final int maxDepth;
+	private final int[] path;
+	private final int[][] moveBuffers;
+	private final long[] scoreBuffer = new long[256];
+	private SearchBudget budget;
+	private long nodes;
+	private long start;
+	private int length;
+	private boolean aborted;
+	private boolean cutOff;
+	private long salt;
+
+	/**
+	 * @param tableBits  the base 2 logarithm of the transposition table's
+	 * capacity
+	 * @param maxDepth  the most moves the search goes down any one line
+	 */
+	public DepthFirstSearch(int tableBits, int maxDepth) {
+		this(new TranspositionTable(tableBits), false, maxDepth);
+	}
+
+	/**
+	 * Creates a search recording positions in a table it shares with other
+	 * searches.
+	 *
+	 * @param table  the shared table
+	 * @param maxDepth  the most moves the search goes down any one line
+	 */
+	public DepthFirstSearch(SharedTranspositionTable table, int maxDepth) {
+		this(table, true, maxDepth);
+	}
+
+	private DepthFirstSearch(PositionTable table, boolean shared, int maxDepth) {
+		this.table = table;
+		this.shared = shared;
+		this.maxDepth = maxDepth;
+		path = new int[maxDepth];
+		moveBuffers = new int[maxDepth][];
+	}
+
+	public DepthFirstSearch() {
+		this(20, 1024);
+	}
+
+	@Override
+	public SolverResult search(SearchState start, SearchBudget budget) {
+		if (!shared)
+			table.clear();
+		salt = table.newSalt();
+		this.budget = budget;
+		this.start = System.nanoTime();
+		nodes = 0;
+		aborted = false;
+		cutOff = false;
+
+		SearchState state = start.copy();
+		table.visit(state.hash() ^ salt);
+		if (search(state, 0))
+			return SolverResult.solved(Arrays.copyOf(path, length), nodes);
+		return aborted || cutOff ? SolverResult.unknown(nodes) : SolverResult.unwinnable(nodes);
+	}
+
+	private boolean search(SearchState state, int depth) {
+		if (state.isWon()) {
+			length = depth;
+			return true;
+		}
+		if (depth == maxDepth) {
+			cutOff = true;
+			return false;
+		}
+		if (++nodes > budget.maxNodes() || (nodes % CHECK_INTERVAL == 0
+				&& budget.isOverTime(start))) {
+			aborted = true;
+			return false;
+		}
+
+		if (moveBuffers[depth] == null)
+			moveBuffers[depth] = new int[state.maxMoves()];
+		int[] moves = moveBuffers[depth];
+		int count = orderMoves(state, moves, state.generateMoves(moves));
+		for (int i = 0; i < count; i++) {
+			int token = state.make(moves[i]);
+			if (!table.visit(state.hash() ^ salt)) {
+				path[depth] = moves[i];
+				if (search(state, depth + 1))
+					return true;
+			}
+			state.unmake(token);
+			if (aborted)
+				return false;
+		}
+		return false;
+	}
+
+	/**
+	 * Sorts the moves by the estimate for the position each leads to, keeping
+	 * the generator's order between equal estimates, and returns how many
+	 * there are.
+	 */
+	private int orderMoves(SearchState state, int[] moves, int count) {
+		long[] scores = count <= scoreBuffer.length ? scoreBuffer : new long[count];
+		for (int i = 0; i < count; i++) {
+			int token = state.make(moves[i]);
+			scores[i] = (long) state.estimate() << 44 | (long) i << 32 | (moves[i] & 0xFFFFFFFFL);
+			state.unmake(token);
+		}
+		Arrays.sort(scores, 0, count);
+		for (int i = 0; i < count; i++)
+			moves[i] = (int) scores[i];
+		return count;
+	}
+}
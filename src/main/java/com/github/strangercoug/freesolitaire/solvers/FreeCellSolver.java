@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.solvers;
+
+import com.github.strangercoug.freesolitaire.enums.CardRank;
+import com.github.strangercoug.freesolitaire.enums.CardSuit;
+import com.github.strangercoug.freesolitaire.games.FreeCellState;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+
+import java.util.Arrays;
+
+import static com.github.strangercoug.freesolitaire.games.FreeCellState.CELLS;
+import static com.github.strangercoug.freesolitaire.games.FreeCellState.CELL_TO_FOUNDATION;
+import static com.github.strangercoug.freesolitaire.games.FreeCellState.CELL_TO_TABLEAU;
+import static com.github.strangercoug.freesolitaire.games.FreeCellState.COLUMNS;
+import static com.github.strangercoug.freesolitaire.games.FreeCellState.NO_CARD;
+import static com.github.strangercoug.freesolitaire.games.FreeCellState.TABLEAU_TO_CELL;
+import static com.github.strangercoug.freesolitaire.games.FreeCellState.TABLEAU_TO_FOUNDATION;
+import static com.github.strangercoug.freesolitaire.games.FreeCellState.TABLEAU_TO_TABLEAU;
+
+/**
+ * A weighted best-first FreeCell solver.
+ * <p>
+ * Positions are expanded in order of a heuristic estimate of the work left,
+ * weighted well above the number of moves already made, so the search dives
+ * towards a solution instead of looking for the shortest one. Positions are
+ * deduplicated by {@link FreeCellState#canonicalHash()}, which treats
+ * rearrangements of the free cells and columns as the same position, and a
+ * sequence moved between columns is a single supermove. Cards that nothing
+ * else could be built on are played to the foundations without branching.
+ * Only the first empty column is moved to, since the hash does not tell
+ * columns apart, but every length of sequence that fits is tried there.
+ * <p>
+ * A solver instance reuses its buffers between deals and is not thread-safe.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public class FreeCellSolver implements DealSolver {
+	// Up to a full suit from each column into an empty one, on top of the
+	// moves between columns, cells and foundations
+	private static final int MAX_MOVES = 256;
+	private static final int HEURISTIC_WEIGHT = 3;
+	private static final int CHECK_INTERVAL = 256;
+	private static final int RANKS = CardRank.values().length;
+	private static final int SUITS = CardSuit.values().length;
+
+	private final SearchBudget budget;
+	private final PositionTable table;
+	private final boolean shared;
+	private final LongPriorityQueue open = new LongPriorityQueue(1 << 16);
+	private final int[] moves = new int[MAX_MOVES];
+	private FreeCellState[] states = new FreeCellState[1 << 12];
+	private int[] parents = new int[1 << 12];
+	private int[] movesTo = new int[1 << 12];
+	private int[] depths = new int[1 << 12];
+	private int nodeCount;
+
+	/**
+	 * @param budget  the limits on each call to {@code solve}
+	 * @param tableBits  the base 2 logarithm of the transposition table's
+	 * capacity
+	 */
+	public FreeCellSolver(SearchBudget budget, int tableBits) {
+		this(budget, new TranspositionTable(tableBits), false);
+	}
+
+	/**
+	 * Creates a solver recording positions in a table it shares with other
+	 * solvers.
+	 *
+	 * @param budget  the limits on each call to {@code solve}
+	 * @param table  the shared table
+	 */
+	public FreeCellSolver(SearchBudget budget, SharedTranspositionTable table) {
+		this(budget, table, true);
+	}
+
+	private FreeCellSolver(SearchBudget budget, PositionTable table, boolean shared) {
+		this.budget = budget;
+		this.table = table;
+		this.shared = shared;
+	}
+
+	public FreeCellSolver(SearchBudget budget) {
+		this(budget, 20);
+	}
+
+	/**
+	 * Deals a game from {@code deck} and solves it.
+	 *
+	 * @param deck  the deck to deal from
+	 * @return the result of the search
+	 */
+	@Override
+	public SolverResult solve(Deck deck) {
+		return solve(FreeCellState.deal(deck));
+	}
+
+	/**
+	 * Solves a game from the given position. The position itself is not
+	 * modified.
+	 *
+	 * @param start  the position to solve from
+	 * @return the result of the search; a solution's moves can be replayed
+	 * with {@link FreeCellState#apply(int)}
+	 */
+	public SolverResult solve(FreeCellState start) {
+		if (!shared)
+			table.clear();
+		open.clear();
+		nodeCount = 0;
+		if (start.isWon())
+			return SolverResult.solved(new int[0], 0);
+
+		long salt = table.newSalt();
+		table.visit(start.canonicalHash() ^ salt);
+		open.add((long) priority(start, 0) << 32 | addNode(start.copy(), -1, 0, 0));
+
+		long expanded = 0;
+		long startTime = System.nanoTime();
+		while (!open.isEmpty()) {
+			if (++expanded > budget.maxNodes() || (expanded % CHECK_INTERVAL == 0
+					&& budget.isOverTime(startTime)))
+				return SolverResult.unknown(expanded);
+
+			int node = (int) open.poll();
+			FreeCellState state = states[node];
+			states[node] = null;
+
+			int count = generateMoves(state, moves);
+			for (int i = 0; i < count; i++) {
+				FreeCellState child = state.copy();
+				child.apply(moves[i]);
+				if (table.visit(child.canonicalHash() ^ salt))
+					continue;
+
+				int depth = depths[node] + 1;
+				int index = addNode(child, node, moves[i], depth);
+				if (child.isWon())
+					return SolverResult.solved(path(index), expanded);
+				open.add((long) priority(child, depth) << 32 | index);
+			}
+		}
+		return SolverResult.unwinnable(expanded);
+	}
+
+	private int addNode(FreeCellState state, int parent, int move, int depth) {
+		if (nodeCount == states.length) {
+			int capacity = nodeCount * 2;
+			states = Arrays.copyOf(states, capacity);
+			parents = Arrays.copyOf(parents, capacity);
+			movesTo = Arrays.copyOf(movesTo, capacity);
+			depths = Arrays.copyOf(depths, capacity);
+		}
+		states[nodeCount] = state;
+		parents[nodeCount] = parent;
+		movesTo[nodeCount] = move;
+		depths[nodeCount] = depth;
+		return nodeCount++;
+	}
+
+	private int[] path(int node) {
+		int[] path = new int[depths[node]];
+		for (int i = node; parents[i] >= 0; i = parents[i])
+			path[depths[i] - 1] = movesTo[i];
+		return path;
+	}
+
+	/**
+	 * Estimates the work left as the cards not yet on the foundations plus
+	 * the cards that sit on a lower card in their column, since each of those
+	 * has to be moved out of the way at least once, and weighs that against
+	 * the moves made so far.
+	 */
+	private int priority(FreeCellState state, int depth) {
+		int estimate = Card.DECK_SIZE;
+		for (int suit = 0; suit < SUITS; suit++)
+			estimate -= state.foundationSize(suit);
+
+		for (int col = 0; col < COLUMNS; col++) {
+			int lowest = RANKS;
+			for (int pos = 0; pos < state.columnSize(col); pos++) {
+				int rank = Card.rankOf(state.cardAt(col, pos));
+				if (rank > lowest)
+					estimate++;
+				else
+					lowest = rank;
+			}
+		}
+		estimate += CELLS - state.freeCellCount();
+
+		return HEURISTIC_WEIGHT * estimate + depth;
+	}
+
+	/**
+	 * Fills {@code moves} with the moves worth trying from {@code state}.
+	 *
+	 * @return the number of moves generated
+	 */
+	private int generateMoves(FreeCellState state, int[] moves) {
+		int count = 0;
+		int freeCells = state.freeCellCount();
+
+		for (int col = 0; col < COLUMNS; col++) {
+			int card = state.topCard(col);
+			if (state.canPlayToFoundation(card) && isSafe(state, card)) {
+				moves[0] = Move.of(TABLEAU_TO_FOUNDATION, col, 0, 1);
+				return 1;
+			}
+		}
+		for (int cell = freeCells; cell < CELLS; cell++) {
+			int card = state.cellCard(cell);
+			if (state.canPlayToFoundation(card) && isSafe(state, card)) {
+				moves[0] = Move.of(CELL_TO_FOUNDATION, cell, 0, 1);
+				return 1;
+			}
+		}
+
+		for (int col = 0; col < COLUMNS; col++) {
+			if (state.canPlayToFoundation(state.topCard(col)))
+				moves[count++] = Move.of(TABLEAU_TO_FOUNDATION, col, 0, 1);
+		}
+		for (int cell = freeCells; cell < CELLS; cell++) {
+			if (state.canPlayToFoundation(state.cellCard(cell)))
+				moves[count++] = Move.of(CELL_TO_FOUNDATION, cell, 0, 1);
+		}
+
+		int firstEmpty = -1;
+		for (int col = 0; col < COLUMNS && firstEmpty < 0; col++) {
+			if (state.columnSize(col) == 0)
+				firstEmpty = col;
+		}
+
+		for (int src = 0; src < COLUMNS; src++) {
+			int size = state.columnSize(src);
+			if (size == 0)
+				continue;
+			int topRank = Card.rankOf(state.topCard(src));
+			for (int dest = 0; dest < COLUMNS; dest++) {
+				int destCard = state.topCard(dest);
+				if (destCard != NO_CARD) {
+					int cards = Card.rankOf(destCard) - topRank;
+					if (state.canMoveCards(src, dest, cards))
+						moves[count++] = Move.of(TABLEAU_TO_TABLEAU, src, dest, cards);
+				} else if (dest == firstEmpty) {
+					int longest = Math.min(state.sequenceLength(src),
+							state.supermoveCapacity(true));
+					for (int cards = longest; cards > 0; cards--) {
+						if (cards < size)
+							moves[count++] = Move.of(TABLEAU_TO_TABLEAU, src, dest, cards);
+					}
+				}
+			}
+		}
+
+		for (int cell = freeCells; cell < CELLS; cell++) {
+			int card = state.cellCard(cell);
+			for (int dest = 0; dest < COLUMNS; dest++) {
+				if ((state.columnSize(dest) > 0 || dest == firstEmpty)
+						&& state.canPlace(card, dest))
+					moves[count++] = Move.of(CELL_TO_TABLEAU, cell, dest, 1);
+			}
+		}
+
+		if (freeCells > 0) {
+			for (int col = 0; col < COLUMNS; col++) {
+				if (state.columnSize(col) > 0)
+					moves[count++] = Move.of(TABLEAU_TO_CELL, col, 0, 1);
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * A card is safe to play to its foundation once every card that could be
+	 * built on it in the tableau is already on a foundation.
+	 */
+	private static boolean isSafe(FreeCellState state, int card) {
+		int rank = Card.rankOf(card);
+		if (rank <= 1)
+			return true;
+
+		boolean red = Card.isRed(card);
+		for (int suit = 0; suit < SUITS; suit++) {
+			if (Card.isRed(suit * RANKS) != red && state.foundationSize(suit) < rank)
+				return false;
+		}
+		return true;
+	}
+}
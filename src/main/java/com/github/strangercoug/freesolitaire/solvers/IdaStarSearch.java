@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.solvers;
+
+import java.util.Arrays;
+
+/**
+ * Iterative-deepening A* search.
+ * <p>
+ * Each iteration searches depth first, cutting off any line where the moves
+ * made so far plus the {@link SearchState#estimate()} of what is left go over
+ * a bound, and the next iteration raises the bound to the smallest total that
+ * was cut off. Within an iteration, a position already reached in as few
+ * moves is not searched again. When the estimate never overestimates, the
+ * first win found is a shortest one. The search needs little memory beyond
+ * that iteration's table of positions, at the cost of searching the top of
+ * the tree again in every iteration.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public class IdaStarSearch implements SearchAlgorithm {
+	private static final int CHECK_INTERVAL = 1024;
+	private static final int UNBOUNDED = Integer.MAX_VALUE;
+
+	private final int maxDepth;
+	private final int[] path;
+	private final int[][] moveBuffers;
+	private final LongIntHashMap reached = new LongIntHashMap(1 << 16);
+	private SearchBudget budget;
+	private long nodes;
+	private long start;
+	private int bound;
+	private int nextBound;
+	private int length;
+	private boolean aborted;
+
+	/**
+	 * @param maxDepth  the most moves the search goes down any one line
+	 */
+	public IdaStarSearch(int maxDepth) {
+		this.maxDepth = maxDepth;
+		path = new int[maxDepth];
+		moveBuffers = new int[maxDepth][];
+	}
+
+	public IdaStarSearch() {
+		this(512);
+	}
+
+	@Override
+	public SolverResult search(SearchState start, SearchBudget budget) {
+		this.budget = budget;
+		this.start = System.nanoTime();
+		nodes = 0;
+		aborted = false;
+
+		SearchState state = start.copy();
+		bound = state.estimate();
+		while (true) {
+			reached.clear();
+			nextBound = UNBOUNDED;
+			if (search(state, 0))
+				return SolverResult.solved(Arrays.copyOf(path, length), nodes);
+			if (aborted)
+				return SolverResult.unknown(nodes);
+			if (nextBound == UNBOUNDED)
+				return SolverResult.unwinnable(nodes);
+			if (nextBound > maxDepth)
+				return SolverResult.unknown(nodes);
+			bound = nextBound;
+		}
+	}
+
+	private boolean search(SearchState state, int depth) {
+		if (state.isWon()) {
+			length = depth;
+			return true;
+		}
+		int total = depth + state.estimate();
+		if (total > bound || depth == maxDepth) {
+			nextBound = Math.min(nextBound, Math.max(total, depth + 1));
+			return false;
+		}
+		long key = state.hash() & Long.MAX_VALUE;
+		int known = reached.get(key, -1);
+		if (known >= 0 && known <= depth)
+			return false;
+		reached.put(key, depth);
+		if (++nodes > budget.maxNodes() || (nodes % CHECK_INTERVAL == 0
+				&& budget.isOverTime(start))) {
+			aborted = true;
+			return false;
+		}
+
+		if (moveBuffers[depth] == null)
+			moveBuffers[depth] = new int[state.maxMoves()];
+		int[] moves = moveBuffers[depth];
+		int count = state.generateMoves(moves);
+		for (int i = 0; i < count; i++) {
+			int token = state.make(moves[i]);
+			path[depth] = moves[i];
+			boolean won = search(state, depth + 1);
+			if (won)
+				return true;
+			state.unmake(token);
+			if (aborted)
+				return false;
+		}
+		return false;
+	}
+}
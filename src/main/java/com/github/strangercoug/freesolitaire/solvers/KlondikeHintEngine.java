@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.solvers;
+
+import com.github.strangercoug.freesolitaire.enums.CardSuit;
+import com.github.strangercoug.freesolitaire.games.Klondike;
+import com.github.strangercoug.freesolitaire.games.KlondikeMoveGenerator;
+import com.github.strangercoug.freesolitaire.games.KlondikeState;
+
+import java.util.Arrays;
+
+import static com.github.strangercoug.freesolitaire.games.KlondikeState.COLUMNS;
+
+/**
+ * Suggests a Klondike move within a time limit.
+ * <p>
+ * The engine searches one move ahead, then two, then three, and so on until
+ * time runs out, and suggests the best first move of the deepest search it
+ * finished, so it always has an answer however little time it is given.
+ * Positions are scored by the cards on the foundations and the cards still
+ * face down, less one point for every move it takes to get there, so sooner
+ * progress is preferred. Each search tries the previous search's best move
+ * first.
+ * <p>
+ * Scores are kept in a table by position hash and search depth, and both
+ * the table and the depth reached are kept between calls. Asking again for
+ * the same position carries on from the next depth rather than starting over,
+ * and after the suggested move is played, most of the next search is already
+ * in the table.
+ * <p>
+ * A search can be stopped from another thread, such as the UI's, with
+ * {@link #cancel()}. Otherwise the engine is not thread-safe.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public class KlondikeHintEngine {
+	public static final int MAX_DEPTH = 64;
+	private static final int CHECK_INTERVAL = 256;
+	private static final int WIN = 1 << 20;
+	private static final int FOUNDATION_CARD = 100;
+	private static final int FACE_DOWN_CARD = 60;
+	private static final int SUITS = CardSuit.values().length;
+
+	private final KlondikeMoveGenerator generator;
+	private final int[][] moveBuffers = new int[MAX_DEPTH + 1][KlondikeMoveGenerator.MAX_MOVES];
+	private final long[] keys;
+	private final int[] entries;
+	private final int mask;
+	private volatile boolean cancelled;
+	private long nodes;
+	private long deadline;
+	private boolean aborted;
+	private long rootHash;
+	private int completedDepth;
+	private int bestMove = Hint.NO_MOVE;
+	private int bestScore = Integer.MIN_VALUE;
+
+	/**
+	 * @param drawCount  the number of cards drawn from the stock at a time
+	 * @param tableBits  the base 2 logarithm of the score table's capacity
+	 */
+	public KlondikeHintEngine(int drawCount, int tableBits) {
+		if (tableBits < 4 || tableBits > 30)
+			throw new IllegalArgumentException("Capacity must be between 2^4 and 2^30 entries.");
+
+		generator = new KlondikeMoveGenerator(drawCount);
+		keys = new long[1 << tableBits];
+		entries = new int[1 << tableBits];
+		mask = keys.length - 1;
+	}
+
+	public KlondikeHintEngine(int drawCount) {
+		this(drawCount, 18);
+	}
+
+	/**
+	 * Suggests a move in a game in progress.
+	 *
+	 * @param game  the game
+	 * @param millis  how long to search for
+	 * @return the suggested move, which can be played with
+	 * {@link Klondike#makeMove(int)}
+	 */
+	public Hint hint(Klondike game, long millis) {
+		if (game.getDrawCount() != generator.getDrawCount())
+			throw new IllegalArgumentException("The game draws " + game.getDrawCount()
+					+ " cards at a time, not " + generator.getDrawCount() + '.');
+
+		return hint(KlondikeState.of(game), millis);
+	}
+
+	/**
+	 * Suggests a move from a position. The position itself is not modified.
+	 *
+	 * @param position  the position
+	 * @param millis  how long to search for
+	 * @return the suggested move, which can be played with
+	 * {@link KlondikeState#apply(int)}
+	 */
+	public Hint hint(KlondikeState position, long millis) {
+		cancelled = false;
+		aborted = false;
+		nodes = 0;
+		deadline = System.nanoTime() + Math.min(millis, Long.MAX_VALUE / 2_000_000L) * 1_000_000L;
+
+		long hash = position.hash();
+		if (hash != rootHash || bestMove == Hint.NO_MOVE) {
+			rootHash = hash;
+			completedDepth = 0;
+			bestMove = Hint.NO_MOVE;
+			bestScore = Integer.MIN_VALUE;
+		}
+
+		KlondikeState state = position.copy();
+		int[] moves = moveBuffers[MAX_DEPTH];
+		int count = generator.generateMoves(state, moves);
+		if (count == 0 || state.isWon())
+			return new Hint(Hint.NO_MOVE, completedDepth, false, nodes);
+		if (bestMove == Hint.NO_MOVE)
+			bestMove = moves[0];
+		moveToFront(moves, count, bestMove);
+
+		while (completedDepth < MAX_DEPTH && bestScore < WIN - MAX_DEPTH) {
+			int depth = completedDepth + 1;
+			int move = Hint.NO_MOVE;
+			int score = Integer.MIN_VALUE;
+			for (int i = 0; i < count && !aborted; i++) {
+				int token = state.make(moves[i]);
+				int child = search(state, depth - 1) - 1;
+				state.unmake(token);
+				if (!aborted && child > score) {
+					score = child;
+					move = moves[i];
+				}
+			}
+			if (aborted)
+				break;
+
+			completedDepth = depth;
+			bestMove = move;
+			bestScore = score;
+			moveToFront(moves, count, move);
+		}
+
+		return new Hint(bestMove, completedDepth, bestScore >= WIN - MAX_DEPTH, nodes);
+	}
+
+	/**
+	 * Stops the search in progress, which then returns the best move it has
+	 * found so far. It may be called from any thread.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Forgets every position searched.
+	 */
+	public void reset() {
+		Arrays.fill(keys, 0L);
+		completedDepth = 0;
+		bestMove = Hint.NO_MOVE;
+		bestScore = Integer.MIN_VALUE;
+	}
+
+	/**
+	 * Returns the best score reachable from {@code state} within
+	 * {@code depth} moves.
+	 */
+	private int search(KlondikeState state, int depth) {
+		if (state.isWon())
+			return WIN;
+		int score = evaluate(state);
+		if (depth == 0)
+			return score;
+		if (++nodes % CHECK_INTERVAL == 0
+				&& (cancelled || System.nanoTime() - deadline > 0))
+			aborted = true;
+		if (aborted)
+			return score;
+
+		long key = state.hash() == 0 ? 1 : state.hash();
+		int slot = (int) (key ^ (key >>> 32)) & mask;
+		if (keys[slot] == key && (entries[slot] & 0xFF) >= depth)
+			return entries[slot] >> 8;
+
+		int[] moves = moveBuffers[depth];
+		int count = generator.generateMoves(state, moves);
+		for (int i = 0; i < count; i++) {
+			int token = state.make(moves[i]);
+			score = Math.max(score, search(state, depth - 1) - 1);
+			state.unmake(token);
+			if (aborted)
+				return score;
+		}
+
+		keys[slot] = key;
+		entries[slot] = score << 8 | depth;
+		return score;
+	}
+
+	private static void moveToFront(int[] moves, int count, int move) {
+		for (int i = 1; i < count; i++) {
+			if (moves[i] == move) {
+				moves[i] = moves[0];
+				moves[0] = move;
+				return;
+			}
+		}
+	}
+
+	private static int evaluate(KlondikeState state) {
+		int score = 0;
+		for (int suit = 0; suit < SUITS; suit++)
+			score += state.foundationSize(suit) * FOUNDATION_CARD;
+		for (int col = 0; col < COLUMNS; col++)
+			score -= state.faceDownCount(col) * FACE_DOWN_CARD;
+		return score;
+	}
+}
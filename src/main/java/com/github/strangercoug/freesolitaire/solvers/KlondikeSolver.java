@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.solvers;
+
+import com.github.strangercoug.freesolitaire.enums.CardRank;
+import com.github.strangercoug.freesolitaire.enums.CardSuit;
+import com.github.strangercoug.freesolitaire.games.KlondikeMoveGenerator;
+import com.github.strangercoug.freesolitaire.games.KlondikeState;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+
+import java.util.Arrays;
+
+import static com.github.strangercoug.freesolitaire.games.KlondikeState.COLUMNS;
+import static com.github.strangercoug.freesolitaire.games.KlondikeState.FOUNDATION_TO_TABLEAU;
+import static com.github.strangercoug.freesolitaire.games.KlondikeState.TABLEAU_TO_FOUNDATION;
+import static com.github.strangercoug.freesolitaire.games.KlondikeState.TABLEAU_TO_TABLEAU;
+import static com.github.strangercoug.freesolitaire.games.KlondikeState.TALON_TO_FOUNDATION;
+import static com.github.strangercoug.freesolitaire.games.KlondikeState.TALON_TO_TABLEAU;
+
+/**
+ * A depth-first Klondike solver for draw-one and draw-three games with
+ * unlimited passes through the stock.
+ * <p>
+ * The search makes and unmakes moves on a single working copy of the
+ * position. Every position reached is recorded in a
+ * {@link TranspositionTable} by its Zobrist hash, so transpositions and
+ * cycles through the stock are only searched once. Moves that cannot matter
+ * are never tried: cards that no other card could need are played to the
+ * foundations without branching, only the first empty column is moved to,
+ * and a pile is never moved whole from one empty column to another.
+ * <p>
+ * The search first also leaves out moves that seldom matter: part of a pile
+ * is only split off to free a card for the foundations, and a card only
+ * comes back from the foundations to go on another card. If that search
+ * runs out of moves, it is repeated with them, and only if the repeat runs
+ * out too has the deal been proven unwinnable (up to hash collisions). Both
+ * searches share the one budget. A solver instance reuses its buffers
+ * between deals and is not thread-safe.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public class KlondikeSolver implements DealSolver {
+	private static final int MAX_DEPTH = 1024;
+	private static final int CHECK_INTERVAL = 1024;
+	private static final int KING = CardRank.KING.ordinal();
+	private static final int SUITS = CardSuit.values().length;
+
+	private final KlondikeMoveGenerator generator;
+	private final SearchBudget budget;
+	private final PositionTable table;
+	private final boolean shared;
+	private final int[][] moveBuffers = new int[MAX_DEPTH][KlondikeMoveGenerator.MAX_MOVES];
+	private final int[] path = new int[MAX_DEPTH];
+	private long nodes;
+	private long start;
+	private boolean aborted;
+	private boolean exhaustive;
+	private int solutionLength;
+	private long salt;
+
+	/**
+	 * @param drawCount  the number of cards drawn from the stock at a time,
+	 * usually 1 or 3
+	 * @param budget  the limits on each call to {@code solve}
+	 * @param tableBits  the base 2 logarithm of the transposition table's
+	 * capacity
+	 */
+	public KlondikeSolver(int drawCount, SearchBudget budget, int tableBits) {
+		this(drawCount, budget, new TranspositionTable(tableBits), false);
+	}
+
+	/**
+	 * Creates a solver recording positions in a table it shares with other
+	 * solvers.
+	 *
+	 * @param drawCount  the number of cards drawn from the stock at a time,
+	 * usually 1 or 3
+	 * @param budget  the limits on each call to {@code solve}
+	 * @param table  the shared table
+	 */
+	public KlondikeSolver(int drawCount, SearchBudget budget, SharedTranspositionTable table) {
+		this(drawCount, budget, table, true);
+	}
+
+	private KlondikeSolver(int drawCount, SearchBudget budget, PositionTable table,
+			boolean shared) {
+		this.generator = new KlondikeMoveGenerator(drawCount);
+		this.budget = budget;
+		this.table = table;
+		this.shared = shared;
+	}
+
+	public KlondikeSolver(int drawCount, SearchBudget budget) {
+		this(drawCount, budget, 20);
+	}
+
+	/**
+	 * Deals a game from the top of {@code deck} and solves it.
+	 *
+	 * @param deck  the deck to deal from
+	 * @return the result of the search
+	 */
+	@Override
+	public SolverResult solve(Deck deck) {
+		return solve(KlondikeState.deal(deck));
+	}
+
+	/**
+	 * Solves a game from the given position. The position itself is not
+	 * modified.
+	 *
+	 * @param state  the position to solve from
+	 * @return the result of the search; a solution's moves can be replayed
+	 * with {@link KlondikeState#apply(int)}
+	 */
+	public SolverResult solve(KlondikeState state) {
+		nodes = 0;
+		aborted = false;
+		start = System.nanoTime();
+
+		for (int pass = 0; pass < 2 && !aborted; pass++) {
+			exhaustive = pass == 1;
+			if (!shared)
+				table.clear();
+			salt = table.newSalt();
+			table.visit(state.hash() ^ salt);
+			if (search(state.copy(), 0))
+				return SolverResult.solved(Arrays.copyOf(path, solutionLength), nodes);
+		}
+
+		return aborted ? SolverResult.unknown(nodes) : SolverResult.unwinnable(nodes);
+	}
+
+	private boolean search(KlondikeState state, int depth) {
+		if (state.isWon()) {
+			solutionLength = depth;
+			return true;
+		}
+		if (++nodes > budget.maxNodes() || depth == MAX_DEPTH
+				|| (nodes % CHECK_INTERVAL == 0
+				&& budget.isOverTime(start))) {
+			aborted = true;
+			return false;
+		}
+
+		int[] moves = moveBuffers[depth];
+		int count = generateMoves(state, moves);
+
+		for (int i = 0; i < count; i++) {
+			int token = state.make(moves[i]);
+			if (!table.visit(state.hash() ^ salt)) {
+				path[depth] = moves[i];
+				if (search(state, depth + 1))
+					return true;
+			}
+			state.unmake(token);
+			if (aborted)
+				return false;
+		}
+		return false;
+	}
+
+	/**
+	 * Fills {@code moves} with the moves worth trying from {@code state}, best
+	 * first.
+	 *
+	 * @return the number of moves generated
+	 */
+	private int generateMoves(KlondikeState state, int[] moves) {
+		// Safe plays to the foundations are forced, so they are the only move.
+		for (int col = 0; col < COLUMNS; col++) {
+			if (state.canPlayToFoundation(col) && isSafe(state, state.topCard(col))) {
+				moves[0] = Move.of(TABLEAU_TO_FOUNDATION, col, 0, 1);
+				return 1;
+			}
+		}
+		if (state.canPlayTalonToFoundation() && isSafe(state, state.talonTop())) {
+			moves[0] = Move.of(TALON_TO_FOUNDATION, 0, 0, 1);
+			return 1;
+		}
+
+		int generated = generator.generateMoves(state, moves);
+		int firstEmpty = firstEmptyColumn(state);
+		int count = 0;
+		for (int i = 0; i < generated; i++) {
+			if (isWorthTrying(state, moves[i], firstEmpty, exhaustive))
+				moves[count++] = moves[i];
+		}
+		return count;
+	}
+
+	/**
+	 * Empty columns are interchangeable, so only the first is ever moved to,
+	 * and a whole pile is only moved if that uncovers a card or it lands on
+	 * another card. Unless the search is exhaustive, part of a pile is also
+	 * only split off to free a card for the foundations, and a card only
+	 * comes back from the foundations to go on another card.
+	 */
+	private static boolean isWorthTrying(KlondikeState state, int move, int firstEmpty,
+			boolean exhaustive) {
+		int src = Move.source(move);
+		int dest = Move.dest(move);
+
+		return switch (Move.type(move)) {
+			case TALON_TO_TABLEAU -> state.columnSize(dest) > 0 || dest == firstEmpty;
+			case TABLEAU_TO_TABLEAU -> {
+				if (state.columnSize(dest) == 0 && dest != firstEmpty)
+					yield false;
+				int size = state.columnSize(src);
+				int cards = Move.count(move);
+				if (cards == size - state.faceDownCount(src))
+					yield state.columnSize(dest) > 0 || state.faceDownCount(src) > 0;
+				if (exhaustive)
+					yield true;
+				int freed = state.cardAt(src, size - cards - 1);
+				yield state.foundationSize(Card.suitOf(freed)) == Card.rankOf(freed);
+			}
+			case FOUNDATION_TO_TABLEAU -> {
+				if (state.columnSize(dest) == 0 && dest != firstEmpty)
+					yield false;
+				yield exhaustive || state.foundationSize(src) >= 2 && state.columnSize(dest) > 0;
+			}
+			default -> true;
+		};
+	}
+
+	/**
+	 * A card is safe to play to its foundation once every card that could be
+	 * built on it in the tableau is already on a foundation.
+	 */
+	private static boolean isSafe(KlondikeState state, int card) {
+		int rank = Card.rankOf(card);
+		if (rank <= 1)
+			return true;
+
+		boolean red = Card.isRed(card);
+		for (int suit = 0; suit < SUITS; suit++) {
+			if (Card.isRed(suit * (KING + 1)) != red
+					&& state.foundationSize(suit) < rank)
+				return false;
+		}
+		return true;
+	}
+
+	private static int firstEmptyColumn(KlondikeState state) {
+		for (int col = 0; col < COLUMNS; col++) {
+			if (state.columnSize(col) == 0)
+				return col;
+		}
+		return -1;
+	}
+}
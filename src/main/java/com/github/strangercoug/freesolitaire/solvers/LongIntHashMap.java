@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.solvers;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from non-negative {@code long} keys to {@code int} values that
+ * stores both in primitive arrays, for memoizing searches over packed
+ * positions without boxing.
+ * <p>
+ * Keys are spread by a multiplicative hash and found by linear probing. The
+ * table doubles once it is half full.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public class LongIntHashMap {
+	private static final long EMPTY = -1L;
+	private static final long SPREAD = 0x9E3779B97F4A7C15L;
+
+	private long[] keys;
+	private int[] values;
+	private int mask;
+	private int shift;
+	private int size;
+
+	public LongIntHashMap(int initialCapacity) {
+		allocate(Math.max(16, Integer.highestOneBit(Math.max(1, initialCapacity - 1)) << 2));
+	}
+
+	public LongIntHashMap() {
+		this(16);
+	}
+
+	/**
+	 * Returns the value for a key.
+	 *
+	 * @param key  the key; negative keys are never in the map
+	 * @param missing  the value to return if the key is not in the map
+	 * @return the value, or {@code missing}
+	 */
+	public int get(long key, int missing) {
+		if (key < 0)
+			return missing;
+
+		for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+			if (keys[slot] == key)
+				return values[slot];
+			if (keys[slot] == EMPTY)
+				return missing;
+		}
+	}
+
+	/**
+	 * Sets the value for a key.
+	 *
+	 * @param key  the key, which must not be negative
+	 * @param value  the value
+	 */
+	public void put(long key, int value) {
+		if (key < 0)
+			throw new IllegalArgumentException("Keys must not be negative.");
+
+		int slot = slot(key);
+		while (keys[slot] != EMPTY && keys[slot] != key)
+			slot = (slot + 1) & mask;
+		if (keys[slot] == EMPTY) {
+			keys[slot] = key;
+			if (++size > keys.length >>> 1) {
+				values[slot] = value;
+				grow();
+				return;
+			}
+		}
+		values[slot] = value;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void clear() {
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+	}
+
+	private int slot(long key) {
+		return (int) ((key * SPREAD) >>> shift);
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new int[capacity];
+		Arrays.fill(keys, EMPTY);
+		mask = capacity - 1;
+		shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+	}
+
+	private void grow() {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(keys.length * 2);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] == EMPTY)
+				continue;
+			int slot = slot(oldKeys[i]);
+			while (keys[slot] != EMPTY)
+				slot = (slot + 1) & mask;
+			keys[slot] = oldKeys[i];
+			values[slot] = oldValues[i];
+		}
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.solvers;
+
+import com.github.strangercoug.freesolitaire.enums.SolverStatus;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs several solvers on the same deal at once and keeps the first
+ * conclusive answer.
+ * <p>
+ * Which strategy cracks a deal quickly varies from deal to deal, so racing a
+ * few configurations cuts the time spent on the hardest deals. Each member
+ * solver gets its own copy of the deck and its own platform thread; virtual
+ * threads only switch when they block, and a search never does, so members
+ * on virtual threads could starve one another on a machine with few cores.
+ * As soon as one finds a solution or proves the deal unwinnable, the rest are
+ * cancelled by interrupting their threads, which the solvers notice through
+ * {@link SearchBudget#isOverTime(long)}, and {@code solve} returns once they
+ * have all stopped. If every member gives up, the result is unknown.
+ * <p>
+ * Members can share one {@link SharedTranspositionTable}, so a portfolio
+ * needs no more table memory than a single solver.
+ * <p>
+ * A portfolio uses each member from one thread at a time, so like any
+ * other solver it is not thread-safe itself.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public class PortfolioSolver implements DealSolver {
+	private final List<DealSolver> members;
+
+	/**
+	 * @param members  the solvers to race, each a separate instance
+	 */
+	public PortfolioSolver(List<? extends DealSolver> members) {
+		if (members.isEmpty())
+			throw new IllegalArgumentException("A portfolio needs at least one solver.");
+
+		this.members = List.copyOf(members);
+	}
+
+	/**
+	 * Solves the deal {@code deck} produces with every member at once. The
+	 * deck itself is not dealt from.
+	 *
+	 * @param deck  the deck to deal from
+	 * @return the first solution or proof found, or an unknown result
+	 * counting the positions every member expanded
+	 */
+	@Override
+	public SolverResult solve(Deck deck) {
+		try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+				Thread.ofPlatform().daemon().factory())) {
+			CompletionService<SolverResult> finished = new ExecutorCompletionService<>(executor);
+			List<Future<SolverResult>> running = new ArrayList<>(members.size());
+			for (DealSolver member : members) {
+				Deck copy = deck.copy();
+				running.add(finished.submit(() -> member.solve(copy)));
+			}
+
+			long nodes = 0;
+			try {
+				for (int i = 0; i < members.size(); i++) {
+					SolverResult result = finished.take().get();
+					if (result.getStatus() != SolverStatus.UNKNOWN)
+						return result;
+					nodes += result.getNodes();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException runtime)
+					throw runtime;
+				if (e.getCause() instanceof Error error)
+					throw error;
+				throw new IllegalStateException(e.getCause());
+			} finally {
+				for (Future<SolverResult> future : running)
+					future.cancel(true);
+			}
+			return SolverResult.unknown(nodes);
+		}
+	}
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.solvers;
+
+import com.github.strangercoug.freesolitaire.games.PyramidMoveGenerator;
+import com.github.strangercoug.freesolitaire.games.PyramidState;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+
+import static com.github.strangercoug.freesolitaire.games.PyramidState.PYRAMID_SIZE;
+import static com.github.strangercoug.freesolitaire.games.PyramidState.REMOVE_ONE;
+import static com.github.strangercoug.freesolitaire.games.PyramidState.REMOVE_TWO;
+
+/**
+ * An exact Pyramid solver that finds the shortest win.
+ * <p>
+ * Every move removes cards, draws from the stock or starts a new pass
+ * through it, so no position can ever come round again and the positions
+ * form a directed acyclic graph. The solver works out the fewest moves to
+ * win from each position reachable from the deal by dynamic programming over
+ * that graph, memoized in a {@link LongIntHashMap} keyed by
+ * {@link PyramidState#key()}, and then follows the shortest path back out
+ * from the deal. A king in the pyramid is removed as soon as it is
+ * available, since that only ever makes more cards available and costs the
+ * same one move whenever it is made.
+ * <p>
+ * A solver instance reuses its memo between deals and is not thread-safe.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public class PyramidSolver implements DealSolver {
+	private static final int UNWINNABLE = Integer.MAX_VALUE;
+	private static final int MAX_DEPTH = 256;
+	private static final int CHECK_INTERVAL = 1024;
+
+	private final int passes;
+	private final SearchBudget budget;
+	private final PyramidMoveGenerator generator = new PyramidMoveGenerator();
+	private final LongIntHashMap memo = new LongIntHashMap(1 << 14);
+	private final int[][] moveBuffers = new int[MAX_DEPTH][PyramidMoveGenerator.MAX_MOVES];
+	private long nodes;
+	private long start;
+	private boolean aborted;
+
+	/**
+	 * @param passes  the number of times the stock can be gone through, from
+	 * 1 to 3
+	 * @param budget  the limits on each call to {@code solve}
+	 */
+	public PyramidSolver(int passes, SearchBudget budget) {
+		if (passes < 1 || passes > 3)
+			throw new IllegalArgumentException("The stock can be gone through 1 to 3 times.");
+
+		this.passes = passes;
+		this.budget = budget;
+	}
+
+	/**
+	 * Deals a game from the top of {@code deck} and solves it.
+	 *
+	 * @param deck  the deck to deal from
+	 * @return the result of the search
+	 */
+	@Override
+	public SolverResult solve(Deck deck) {
+		return solve(PyramidState.deal(deck, passes));
+	}
+
+	/**
+	 * Finds the shortest win from the given position. The position itself is
+	 * not modified.
+	 *
+	 * @param state  the position to solve from
+	 * @return the result of the search; a solution's moves can be replayed
+	 * with {@link PyramidState#apply(int)}
+	 */
+	public SolverResult solve(PyramidState state) {
+		memo.clear();
+		nodes = 0;
+		aborted = false;
+		start = System.nanoTime();
+
+		PyramidState work = state.copy();
+		int distance = distance(work, 0);
+		if (aborted)
+			return SolverResult.unknown(nodes);
+		if (distance == UNWINNABLE)
+			return SolverResult.unwinnable(nodes);
+
+		int[] path = new int[distance];
+		int[] moves = moveBuffers[0];
+		for (int i = 0; i < distance; i++) {
+			int count = generateMoves(work, moves);
+			for (int j = 0; j < count; j++) {
+				int token = work.make(moves[j]);
+				if (distanceOf(work) == distance - i - 1) {
+					path[i] = moves[j];
+					break;
+				}
+				work.unmake(token);
+			}
+		}
+		return SolverResult.solved(path, nodes);
+	}
+
+	/**
+	 * Returns the fewest moves to win from {@code state}, or
+	 * {@code UNWINNABLE}.
+	 */
+	private int distance(PyramidState state, int depth) {
+		if (state.isWon())
+			return 0;
+		if (state.isDead())
+			return UNWINNABLE;
+		long key = state.key();
+		int known = memo.get(key, -1);
+		if (known >= 0)
+			return known;
+		if (++nodes > budget.maxNodes() || (nodes % CHECK_INTERVAL == 0
+				&& budget.isOverTime(start))) {
+			aborted = true;
+			return UNWINNABLE;
+		}
+
+		int[] moves = moveBuffers[depth];
+		int count = generateMoves(state, moves);
+		int best = UNWINNABLE;
+		for (int i = 0; i < count; i++) {
+			int token = state.make(moves[i]);
+			int child = distance(state, depth + 1);
+			state.unmake(token);
+			if (aborted)
+				return UNWINNABLE;
+			if (child != UNWINNABLE && child + 1 < best)
+				best = child + 1;
+		}
+
+		memo.put(key, best);
+		return best;
+	}
+
+	private int distanceOf(PyramidState state) {
+		return state.isWon() ? 0 : memo.get(state.key(), UNWINNABLE);
+	}
+
+	/**
+	 * Fills {@code moves} with the moves worth trying. A move is forced, and
+	 * so the only one tried, if it removes a king from the pyramid or a card
+	 * from the pyramid together with the only card it could ever be removed
+	 * with: it has to be made sooner or later, and making it sooner can only
+	 * make more cards available.
+	 */
+	private int generateMoves(PyramidState state, int[] moves) {
+		int count = generator.generateMoves(state, moves);
+		for (int i = 0; i < count; i++) {
+			int move = moves[i];
+			int src = Move.source(move);
+			int dest = Move.dest(move);
+			boolean forced = switch (Move.type(move)) {
+				case REMOVE_ONE -> src < PYRAMID_SIZE;
+				case REMOVE_TWO -> (src < PYRAMID_SIZE && state.partners(src) == 1L << dest)
+						|| (dest < PYRAMID_SIZE && state.partners(dest) == 1L << src);
+				default -> false;
+			};
+			if (forced) {
+				moves[0] = move;
+				return 1;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.solvers;
+
+/**
+ * Limits on how much work a solver may do on one deal before giving up.
+ *
+ * @param maxNodes   the number of positions the solver may expand
+ * @param maxMillis  the wall-clock time the solver may take, in milliseconds
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public record SearchBudget(long maxNodes, long maxMillis) {
+	/**
+	 * A budget that never runs out.
+	 */
+	public static final SearchBudget UNLIMITED = new SearchBudget(Long.MAX_VALUE,
+			Long.MAX_VALUE);
+
+	public SearchBudget {
+		if (maxNodes <= 0 || maxMillis <= 0)
+			throw new IllegalArgumentException("Search budgets must be positive.");
+	}
+
+	/**
+	 * Returns the time limit in nanoseconds, for comparing against differences
+	 * between {@code System.nanoTime()} values.
+	 *
+	 * @return the time limit, saturated at {@code Long.MAX_VALUE}
+	 */
+	public long maxNanos() {
+		return maxMillis > Long.MAX_VALUE / 1_000_000L ? Long.MAX_VALUE
+				: maxMillis * 1_000_000L;
+	}
+
+	/**
+	 * Checks whether a search begun at {@code startNanos} should stop, either
+	 * because its time is up or because its thread has been interrupted to
+	 * cancel it. Solvers call this every few hundred positions, which bounds
+	 * how long a cancelled search keeps running.
+	 *
+	 * @param startNanos  the {@code System.nanoTime()} the search began at
+	 * @return true if the search should give up
+	 */
+	public boolean isOverTime(long startNanos) {
+		return System.nanoTime() - startNanos > maxNanos()
+				|| Thread.currentThread().isInterrupted();
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.solvers;
+
+import com.github.strangercoug.freesolitaire.objs.Move;
+
+/**
+ * A position that the generic {@link SearchAlgorithm}s can search from.
+ * <p>
+ * A variant only has to say what the legal moves are, how to make and take
+ * them back, how to hash a position and how far it looks from a win; the
+ * algorithms supply the rest. Moves are packed by
+ * {@link Move#of(int, int, int, int)} in whatever encoding the variant
+ * likes, and {@link #make(int)} returns an undo token in the same way as the
+ * other packed states, so a search can walk a single position up and down
+ * the tree without copying it.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public interface SearchState {
+	/**
+	 * Returns the most moves {@code generateMoves} or
+	 * {@code generateLegalMoves} can write for a single position.
+	 *
+	 * @return the largest possible number of moves
+	 */
+	int maxMoves();
+
+	/**
+	 * Fills the front of {@code moves} with the moves worth trying from this
+	 * position, most promising first.
+	 *
+	 * @param moves  the buffer to write packed moves to, at least
+	 * {@link #maxMoves()} long
+	 * @return the number of moves written
+	 */
+	int generateMoves(int[] moves);
+
+	/**
+	 * Fills the front of {@code moves} with every legal move from this
+	 * position, for a player to choose from. Where {@link #generateMoves}
+	 * leaves out moves the search can do without, this lists them too.
+	 *
+	 * @param moves  the buffer to write packed moves to, at least
+	 * {@link #maxMoves()} long
+	 * @return the number of moves written
+	 */
+	default int generateLegalMoves(int[] moves) {
+		return generateMoves(moves);
+	}
+
+	/**
+	 * Makes a move and returns a token that {@link #unmake(int)} can take it
+	 * back with.
+	 *
+	 * @param move  a move from {@link #generateMoves(int[])}
+	 * @return the undo token
+	 */
+	int make(int move);
+
+	/**
+	 * Takes back the last move made. Moves must be taken back in the reverse
+	 * of the order they were made.
+	 *
+	 * @param token  the token {@link #make(int)} returned for the move
+	 */
+	void unmake(int token);
+
+	/**
+	 * Applies a move for good, as when replaying a solution.
+	 *
+	 * @param move  the packed move to apply
+	 */
+	default void apply(int move) {
+		make(move);
+	}
+
+	/**
+	 * Returns a 64-bit hash of the position. Positions that play out the same
+	 * way, such as ones that differ only in the order of interchangeable
+	 * piles, may share a hash.
+	 *
+	 * @return the hash
+	 */
+	long hash();
+
+	/**
+	 * Estimates how many moves are left to win. The estimate must be 0 for a
+	 * won position; {@link IdaStarSearch}, which promises the shortest win,
+	 * also needs it never to overestimate.
+	 *
+	 * @return the estimate
+	 */
+	int estimate();
+
+	boolean isWon();
+
+	/**
+	 * Returns an independent copy of this position.
+	 *
+	 * @return the copy
+	 */
+	SearchState copy();
+}
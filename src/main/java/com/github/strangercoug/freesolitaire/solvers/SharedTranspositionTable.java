@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.solvers;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed-size transposition table that any number of solver threads can
+ * share without locking.
+ * <p>
+ * The layout is that of {@link TranspositionTable}: an open-addressed
+ * {@code long} array probed over a short run of slots, with the first slot of
+ * a full run overwritten. Slots are claimed and replaced by compare-and-set,
+ * so two threads racing for a slot never lose a hash silently; the loser
+ * re-reads the slot and either finds its own hash there or probes on.
+ * <p>
+ * Every search XORs its hashes with a salt of its own from {@link #newSalt()},
+ * so one search never mistakes another's positions for its own, even when
+ * both are solving the same deal, and a search's verdict is as sound as with
+ * a private table. The table is never cleared between searches; entries of
+ * finished searches are simply overwritten as runs fill up.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public class SharedTranspositionTable implements PositionTable {
+	private static final int PROBES = 4;
+	private static final long EMPTY = 0L;
+	private static final long SPREAD = 0x9E3779B97F4A7C15L;
+	private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+	private final long[] keys;
+	private final int mask;
+	private final AtomicLong searches = new AtomicLong();
+
+	/**
+	 * Creates a table using at most {@code megabytes} of memory. The capacity
+	 * is rounded down to a power of 2.
+	 *
+	 * @param megabytes  the memory to use, from 1 to 8192
+	 */
+	public SharedTranspositionTable(int megabytes) {
+		if (megabytes < 1 || megabytes > 8192)
+			throw new IllegalArgumentException("Memory must be between 1 MB and 8 GB.");
+
+		keys = new long[Integer.highestOneBit((int) Math.min(((long) megabytes << 20)
+				/ Long.BYTES, 1 << 30))];
+		mask = keys.length - 1;
+	}
+
+	@Override
+	public long newSalt() {
+		return searches.incrementAndGet() * SPREAD;
+	}
+
+	@Override
+	public boolean visit(long hash) {
+		long key = hash == EMPTY ? 1L : hash;
+		int home = (int) (key ^ (key >>> 32)) & mask;
+
+		for (int i = 0; i < PROBES; i++) {
+			int slot = (home + i) & mask;
+			long seen = (long) SLOTS.getAcquire(keys, slot);
+			if (seen == EMPTY) {
+				seen = (long) SLOTS.compareAndExchange(keys, slot, EMPTY, key);
+				if (seen == EMPTY)
+					return false;
+			}
+			if (seen == key)
+				return true;
+		}
+
+		long old = (long) SLOTS.getAcquire(keys, home);
+		while (old != key) {
+			long witness = (long) SLOTS.compareAndExchange(keys, home, old, key);
+			if (witness == old)
+				return false;
+			old = witness;
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Clearing is not atomic and must not overlap a search using the table.
+	 */
+	@Override
+	public void clear() {
+		Arrays.fill(keys, EMPTY);
+		VarHandle.releaseFence();
+	}
+
+	@Override
+	public int capacity() {
+		return keys.length;
+	}
+}
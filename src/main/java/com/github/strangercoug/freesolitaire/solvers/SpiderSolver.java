@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.solvers;
+
+import com.github.strangercoug.freesolitaire.enums.CardRank;
+import com.github.strangercoug.freesolitaire.games.SpiderMoveGenerator;
+import com.github.strangercoug.freesolitaire.games.SpiderState;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+
+import java.util.Arrays;
+
+import static com.github.strangercoug.freesolitaire.games.SpiderState.COLUMNS;
+import static com.github.strangercoug.freesolitaire.games.SpiderState.DEAL;
+import static com.github.strangercoug.freesolitaire.games.SpiderState.NO_CARD;
+
+/**
+ * A depth-first Spider solver for the one-, two- and four-suit games whose
+ * memory use is fixed when it is created.
+ * <p>
+ * Like {@link KlondikeSolver}, the search makes and unmakes moves on a
+ * single working copy of the position and records every position it reaches
+ * so that it is only searched once. Spider's state space is far too big to
+ * record in full, so positions go in a {@link BoundedTranspositionTable} of
+ * the size given, valued by the number of nodes searched below them. A
+ * position being searched is worth the most, so the current line is never
+ * forgotten, and once it is finished the positions with the smallest
+ * subtrees, which are the cheapest to search again, are evicted first.
+ * <p>
+ * Moves are tried best first: those that build runs of one suit, then those
+ * that uncover a face-down card or empty a column, then the rest, and the
+ * deal last. Splitting a run of one suit is only tried to join it to a card
+ * of the same suit, a column is never moved whole to an empty column, and
+ * only the first empty column is ever moved to, since the hash does not
+ * tell columns apart.
+ * <p>
+ * Splitting a run onto a card of another suit, or onto an empty column, is
+ * sometimes the only way to win, so a search that runs out of moves to try
+ * has not proven anything: the solver reports a deal solved or unknown,
+ * never unwinnable. A solver instance reuses its buffers between deals and
+ * is not thread-safe.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public class SpiderSolver implements DealSolver {
+	private static final int MAX_DEPTH = 2048;
+	private static final int CHECK_INTERVAL = 1024;
+	private static final int IN_PROGRESS = BoundedTranspositionTable.MAX_VALUE;
+	private static final int RANKS = CardRank.values().length;
+
+	private final int suits;
+	private final SpiderMoveGenerator generator = new SpiderMoveGenerator();
+	private final SearchBudget budget;
+	private final BoundedTranspositionTable table;
+	private final int[][] moveBuffers = new int[MAX_DEPTH][];
+	private final int[] scores = new int[SpiderMoveGenerator.MAX_MOVES];
+	private final int[] path = new int[MAX_DEPTH];
+	private long nodes;
+	private long start;
+	private boolean aborted;
+	private int solutionLength;
+
+	/**
+	 * @param suits  the number of suits to play with: 1, 2 or 4
+	 * @param budget  the limits on each call to {@code solve}
+	 * @param megabytes  the memory to use for remembering positions
+	 */
+	public SpiderSolver(int suits, SearchBudget budget, int megabytes) {
+		if (suits != 1 && suits != 2 && suits != 4)
+			throw new IllegalArgumentException("Spider is played with 1, 2 or 4 suits.");
+
+		this.suits = suits;
+		this.budget = budget;
+		this.table = new BoundedTranspositionTable(megabytes);
+	}
+
+	public SpiderSolver(int suits, SearchBudget budget) {
+		this(suits, budget, 64);
+	}
+
+	/**
+	 * Deals a game from the top of {@code deck}, which must hold two packs,
+	 * and solves it.
+	 *
+	 * @param deck  the deck to deal from
+	 * @return the result of the search
+	 */
+	@Override
+	public SolverResult solve(Deck deck) {
+		return solve(SpiderState.deal(deck, suits));
+	}
+
+	/**
+	 * Solves a game from the given position. The position itself is not
+	 * modified.
+	 *
+	 * @param state  the position to solve from
+	 * @return the result of the search, which is solved or unknown; a
+	 * solution's moves can be replayed with {@link SpiderState#apply(int)}
+	 */
+	public SolverResult solve(SpiderState state) {
+		table.clear();
+		nodes = 0;
+		aborted = false;
+		start = System.nanoTime();
+
+		table.visit(state.hash(), IN_PROGRESS);
+		if (search(state.copy(), 0))
+			return SolverResult.solved(Arrays.copyOf(path, solutionLength), nodes);
+
+		return SolverResult.unknown(nodes);
+	}
+
+	/**
+	 * Returns the table of positions, for inspecting how full it got.
+	 *
+	 * @return the table
+	 */
+	public BoundedTranspositionTable getTable() {
+		return table;
+	}
+
+	private boolean search(SpiderState state, int depth) {
+		if (state.isWon()) {
+			solutionLength = depth;
+			return true;
+		}
+		if (++nodes > budget.maxNodes() || depth == MAX_DEPTH
+				|| (nodes % CHECK_INTERVAL == 0
+				&& budget.isOverTime(start))) {
+			aborted = true;
+			return false;
+		}
+
+		if (moveBuffers[depth] == null)
+			moveBuffers[depth] = new int[SpiderMoveGenerator.MAX_MOVES];
+		int[] moves = moveBuffers[depth];
+		int count = generateMoves(state, moves);
+
+		for (int i = 0; i < count; i++) {
+			int token = state.make(moves[i]);
+			long hash = state.hash();
+			if (!table.visit(hash, IN_PROGRESS)) {
+				path[depth] = moves[i];
+				long before = nodes;
+				if (search(state, depth + 1))
+					return true;
+				table.setValue(hash, 64 - Long.numberOfLeadingZeros(nodes - before));
+			}
+			state.unmake(token);
+			if (aborted)
+				return false;
+		}
+		return false;
+	}
+
+	/**
+	 * Fills {@code moves} with the moves worth trying from {@code state}, best
+	 * first.
+	 *
+	 * @return the number of moves generated
+	 */
+	private int generateMoves(SpiderState state, int[] moves) {
+		int generated = generator.generateMoves(state, moves);
+		int firstEmpty = -1;
+		for (int col = 0; col < COLUMNS && firstEmpty < 0; col++) {
+			if (state.columnSize(col) == 0)
+				firstEmpty = col;
+		}
+
+		int count = 0;
+		for (int i = 0; i < generated; i++) {
+			int score = score(state, moves[i], firstEmpty);
+			if (score == Integer.MIN_VALUE)
+				continue;
+
+			// Insertion sort, best first, keeping the generator's order for ties.
+			int j = count++;
+			while (j > 0 && scores[j - 1] < score) {
+				moves[j] = moves[j - 1];
+				scores[j] = scores[j - 1];
+				j--;
+			}
+			moves[j] = moves[i];
+			scores[j] = score;
+		}
+		return count;
+	}
+
+	/**
+	 * Scores a move for ordering, or returns {@code Integer.MIN_VALUE} if it
+	 * is not worth trying.
+	 */
+	private static int score(SpiderState state, int move, int firstEmpty) {
+		if (Move.type(move) == DEAL)
+			return -100;
+
+		int src = Move.source(move);
+		int dest = Move.dest(move);
+		int cards = Move.count(move);
+		int size = state.columnSize(src);
+		int moved = state.cardAt(src, size - cards);
+		int destCard = state.topCard(dest);
+		boolean uncovers = cards == size - state.faceDownCount(src) && size > cards;
+		boolean sameSuit = destCard != NO_CARD && Card.suitOf(destCard) == Card.suitOf(moved);
+
+		if (cards < state.runLength(src) && !sameSuit)
+			return Integer.MIN_VALUE;
+		if (destCard == NO_CARD && (dest != firstEmpty || cards == size))
+			return Integer.MIN_VALUE;
+
+		int score = 0;
+		if (sameSuit)
+			score += 20 + state.runLength(dest) + cards;
+		if (cards < state.runLength(src))
+			score -= 30;
+		if (uncovers)
+			score += 15 - state.faceDownCount(src);
+		if (cards == size)
+			score += 10;
+		if (destCard == NO_CARD)
+			score -= 5 + RANKS - cards;
+		return score;
+	}
+}
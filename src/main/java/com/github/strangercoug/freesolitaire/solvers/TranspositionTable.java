@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.solvers;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size set of position hashes for pruning positions a search has
+ * already visited.
+ * <p>
+ * Hashes are kept in an open-addressed {@code long} array. A lookup probes a
+ * short run of slots; if the run is full, the new hash overwrites the first
+ * slot of the run, so the table never grows past the capacity it was created
+ * with. A forgotten position is merely searched again, which costs time but
+ * never changes a solver's verdict.
+ * <p>
+ * The table is not thread-safe; solvers sharing one table across threads use
+ * a {@link SharedTranspositionTable}.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public class TranspositionTable implements PositionTable {
+	private static final int PROBES = 4;
+	// The smallest table still holds several runs of probes
+	private static final int MIN_CAPACITY_BITS = 4;
+	private static final int MAX_CAPACITY_BITS = 30;
+	private static final long EMPTY = 0L;
+
+	private final long[] keys;
+	private final int mask;
+
+	/**
+	 * Creates a table holding up to {@code 1 << capacityBits} hashes.
+	 *
+	 * @param capacityBits  the base 2 logarithm of the capacity
+	 */
+	public TranspositionTable(int capacityBits) {
+		if (capacityBits < MIN_CAPACITY_BITS || capacityBits > MAX_CAPACITY_BITS)
+			throw new IllegalArgumentException("Capacity must be between 2^" + MIN_CAPACITY_BITS
+					+ " and 2^" + MAX_CAPACITY_BITS + " entries.");
+
+		keys = new long[1 << capacityBits];
+		mask = keys.length - 1;
+	}
+
+	@Override
+	public boolean visit(long hash) {
+		long key = hash == EMPTY ? 1L : hash;
+		int home = (int) (key ^ (key >>> 32)) & mask;
+
+		for (int i = 0; i < PROBES; i++) {
+			int slot = (home + i) & mask;
+			if (keys[slot] == key)
+				return true;
+			if (keys[slot] == EMPTY) {
+				keys[slot] = key;
+				return false;
+			}
+		}
+		keys[home] = key;
+		return false;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(keys, EMPTY);
+	}
+
+	@Override
+	public int capacity() {
+		return keys.length;
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.solvers;
+
+import com.github.strangercoug.freesolitaire.games.WasteLayoutMoveGenerator;
+import com.github.strangercoug.freesolitaire.games.WasteLayoutState;
+import com.github.strangercoug.freesolitaire.games.WasteLayoutState.Layout;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+
+/**
+ * An exact solver for Golf and TriPeaks.
+ * <p>
+ * Every move plays a layout card or turns over a stock card, so no position
+ * can ever come round again. The solver searches depth first, trying layout
+ * cards before the stock, and remembers every position it has searched in
+ * full without finding a win, so that no lost position is searched twice
+ * however it is reached. A position with more cards left in the stock is at
+ * least as good as one with the same {@link WasteLayoutState#layoutKey()}
+ * and fewer, so the memo keeps only the most stock each layout key has been
+ * lost with, and anything with no more than that is lost too. That bounds
+ * the search by the number of layout keys, which for these layouts is small
+ * enough to settle any deal exactly.
+ * <p>
+ * A solver instance reuses its memo between deals and is not thread-safe.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public class WasteLayoutSolver implements DealSolver {
+	private static final int MAX_DEPTH = Card.DECK_SIZE;
+	private static final int CHECK_INTERVAL = 1024;
+
+	private final Layout layout;
+	private final SearchBudget budget;
+	private final WasteLayoutMoveGenerator generator = new WasteLayoutMoveGenerator();
+	private final LongIntHashMap lost = new LongIntHashMap(1 << 12);
+	private final int[][] moveBuffers = new int[MAX_DEPTH][WasteLayoutMoveGenerator.MAX_MOVES];
+	private final int[] path = new int[MAX_DEPTH];
+	private long nodes;
+	private long start;
+	private boolean aborted;
+
+	/**
+	 * @param layout  the game to solve deals of
+	 * @param budget  the limits on each call to {@code solve}
+	 */
+	public WasteLayoutSolver(Layout layout, SearchBudget budget) {
+		this.layout = layout;
+		this.budget = budget;
+	}
+
+	/**
+	 * Deals a game from the top of {@code deck} and solves it.
+	 *
+	 * @param deck  the deck to deal from
+	 * @return the result of the search
+	 */
+	@Override
+	public SolverResult solve(Deck deck) {
+		return solve(WasteLayoutState.deal(deck, layout));
+	}
+
+	/**
+	 * Finds a win from the given position. The position itself is not
+	 * modified.
+	 *
+	 * @param state  the position to solve from
+	 * @return the result of the search; a solution's moves can be replayed
+	 * with {@link WasteLayoutState#apply(int)}
+	 */
+	public SolverResult solve(WasteLayoutState state) {
+		lost.clear();
+		nodes = 0;
+		aborted = false;
+		start = System.nanoTime();
+
+		int length = search(state.copy(), 0);
+		if (aborted)
+			return SolverResult.unknown(nodes);
+		if (length < 0)
+			return SolverResult.unwinnable(nodes);
+
+		int[] moves = new int[length];
+		System.arraycopy(path, 0, moves, 0, length);
+		return SolverResult.solved(moves, nodes);
+	}
+
+	/**
+	 * Returns the length of the win found from {@code state}, with its moves
+	 * left in {@code path} from {@code depth} on, or -1 if there is none.
+	 */
+	private int search(WasteLayoutState state, int depth) {
+		if (state.isWon())
+			return depth;
+		long key = state.layoutKey();
+		if (state.stockLeft() <= lost.get(key, -1) || state.isDead())
+			return -1;
+		if (++nodes > budget.maxNodes() || (nodes % CHECK_INTERVAL == 0
+				&& budget.isOverTime(start))) {
+			aborted = true;
+			return -1;
+		}
+
+		int[] moves = moveBuffers[depth];
+		int count = generator.generateMoves(state, moves);
+		for (int i = 0; i < count; i++) {
+			int token = state.make(moves[i]);
+			int length = search(state, depth + 1);
+			state.unmake(token);
+			if (length >= 0) {
+				path[depth] = moves[i];
+				return length;
+			}
+			if (aborted)
+				return -1;
+		}
+
+		lost.put(key, state.stockLeft());
+		return -1;
+	}
+}
@@ -0,0 +1,409 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.stats;
+
+import com.github.strangercoug.freesolitaire.Player;
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import lombok.Getter;
+import lombok.extern.java.Log;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps every player's statistics in a single append-only log file.
+ * <p>
+ * Recording a game appends one small record, the result of the game, to the
+ * end of the log with a single write; nothing already written is ever
+ * rewritten. The store also keeps each player's totals in memory, indexed by
+ * name, so looking a player up never reads the file. The log is only read
+ * when the store is opened, to rebuild the index.
+ * <p>
+ * As results pile up, the log grows far past the size of the totals it adds
+ * up to. Once it holds more than twice as many records as there are player
+ * and variant pairs, plus some slack, it is compacted: the totals are written
+ * to a new log as one snapshot record per pair, which then replaces the old
+ * one. The cost of compacting is thus spread over at least as many results as
+ * it writes snapshots, and opening the store reads at most about three
+ * records per pair.
+ * <p>
+ * Each record is framed by its length and followed by its CRC-32, so a
+ * record cut short by a crash, and anything after it, is dropped when the
+ * store is next opened. An append that fails without a crash is cut back
+ * at once, so the results recorded after it are kept. Appends are not
+ * forced to disk unless {@link #sync()} is called, so the last few results
+ * may be lost if the machine goes down.
+ * <p>
+ * The store is safe to use from many threads.
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+@Log
+public class StatsStore implements Closeable {
+	public static final int VERSION = 1;
+	private static final int MAGIC = 0x46535354; // "FSST"
+	private static final int HEADER_SIZE = 5;
+	private static final int MAX_RECORD_SIZE = 1 << 16;
+	private static final int COMPACT_SLACK = 1024;
+	private static final byte RESULT = 1;
+	private static final byte SNAPSHOT = 2;
+
+	private final Path path;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Map<String, EnumMap<GameVariant, VariantStats>> index = new HashMap<>();
+	private final ByteArrayOutputStream record = new ByteArrayOutputStream(64);
+	private final DataOutputStream recordData = new DataOutputStream(record);
+	private final CRC32 crc = new CRC32();
+	private FileChannel channel;
+	/** The number of records in the log. */
+	@Getter
+	private long records;
+	/** The number of player and variant pairs in the index. */
+	private long entries;
+
+	/**
+	 * Opens the store kept at {@code path}, creating it if it does not exist.
+	 *
+	 * @param path  the log file
+	 * @throws IOException if the file cannot be read or created, or is not a
+	 * statistics log this version can read
+	 */
+	public StatsStore(Path path) throws IOException {
+		this.path = path;
+		if (Files.notExists(path) || Files.size(path) == 0) {
+			channel = writeLog(path);
+		} else {
+			long end = load();
+			channel = FileChannel.open(path, StandardOpenOption.WRITE);
+			if (end < channel.size()) {
+				log.warning("Dropping " + (channel.size() - end) + " bytes of damaged records from " + path);
+				channel.truncate(end);
+			}
+			channel.position(end);
+		}
+	}
+
+	/**
+	 * Adds a finished game to a player's statistics.
+	 *
+	 * @param player  the player who played it
+	 * @param variant  the variant played
+	 * @param won  whether the game was won
+	 * @param millis  how long the game took
+	 * @return the player's statistics at the variant, including this game
+	 * @throws IOException if the log cannot be written
+	 */
+	public VariantStats record(Player player, GameVariant variant, boolean won, long millis)
+			throws IOException {
+		if (millis < 0)
+			throw new IllegalArgumentException("millis must not be negative");
+
+		lock.lock();
+		try {
+			record.reset();
+			recordData.writeByte(RESULT);
+			recordData.writeUTF(player.getName());
+			recordData.writeUTF(variant.name());
+			recordData.writeBoolean(won);
+			recordData.writeLong(millis);
+			writeRecord(channel);
+			records++;
+
+			VariantStats stats = apply(player.getName(), variant,
+					stats(player.getName(), variant).plus(won, millis));
+			if (records > 2 * entries + COMPACT_SLACK)
+				compact();
+			return stats;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns a player's statistics at one variant.
+	 *
+	 * @param player  the player
+	 * @param variant  the variant
+	 * @return the statistics, or {@link VariantStats#NONE} if the player has
+	 * never finished a game of the variant
+	 */
+	public VariantStats stats(Player player, GameVariant variant) {
+		lock.lock();
+		try {
+			return stats(player.getName(), variant);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns a player's statistics at every variant they have played.
+	 *
+	 * @param player  the player
+	 * @return a copy of the statistics, by variant
+	 */
+	public Map<GameVariant, VariantStats> stats(Player player) {
+		lock.lock();
+		try {
+			EnumMap<GameVariant, VariantStats> stats = index.get(player.getName());
+			return stats == null ? Map.of() : Collections.unmodifiableMap(new EnumMap<>(stats));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the names of every player with statistics.
+	 *
+	 * @return a copy of the names
+	 */
+	public Set<String> players() {
+		lock.lock();
+		try {
+			return Set.copyOf(index.keySet());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Rewrites the log as one snapshot record for each player and variant.
+	 * This is done automatically as the log grows, so it need not be called.
+	 *
+	 * @throws IOException if the new log cannot be written, in which case the
+	 * old one is kept
+	 */
+	public void compact() throws IOException {
+		lock.lock();
+		try {
+			Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+			FileChannel compacted = writeLog(temp);
+			try {
+				try {
+					Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+				}
+			} catch (IOException e) {
+				compacted.close();
+				throw e;
+			}
+			channel.close();
+			channel = compacted;
+			records = entries;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Forces every recorded game to disk.
+	 *
+	 * @throws IOException if the log cannot be written
+	 */
+	public void sync() throws IOException {
+		lock.lock();
+		try {
+			channel.force(false);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		lock.lock();
+		try {
+			channel.close();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Writes a log holding a snapshot of the index to {@code file}.
+	 *
+	 * @return the new log, open for appending
+	 */
+	private FileChannel writeLog(Path file) throws IOException {
+		FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).put((byte) VERSION);
+			out.write(header.flip());
+			for (Map.Entry<String, EnumMap<GameVariant, VariantStats>> player : index.entrySet()) {
+				for (Map.Entry<GameVariant, VariantStats> entry : player.getValue().entrySet()) {
+					VariantStats stats = entry.getValue();
+					record.reset();
+					recordData.writeByte(SNAPSHOT);
+					recordData.writeUTF(player.getKey());
+					recordData.writeUTF(entry.getKey().name());
+					recordData.writeInt(stats.played());
+					recordData.writeInt(stats.won());
+					recordData.writeInt(stats.streak());
+					recordData.writeInt(stats.bestStreak());
+					recordData.writeLong(stats.bestMillis());
+					writeRecord(out);
+				}
+			}
+			out.force(false);
+		} catch (IOException e) {
+			out.close();
+			throw e;
+		}
+		return out;
+	}
+
+	/**
+	 * Frames the record in {@code record} and appends it to {@code out}.
+	 */
+	private void writeRecord(FileChannel out) throws IOException {
+		byte[] bytes = record.toByteArray();
+		crc.reset();
+		crc.update(bytes);
+		append(out, ByteBuffer.allocate(bytes.length + 8)
+				.putInt(bytes.length).put(bytes).putInt((int) crc.getValue()).flip());
+	}
+
+	/**
+	 * Appends {@code frame} to {@code out}. If the write fails partway, the
+	 * log is cut back to where the frame began, since a torn record would
+	 * make the next load drop every record appended after it.
+	 */
+	static void append(FileChannel out, ByteBuffer frame) throws IOException {
+		long start = out.position();
+		try {
+			while (frame.hasRemaining())
+				out.write(frame);
+		} catch (IOException e) {
+			try {
+				out.truncate(start);
+				out.position(start);
+			} catch (IOException suppressed) {
+				e.addSuppressed(suppressed);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Rebuilds the index from the log.
+	 *
+	 * @return the offset just past the last intact record
+	 */
+	private long load() throws IOException {
+		try (InputStream in = Files.newInputStream(path)) {
+			DataInputStream data = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+			if (data.readInt() != MAGIC)
+				throw new IOException(path + " is not a statistics log.");
+			int version = data.readUnsignedByte();
+			if (version > VERSION)
+				throw new IOException("Statistics log format version " + version + " is newer than this program.");
+
+			long end = HEADER_SIZE;
+			byte[] payload = new byte[256];
+			while (true) {
+				int length;
+				try {
+					length = data.readInt();
+					if (length <= 0 || length > MAX_RECORD_SIZE)
+						return end;
+					if (payload.length < length)
+						payload = new byte[Math.max(length, payload.length * 2)];
+					data.readFully(payload, 0, length);
+					crc.reset();
+					crc.update(payload, 0, length);
+					if (data.readInt() != (int) crc.getValue())
+						return end;
+				} catch (EOFException e) {
+					return end;
+				}
+				replay(new DataInputStream(new ByteArrayInputStream(payload, 0, length)));
+				records++;
+				end += length + 8;
+			}
+		}
+	}
+
+	private void replay(DataInputStream data) throws IOException {
+		byte type = data.readByte();
+		String player = data.readUTF();
+		GameVariant variant;
+		try {
+			variant = GameVariant.valueOf(data.readUTF());
+		} catch (IllegalArgumentException e) {
+			return; // a variant that has since been removed
+		}
+
+		switch (type) {
+			case RESULT -> apply(player, variant,
+					stats(player, variant).plus(data.readBoolean(), data.readLong()));
+			case SNAPSHOT -> apply(player, variant, new VariantStats(data.readInt(),
+					data.readInt(), data.readInt(), data.readInt(), data.readLong()));
+			default -> throw new IOException("Unknown statistics record type " + type + '.');
+		}
+	}
+
+	private VariantStats stats(String player, GameVariant variant) {
+		EnumMap<GameVariant, VariantStats> stats = index.get(player);
+		if (stats == null)
+			return VariantStats.NONE;
+		return stats.getOrDefault(variant, VariantStats.NONE);
+	}
+
+	private VariantStats apply(String player, GameVariant variant, VariantStats stats) {
+		if (index.computeIfAbsent(player, name -> new EnumMap<>(GameVariant.class))
+				.put(variant, stats) == null)
+			entries++;
+		return stats;
+	}
+}
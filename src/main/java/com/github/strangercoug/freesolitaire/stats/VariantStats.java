@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2019-2021, Jeffrey Hope
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted (subject to the limitations in the disclaimer
+ * below) provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of the copyright holder nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software
+ *   without specific prior written permission.
+ *
+ * NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY
+ * THIS LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.strangercoug.freesolitaire.stats;
+
+/**
+ * A player's record at one variant.
+ *
+ * @param played  the number of games finished, won or lost
+ * @param won  the number of games won
+ * @param streak  the number of games won in a row, up to the latest
+ * @param bestStreak  the most games won in a row
+ * @param bestMillis  the time taken by the quickest win, or 0 if there has
+ * been none
+ *
+ * @author Jeffrey Hope <strangercoug@hotmail.com>
+ */
+public record VariantStats(int played, int won, int streak, int bestStreak, long bestMillis) {
+	public static final VariantStats NONE = new VariantStats(0, 0, 0, 0, 0);
+
+	public VariantStats {
+		if (played < 0 || won < 0 || streak < 0 || bestStreak < 0 || bestMillis < 0)
+			throw new IllegalArgumentException("Statistics must not be negative.");
+	}
+
+	/**
+	 * Returns these statistics with one more game added.
+	 *
+	 * @param win  whether the game was won
+	 * @param millis  how long the game took
+	 * @return the updated statistics
+	 */
+	public VariantStats plus(boolean win, long millis) {
+		if (!win)
+			return new VariantStats(played + 1, won, 0, bestStreak, bestMillis);
+
+		int newStreak = streak + 1;
+		return new VariantStats(played + 1, won + 1, newStreak,
+				Math.max(bestStreak, newStreak),
+				bestMillis == 0 ? millis : Math.min(bestMillis, millis));
+	}
+
+	public double winRate() {
+		return played == 0 ? 0 : (double) won / played;
+	}
+}
@@ -1,4 +1,6 @@
 module com.github.strangercoug.freesolitaire {
+	requires com.google.gson;
 	requires lombok;
 	requires java.logging;
+	requires java.net.http;
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.enums.SolverStatus;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+import com.github.strangercoug.freesolitaire.rng.DealNumbers;
+import com.github.strangercoug.freesolitaire.solvers.SearchBudget;
+import com.github.strangercoug.freesolitaire.solvers.SolverResult;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class CanfieldStateTest {
+	private static CanfieldState deal(long number) {
+		return CanfieldState.deal(DealNumbers.deck(GameVariant.CANFIELD, number));
+	}
+
+	@Test
+	void testDeal() {
+		CanfieldState state = deal(1);
+		int foundationCards = 0;
+		for (int suit = 0; suit < 4; suit++)
+			foundationCards += state.foundationSize(suit);
+		assertThat(foundationCards, equalTo(1));
+		assertThat(state.getReserveSize(), equalTo(CanfieldState.RESERVE_SIZE));
+		assertThat(state.getStockSize(), equalTo(CanfieldState.STOCK_SIZE));
+		for (int col = 0; col < CanfieldState.COLUMNS; col++)
+			assertThat(state.columnSize(col), equalTo(1));
+	}
+
+	@Test
+	void testDrawThreeAndRedeal() {
+		CanfieldState state = deal(1);
+		long start = state.hash();
+		for (int i = 0; i < 12; i++)
+			state.apply(Move.of(CanfieldState.DRAW, 0, 0, 0));
+
+		assertThat(state.getStockSize(), equalTo(0));
+		state.apply(Move.of(CanfieldState.REDEAL, 0, 0, 0));
+		assertThat(state.getStockSize(), equalTo(CanfieldState.STOCK_SIZE));
+		assertThat(state.hash(), equalTo(start));
+	}
+
+	@Test
+	void testUnwinnableDeal() {
+		SolverResult result = GameVariant.CANFIELD.newSolver(new SearchBudget(1_000_000, 60_000))
+				.solve(DealNumbers.deck(GameVariant.CANFIELD, 4));
+
+		assertThat(result.getStatus(), equalTo(SolverStatus.UNWINNABLE));
+	}
+
+	@Test
+	void testReserveRefillsAnEmptiedColumn() {
+		byte[] cards = new byte[Card.DECK_SIZE];
+		for (int i = 0; i < cards.length; i++)
+			cards[i] = (byte) i;
+		// The clubs form the reserve, the ace of diamonds starts the
+		// foundations and the two of diamonds is dealt to the first column
+		CanfieldState state = CanfieldState.deal(Deck.stacked(cards));
+		long start = state.hash();
+
+		int token = state.make(Move.of(CanfieldState.TABLEAU_TO_FOUNDATION, 0, 0, 1));
+		assertThat(token & CanfieldState.FILLED, equalTo(CanfieldState.FILLED));
+		assertThat(state.columnSize(0), equalTo(1));
+		assertThat(state.cardAt(0, 0), equalTo(12));
+		assertThat(state.getReserveSize(), equalTo(CanfieldState.RESERVE_SIZE - 1));
+		assertThat(state.foundationSize(1), equalTo(2));
+
+		state.unmake(token);
+		assertThat(state.cardAt(0, 0), equalTo(14));
+		assertThat(state.getReserveSize(), equalTo(CanfieldState.RESERVE_SIZE));
+		assertThat(state.foundationSize(1), equalTo(1));
+		assertThat(state.hash(), equalTo(start));
+	}
+}
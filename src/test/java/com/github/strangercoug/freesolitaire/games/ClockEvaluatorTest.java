@@ -0,0 +1,70 @@
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.rng.DealNumbers;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+
+class ClockEvaluatorTest {
+	/** Plays Clock out with a stack per pile, the way it is played by hand. */
+	private static int playOut(byte[] cards) {
+		List<ArrayDeque<Integer>> piles = new ArrayList<>();
+		for (int p = 0; p < 13; p++)
+			piles.add(new ArrayDeque<>());
+		for (int i = 0; i < Card.DECK_SIZE; i++)
+			piles.get(i % 13).push((int) cards[i]);
+
+		int turned = 0;
+		ArrayDeque<Integer> pile = piles.get(12);
+		while (!pile.isEmpty()) {
+			pile = piles.get(Card.rankOf(pile.pop()));
+			turned++;
+		}
+		return turned;
+	}
+
+	@Test
+	void testSortedDeckTurnsOnlyTheKings() {
+		byte[] cards = new byte[Card.DECK_SIZE];
+		for (int i = 0; i < cards.length; i++)
+			cards[i] = (byte) i;
+
+		assertThat(ClockEvaluator.cardsTurned(cards), equalTo(4));
+		assertThat(ClockEvaluator.isWon(cards), equalTo(false));
+	}
+
+	@Test
+	void testMatchesPlayingItOut() {
+		byte[] cards = new byte[Card.DECK_SIZE];
+		int won = 0;
+		for (long deal = 1; deal <= 13_000; deal++) {
+			DealNumbers.shuffle(GameVariant.CLOCK, deal, cards);
+			int turned = ClockEvaluator.cardsTurned(cards);
+
+			assertThat(turned, equalTo(playOut(cards)));
+			if (turned == Card.DECK_SIZE)
+				won++;
+		}
+		// One deal in 13 comes out on average
+		assertThat(won / 13_000.0, closeTo(1 / 13.0, 0.01));
+	}
+
+	@Test
+	void testSolveAgreesWithTheGame() {
+		for (long deal = 1; deal <= 50; deal++) {
+			Clock clock = new Clock();
+			clock.deal(DealNumbers.deck(GameVariant.CLOCK, deal));
+
+			assertThat(ClockEvaluator.solve(DealNumbers.deck(GameVariant.CLOCK, deal)).isSolved(),
+					equalTo(clock.isWon()));
+		}
+	}
+}
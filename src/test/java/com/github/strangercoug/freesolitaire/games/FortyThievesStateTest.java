@@ -0,0 +1,68 @@
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+import com.github.strangercoug.freesolitaire.rng.DealNumbers;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+class FortyThievesStateTest {
+	private static FortyThievesState deal(long number) {
+		return FortyThievesState.deal(DealNumbers.deck(GameVariant.FORTY_THIEVES, number));
+	}
+
+	@Test
+	void testDeal() {
+		FortyThievesState state = deal(1);
+		for (int col = 0; col < FortyThievesState.COLUMNS; col++)
+			assertThat(state.columnSize(col), equalTo(4));
+		assertThat(state.getStockSize(), equalTo(FortyThievesState.STOCK_SIZE));
+		assertThat(state.wasteTop(), equalTo(FortyThievesState.NO_CARD));
+	}
+
+	@Test
+	void testStockIsTurnedOverOnlyOnce() {
+		FortyThievesState state = deal(1);
+		for (int i = 0; i < FortyThievesState.STOCK_SIZE; i++)
+			state.apply(Move.of(FortyThievesState.DRAW, 0, 0, 0));
+
+		assertThat(state.getStockSize(), equalTo(0));
+		int[] moves = new int[state.maxMoves()];
+		int count = state.generateLegalMoves(moves);
+		for (int i = 0; i < count; i++)
+			assertThat(Move.type(moves[i]), not(equalTo(FortyThievesState.DRAW)));
+	}
+
+	@Test
+	void testBothAcesOfASuitStartFoundations() {
+		byte[] cards = new byte[2 * Card.DECK_SIZE];
+		for (int i = 0; i < cards.length; i++)
+			cards[i] = (byte) (i % Card.DECK_SIZE);
+		// Deal the two aces of hearts to the tops of the first two columns
+		int aceOfHearts = 2 * 13;
+		cards[aceOfHearts] = cards[30];
+		cards[Card.DECK_SIZE + aceOfHearts] = cards[31];
+		cards[30] = (byte) aceOfHearts;
+		cards[31] = (byte) aceOfHearts;
+		FortyThievesState state = FortyThievesState.deal(Deck.stacked(cards));
+		long start = state.hash();
+
+		int first = state.make(Move.of(FortyThievesState.TABLEAU_TO_FOUNDATION, 0, 0, 1));
+		int second = state.make(Move.of(FortyThievesState.TABLEAU_TO_FOUNDATION, 1, 0, 1));
+		assertThat(Move.dest(first), equalTo(4));
+		assertThat(Move.dest(second), equalTo(5));
+		assertThat(state.foundationSize(4), equalTo(1));
+		assertThat(state.foundationSize(5), equalTo(1));
+
+		state.unmake(second);
+		state.unmake(first);
+		assertThat(state.cardAt(0, 3), equalTo(aceOfHearts));
+		assertThat(state.cardAt(1, 3), equalTo(aceOfHearts));
+		assertThat(state.hash(), equalTo(start));
+	}
+}
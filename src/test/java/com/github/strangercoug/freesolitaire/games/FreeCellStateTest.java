@@ -0,0 +1,74 @@
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class FreeCellStateTest {
+	@Test
+	void testDeal() {
+		FreeCellState state = FreeCellState.deal(sortedDeck());
+		for (int col = 0; col < FreeCellState.COLUMNS; col++)
+			assertThat(state.columnSize(col), equalTo(col < 4 ? 7 : 6));
+		assertThat(state.cardAt(3, 0), equalTo(3));
+		assertThat(state.freeCellCount(), equalTo(FreeCellState.CELLS));
+	}
+
+	@Test
+	void testCellsStaySorted() {
+		FreeCellState state = FreeCellState.deal(sortedDeck());
+		state.apply(Move.of(FreeCellState.TABLEAU_TO_CELL, 5, 0, 1));
+		state.apply(Move.of(FreeCellState.TABLEAU_TO_CELL, 1, 0, 1));
+		state.apply(Move.of(FreeCellState.TABLEAU_TO_CELL, 3, 0, 1));
+
+		assertThat(state.freeCellCount(), equalTo(1));
+		assertThat(state.cellCard(0), equalTo(FreeCellState.NO_CARD));
+		assertThat(state.cellCard(1), equalTo(45));
+		assertThat(state.cellCard(2), equalTo(49));
+		assertThat(state.cellCard(3), equalTo(51));
+	}
+
+	@Test
+	void testCanonicalHashIgnoresOrder() {
+		FreeCellState first = FreeCellState.deal(sortedDeck());
+		first.apply(Move.of(FreeCellState.TABLEAU_TO_CELL, 0, 0, 1));
+		first.apply(Move.of(FreeCellState.TABLEAU_TO_CELL, 1, 0, 1));
+
+		FreeCellState second = FreeCellState.deal(sortedDeck());
+		second.apply(Move.of(FreeCellState.TABLEAU_TO_CELL, 1, 0, 1));
+		second.apply(Move.of(FreeCellState.TABLEAU_TO_CELL, 0, 0, 1));
+		assertThat(second.canonicalHash(), equalTo(first.canonicalHash()));
+
+		// Swapping two columns of the same length is the same position
+		Deck deck = sortedDeck();
+		FreeCellState swapped = FreeCellState.deal(new Deck() {{
+			populateDeck();
+			for (int i = 0; i < cards.length; i += 8) {
+				byte temp = cards[i];
+				cards[i] = cards[i + 1];
+				cards[i + 1] = temp;
+			}
+		}});
+		assertThat(swapped.canonicalHash(), equalTo(FreeCellState.deal(deck).canonicalHash()));
+	}
+
+	@Test
+	void testSupermoveCapacity() {
+		FreeCellState state = FreeCellState.deal(sortedDeck());
+		assertThat(state.supermoveCapacity(false), equalTo(5));
+		for (int i = 0; i < 4; i++)
+			state.apply(Move.of(FreeCellState.TABLEAU_TO_CELL, 7, 0, 1));
+		assertThat(state.supermoveCapacity(false), equalTo(1));
+		state.apply(Move.of(FreeCellState.CELL_TO_TABLEAU, 3, 6, 1));
+		assertThat(state.supermoveCapacity(false), equalTo(2));
+	}
+
+	private static Deck sortedDeck() {
+		Deck deck = new Deck();
+		deck.populateDeck();
+		return deck;
+	}
+}
@@ -0,0 +1,62 @@
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.RngMode;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+class KlondikeMoveGeneratorTest {
+	@Test
+	void testSortedDeal() {
+		Deck deck = new Deck();
+		deck.populateDeck();
+		KlondikeState state = KlondikeState.deal(deck);
+
+		int[] moves = new int[KlondikeMoveGenerator.MAX_MOVES];
+		int count = new KlondikeMoveGenerator(3).generateMoves(state, moves);
+		int[] generated = Arrays.copyOf(moves, count);
+
+		// The Ace of Clubs is on top of the first column
+		assertThat(generated[0], equalTo(Move.of(KlondikeState.TABLEAU_TO_FOUNDATION, 0, 0, 1)));
+		assertThat(Arrays.stream(generated).boxed().toList(),
+				hasItem(Move.of(KlondikeState.DRAW, 0, 0, 3)));
+	}
+
+	@Test
+	void testListModelAgreesWithPackedState() {
+		KlondikeMoveGenerator generator = new KlondikeMoveGenerator(3);
+		int[] packedMoves = new int[KlondikeMoveGenerator.MAX_MOVES];
+		int[] listMoves = new int[KlondikeMoveGenerator.MAX_MOVES];
+		SplittableRandom random = new SplittableRandom(12);
+
+		for (long seed = 0; seed < 20; seed++) {
+			Deck deck = new Deck(1, RngMode.SEEDED.newGenerator(seed));
+			deck.populateDeck();
+			deck.shuffleDeck();
+			KlondikeState state = KlondikeState.deal(deck);
+
+			for (int step = 0; step < 200; step++) {
+				int count = generator.generateMoves(state, packedMoves);
+				assertThat(count, lessThanOrEqualTo(KlondikeMoveGenerator.MAX_MOVES));
+
+				Klondike game = new Klondike(3);
+				state.applyTo(game);
+				assertThat(game.generateMoves(listMoves), equalTo(count));
+				assertThat(Arrays.copyOf(listMoves, count),
+						equalTo(Arrays.copyOf(packedMoves, count)));
+
+				if (count == 0)
+					break;
+				state.apply(packedMoves[random.nextInt(count)]);
+			}
+		}
+	}
+}
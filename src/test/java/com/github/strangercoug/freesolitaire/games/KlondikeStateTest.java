@@ -0,0 +1,127 @@
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.CardRank;
+import com.github.strangercoug.freesolitaire.enums.CardSuit;
+import com.github.strangercoug.freesolitaire.enums.RngMode;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class KlondikeStateTest {
+	KlondikeState state;
+
+	@BeforeEach
+	void dealSortedDeck() {
+		Deck deck = new Deck();
+		deck.populateDeck();
+		state = KlondikeState.deal(deck);
+	}
+
+	@Test
+	void testDeal() {
+		for (int col = 0; col < KlondikeState.COLUMNS; col++) {
+			assertThat(state.columnSize(col), equalTo(col + 1));
+			assertThat(state.faceDownCount(col), equalTo(col));
+		}
+		// Ace of Clubs starts the first row, Two of Clubs the second column
+		assertThat(state.cardAt(0, 0), equalTo(0));
+		assertThat(state.cardAt(1, 0), equalTo(1));
+		assertThat(state.stockCount(), equalTo(KlondikeState.STOCK_SIZE));
+		assertThat(state.talonTop(), equalTo(KlondikeState.NO_CARD));
+	}
+
+	@Test
+	void testCanPlayToFoundation() {
+		assertThat(state.canPlayToFoundation(0), equalTo(true));
+		assertThat(state.canPlayToFoundation(1), equalTo(false));
+	}
+
+	@Test
+	void testRoundTrip() {
+		Klondike game = new Klondike();
+		state.applyTo(game);
+		KlondikeState copy = KlondikeState.of(game);
+
+		for (int col = 0; col < KlondikeState.COLUMNS; col++) {
+			assertThat(copy.columnSize(col), equalTo(state.columnSize(col)));
+			assertThat(copy.faceDownCount(col), equalTo(state.faceDownCount(col)));
+			assertThat(copy.topCard(col), equalTo(state.topCard(col)));
+		}
+		assertThat(copy.stockCount(), equalTo(state.stockCount()));
+		assertThat(game.stock.get(game.stock.size() - 1).index(),
+				equalTo(28)); // first card left after the deal
+	}
+
+	@Test
+	void testCanMoveCards() {
+		Klondike game = new Klondike();
+		game.foundations = new ArrayList<>();
+		for (int i = 0; i < 4; i++)
+			game.foundations.add(new ArrayList<>());
+		game.tableau = new ArrayList<>();
+		game.tableau.add(new ArrayList<>(List.of(Card.of(CardRank.SEVEN, CardSuit.SPADES),
+				Card.of(CardRank.SIX, CardSuit.HEARTS))));
+		game.tableau.add(new ArrayList<>(List.of(Card.of(CardRank.SEVEN, CardSuit.CLUBS))));
+		game.tableau.add(new ArrayList<>(List.of(Card.of(CardRank.EIGHT, CardSuit.DIAMONDS))));
+		for (int i = 3; i < KlondikeState.COLUMNS; i++)
+			game.tableau.add(new ArrayList<>());
+		game.firstFaceUpCard = new byte[KlondikeState.COLUMNS];
+		game.stock = new ArrayList<>();
+		game.talon = new ArrayList<>();
+
+		KlondikeState packed = KlondikeState.of(game);
+		assertThat(packed.canMoveCards(0, 1, 1), equalTo(true));
+		assertThat(packed.canMoveCards(0, 2, 2), equalTo(true));
+		assertThat(packed.canMoveCards(0, 2, 1), equalTo(false));
+		assertThat(packed.canMoveCards(0, 3, 2), equalTo(false));
+		assertThat(packed.canMoveCards(0, 1, 3), equalTo(false));
+	}
+
+	@Test
+	void testUnmakeRestoresState() {
+		KlondikeMoveGenerator generator = new KlondikeMoveGenerator(3);
+		int[] moves = new int[KlondikeMoveGenerator.MAX_MOVES];
+		int[] tokens = new int[300];
+		SplittableRandom random = new SplittableRandom(5);
+
+		for (long seed = 0; seed < 10; seed++) {
+			Deck deck = new Deck(1, RngMode.SEEDED.newGenerator(seed));
+			deck.populateDeck();
+			deck.shuffleDeck();
+			KlondikeState start = KlondikeState.deal(deck);
+			KlondikeState state = start.copy();
+
+			int made = 0;
+			for (; made < tokens.length; made++) {
+				int count = generator.generateMoves(state, moves);
+				if (count == 0)
+					break;
+				tokens[made] = state.make(moves[random.nextInt(count)]);
+			}
+			while (made > 0)
+				state.unmake(tokens[--made]);
+
+			assertThat(state.hash(), equalTo(start.hash()));
+			assertThat(tableOf(state), equalTo(tableOf(start)));
+		}
+	}
+
+	/**
+	 * Lists every pile of a state, face-down cards included, for comparison.
+	 */
+	private static List<Object> tableOf(KlondikeState state) {
+		Klondike game = new Klondike();
+		state.applyTo(game);
+		return List.of(game.stock, game.talon, game.foundations, game.tableau,
+				Arrays.toString(game.firstFaceUpCard));
+	}
+}
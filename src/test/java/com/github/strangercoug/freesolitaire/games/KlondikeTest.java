@@ -0,0 +1,69 @@
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.CardRank;
+import com.github.strangercoug.freesolitaire.enums.CardSuit;
+import com.github.strangercoug.freesolitaire.enums.RngMode;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class KlondikeTest {
+	@Test
+	void testFlipCard() {
+		Klondike game = new Klondike();
+		game.play(null);
+		game.tableau.get(2).addAll(List.of(Card.of(CardRank.ACE, CardSuit.SPADES),
+				Card.of(CardRank.TWO, CardSuit.SPADES)));
+
+		assertThat(game.flipCard((byte) 2), equalTo(true));
+		assertThat(game.firstFaceUpCard[2], equalTo((byte) 1));
+		assertThat(game.flipCard((byte) 2), equalTo(false));
+	}
+
+	@Test
+	void testUndoRedoMatchesPackedState() {
+		int[] moves = new int[KlondikeMoveGenerator.MAX_MOVES];
+		SplittableRandom random = new SplittableRandom(9);
+
+		for (long seed = 0; seed < 10; seed++) {
+			Deck deck = new Deck(1, RngMode.SEEDED.newGenerator(seed));
+			deck.populateDeck();
+			deck.shuffleDeck();
+			KlondikeState state = KlondikeState.deal(deck);
+			Klondike game = new Klondike(3);
+			state.applyTo(game);
+
+			List<Long> hashes = new ArrayList<>();
+			hashes.add(state.hash());
+			for (int step = 0; step < 150; step++) {
+				int count = game.generateMoves(moves);
+				if (count == 0)
+					break;
+				int move = moves[random.nextInt(count)];
+				game.makeMove(move);
+				state.apply(move);
+				assertThat(KlondikeState.of(game).hash(), equalTo(state.hash()));
+				hashes.add(state.hash());
+			}
+
+			for (int i = hashes.size() - 2; i >= 0; i--) {
+				assertThat(game.undo(), equalTo(true));
+				assertThat(KlondikeState.of(game).hash(), equalTo(hashes.get(i)));
+			}
+			assertThat(game.undo(), equalTo(false));
+
+			for (int i = 1; i < hashes.size(); i++) {
+				assertThat(game.redo(), equalTo(true));
+				assertThat(KlondikeState.of(game).hash(), equalTo(hashes.get(i)));
+			}
+			assertThat(game.redo(), equalTo(false));
+		}
+	}
+}
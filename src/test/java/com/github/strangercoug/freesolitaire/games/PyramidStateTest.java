@@ -0,0 +1,59 @@
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.objs.Move;
+import com.github.strangercoug.freesolitaire.rng.DealNumbers;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PyramidStateTest {
+	private static PyramidState deal(long number, int passes) {
+		return PyramidState.deal(DealNumbers.deck(GameVariant.PYRAMID, number), passes);
+	}
+
+	@Test
+	void testDeal() {
+		PyramidState state = deal(1, 3);
+
+		assertThat(state.availablePyramid(), equalTo(0x7FL << 21));
+		assertThat(state.stockTop(), equalTo(PyramidState.PYRAMID_SIZE));
+		assertThat(state.wasteTop(), equalTo(PyramidState.NO_POSITION));
+		assertThat(state.getPass(), equalTo(0));
+		assertThat(state.isWon(), equalTo(false));
+		assertThrows(IllegalArgumentException.class, () -> deal(1, 4));
+	}
+
+	@Test
+	void testMakeAndUnmakeRestoreTheKey() {
+		PyramidState state = deal(3, 1);
+		PyramidMoveGenerator generator = new PyramidMoveGenerator();
+		int[] moves = new int[PyramidMoveGenerator.MAX_MOVES];
+		long[] keys = new long[40];
+		int[] tokens = new int[40];
+		int depth = 0;
+
+		while (depth < keys.length) {
+			int count = generator.generateMoves(state, moves);
+			if (count == 0)
+				break;
+			keys[depth] = state.key();
+			tokens[depth++] = state.make(moves[count - 1]);
+		}
+		while (depth > 0) {
+			state.unmake(tokens[--depth]);
+			assertThat(state.key(), equalTo(keys[depth]));
+		}
+	}
+
+	@Test
+	void testDrawMovesTheStockTopToTheWaste() {
+		PyramidState state = deal(1, 3);
+		state.apply(Move.of(PyramidState.DRAW, 0, 0, 0));
+
+		assertThat(state.wasteTop(), equalTo(PyramidState.PYRAMID_SIZE));
+		assertThat(state.stockTop(), equalTo(PyramidState.PYRAMID_SIZE + 1));
+	}
+}
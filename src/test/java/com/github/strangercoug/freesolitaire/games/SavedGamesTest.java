@@ -0,0 +1,103 @@
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.RngMode;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.SplittableRandom;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SavedGamesTest {
+	Klondike game;
+
+	@BeforeEach
+	void playSomeMoves() {
+		Deck deck = new Deck(1, RngMode.SEEDED.newGenerator(3));
+		deck.populateDeck();
+		deck.shuffleDeck();
+		game = new Klondike(3);
+		KlondikeState.deal(deck).applyTo(game);
+
+		int[] moves = new int[KlondikeMoveGenerator.MAX_MOVES];
+		SplittableRandom random = new SplittableRandom(4);
+		for (int step = 0; step < 100; step++)
+			game.makeMove(moves[random.nextInt(game.generateMoves(moves))]);
+		for (int i = 0; i < 10; i++)
+			game.undo();
+	}
+
+	@Test
+	void testBinaryRoundTrip() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		SavedGames.save(game, out);
+		assertThat(out.size(), lessThan(700));
+
+		Klondike loaded = (Klondike) SavedGames.load(new ByteArrayInputStream(out.toByteArray()));
+		assertSameGame(loaded);
+	}
+
+	@Test
+	void testJsonRoundTrip() throws IOException {
+		StringWriter out = new StringWriter();
+		SavedGames.exportJson(game, out);
+
+		Klondike loaded = (Klondike) SavedGames.importJson(new StringReader(out.toString()));
+		assertSameGame(loaded);
+	}
+
+	@Test
+	void testRejectsOtherData() {
+		byte[] data = "PK\u0003\u0004 not a save".getBytes();
+		assertThrows(IOException.class, () -> SavedGames.load(new ByteArrayInputStream(data)));
+		assertThrows(IOException.class, () -> SavedGames.importJson(
+				new StringReader("{\"version\": 99, \"variant\": \"KLONDIKE\"}")));
+	}
+
+	@Test
+	void testVarInts() throws IOException {
+		int[] values = {0, 1, 127, 128, 300, Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		for (int value : values)
+			SavedGames.writeVarInt(out, value);
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		for (int value : values)
+			assertThat(SavedGames.readVarInt(in), equalTo(value));
+		assertThat(bytes.size(), equalTo(1 + 1 + 1 + 2 + 2 + 5 + 5 + 5));
+	}
+
+	/**
+	 * Checks that a loaded game has the same table and the same history as
+	 * the one that was saved, by undoing and redoing both.
+	 */
+	private void assertSameGame(Klondike loaded) {
+		assertThat(loaded, instanceOf(Klondike.class));
+		assertThat(loaded.drawCount, equalTo(game.drawCount));
+		assertThat(KlondikeState.of(loaded).hash(), equalTo(KlondikeState.of(game).hash()));
+
+		while (game.redo()) {
+			assertThat(loaded.redo(), equalTo(true));
+			assertThat(KlondikeState.of(loaded).hash(), equalTo(KlondikeState.of(game).hash()));
+		}
+		assertThat(loaded.redo(), equalTo(false));
+		while (game.undo()) {
+			assertThat(loaded.undo(), equalTo(true));
+			assertThat(KlondikeState.of(loaded).hash(), equalTo(KlondikeState.of(game).hash()));
+		}
+		assertThat(loaded.undo(), equalTo(false));
+	}
+}
@@ -0,0 +1,107 @@
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.enums.SolverStatus;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+import com.github.strangercoug.freesolitaire.rng.DealNumbers;
+import com.github.strangercoug.freesolitaire.solvers.SearchBudget;
+import com.github.strangercoug.freesolitaire.solvers.SolverResult;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+class ScorpionStateTest {
+	private static ScorpionState deal(long number) {
+		return ScorpionState.deal(DealNumbers.deck(GameVariant.SCORPION, number));
+	}
+
+	@Test
+	void testDeal() {
+		ScorpionState state = deal(1);
+		for (int col = 0; col < ScorpionState.COLUMNS; col++) {
+			assertThat(state.columnSize(col), equalTo(7));
+			assertThat(state.faceDownCount(col), equalTo(col < 4 ? 3 : 0));
+		}
+		assertThat(state.getStockSize(), equalTo(ScorpionState.STOCK_SIZE));
+	}
+
+	@Test
+	void testDealGoesOntoTheFirstThreeColumns() {
+		ScorpionState state = deal(1);
+		state.apply(Move.of(ScorpionState.DEAL, 0, 0, 0));
+
+		assertThat(state.getStockSize(), equalTo(0));
+		assertThat(state.columnSize(0), equalTo(8));
+		assertThat(state.columnSize(2), equalTo(8));
+		assertThat(state.columnSize(3), equalTo(7));
+	}
+
+	@Test
+	void testColumnsTheStockGoesOntoAreHashedByPosition() {
+		int columns = ScorpionState.COLUMNS;
+		byte[] cards = new byte[Card.DECK_SIZE];
+		for (int i = 0; i < cards.length; i++)
+			cards[i] = (byte) i;
+		byte[] swapped = cards.clone();
+		// Columns 2 and 3 both start with three face-down cards, but only
+		// column 2 is dealt onto
+		for (int row = 0; row < columns; row++) {
+			swapped[row * columns + 2] = cards[row * columns + 3];
+			swapped[row * columns + 3] = cards[row * columns + 2];
+		}
+
+		assertThat(ScorpionState.deal(Deck.stacked(swapped)).hash(),
+				not(equalTo(ScorpionState.deal(Deck.stacked(cards)).hash())));
+	}
+
+	@Test
+	void testUnwinnableDeal() {
+		SolverResult result = GameVariant.SCORPION.newSolver(new SearchBudget(1_000_000, 60_000))
+				.solve(DealNumbers.deck(GameVariant.SCORPION, 4));
+
+		assertThat(result.getStatus(), equalTo(SolverStatus.UNWINNABLE));
+	}
+
+	@Test
+	void testMovingOffACompletedRunRemovesIt() {
+		int columns = ScorpionState.COLUMNS;
+		// Column 4 holds the king to seven of spades, and column 5 the six to
+		// ace of spades under the king of hearts
+		int[] column4 = {51, 50, 49, 48, 47, 46, 45};
+		int[] column5 = {44, 43, 42, 41, 40, 39, 2 * 13 + 12};
+		byte[] cards = new byte[Card.DECK_SIZE];
+		boolean[] placed = new boolean[Card.DECK_SIZE];
+		for (int row = 0; row < columns; row++) {
+			cards[row * columns + 4] = (byte) column4[row];
+			cards[row * columns + 5] = (byte) column5[row];
+			placed[column4[row]] = true;
+			placed[column5[row]] = true;
+		}
+		for (int i = 0, next = 0; i < cards.length; i++) {
+			if (i < columns * columns && (i % columns == 4 || i % columns == 5))
+				continue;
+			while (placed[next])
+				next++;
+			cards[i] = (byte) next++;
+		}
+		ScorpionState state = ScorpionState.deal(Deck.stacked(cards));
+		state.apply(Move.of(ScorpionState.TABLEAU_TO_TABLEAU, 5, 4, 7));
+		long before = state.hash();
+
+		int token = state.make(Move.of(ScorpionState.TABLEAU_TO_TABLEAU, 4, 5, 1));
+		assertThat(token & ScorpionState.SRC_COMPLETED, equalTo(ScorpionState.SRC_COMPLETED));
+		assertThat(state.getRuns(), equalTo(1));
+		assertThat(state.columnSize(4), equalTo(0));
+		assertThat(state.columnSize(5), equalTo(1));
+
+		state.unmake(token);
+		assertThat(state.getRuns(), equalTo(0));
+		assertThat(state.columnSize(4), equalTo(14));
+		assertThat(state.cardAt(4, 13), equalTo(2 * 13 + 12));
+		assertThat(state.hash(), equalTo(before));
+	}
+}
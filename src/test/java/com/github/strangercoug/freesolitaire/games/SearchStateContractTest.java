@@ -0,0 +1,105 @@
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.rng.DealNumbers;
+import com.github.strangercoug.freesolitaire.solvers.SearchBudget;
+import com.github.strangercoug.freesolitaire.solvers.SearchState;
+import com.github.strangercoug.freesolitaire.solvers.SolverResult;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+class SearchStateContractTest {
+	@ParameterizedTest
+	@MethodSource("variants")
+	void testMakeAndUnmakeRestoreTheHash(GameVariant variant,
+			Function<Deck, SearchState> dealer, long walkSeed, long winnable) {
+		SearchState state = dealer.apply(DealNumbers.deck(variant, 2));
+		SplittableRandom random = new SplittableRandom(7);
+		int[] moves = new int[state.maxMoves()];
+		long[] hashes = new long[200];
+		int[] tokens = new int[200];
+		int depth = 0;
+
+		while (depth < hashes.length) {
+			int count = state.generateMoves(moves);
+			if (count == 0)
+				break;
+			hashes[depth] = state.hash();
+			tokens[depth++] = state.make(moves[random.nextInt(count)]);
+		}
+		while (depth > 0) {
+			state.unmake(tokens[--depth]);
+			assertThat(state.hash(), equalTo(hashes[depth]));
+		}
+		assertThat(state.hash(), equalTo(dealer.apply(DealNumbers.deck(variant, 2)).hash()));
+	}
+
+	@ParameterizedTest
+	@MethodSource("variants")
+	void testLegalMovesIncludeEverySearchMove(GameVariant variant,
+			Function<Deck, SearchState> dealer, long walkSeed, long winnable) {
+		SearchState state = dealer.apply(DealNumbers.deck(variant, 3));
+		SplittableRandom random = new SplittableRandom(walkSeed);
+		int[] searchMoves = new int[state.maxMoves()];
+		int[] legalMoves = new int[state.maxMoves()];
+		boolean morePlayable = false;
+
+		for (int step = 0; step < 300; step++) {
+			int searched = state.generateMoves(searchMoves);
+			int legal = state.generateLegalMoves(legalMoves);
+			if (legal == 0)
+				break;
+			int move = legalMoves[random.nextInt(legal)];
+			Arrays.sort(legalMoves, 0, legal);
+			for (int i = 0; i < searched; i++)
+				assertThat(Arrays.binarySearch(legalMoves, 0, legal, searchMoves[i]) >= 0,
+						equalTo(true));
+			morePlayable |= legal > searched;
+			state.make(move);
+		}
+		assertThat(morePlayable, equalTo(true));
+	}
+
+	@ParameterizedTest
+	@MethodSource("variants")
+	void testSolutionReplays(GameVariant variant, Function<Deck, SearchState> dealer,
+			long walkSeed, long winnable) {
+		SearchState state = dealer.apply(DealNumbers.deck(variant, winnable));
+		SolverResult result = variant.newSolver(new SearchBudget(1_000_000, 60_000))
+				.solve(DealNumbers.deck(variant, winnable));
+
+		assertThat(result.isSolved(), equalTo(true));
+		for (int move : result.getMoves())
+			state.apply(move);
+		assertThat(state.isWon(), equalTo(true));
+	}
+
+	/**
+	 * Each variant with its dealer, the seed of a random walk from deal 3 that
+	 * reaches a position where the search prunes a legal move, and a deal the
+	 * solver wins.
+	 */
+	private static Stream<Arguments> variants() {
+		return Stream.of(
+				arguments(GameVariant.CANFIELD, dealer(CanfieldState::deal), 5L, 9L),
+				arguments(GameVariant.FORTY_THIEVES, dealer(FortyThievesState::deal), 5L, 11L),
+				arguments(GameVariant.SCORPION, dealer(ScorpionState::deal), 5L, 12L),
+				arguments(GameVariant.YUKON, dealer(YukonState::deal), 7L, 5L)
+		);
+	}
+
+	private static Function<Deck, SearchState> dealer(Function<Deck, SearchState> dealer) {
+		return dealer;
+	}
+}
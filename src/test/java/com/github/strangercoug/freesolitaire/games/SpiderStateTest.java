@@ -0,0 +1,148 @@
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.CardSuit;
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+import com.github.strangercoug.freesolitaire.rng.DealNumbers;
+import com.github.strangercoug.freesolitaire.solvers.SearchBudget;
+import com.github.strangercoug.freesolitaire.solvers.SolverResult;
+import com.github.strangercoug.freesolitaire.solvers.SpiderSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+class SpiderStateTest {
+	@Test
+	void testDeal() {
+		Deck deck = new Deck(2);
+		deck.populateDeck();
+		SpiderState state = SpiderState.deal(deck, 4);
+
+		for (int col = 0; col < SpiderState.COLUMNS; col++) {
+			int size = col < 4 ? 6 : 5;
+			assertThat(state.columnSize(col), equalTo(size));
+			assertThat(state.faceDownCount(col), equalTo(size - 1));
+			assertThat(state.runLength(col), equalTo(1));
+		}
+		assertThat(state.cardAt(3, 0), equalTo(3));
+		assertThat(state.stockSize(), equalTo(SpiderState.STOCK_SIZE));
+		assertThat(state.canDeal(), equalTo(true));
+
+		state.apply(Move.of(SpiderState.DEAL, 0, 0, 0));
+		// The first card left after the deal is the third pack card 54, the Three of Diamonds
+		assertThat(state.topCard(0), equalTo(54 % Card.DECK_SIZE));
+		assertThat(state.stockSize(), equalTo(SpiderState.STOCK_SIZE - SpiderState.COLUMNS));
+	}
+
+	@Test
+	void testSuits() {
+		for (int suits : new int[] {1, 2}) {
+			Deck deck = new Deck(2);
+			deck.populateDeck();
+			SpiderState state = SpiderState.deal(deck, suits);
+			for (int col = 0; col < SpiderState.COLUMNS; col++) {
+				for (int pos = 0; pos < state.columnSize(col); pos++) {
+					int suit = Card.suitOf(state.cardAt(col, pos));
+					assertThat(suit == CardSuit.SPADES.ordinal()
+							|| (suits == 2 && suit == CardSuit.HEARTS.ordinal()), equalTo(true));
+				}
+			}
+		}
+	}
+
+	@Test
+	void testCanMoveCards() {
+		Deck deck = new Deck(2);
+		deck.populateDeck();
+		SpiderState state = SpiderState.deal(deck, 1);
+
+		// Column 4 shows a Six and column 5 a Seven, both of spades
+		assertThat(state.canMoveCards(4, 5, 1), equalTo(true));
+		assertThat(state.canMoveCards(5, 4, 1), equalTo(false));
+		assertThat(state.canMoveCards(4, 5, 2), equalTo(false));
+		assertThat(state.canMoveCards(4, 4, 1), equalTo(false));
+	}
+
+	@Test
+	void testUnmakeRestoresState() {
+		SpiderMoveGenerator generator = new SpiderMoveGenerator();
+		int[] moves = new int[SpiderMoveGenerator.MAX_MOVES];
+		int[] tokens = new int[400];
+		SplittableRandom random = new SplittableRandom(7);
+
+		for (long deal = 1; deal <= 10; deal++) {
+			SpiderState state = SpiderState.deal(DealNumbers.deck(GameVariant.SPIDER, deal), 2);
+			SpiderState start = state.copy();
+			int played = 0;
+			while (played < tokens.length) {
+				int count = generator.generateMoves(state, moves);
+				if (count == 0)
+					break;
+				tokens[played++] = state.make(moves[random.nextInt(count)]);
+			}
+			while (played > 0)
+				state.unmake(tokens[--played]);
+
+			assertSameTable(state, start);
+		}
+	}
+
+	@Test
+	void testUnmakeCompletedRuns() {
+		SpiderState state = SpiderState.deal(DealNumbers.deck(GameVariant.SPIDER, 1), 1);
+		SpiderState start = state.copy();
+		SolverResult result = new SpiderSolver(1, new SearchBudget(1_000_000, 60_000), 16)
+				.solve(state);
+		assertThat(result.isSolved(), equalTo(true));
+
+		int[] solution = result.getMoves();
+		int[] tokens = new int[solution.length];
+		int completed = 0;
+		for (int i = 0; i < solution.length; i++) {
+			tokens[i] = state.make(solution[i]);
+			if ((tokens[i] & SpiderState.COMPLETED) != 0
+					|| (Move.type(tokens[i]) == SpiderState.DEAL && (tokens[i] & 0x3FF) != 0))
+				completed++;
+		}
+		assertThat(state.isWon(), equalTo(true));
+		assertThat(completed, greaterThan(0));
+
+		for (int i = solution.length - 1; i >= 0; i--)
+			state.unmake(tokens[i]);
+		assertSameTable(state, start);
+	}
+
+	@Test
+	void testGameUndoRedo() {
+		Spider game = new Spider(2);
+		game.deal(DealNumbers.deck(GameVariant.SPIDER, 3));
+		long start = game.getState().hash();
+		int[] moves = new int[SpiderMoveGenerator.MAX_MOVES];
+
+		game.makeMove(moves[game.generateMoves(moves) - 1]);
+		long after = game.getState().hash();
+		assertThat(game.undo(), equalTo(true));
+		assertThat(game.getState().hash(), equalTo(start));
+		assertThat(game.redo(), equalTo(true));
+		assertThat(game.getState().hash(), equalTo(after));
+		assertThat(game.isWon(), equalTo(false));
+	}
+
+	private static void assertSameTable(SpiderState state, SpiderState expected) {
+		assertThat(state.hash(), equalTo(expected.hash()));
+		assertThat(state.stockSize(), equalTo(expected.stockSize()));
+		assertThat(state.completedRuns(), equalTo(expected.completedRuns()));
+		for (int col = 0; col < SpiderState.COLUMNS; col++) {
+			assertThat(state.columnSize(col), equalTo(expected.columnSize(col)));
+			assertThat(state.faceDownCount(col), equalTo(expected.faceDownCount(col)));
+			for (int pos = 0; pos < state.columnSize(col); pos++)
+				assertThat(state.cardAt(col, pos), equalTo(expected.cardAt(col, pos)));
+		}
+	}
+}
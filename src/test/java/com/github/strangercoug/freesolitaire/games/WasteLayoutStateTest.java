@@ -0,0 +1,75 @@
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.games.WasteLayoutState.Layout;
+import com.github.strangercoug.freesolitaire.objs.Move;
+import com.github.strangercoug.freesolitaire.rng.DealNumbers;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class WasteLayoutStateTest {
+	private static WasteLayoutState deal(Layout layout) {
+		return WasteLayoutState.deal(DealNumbers.deck(GameVariant.GOLF, 1), layout);
+	}
+
+	@Test
+	void testDeal() {
+		WasteLayoutState golf = deal(Layout.GOLF);
+		WasteLayoutState triPeaks = deal(Layout.TRI_PEAKS);
+
+		assertThat(golf.availableLayout(), equalTo(0x7FL << 28));
+		assertThat(golf.wasteTop(), equalTo(35));
+		assertThat(golf.stockLeft(), equalTo(16));
+		assertThat(triPeaks.availableLayout(), equalTo(0x3FFL << 18));
+		assertThat(triPeaks.wasteTop(), equalTo(28));
+		assertThat(triPeaks.stockLeft(), equalTo(23));
+	}
+
+	@Test
+	void testFits() {
+		assertThat(Layout.GOLF.fits(4, 5), equalTo(true));
+		assertThat(Layout.GOLF.fits(4, 3), equalTo(true));
+		assertThat(Layout.GOLF.fits(4, 6), equalTo(false));
+		assertThat(Layout.GOLF.fits(12, 11), equalTo(false));
+		assertThat(Layout.GOLF.fits(0, 12), equalTo(false));
+		assertThat(Layout.TRI_PEAKS.fits(12, 11), equalTo(true));
+		assertThat(Layout.TRI_PEAKS.fits(0, 12), equalTo(true));
+	}
+
+	@Test
+	void testPlayingTheFrontUncoversThePeak() {
+		WasteLayoutState state = deal(Layout.TRI_PEAKS);
+		for (int i = 18; i < 28; i++)
+			state.apply(Move.of(WasteLayoutState.PLAY, i, 0, 0));
+
+		assertThat(state.availableLayout(), equalTo(0x1FFL << 9));
+		assertThat(state.wasteTop(), equalTo(27));
+	}
+
+	@Test
+	void testMakeAndUnmakeRestoreTheKey() {
+		WasteLayoutState state = deal(Layout.GOLF);
+		WasteLayoutMoveGenerator generator = new WasteLayoutMoveGenerator();
+		int[] moves = new int[WasteLayoutMoveGenerator.MAX_MOVES];
+		long[] keys = new long[60];
+		int[] wastes = new int[60];
+		int[] tokens = new int[60];
+		int depth = 0;
+
+		while (depth < keys.length) {
+			int count = generator.generateMoves(state, moves);
+			if (count == 0)
+				break;
+			keys[depth] = state.key();
+			wastes[depth] = state.wasteTop();
+			tokens[depth++] = state.make(moves[0]);
+		}
+		while (depth > 0) {
+			state.unmake(tokens[--depth]);
+			assertThat(state.key(), equalTo(keys[depth]));
+			assertThat(state.wasteTop(), equalTo(wastes[depth]));
+		}
+	}
+}
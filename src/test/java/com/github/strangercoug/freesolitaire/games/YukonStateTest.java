@@ -0,0 +1,64 @@
+package com.github.strangercoug.freesolitaire.games;
+
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.objs.Move;
+import com.github.strangercoug.freesolitaire.rng.DealNumbers;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+
+class YukonStateTest {
+	private static YukonState deal(long number) {
+		return YukonState.deal(DealNumbers.deck(GameVariant.YUKON, number));
+	}
+
+	@Test
+	void testDeal() {
+		YukonState state = deal(1);
+		for (int col = 0; col < YukonState.COLUMNS; col++) {
+			assertThat(state.columnSize(col), equalTo(col == 0 ? 1 : col + 5));
+			assertThat(state.faceDownCount(col), equalTo(col));
+		}
+		assertThat(state.isWon(), equalTo(false));
+	}
+
+	@Test
+	void testMovesAFaceUpCardFromUnderOthers() {
+		byte[] cards = new byte[Card.DECK_SIZE];
+		for (int i = 0; i < cards.length; i++)
+			cards[i] = (byte) i;
+		// The eight of spades is alone in the first column, and the seven of
+		// hearts is the lowest face-up card of the second, under four clubs
+		int eightOfSpades = 3 * 13 + 7;
+		int sevenOfHearts = 2 * 13 + 6;
+		cards[0] = (byte) eightOfSpades;
+		cards[eightOfSpades] = 0;
+		cards[2] = (byte) sevenOfHearts;
+		cards[sevenOfHearts] = 2;
+		YukonState state = YukonState.deal(Deck.stacked(cards));
+		long start = state.hash();
+
+		int move = Move.of(YukonState.TABLEAU_TO_TABLEAU, 1, 0, 5);
+		int[] moves = new int[state.maxMoves()];
+		int count = state.generateLegalMoves(moves);
+		assertThat(Arrays.stream(moves, 0, count).boxed().toList(), hasItem(move));
+
+		int token = state.make(move);
+		assertThat(state.columnSize(0), equalTo(6));
+		assertThat(state.cardAt(0, 1), equalTo(sevenOfHearts));
+		assertThat(state.cardAt(0, 5), equalTo(6));
+		assertThat(state.columnSize(1), equalTo(1));
+		assertThat(state.faceDownCount(1), equalTo(0));
+		assertThat(token & YukonState.SRC_FLIPPED, equalTo(YukonState.SRC_FLIPPED));
+
+		state.unmake(token);
+		assertThat(state.faceDownCount(1), equalTo(1));
+		assertThat(state.hash(), equalTo(start));
+	}
+}
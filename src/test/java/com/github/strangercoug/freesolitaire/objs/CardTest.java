@@ -11,6 +11,7 @@ import java.util.LinkedList;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class CardTest {
@@ -94,4 +95,24 @@ class CardTest {
 			assertThat(cards.get(i).toString(), equalTo(expectedValues[i]));
 		}
 	}
-}
\ No newline at end of file
+
+	@Test
+	void testOfIsInterned() {
+		Card card = Card.of(CardRank.QUEEN, CardSuit.HEARTS);
+		assertThat(Card.of(CardRank.QUEEN, CardSuit.HEARTS), sameInstance(card));
+		assertThat(card, equalTo(new Card(CardRank.QUEEN, CardSuit.HEARTS)));
+	}
+
+	@Test
+	void testIndexRoundTrip() {
+		for (int i = 0; i < Card.DECK_SIZE; i++)
+			assertThat(Card.fromIndex(i).index(), equalTo(i));
+		assertThat(Card.of(CardRank.ACE, CardSuit.CLUBS).index(), equalTo(0));
+		assertThat(Card.of(CardRank.KING, CardSuit.SPADES).index(), equalTo(51));
+	}
+
+	@Test
+	void testFromIndexOutOfRange() {
+		assertThrows(IndexOutOfBoundsException.class, () -> Card.fromIndex(Card.DECK_SIZE));
+	}
+}
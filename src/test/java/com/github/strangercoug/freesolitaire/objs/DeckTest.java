@@ -1,10 +1,14 @@
 package com.github.strangercoug.freesolitaire.objs;
 
+import com.github.strangercoug.freesolitaire.enums.RngMode;
 import org.junit.jupiter.api.Test;
 
+import java.util.NoSuchElementException;
+
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class DeckTest {
 	Deck deck;
@@ -43,4 +47,40 @@ class DeckTest {
 			assertThat(testCard[0][i].equals(testCard[1][i]), equalTo(true));
 		}
 	}
+
+	@Test
+	void testShuffleDeckKeepsCards() {
+		deck = new Deck(numDecks);
+		deck.populateDeck();
+		deck.dealCard();
+		deck.shuffleDeck();
+		assertThat(deck.size(), equalTo(numDecks * deckSize - 1));
+
+		int[] counts = new int[deckSize];
+		while (!deck.isEmpty())
+			counts[deck.dealCard().index()]++;
+		assertThat(counts[0], equalTo(numDecks - 1));
+		for (int i = 1; i < deckSize; i++)
+			assertThat(counts[i], equalTo(numDecks));
+	}
+
+	@Test
+	void testDealCardEmpty() {
+		deck = new Deck();
+		assertThrows(NoSuchElementException.class, () -> deck.dealCard());
+	}
+
+	@Test
+	void testSeededShuffleIsReproducible() {
+		Deck first = new Deck(numDecks, RngMode.SEEDED.newGenerator(42));
+		Deck second = new Deck(numDecks, RngMode.SEEDED.newGenerator(42));
+		first.populateDeck();
+		first.shuffleDeck();
+		second.populateDeck();
+		second.shuffleDeck();
+
+		while (!first.isEmpty())
+			assertThat(first.dealCard(), equalTo(second.dealCard()));
+		assert second.isEmpty();
+	}
 }
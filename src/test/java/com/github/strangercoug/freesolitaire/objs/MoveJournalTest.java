@@ -0,0 +1,37 @@
+package com.github.strangercoug.freesolitaire.objs;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoveJournalTest {
+	@Test
+	void testUndoRedo() {
+		MoveJournal journal = new MoveJournal(1);
+		for (int i = 0; i < 5; i++)
+			journal.record(i, 100 + i);
+
+		assertThat(journal.undo(), equalTo(104));
+		assertThat(journal.undo(), equalTo(103));
+		assertThat(journal.position(), equalTo(3));
+		assertThat(journal.redo(), equalTo(3));
+		assertThat(journal.canRedo(), equalTo(true));
+		assertThat(journal.moveAt(3), equalTo(3));
+	}
+
+	@Test
+	void testRecordDiscardsRedo() {
+		MoveJournal journal = new MoveJournal();
+		journal.record(1, 11);
+		journal.record(2, 12);
+		journal.undo();
+		journal.record(3, 13);
+
+		assertThat(journal.canRedo(), equalTo(false));
+		assertThat(journal.undo(), equalTo(13));
+		assertThat(journal.undo(), equalTo(11));
+		assertThrows(IllegalStateException.class, journal::undo);
+	}
+}
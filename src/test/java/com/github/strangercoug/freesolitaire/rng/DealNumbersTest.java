@@ -0,0 +1,60 @@
+package com.github.strangercoug.freesolitaire.rng;
+
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class DealNumbersTest {
+	@Test
+	void testMicrosoftFreeCellDeals() {
+		assertThat(firstCards(DealNumbers.deck(GameVariant.FREECELL, 1), 16),
+				equalTo(cards("JD 2D 9H JC 5D 7H 7C 5H KD KC 9S 5S AD QC KH 3H")));
+		assertThat(firstCards(DealNumbers.deck(GameVariant.FREECELL, 617), 8),
+				equalTo(cards("7D AD 5C 3S 5S 8C 2D AH")));
+	}
+
+	@Test
+	void testDealsAreReproducible() {
+		for (GameVariant variant : GameVariant.values()) {
+			int size = variant.getNumDecks() * Card.DECK_SIZE;
+			int[] deal = firstCards(DealNumbers.deck(variant, 1L << 40), size);
+			assertThat(firstCards(DealNumbers.deck(variant, 1L << 40), size), equalTo(deal));
+			assertThat(firstCards(DealNumbers.deck(variant, (1L << 40) + 1), size), not(equalTo(deal)));
+
+			int[] counts = new int[Card.DECK_SIZE];
+			for (int card : deal)
+				counts[card]++;
+			for (int count : counts)
+				assertThat(count, equalTo(variant.getNumDecks()));
+		}
+	}
+
+	@Test
+	void testNumberingIsStable() {
+		// Deal numbers are shared with players, so they must never change.
+		assertThat(firstCards(DealNumbers.deck(GameVariant.KLONDIKE, 1), 8),
+				equalTo(cards("9S TD QC 7D 3H AD 3D KS")));
+	}
+
+	private static int[] firstCards(Deck deck, int count) {
+		int[] cards = new int[count];
+		for (int i = 0; i < count; i++)
+			cards[i] = deck.dealCard().index();
+		return cards;
+	}
+
+	/**
+	 * Parses cards written like "TH", rank first and then suit.
+	 */
+	private static int[] cards(String names) {
+		return Arrays.stream(names.split(" ")).mapToInt(name ->
+				"CDHS".indexOf(name.charAt(1)) * 13 + "A23456789TJQK".indexOf(name.charAt(0))).toArray();
+	}
+}
@@ -0,0 +1,119 @@
+package com.github.strangercoug.freesolitaire.rng;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class EntropyPoolTest {
+	private static final RandomGeneratorFactory<RandomGenerator> factory =
+			RandomGeneratorFactory.of("L64X128MixRandom");
+
+	/**
+	 * A source that returns 0, 1, 2, ... so that tests can see which numbers
+	 * were served.
+	 */
+	private static EntropySource counting() {
+		AtomicInteger next = new AtomicInteger();
+		return count -> {
+			int[] values = new int[count];
+			for (int i = 0; i < count; i++)
+				values[i] = next.getAndIncrement();
+			return values;
+		};
+	}
+
+	@Test
+	void testServesBufferedNumbersInOrder() throws InterruptedException {
+		try (EntropyPool pool = new EntropyPool(counting(), 64, factory.create(1))) {
+			assertThat(pool.awaitAvailable(64, 10, TimeUnit.SECONDS), is(true));
+			for (int i = 0; i < 64; i++)
+				assertThat(pool.nextInt(), equalTo(i));
+			assertThat(pool.served(), equalTo(64L));
+			assertThat(pool.fallbacks(), equalTo(0L));
+		}
+	}
+
+	@Test
+	void testRefillsAfterDraining() throws InterruptedException {
+		try (EntropyPool pool = new EntropyPool(counting(), 64, factory.create(1))) {
+			assertThat(pool.awaitAvailable(64, 10, TimeUnit.SECONDS), is(true));
+			for (int i = 0; i < 40; i++)
+				pool.nextInt();
+			assertThat(pool.awaitAvailable(56, 10, TimeUnit.SECONDS), is(true));
+			assertThat(pool.nextInt(), equalTo(40));
+		}
+	}
+
+	@Test
+	void testFallsBackWhenSourceFails() {
+		EntropySource offline = count -> {
+			throw new IOException("offline");
+		};
+		RandomGenerator expected = factory.create(7);
+		try (EntropyPool pool = new EntropyPool(offline, 64, factory.create(7))) {
+			for (int i = 0; i < 10; i++)
+				assertThat(pool.nextInt(), equalTo(expected.nextInt()));
+			assertThat(pool.served(), equalTo(0L));
+			assertThat(pool.fallbacks(), equalTo(10L));
+		}
+	}
+
+	@Test
+	void testRecoversFromRuntimeException() throws InterruptedException {
+		EntropySource counting = counting();
+		AtomicInteger calls = new AtomicInteger();
+		EntropySource flaky = count -> {
+			if (calls.getAndIncrement() == 0)
+				throw new IllegalStateException("malformed response");
+			return counting.fetch(count);
+		};
+		try (EntropyPool pool = new EntropyPool(flaky, 64, factory.create(1))) {
+			assertThat(pool.awaitAvailable(64, 10, TimeUnit.SECONDS), is(true));
+			assertThat(pool.nextInt(), equalTo(0));
+		}
+	}
+
+	@Test
+	void testBacksOffWhenSourceReturnsNothing() throws InterruptedException {
+		AtomicInteger calls = new AtomicInteger();
+		EntropySource empty = count -> {
+			calls.incrementAndGet();
+			return new int[0];
+		};
+		try (EntropyPool pool = new EntropyPool(empty, 64, factory.create(1))) {
+			assertThat(pool.awaitAvailable(1, 500, TimeUnit.MILLISECONDS), is(false));
+			// The first retry waits a second
+			assertThat(calls.get(), equalTo(1));
+		}
+	}
+
+	@Test
+	void testNeverAsksForMoreThanTheSourceAllows() throws InterruptedException {
+		EntropySource counting = counting();
+		AtomicInteger largest = new AtomicInteger();
+		EntropySource limited = new EntropySource() {
+			@Override
+			public int[] fetch(int count) throws IOException, InterruptedException {
+				largest.accumulateAndGet(count, Math::max);
+				return counting.fetch(count);
+			}
+
+			@Override
+			public int maxFetch() {
+				return 8;
+			}
+		};
+		try (EntropyPool pool = new EntropyPool(limited, 64, factory.create(1))) {
+			assertThat(pool.awaitAvailable(64, 10, TimeUnit.SECONDS), is(true));
+			assertThat(largest.get(), equalTo(8));
+		}
+	}
+}
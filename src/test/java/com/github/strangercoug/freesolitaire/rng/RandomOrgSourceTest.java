@@ -0,0 +1,93 @@
+package com.github.strangercoug.freesolitaire.rng;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RandomOrgSourceTest {
+	/**
+	 * A one-shot HTTP server on the loopback interface that answers the first
+	 * request with a fixed status and body.
+	 */
+	private static final class StubServer implements AutoCloseable {
+		private final ServerSocket socket;
+		private final Thread thread;
+		private volatile String requestLine;
+
+		StubServer(int status, String body) throws IOException {
+			socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+			thread = Thread.ofVirtual().start(() -> serve(status, body));
+		}
+
+		URI endpoint() {
+			return URI.create("http://localhost:" + socket.getLocalPort() + "/integers/");
+		}
+
+		private void serve(int status, String body) {
+			try (Socket client = socket.accept()) {
+				BufferedReader in = new BufferedReader(
+						new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+				requestLine = in.readLine();
+				String line;
+				do {
+					line = in.readLine();
+				} while (line != null && !line.isEmpty());
+
+				byte[] content = body.getBytes(StandardCharsets.US_ASCII);
+				OutputStream out = client.getOutputStream();
+				out.write(("HTTP/1.1 " + status + " Stub\r\nContent-Type: text/plain\r\nContent-Length: "
+						+ content.length + "\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+				out.write(content);
+				out.flush();
+			} catch (IOException e) {
+				// the test will fail on the client side
+			}
+		}
+
+		@Override
+		public void close() throws IOException, InterruptedException {
+			socket.close();
+			thread.join();
+		}
+	}
+
+	@Test
+	void testCombinesPairsIntoIntegers() throws Exception {
+		try (StubServer server = new StubServer(200, "1\n2\n65535\n65535\n0\n32768\n")) {
+			int[] values = new RandomOrgSource(server.endpoint()).fetch(3);
+			assertThat(values[0], equalTo(0x00010002));
+			assertThat(values[1], equalTo(-1));
+			assertThat(values[2], equalTo(0x00008000));
+			assertThat(server.requestLine, startsWith("GET /integers/?num=6&min=0&max=65535"));
+		}
+	}
+
+	@Test
+	void testErrorStatusThrows() throws Exception {
+		try (StubServer server = new StubServer(503, "Error: You have used your quota.")) {
+			RandomOrgSource source = new RandomOrgSource(server.endpoint());
+			assertThrows(IOException.class, () -> source.fetch(3));
+		}
+	}
+
+	@Test
+	void testShortResponseThrows() throws Exception {
+		try (StubServer server = new StubServer(200, "1\n2\n3\n")) {
+			RandomOrgSource source = new RandomOrgSource(server.endpoint());
+			assertThrows(IOException.class, () -> source.fetch(3));
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.github.strangercoug.freesolitaire.rng;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.random.RandomGenerator;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class RandomStreamsTest {
+	@Test
+	void testStreamIsReproducible() {
+		RandomGenerator first = new RandomStreams(42).stream(7);
+		RandomGenerator second = new RandomStreams(42).stream(7);
+		for (int i = 0; i < 100; i++)
+			assertThat(first.nextLong(), equalTo(second.nextLong()));
+	}
+
+	@Test
+	void testStreamsDiffer() {
+		RandomStreams streams = new RandomStreams(42);
+		assertThat(streams.stream(0).nextLong(), not(equalTo(streams.stream(1).nextLong())));
+		assertThat(new RandomStreams(43).stream(0).nextLong(),
+				not(equalTo(streams.stream(0).nextLong())));
+	}
+
+	@Test
+	void testCurrentIsPerThread() throws InterruptedException {
+		RandomStreams streams = new RandomStreams(42);
+		RandomGenerator mine = streams.current();
+		assertThat(streams.current(), sameInstance(mine));
+
+		AtomicReference<RandomGenerator> other = new AtomicReference<>();
+		Thread thread = Thread.ofVirtual().start(() -> other.set(streams.current()));
+		thread.join();
+		assertThat(other.get(), not(sameInstance(mine)));
+	}
+}
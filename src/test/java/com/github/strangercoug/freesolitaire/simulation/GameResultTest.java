@@ -0,0 +1,28 @@
+package com.github.strangercoug.freesolitaire.simulation;
+
+import com.github.strangercoug.freesolitaire.enums.SolverStatus;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class GameResultTest {
+	@Test
+	void testFormats() {
+		GameResult result = new GameResult(7, SolverStatus.SOLVED, 90, 1234, 5678);
+		StringBuilder csv = new StringBuilder();
+		StringBuilder json = new StringBuilder();
+		ResultFormat.CSV.append(csv, result);
+		ResultFormat.JSON_LINES.append(json, result);
+
+		assertThat(csv.toString(), equalTo("7,true,SOLVED,90,1234,5678\n"));
+		assertThat(json.toString(), equalTo("{\"deal\":7,\"won\":true,\"status\":\"SOLVED\","
+				+ "\"moves\":90,\"nodes\":1234,\"nanos\":5678}\n"));
+	}
+
+	@Test
+	void equalsContract() {
+		EqualsVerifier.forClass(GameResult.class).verify();
+	}
+}
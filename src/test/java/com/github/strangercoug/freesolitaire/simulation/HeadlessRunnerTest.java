@@ -0,0 +1,73 @@
+package com.github.strangercoug.freesolitaire.simulation;
+
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.solvers.SearchBudget;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HeadlessRunnerTest {
+	@Test
+	void testSolverWritesOneLinePerDeal() throws IOException, InterruptedException {
+		StringWriter out = new StringWriter();
+		Estimate estimate = new HeadlessRunner(GameVariant.FREECELL, Strategy.SOLVER,
+				new SearchBudget(20_000, 5_000), 4).run(11, 20, out, ResultFormat.CSV);
+
+		List<String> lines = Arrays.asList(out.toString().split("\n"));
+		assertThat(lines.get(0), equalTo(ResultFormat.CSV.header()));
+		assertThat(lines.size(), equalTo(21));
+		assertThat(lines.subList(1, 21).stream().map(line -> line.split(",")[0])
+				.map(Long::parseLong).toList(), containsInAnyOrder(
+				11L, 12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L, 20L,
+				21L, 22L, 23L, 24L, 25L, 26L, 27L, 28L, 29L, 30L));
+		assertThat(estimate.getDeals(), equalTo(20L));
+		assertThat(lines.stream().skip(1).filter(line -> line.split(",")[1]
+				.equals("true")).count(), equalTo(estimate.getWon()));
+	}
+
+	@Test
+	void testRandomPlayIsRepeatable() throws IOException, InterruptedException {
+		HeadlessRunner runner = new HeadlessRunner(GameVariant.KLONDIKE, Strategy.RANDOM,
+				SearchBudget.UNLIMITED, 1);
+		StringWriter first = new StringWriter();
+		StringWriter second = new StringWriter();
+		runner.run(1, 5, first, ResultFormat.JSON_LINES);
+		runner.run(1, 5, second, ResultFormat.JSON_LINES);
+
+		List<String> lines = withoutTimes(first.toString());
+		assertThat(lines.size(), equalTo(5));
+		assertThat(lines.get(0), startsWith("{\"deal\":1,"));
+		assertThat(withoutTimes(second.toString()), contains(lines.toArray()));
+	}
+
+	@Test
+	void testRandomPlaySizesTheBufferForTheVariant() throws IOException, InterruptedException {
+		StringWriter out = new StringWriter();
+		Estimate estimate = new HeadlessRunner(GameVariant.SPIDER, Strategy.RANDOM,
+				SearchBudget.UNLIMITED, 1).run(1, 10, out, ResultFormat.CSV);
+
+		assertThat(estimate.getDeals(), equalTo(10L));
+	}
+
+	@Test
+	void testVariantWithoutSolver() {
+		assertThrows(UnsupportedOperationException.class,
+				() -> new HeadlessRunner(GameVariant.LA_BELLE_LUCIE, Strategy.SOLVER,
+						SearchBudget.UNLIMITED));
+	}
+
+	private static List<String> withoutTimes(String jsonLines) {
+		return Arrays.stream(jsonLines.split("\n"))
+				.map(line -> line.replaceAll(",\"nanos\":\\d+", "")).toList();
+	}
+}
@@ -0,0 +1,48 @@
+package com.github.strangercoug.freesolitaire.simulation;
+
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.solvers.SearchBudget;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WinRateEstimatorTest {
+	@Test
+	void testEstimateCountsEveryDeal() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			Estimate estimate = new WinRateEstimator(GameVariant.FREECELL,
+					new SearchBudget(20_000, 5_000), pool).estimate(200);
+
+			assertThat(estimate.getDeals(), equalTo(200L));
+			assertThat(estimate.getWon() + estimate.getUnwinnable()
+					+ estimate.getUnknown(), equalTo(200L));
+			assertThat(estimate.getWon(), greaterThan(0L));
+			assertThat(estimate.lowerBound(), lessThanOrEqualTo(estimate.winRate()));
+			assertThat(estimate.upperBound(), greaterThan(estimate.lowerBound()));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void testWilsonInterval() {
+		Estimate estimate = new Estimate(GameVariant.KLONDIKE, 80, 15, 5, 0, 1);
+		assertThat(estimate.winRate(), closeTo(0.8, 1e-9));
+		assertThat(estimate.lowerBound(), closeTo(0.7112, 1e-4));
+		assertThat(estimate.upperBound(), closeTo(0.8666, 1e-4));
+	}
+
+	@Test
+	void testVariantWithoutSolver() {
+		assertThrows(UnsupportedOperationException.class,
+				() -> new WinRateEstimator(GameVariant.LA_BELLE_LUCIE, SearchBudget.UNLIMITED));
+	}
+}
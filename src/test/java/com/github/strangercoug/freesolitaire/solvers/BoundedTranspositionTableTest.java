@@ -0,0 +1,85 @@
+package com.github.strangercoug.freesolitaire.solvers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedTranspositionTableTest {
+	// Hashes that differ only above bit 40 land in the same bucket.
+	private static long inBucket(int i) {
+		return (long) (i + 1) << 48 ^ (long) (i + 1) << 24 ^ 0xABCD_0000L;
+	}
+
+	@Test
+	void testVisit() {
+		BoundedTranspositionTable table = new BoundedTranspositionTable(1);
+		assertThat(table.capacity(), equalTo(1 << 17));
+		assertThat(table.visit(42L << 16, 1), equalTo(false));
+		assertThat(table.visit(42L << 16, 1), equalTo(true));
+		assertThat(table.size(), equalTo(1));
+		table.clear();
+		assertThat(table.visit(42L << 16, 1), equalTo(false));
+	}
+
+	@Test
+	void testEvictsLowestValue() {
+		BoundedTranspositionTable table = new BoundedTranspositionTable(1);
+		for (int i = 0; i < 8; i++)
+			table.visit(inBucket(i), i == 3 ? 1 : 10);
+
+		assertThat(table.visit(inBucket(8), 0), equalTo(false));
+		assertThat(table.evictions(), equalTo(0L));
+		assertThat(table.visit(inBucket(8), 5), equalTo(false));
+		assertThat(table.evictions(), equalTo(1L));
+
+		assertThat(table.visit(inBucket(8), 5), equalTo(true));
+		assertThat(table.visit(inBucket(3), 10), equalTo(false));
+		for (int i = 0; i < 8; i++) {
+			if (i != 3)
+				assertThat(table.visit(inBucket(i), 10), equalTo(true));
+		}
+	}
+
+	@Test
+	void testNeverEvictsMaxValue() {
+		BoundedTranspositionTable table = new BoundedTranspositionTable(1);
+		for (int i = 0; i < 8; i++)
+			table.visit(inBucket(i), BoundedTranspositionTable.MAX_VALUE);
+
+		assertThat(table.visit(inBucket(8), BoundedTranspositionTable.MAX_VALUE), equalTo(false));
+		assertThat(table.evictions(), equalTo(0L));
+		for (int i = 0; i < 8; i++)
+			assertThat(table.visit(inBucket(i), 0), equalTo(true));
+	}
+
+	@Test
+	void testRevisitingDoesNotRaiseTheValue() {
+		BoundedTranspositionTable table = new BoundedTranspositionTable(1);
+		for (int i = 0; i < 8; i++)
+			table.visit(inBucket(i), i == 3 ? 1 : 10);
+		for (int i = 0; i < 8; i++)
+			assertThat(table.visit(inBucket(i), BoundedTranspositionTable.MAX_VALUE), equalTo(true));
+
+		assertThat(table.visit(inBucket(8), 5), equalTo(false));
+		assertThat(table.evictions(), equalTo(1L));
+		assertThat(table.visit(inBucket(3), 0), equalTo(false));
+	}
+
+	@Test
+	void testSetValue() {
+		BoundedTranspositionTable table = new BoundedTranspositionTable(1);
+		for (int i = 0; i < 8; i++)
+			table.visit(inBucket(i), BoundedTranspositionTable.MAX_VALUE);
+		table.setValue(inBucket(5), 0);
+		table.visit(inBucket(8), 1);
+
+		assertThat(table.visit(inBucket(5), 1), equalTo(false));
+	}
+
+	@Test
+	void testInvalidSize() {
+		assertThrows(IllegalArgumentException.class, () -> new BoundedTranspositionTable(0));
+	}
+}
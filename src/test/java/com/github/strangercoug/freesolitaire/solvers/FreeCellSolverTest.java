@@ -0,0 +1,27 @@
+package com.github.strangercoug.freesolitaire.solvers;
+
+import com.github.strangercoug.freesolitaire.games.FreeCellState;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class FreeCellSolverTest {
+	@Test
+	void testSolutionsReplay() {
+		FreeCellSolver solver = new FreeCellSolver(new SearchBudget(1_000_000, 10_000), 18);
+		for (int i = 0; i < 20; i++) {
+			Deck deck = new Deck();
+			deck.populateDeck();
+			deck.shuffleDeck();
+			FreeCellState state = FreeCellState.deal(deck);
+			SolverResult result = solver.solve(state);
+
+			assertThat(result.isSolved(), equalTo(true));
+			for (int move : result.getMoves())
+				state.apply(move);
+			assertThat(state.isWon(), equalTo(true));
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package com.github.strangercoug.freesolitaire.solvers;
+
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.games.KlondikeMoveGenerator;
+import com.github.strangercoug.freesolitaire.games.KlondikeState;
+import com.github.strangercoug.freesolitaire.rng.DealNumbers;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+
+class KlondikeHintEngineTest {
+	@Test
+	void testHintIsLegal() {
+		KlondikeState state = KlondikeState.deal(DealNumbers.deck(GameVariant.KLONDIKE, 1));
+		Hint hint = new KlondikeHintEngine(1, 16).hint(state, 20);
+
+		assertThat(hint.hasMove(), equalTo(true));
+		assertThat(hint.depth(), greaterThan(0));
+		assertThat(legalMoves(state), hasItem(hint.move()));
+	}
+
+	@Test
+	void testSearchResumes() {
+		KlondikeState state = KlondikeState.deal(DealNumbers.deck(GameVariant.KLONDIKE, 2));
+		KlondikeHintEngine engine = new KlondikeHintEngine(3, 16);
+		Hint first = engine.hint(state, 20);
+		Hint second = engine.hint(state, 20);
+
+		assertThat(second.depth(), greaterThanOrEqualTo(first.depth()));
+		if (!first.winning())
+			assertThat(second.depth(), greaterThan(first.depth()));
+	}
+
+	@Test
+	void testHintsFinishASolvedGame() {
+		KlondikeState state = null;
+		int[] solution = null;
+		KlondikeSolver solver = new KlondikeSolver(1, new SearchBudget(2_000_000, 10_000), 16);
+		for (long deal = 1; solution == null; deal++) {
+			state = KlondikeState.deal(DealNumbers.deck(GameVariant.KLONDIKE, deal));
+			SolverResult result = solver.solve(state);
+			if (result.isSolved())
+				solution = result.getMoves();
+		}
+		for (int i = 0; i < solution.length - 6; i++)
+			state.apply(solution[i]);
+
+		KlondikeHintEngine engine = new KlondikeHintEngine(1, 16);
+		Hint hint = engine.hint(state, 5_000);
+		assertThat(hint.winning(), equalTo(true));
+		for (int moves = 0; moves < 6 && !state.isWon(); moves++)
+			state.apply(engine.hint(state, 5_000).move());
+		assertThat(state.isWon(), equalTo(true));
+	}
+
+	@Test
+	void testCancel() throws Exception {
+		KlondikeState state = KlondikeState.deal(DealNumbers.deck(GameVariant.KLONDIKE, 3));
+		KlondikeHintEngine engine = new KlondikeHintEngine(1, 16);
+		CompletableFuture<Hint> hint = CompletableFuture.supplyAsync(() -> engine.hint(state, 60_000));
+		long start = System.nanoTime();
+		while (!hint.isDone() && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10)) {
+			Thread.sleep(20);
+			engine.cancel();
+		}
+
+		Hint result = hint.get(1, TimeUnit.SECONDS);
+		assertThat(legalMoves(state), hasItem(result.move()));
+	}
+
+	private static List<Integer> legalMoves(KlondikeState state) {
+		int[] moves = new int[KlondikeMoveGenerator.MAX_MOVES];
+		int count = new KlondikeMoveGenerator(1).generateMoves(state, moves);
+		return Arrays.stream(moves, 0, count).boxed().toList();
+	}
+}
@@ -0,0 +1,94 @@
+package com.github.strangercoug.freesolitaire.solvers;
+
+import com.github.strangercoug.freesolitaire.enums.SolverStatus;
+import com.github.strangercoug.freesolitaire.games.Klondike;
+import com.github.strangercoug.freesolitaire.games.KlondikeState;
+import com.github.strangercoug.freesolitaire.objs.Card;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class KlondikeSolverTest {
+	private static final SearchBudget budget = new SearchBudget(2_000_000, 10_000);
+
+	@Test
+	void testSolutionReplays() {
+		for (int drawCount : new int[]{1, 3}) {
+			Deck deck = new Deck();
+			deck.populateDeck();
+			KlondikeState state = KlondikeState.deal(deck);
+			SolverResult result = new KlondikeSolver(drawCount, budget, 16).solve(state);
+
+			assertThat(result.getStatus(), not(equalTo(SolverStatus.UNKNOWN)));
+			if (result.isSolved()) {
+				Klondike game = new Klondike();
+				for (int move : result.getMoves()) {
+					state.apply(move);
+					state.applyTo(game);
+					assertThat(state.hash(), equalTo(KlondikeState.of(game).hash()));
+				}
+				assertThat(state.isWon(), equalTo(true));
+			}
+		}
+	}
+
+	@Test
+	void testShuffledDealsFinish() {
+		KlondikeSolver solver = new KlondikeSolver(1, budget, 16);
+		for (int i = 0; i < 10; i++) {
+			Deck deck = new Deck();
+			deck.populateDeck();
+			deck.shuffleDeck();
+			KlondikeState state = KlondikeState.deal(deck);
+			SolverResult result = solver.solve(state.copy());
+			if (result.isSolved()) {
+				for (int move : result.getMoves())
+					state.apply(move);
+				assertThat(state.isWon(), equalTo(true));
+			}
+		}
+	}
+
+	@Test
+	void testUnwinnable() {
+		// Black cards on every tableau pile and in every third stock slot leave
+		// nothing to play in draw-three, no matter how often the stock is cycled.
+		boolean[] blocked = new boolean[Card.DECK_SIZE];
+		for (int col = 0, dealt = 0; col < KlondikeState.COLUMNS; dealt += 7 - col, col++)
+			blocked[dealt] = true;
+		for (int i = 30; i < Card.DECK_SIZE; i += 3)
+			blocked[i] = true;
+
+		int[] order = new int[Card.DECK_SIZE];
+		boolean[] used = new boolean[Card.DECK_SIZE];
+		int card = 0;
+		for (int i = 0; i < order.length; i++) {
+			if (blocked[i]) {
+				while (Card.isRed(card) || Card.rankOf(card) == 0)
+					card++;
+				order[i] = card;
+				used[card++] = true;
+			}
+		}
+		card = 0;
+		for (int i = 0; i < order.length; i++) {
+			if (!blocked[i]) {
+				while (used[card])
+					card++;
+				order[i] = card;
+				used[card] = true;
+			}
+		}
+
+		Deck deck = new Deck() {{
+			for (int i = 0; i < order.length; i++)
+				cards[i] = (byte) order[i];
+			size = order.length;
+		}};
+		SolverResult result = new KlondikeSolver(3, budget, 16).solve(deck);
+		assertThat(result.getStatus(), equalTo(SolverStatus.UNWINNABLE));
+	}
+}
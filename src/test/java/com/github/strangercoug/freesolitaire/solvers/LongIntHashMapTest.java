@@ -0,0 +1,35 @@
+package com.github.strangercoug.freesolitaire.solvers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class LongIntHashMapTest {
+	@Test
+	void testPutGetAndGrow() {
+		LongIntHashMap map = new LongIntHashMap(4);
+		for (long key = 0; key < 10_000; key++)
+			map.put(key << 20, (int) key);
+		map.put(0, 42);
+
+		assertThat(map.size(), equalTo(10_000));
+		assertThat(map.get(0, -1), equalTo(42));
+		assertThat(map.get(9_999L << 20, -1), equalTo(9_999));
+		assertThat(map.get(1, -1), equalTo(-1));
+
+		map.clear();
+		assertThat(map.size(), equalTo(0));
+		assertThat(map.get(0, -1), equalTo(-1));
+	}
+
+	@Test
+	void testNegativeKeysAreNeverFound() {
+		LongIntHashMap map = new LongIntHashMap(4);
+		map.put(0, 42);
+
+		// -1 marks empty slots, so it must not be mistaken for a stored key
+		assertThat(map.get(-1, 7), equalTo(7));
+		assertThat(map.get(Long.MIN_VALUE, 7), equalTo(7));
+	}
+}
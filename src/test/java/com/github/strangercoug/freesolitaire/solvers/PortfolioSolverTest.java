@@ -0,0 +1,110 @@
+package com.github.strangercoug.freesolitaire.solvers;
+
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.enums.SolverStatus;
+import com.github.strangercoug.freesolitaire.games.FortyThievesState;
+import com.github.strangercoug.freesolitaire.games.YukonState;
+import com.github.strangercoug.freesolitaire.objs.Deck;
+import com.github.strangercoug.freesolitaire.rng.DealNumbers;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PortfolioSolverTest {
+	private static final SearchBudget BUDGET = new SearchBudget(200_000, 60_000);
+
+	@Test
+	void testFirstSolutionCancelsTheRest() {
+		AtomicBoolean cancelled = new AtomicBoolean();
+		CountDownLatch started = new CountDownLatch(1);
+		DealSolver stubborn = deck -> {
+			started.countDown();
+			long start = System.nanoTime();
+			while (!SearchBudget.UNLIMITED.isOverTime(start))
+				Thread.onSpinWait();
+			cancelled.set(true);
+			return SolverResult.unknown(0);
+		};
+		// Finishing only once the other member is running makes sure there is
+		// a running search to cancel, not one that never starts
+		DealSolver quick = deck -> {
+			try {
+				started.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return SolverResult.solved(new int[] {7}, 1);
+		};
+
+		SolverResult result = new PortfolioSolver(List.of(stubborn, quick))
+				.solve(DealNumbers.deck(GameVariant.YUKON, 1));
+
+		assertThat(result.getMoves()[0], equalTo(7));
+		assertThat(cancelled.get(), equalTo(true));
+	}
+
+	@Test
+	void testCancelsARealSearch() {
+		// IDA* on Forty Thieves with an unlimited budget runs until cancelled
+		DealSolver endless = new StateSolver(FortyThievesState::deal, new IdaStarSearch(),
+				SearchBudget.UNLIMITED);
+		DealSolver unwinnable = deck -> SolverResult.unwinnable(1);
+
+		SolverResult result = new PortfolioSolver(List.of(endless, unwinnable))
+				.solve(DealNumbers.deck(GameVariant.FORTY_THIEVES, 2));
+
+		assertThat(result.getStatus(), equalTo(SolverStatus.UNWINNABLE));
+	}
+
+	@Test
+	void testAllGivingUpIsUnknown() {
+		DealSolver giveUp = deck -> SolverResult.unknown(5);
+
+		SolverResult result = new PortfolioSolver(List.of(giveUp, giveUp, giveUp))
+				.solve(DealNumbers.deck(GameVariant.YUKON, 1));
+
+		assertThat(result.getStatus(), equalTo(SolverStatus.UNKNOWN));
+		assertThat(result.getNodes(), equalTo(15L));
+	}
+
+	@Test
+	void testSolvesAndLeavesTheDeckUndealt() {
+		SharedTranspositionTable table = new SharedTranspositionTable(16);
+		PortfolioSolver portfolio = new PortfolioSolver(List.of(
+				new StateSolver(YukonState::deal, new BestFirstSearch(1, table), BUDGET),
+				new StateSolver(YukonState::deal, new BestFirstSearch(3, table), BUDGET),
+				new StateSolver(YukonState::deal, new BeamSearch(1024, table), BUDGET)));
+		Deck deck = DealNumbers.deck(GameVariant.YUKON, 5);
+
+		SolverResult result = portfolio.solve(deck);
+
+		assertThat(result.isSolved(), equalTo(true));
+		assertThat(deck.size(), equalTo(52));
+		YukonState state = YukonState.deal(deck);
+		for (int move : result.getMoves())
+			state.apply(move);
+		assertThat(state.isWon(), equalTo(true));
+	}
+
+	@Test
+	void testMemberFailuresPropagate() {
+		DealSolver broken = deck -> {
+			throw new IllegalStateException("broken");
+		};
+		PortfolioSolver portfolio = new PortfolioSolver(List.of(broken));
+
+		assertThrows(IllegalStateException.class,
+				() -> portfolio.solve(DealNumbers.deck(GameVariant.YUKON, 1)));
+	}
+
+	@Test
+	void testRejectsAnEmptyPortfolio() {
+		assertThrows(IllegalArgumentException.class, () -> new PortfolioSolver(List.of()));
+	}
+}
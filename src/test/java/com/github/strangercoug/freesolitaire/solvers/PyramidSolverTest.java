@@ -0,0 +1,45 @@
+package com.github.strangercoug.freesolitaire.solvers;
+
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.enums.SolverStatus;
+import com.github.strangercoug.freesolitaire.games.PyramidState;
+import com.github.strangercoug.freesolitaire.rng.DealNumbers;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class PyramidSolverTest {
+	private static PyramidState deal(long number, int passes) {
+		return PyramidState.deal(DealNumbers.deck(GameVariant.PYRAMID, number), passes);
+	}
+
+	@Test
+	void testSolutionIsShortestAndReplays() {
+		PyramidState state = deal(3, 1);
+		SolverResult result = new PyramidSolver(1, new SearchBudget(5_000_000, 60_000))
+				.solve(state.copy());
+
+		assertThat(result.isSolved(), equalTo(true));
+		assertThat(result.getMoves().length, equalTo(32));
+		for (int move : result.getMoves())
+			state.apply(move);
+		assertThat(state.isWon(), equalTo(true));
+	}
+
+	@Test
+	void testDeadDealIsUnwinnable() {
+		SolverResult result = new PyramidSolver(3, new SearchBudget(1_000, 60_000))
+				.solve(deal(8, 3));
+
+		assertThat(result.getStatus(), equalTo(SolverStatus.UNWINNABLE));
+	}
+
+	@Test
+	void testBudgetStopsTheSearch() {
+		SolverResult result = new PyramidSolver(1, new SearchBudget(1_000, 60_000))
+				.solve(deal(1, 1));
+
+		assertThat(result.getStatus(), equalTo(SolverStatus.UNKNOWN));
+	}
+}
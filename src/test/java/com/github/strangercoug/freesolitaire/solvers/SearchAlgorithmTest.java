@@ -0,0 +1,134 @@
+package com.github.strangercoug.freesolitaire.solvers;
+
+import com.github.strangercoug.freesolitaire.enums.SolverStatus;
+import com.github.strangercoug.freesolitaire.objs.Move;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class SearchAlgorithmTest {
+	/** Count down to exactly 0 by taking away 2 or 3 at a time. */
+	private static final class Countdown implements SearchState {
+		int value;
+
+		Countdown(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public int maxMoves() {
+			return 2;
+		}
+
+		@Override
+		public int generateMoves(int[] moves) {
+			int count = 0;
+			for (int step = 3; step >= 2; step--) {
+				if (value >= step)
+					moves[count++] = Move.of(0, step, 0, 0);
+			}
+			return count;
+		}
+
+		@Override
+		public int make(int move) {
+			value -= Move.source(move);
+			return move;
+		}
+
+		@Override
+		public void unmake(int token) {
+			value += Move.source(token);
+		}
+
+		@Override
+		public long hash() {
+			return value;
+		}
+
+		@Override
+		public int estimate() {
+			return (value + 2) / 3;
+		}
+
+		@Override
+		public boolean isWon() {
+			return value == 0;
+		}
+
+		@Override
+		public Countdown copy() {
+			return new Countdown(value);
+		}
+	}
+
+	private static final SearchBudget BUDGET = new SearchBudget(100_000, 60_000);
+
+	private static SearchAlgorithm[] algorithms() {
+		return new SearchAlgorithm[] {new DepthFirstSearch(10, 64), new IdaStarSearch(64),
+				new BestFirstSearch(1, 10), new BeamSearch(4, 10)};
+	}
+
+	@Test
+	void testEveryAlgorithmFindsAWin() {
+		for (SearchAlgorithm algorithm : algorithms()) {
+			Countdown start = new Countdown(29);
+			SolverResult result = algorithm.search(start, BUDGET);
+
+			assertThat(result.isSolved(), equalTo(true));
+			Countdown state = start.copy();
+			for (int move : result.getMoves())
+				state.apply(move);
+			assertThat(state.isWon(), equalTo(true));
+			assertThat(start.value, equalTo(29));
+		}
+	}
+
+	@Test
+	void testIdaStarFindsTheShortestWin() {
+		assertThat(new IdaStarSearch(64).search(new Countdown(29), BUDGET).getMoves().length,
+				equalTo(10));
+	}
+
+	@Test
+	void testExhaustiveSearchesProveLosses() {
+		for (SearchAlgorithm algorithm : algorithms()) {
+			SolverResult result = algorithm.search(new Countdown(1), BUDGET);
+
+			assertThat(result.getStatus(), equalTo(SolverStatus.UNWINNABLE));
+		}
+	}
+
+	@Test
+	void testSearchesSharingATableDoNotPruneEachOther() {
+		SharedTranspositionTable table = new SharedTranspositionTable(1);
+		SearchAlgorithm[] shared = {new DepthFirstSearch(table, 64),
+				new BestFirstSearch(1, table), new BeamSearch(4, table)};
+		for (SearchAlgorithm algorithm : shared) {
+			assertThat(algorithm.search(new Countdown(1), BUDGET).getStatus(),
+					equalTo(SolverStatus.UNWINNABLE));
+			// Searching the same position again is not cut short by the
+			// positions the first search left in the table
+			assertThat(algorithm.search(new Countdown(29), BUDGET).isSolved(), equalTo(true));
+			assertThat(algorithm.search(new Countdown(29), BUDGET).isSolved(), equalTo(true));
+		}
+	}
+
+	@Test
+	void testNarrowBeamDoesNotProveLosses() {
+		// Taking 3 from 4 leaves 1, a dead end that looks as good as 2, so a
+		// beam of one keeps it and drops the winning line
+		SolverResult result = new BeamSearch(1, 10).search(new Countdown(4), BUDGET);
+
+		assertThat(result.getStatus(), equalTo(SolverStatus.UNKNOWN));
+	}
+
+	@Test
+	void testBudgetStopsTheSearch() {
+		SearchBudget tiny = new SearchBudget(3, 60_000);
+		for (SearchAlgorithm algorithm : algorithms())
+			assertThat(algorithm.search(new Countdown(1000), tiny).getStatus(),
+					equalTo(SolverStatus.UNKNOWN));
+	}
+}
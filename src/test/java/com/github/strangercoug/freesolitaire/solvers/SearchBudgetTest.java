@@ -0,0 +1,28 @@
+package com.github.strangercoug.freesolitaire.solvers;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import nl.jqno.equalsverifier.Warning;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchBudgetTest {
+	@Test
+	void testMaxNanos() {
+		assertThat(new SearchBudget(1, 50).maxNanos(), equalTo(50_000_000L));
+		assertThat(SearchBudget.UNLIMITED.maxNanos(), equalTo(Long.MAX_VALUE));
+	}
+
+	@Test
+	void testNonPositiveBudget() {
+		assertThrows(IllegalArgumentException.class, () -> new SearchBudget(0, 1));
+		assertThrows(IllegalArgumentException.class, () -> new SearchBudget(1, -1));
+	}
+
+	@Test
+	void testEqualsContract() {
+		EqualsVerifier.forClass(SearchBudget.class).suppress(Warning.ZERO_FIELDS).verify();
+	}
+}
@@ -0,0 +1,56 @@
+package com.github.strangercoug.freesolitaire.solvers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SharedTranspositionTableTest {
+	@Test
+	void testVisit() {
+		SharedTranspositionTable table = new SharedTranspositionTable(1);
+		assertThat(table.capacity(), equalTo(1 << 17));
+		assertThat(table.visit(42L), equalTo(false));
+		assertThat(table.visit(42L), equalTo(true));
+		assertThat(table.visit(0L), equalTo(false));
+		assertThat(table.visit(0L), equalTo(true));
+		table.clear();
+		assertThat(table.visit(42L), equalTo(false));
+	}
+
+	@Test
+	void testCapacityRoundsDown() {
+		assertThat(new SharedTranspositionTable(3).capacity(), equalTo(1 << 18));
+	}
+
+	@Test
+	void testConcurrentVisitsAddEachHashOnce() throws InterruptedException {
+		SharedTranspositionTable table = new SharedTranspositionTable(4);
+		long[] hashes = new SplittableRandom(1).longs(10_000).toArray();
+		AtomicInteger added = new AtomicInteger();
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				for (long hash : hashes) {
+					if (!table.visit(hash))
+						added.incrementAndGet();
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+
+		assertThat(added.get(), equalTo(hashes.length));
+	}
+
+	@Test
+	void testRejectsBadSizes() {
+		assertThrows(IllegalArgumentException.class, () -> new SharedTranspositionTable(0));
+		assertThrows(IllegalArgumentException.class, () -> new SharedTranspositionTable(8193));
+	}
+}
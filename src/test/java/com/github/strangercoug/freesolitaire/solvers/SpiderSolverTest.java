@@ -0,0 +1,40 @@
+package com.github.strangercoug.freesolitaire.solvers;
+
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.enums.SolverStatus;
+import com.github.strangercoug.freesolitaire.games.SpiderState;
+import com.github.strangercoug.freesolitaire.rng.DealNumbers;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+class SpiderSolverTest {
+	@Test
+	void testSolutionReplays() {
+		SpiderSolver solver = new SpiderSolver(1, new SearchBudget(1_000_000, 60_000), 16);
+		for (long deal : new long[] {1, 6, 8}) {
+			SpiderState state = SpiderState.deal(DealNumbers.deck(GameVariant.SPIDER, deal), 1);
+			SolverResult result = solver.solve(state);
+
+			assertThat(result.isSolved(), equalTo(true));
+			for (int move : result.getMoves())
+				state.apply(move);
+			assertThat(state.isWon(), equalTo(true));
+		}
+	}
+
+	@Test
+	void testMemoryIsCapped() {
+		SpiderSolver solver = new SpiderSolver(4, new SearchBudget(300_000, 60_000), 1);
+		SolverResult result = solver.solve(DealNumbers.deck(GameVariant.SPIDER, 1));
+		BoundedTranspositionTable table = solver.getTable();
+
+		assertThat(table.capacity(), equalTo(1 << 17));
+		assertThat(table.size(), lessThanOrEqualTo(table.capacity()));
+		if (result.getStatus() == SolverStatus.UNKNOWN)
+			assertThat(table.evictions(), greaterThan(0L));
+	}
+}
@@ -0,0 +1,52 @@
+package com.github.strangercoug.freesolitaire.solvers;
+
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import com.github.strangercoug.freesolitaire.enums.SolverStatus;
+import com.github.strangercoug.freesolitaire.games.WasteLayoutState;
+import com.github.strangercoug.freesolitaire.games.WasteLayoutState.Layout;
+import com.github.strangercoug.freesolitaire.rng.DealNumbers;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class WasteLayoutSolverTest {
+	private static final SearchBudget BUDGET = new SearchBudget(5_000_000, 60_000);
+
+	private static void assertReplays(GameVariant variant, Layout layout, long deal) {
+		WasteLayoutState state = WasteLayoutState.deal(DealNumbers.deck(variant, deal), layout);
+		SolverResult result = new WasteLayoutSolver(layout, BUDGET).solve(state);
+
+		assertThat(result.isSolved(), equalTo(true));
+		for (int move : result.getMoves())
+			state.apply(move);
+		assertThat(state.isWon(), equalTo(true));
+	}
+
+	@Test
+	void testSolutionsReplay() {
+		assertReplays(GameVariant.GOLF, Layout.GOLF, 8);
+		assertReplays(GameVariant.GOLF, Layout.GOLF, 9);
+		assertReplays(GameVariant.TRIPEAKS, Layout.TRI_PEAKS, 1);
+		assertReplays(GameVariant.TRIPEAKS, Layout.TRI_PEAKS, 4);
+	}
+
+	@Test
+	void testUnwinnableDeals() {
+		DealSolver golf = GameVariant.GOLF.newSolver(BUDGET);
+		DealSolver triPeaks = GameVariant.TRIPEAKS.newSolver(BUDGET);
+
+		assertThat(golf.solve(DealNumbers.deck(GameVariant.GOLF, 7)).getStatus(),
+				equalTo(SolverStatus.UNWINNABLE));
+		assertThat(triPeaks.solve(DealNumbers.deck(GameVariant.TRIPEAKS, 12)).getStatus(),
+				equalTo(SolverStatus.UNWINNABLE));
+	}
+
+	@Test
+	void testBudgetStopsTheSearch() {
+		DealSolver solver = GameVariant.GOLF.newSolver(new SearchBudget(1_000, 60_000));
+
+		assertThat(solver.solve(DealNumbers.deck(GameVariant.GOLF, 1)).getStatus(),
+				equalTo(SolverStatus.UNKNOWN));
+	}
+}
@@ -0,0 +1,226 @@
+package com.github.strangercoug.freesolitaire.stats;
+
+import com.github.strangercoug.freesolitaire.Player;
+import com.github.strangercoug.freesolitaire.enums.GameVariant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StatsStoreTest {
+	private static final Player ALICE = new Player("Alice");
+	private static final Player BOB = new Player("Bob");
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void testStatsSurviveReopening() throws IOException {
+		Path file = dir.resolve("stats.log");
+		try (StatsStore store = new StatsStore(file)) {
+			store.record(ALICE, GameVariant.KLONDIKE, true, 90_000);
+			store.record(ALICE, GameVariant.KLONDIKE, false, 30_000);
+			store.record(ALICE, GameVariant.FREECELL, true, 120_000);
+			assertThat(store.record(BOB, GameVariant.KLONDIKE, true, 60_000),
+					equalTo(new VariantStats(1, 1, 1, 1, 60_000)));
+		}
+
+		try (StatsStore store = new StatsStore(file)) {
+			assertThat(store.players(), equalTo(Set.of("Alice", "Bob")));
+			assertThat(store.stats(ALICE), equalTo(Map.of(
+					GameVariant.KLONDIKE, new VariantStats(2, 1, 0, 1, 90_000),
+					GameVariant.FREECELL, new VariantStats(1, 1, 1, 1, 120_000))));
+			assertThat(store.stats(BOB, GameVariant.FREECELL), equalTo(VariantStats.NONE));
+			assertThat(store.stats(new Player("Carol")), equalTo(Map.of()));
+		}
+	}
+
+	@Test
+	void testCompaction() throws IOException {
+		Path file = dir.resolve("stats.log");
+		VariantStats expected = VariantStats.NONE;
+		try (StatsStore store = new StatsStore(file)) {
+			for (int i = 0; i < 5000; i++) {
+				boolean won = i % 3 != 0;
+				expected = expected.plus(won, 1000 + i);
+				store.record(i % 2 == 0 ? ALICE : BOB, GameVariant.KLONDIKE, won, 1000 + i);
+				store.record(ALICE, GameVariant.FREECELL, won, 1000 + i);
+			}
+			assertThat(store.getRecords(), lessThan(1100L));
+			store.compact();
+			assertThat(store.getRecords(), equalTo(3L));
+			store.record(ALICE, GameVariant.FREECELL, true, 500);
+		}
+
+		try (StatsStore store = new StatsStore(file)) {
+			assertThat(store.getRecords(), equalTo(4L));
+			assertThat(store.stats(ALICE, GameVariant.FREECELL), equalTo(expected.plus(true, 500)));
+			assertThat(store.stats(BOB, GameVariant.KLONDIKE).played(), equalTo(2500));
+		}
+	}
+
+	@Test
+	void testDamagedTailIsDropped() throws IOException {
+		Path file = dir.resolve("stats.log");
+		try (StatsStore store = new StatsStore(file)) {
+			store.record(ALICE, GameVariant.KLONDIKE, true, 1000);
+			store.record(ALICE, GameVariant.KLONDIKE, true, 2000);
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 3);
+		}
+		long damagedSize = Files.size(file);
+
+		try (StatsStore store = new StatsStore(file)) {
+			assertThat(store.stats(ALICE, GameVariant.KLONDIKE),
+					equalTo(new VariantStats(1, 1, 1, 1, 1000)));
+			assertThat(Files.size(file), lessThan(damagedSize));
+			store.record(ALICE, GameVariant.KLONDIKE, false, 3000);
+		}
+
+		try (StatsStore store = new StatsStore(file)) {
+			assertThat(store.stats(ALICE, GameVariant.KLONDIKE),
+					equalTo(new VariantStats(2, 1, 0, 1, 1000)));
+		}
+	}
+
+	@Test
+	void testTornAppendIsCutBack() throws IOException {
+		Path file = dir.resolve("stats.log");
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[5]));
+
+			FileChannel failing = new ShortWriteChannel(channel, 4);
+			assertThrows(IOException.class, () -> StatsStore.append(failing, ByteBuffer.allocate(10)));
+			assertThat(channel.size(), equalTo(5L));
+			assertThat(channel.position(), equalTo(5L));
+
+			StatsStore.append(channel, ByteBuffer.allocate(10));
+			assertThat(channel.size(), equalTo(15L));
+		}
+	}
+
+	/**
+	 * A channel that writes the first {@code limit} bytes it is given and then
+	 * fails, as a full disk would.
+	 */
+	private static final class ShortWriteChannel extends FileChannel {
+		private final FileChannel channel;
+		private int limit;
+
+		ShortWriteChannel(FileChannel channel, int limit) {
+			this.channel = channel;
+			this.limit = limit;
+		}
+
+		@Override
+		public int write(ByteBuffer src) throws IOException {
+			if (limit == 0)
+				throw new IOException("No space left on device");
+			ByteBuffer part = src.slice(src.position(), Math.min(limit, src.remaining()));
+			int written = channel.write(part);
+			src.position(src.position() + written);
+			limit -= written;
+			return written;
+		}
+
+		@Override
+		public int read(ByteBuffer dst) throws IOException {
+			return channel.read(dst);
+		}
+
+		@Override
+		public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+			return channel.read(dsts, offset, length);
+		}
+
+		@Override
+		public long write(ByteBuffer[] srcs, int offset, int length) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public long position() throws IOException {
+			return channel.position();
+		}
+
+		@Override
+		public FileChannel position(long newPosition) throws IOException {
+			channel.position(newPosition);
+			return this;
+		}
+
+		@Override
+		public long size() throws IOException {
+			return channel.size();
+		}
+
+		@Override
+		public FileChannel truncate(long size) throws IOException {
+			channel.truncate(size);
+			return this;
+		}
+
+		@Override
+		public void force(boolean metaData) throws IOException {
+			channel.force(metaData);
+		}
+
+		@Override
+		public long transferTo(long position, long count, WritableByteChannel target) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public long transferFrom(ReadableByteChannel src, long position, long count) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public int read(ByteBuffer dst, long position) throws IOException {
+			return channel.read(dst, position);
+		}
+
+		@Override
+		public int write(ByteBuffer src, long position) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public MappedByteBuffer map(MapMode mode, long position, long size) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public FileLock lock(long position, long size, boolean shared) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public FileLock tryLock(long position, long size, boolean shared) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		protected void implCloseChannel() {
+			// the wrapped channel is closed by its owner
+		}
+	}
+}
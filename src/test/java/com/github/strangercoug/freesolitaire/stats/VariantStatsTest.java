@@ -0,0 +1,31 @@
+package com.github.strangercoug.freesolitaire.stats;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import nl.jqno.equalsverifier.Warning;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VariantStatsTest {
+	@Test
+	void testStreaksAndBestTime() {
+		VariantStats stats = VariantStats.NONE.plus(true, 5000).plus(true, 3000)
+				.plus(false, 1000).plus(true, 4000);
+
+		assertThat(stats, equalTo(new VariantStats(4, 3, 1, 2, 3000)));
+		assertThat(stats.winRate(), equalTo(0.75));
+	}
+
+	@Test
+	void testNegativeStats() {
+		assertThrows(IllegalArgumentException.class, () -> new VariantStats(-1, 0, 0, 0, 0));
+		assertThrows(IllegalArgumentException.class, () -> new VariantStats(1, 1, 1, 1, -1));
+	}
+
+	@Test
+	void equalsContract() {
+		EqualsVerifier.forClass(VariantStats.class).suppress(Warning.ZERO_FIELDS).verify();
+	}
+}